@@ -0,0 +1,20 @@
+package org.jcobol.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark the constructor used to create an immutable COBOL record.
+ * The constructor takes one parameter per {@link CobolField} or {@link CobolNestedObject}
+ * field, in field declaration order. Records are decoded into the parameter values
+ * first and the constructor is called once, so the fields can be final.
+ * <p>
+ * Java records do not need this annotation: on Java 17 and later they are
+ * created through their canonical constructor.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.CONSTRUCTOR)
+public @interface CobolConstructor {
+}
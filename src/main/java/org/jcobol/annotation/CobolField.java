@@ -1,5 +1,6 @@
 package org.jcobol.annotation;
 
+import org.jcobol.enums.CobolEncoding;
 import org.jcobol.enums.CobolFieldType;
 
 import java.lang.annotation.ElementType;
@@ -62,6 +63,83 @@ public @interface CobolField {
      */
     boolean comp() default false;
 
+    /**
+     * Indicates if the field is a COMP-5 field (native binary).
+     * Stored like COMP, but the value may use the full range of the
+     * storage size rather than the declared digits.
+     *
+     * @return true if the field is a COMP-5 field, false otherwise
+     *       (default false)
+     */
+    boolean comp5() default false;
+
+    /**
+     * Indicates if the field is a COMP-1 field
+     * (4-byte IBM hexadecimal floating point). The length is ignored.
+     *
+     * @return true if the field is a COMP-1 field, false otherwise
+     *       (default false)
+     */
+    boolean comp1() default false;
+
+    /**
+     * Indicates if the field is a COMP-2 field
+     * (8-byte IBM hexadecimal floating point). The length is ignored.
+     *
+     * @return true if the field is a COMP-2 field, false otherwise
+     *       (default false)
+     */
+    boolean comp2() default false;
+
+    /**
+     * Indicates if a binary or floating point field is stored little-endian,
+     * as produced by COBOL compilers on x86. Mainframe data is big-endian.
+     *
+     * @return true for little-endian storage, false for big-endian
+     *       (default false)
+     */
+    boolean littleEndian() default false;
+
+    /**
+     * The character encoding of this field's display data.
+     * INHERIT uses the encoding of the enclosing {@link CobolRecord}.
+     *
+     * @return The field encoding
+     *       (default INHERIT)
+     */
+    CobolEncoding encoding() default CobolEncoding.INHERIT;
+
+    /**
+     * Indicates if trailing spaces of an ALPHANUMERIC field are removed when decoding.
+     * The bytes are scanned from the end, so no padded String is built first.
+     *
+     * @return true to trim trailing spaces, false otherwise
+     *       (default false)
+     */
+    boolean trimTrailing() default false;
+
+    /**
+     * Indicates if an ALPHANUMERIC field is decoded lazily into a
+     * {@link org.jcobol.types.CobolString}, which only decodes its bytes when read.
+     * The Java field must be a CharSequence or CobolString.
+     * CobolString fields are always decoded lazily.
+     *
+     * @return true to decode lazily, false otherwise
+     *       (default false)
+     */
+    boolean lazy() default false;
+
+    /**
+     * The number of distinct values of an ALPHANUMERIC String field to keep in a
+     * shared intern cache. Repeated values return the same String instance without
+     * being decoded again. Useful for low-cardinality fields such as currency codes.
+     * 0 disables the cache.
+     *
+     * @return The maximum number of cached values
+     *       (default 0)
+     */
+    int internLimit() default 0;
+
     
     /**
      * Optional description of the field (for documentation purposes)
@@ -0,0 +1,19 @@
+package org.jcobol.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark the {@link CobolField} that is the primary key of a record
+ * in an indexed file. The field may be declared in a nested object.
+ * <p>
+ * Keys are compared by their encoded bytes, unsigned and left to right, as
+ * a VSAM KSDS does. Alphanumeric keys and unsigned display or binary numbers
+ * sort as expected; signed and packed numbers do not sort numerically.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CobolKey {
+}
@@ -0,0 +1,32 @@
+package org.jcobol.annotation;
+
+import org.jcobol.enums.CobolEncoding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to declare record-level settings on a COBOL-annotated class.
+ * Settings apply to all fields of the class and of nested objects,
+ * unless a nested class or a field declares its own.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CobolRecord {
+    /**
+     * The character encoding of display fields in this record
+     *
+     * @return The record encoding
+     *         (default INHERIT)
+     */
+    CobolEncoding encoding() default CobolEncoding.INHERIT;
+
+    /**
+     * Optional description of the record (for documentation purposes)
+     *
+     * @return Record description
+     */
+    String description() default "";
+}
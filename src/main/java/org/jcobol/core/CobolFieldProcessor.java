@@ -1,17 +1,25 @@
 package org.jcobol.core;
 
 import org.jcobol.annotation.CobolField;
-import org.jcobol.annotation.CobolNestedObject;
-import org.jcobol.core.utils.CobolFieldCalculator;
+import org.jcobol.core.layout.FieldLayout;
+import org.jcobol.core.layout.FieldLocation;
+import org.jcobol.core.layout.RecordLayout;
 import org.jcobol.exception.CobolParseException;
-import org.jcobol.core.utils.CobolDefaultValueProvider;
+import org.jcobol.exception.ErrorPolicy;
+import org.jcobol.exception.RecordError;
 import org.jcobol.core.utils.CobolFieldExtractor;
 import org.jcobol.core.utils.CobolFieldWriter;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.CobolEncoding;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Facade class for working with COBOL-annotated Java objects using binary data.
@@ -19,13 +27,22 @@ import java.util.List;
  */
 public class CobolFieldProcessor {
 
-    private static final CobolFieldCalculator fieldCalculator = new CobolFieldCalculator();
     private static final CobolFieldExtractor fieldExtractor = new CobolFieldExtractor();
     private static final CobolFieldWriter fieldWriter = new CobolFieldWriter();
 
+    /**
+     * Per-thread array that records written to buffers without an accessible array are
+     * encoded in. Reads never use it: those buffers are decoded in place.
+     */
+    private static final ThreadLocal<byte[]> encodingArrays = new ThreadLocal<>();
+
     /**
      * Parse a byte array record with nested COBOL objects.
      * Extracts values from the byte array and sets them in the provided object.
+     * <p>
+     * The object can be reused for the next record: every annotated field is
+     * overwritten, and existing nested objects are parsed into rather than replaced,
+     * so scanning records into one instance allocates no record objects.
      *
      * @param obj The object to populate
      * @param data The binary data to parse
@@ -39,57 +56,337 @@ public class CobolFieldProcessor {
         if (data == null) {
             throw new CobolParseException("Binary data cannot be null");
         }
-        
-        List<FieldInfo> fieldInfos = new ArrayList<>();
+        return parseFromBinary(obj, RecordBytes.of(data), startPos, CobolEncoding.INHERIT, null);
+    }
+
+    private static int parseFromBinary(Object obj, RecordBytes data, int startPos, CobolEncoding inheritedEncoding,
+            FieldErrors errors) throws IllegalAccessException, CobolParseException {
+        RecordLayout<?> layout = RecordLayout.of(obj.getClass());
+        if (layout.isImmutable()) {
+            throw new CobolParseException(obj.getClass().getName()
+                    + " is immutable and must be parsed with parseFromBinary(data, startPos, class)");
+        }
+        CobolEncoding recordEncoding = layout.resolveEncoding(inheritedEncoding);
+        List<FieldLayout> fields = layout.getFields();
         int currentPos = startPos;
-        int totalLength = 0;
-        
-        // Process all fields including nested objects
-        for (Field field : obj.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-            
-            if (field.isAnnotationPresent(CobolField.class)) {
-                // Handle simple COBOL fields
-                CobolField cobolField = field.getAnnotation(CobolField.class);
-                FieldInfo info = new FieldInfo(field, cobolField);
-                
-                int length = fieldCalculator.calculateBinaryLength(cobolField);
-                info.setStartPos(currentPos);
-                info.setEndPos(currentPos + length);
-                currentPos += length;
-                totalLength += length;
-                
-                fieldInfos.add(info);
-            } 
-            else if (field.isAnnotationPresent(CobolNestedObject.class)) {
-                // Handle nested objects
-                try {
-                    // Create instance of nested object if not already created
-                    Object nestedObj = field.get(obj);
-                    if (nestedObj == null) {
-                        nestedObj = field.getType().getDeclaredConstructor().newInstance();
-                        field.set(obj, nestedObj);
-                    }
-                    
-                    // Parse the nested object fields recursively
-                    int nestedLength = parseFromBinary(nestedObj, data, currentPos);
-                    currentPos += nestedLength;
-                    totalLength += nestedLength;
-                    
-                } catch (InstantiationException | NoSuchMethodException | 
-                         InvocationTargetException e) {
-                    throw new CobolParseException("Failed to instantiate nested object", e);
+
+        for (int i = 0; i < fields.size(); i++) {
+            FieldLayout field = fields.get(i);
+            if (field.isNested() && !field.getNestedLayout().isImmutable()) {
+                // Parse into the existing nested object, creating it if needed
+                Object nestedObj = field.get(obj);
+                if (nestedObj == null) {
+                    nestedObj = newNestedInstance(field);
+                    field.set(obj, nestedObj);
                 }
+                currentPos += parseFromBinary(nestedObj, data, currentPos, recordEncoding, errors);
+            } else {
+                field.set(obj, decodeField(field, data, currentPos, recordEncoding, errors));
+                currentPos += field.getLength();
             }
-            // If no annotation, skip this field
         }
-        
-        // Parse fields with the gathered position information
-        parseFieldsFromBinary(obj, data, fieldInfos);
-        
-        return totalLength;
+
+        return currentPos - startPos;
     }
-    
+
+    /**
+     * Parse one record into a new instance of a class.
+     * Mutable classes are created with their no-argument constructor and populated
+     * field by field. Immutable classes, with a {@link org.jcobol.annotation.CobolConstructor}
+     * or Java records on Java 17 and later, have all their values decoded first,
+     * nested objects included, and are created with one constructor call.
+     *
+     * @param <T> The record type
+     * @param data The binary data to parse
+     * @param startPos The starting position in the data
+     * @param clazz The record class
+     * @return The new record
+     * @throws CobolParseException If the record cannot be parsed, or the constructor rejects its values
+     * @throws ReflectiveOperationException If an instance of the class cannot be created or accessed
+     */
+    public static <T> T parseFromBinary(byte[] data, int startPos, Class<T> clazz)
+            throws CobolParseException, ReflectiveOperationException {
+        if (data == null) {
+            throw new CobolParseException("Binary data cannot be null");
+        }
+        return clazz.cast(decodeRecord(RecordLayout.of(clazz), RecordBytes.of(data), startPos, CobolEncoding.INHERIT,
+                null));
+    }
+
+    private static Object decodeRecord(RecordLayout<?> layout, RecordBytes data, int startPos,
+            CobolEncoding inheritedEncoding, FieldErrors errors) throws CobolParseException, ReflectiveOperationException {
+        if (!layout.isImmutable()) {
+            Object obj = layout.newInstance();
+            parseFromBinary(obj, data, startPos, inheritedEncoding, errors);
+            return obj;
+        }
+
+        // Decode all values, building nested objects bottom-up, then construct once
+        CobolEncoding recordEncoding = layout.resolveEncoding(inheritedEncoding);
+        List<FieldLayout> fields = layout.getFields();
+        Object[] values = new Object[fields.size()];
+        int currentPos = startPos;
+        for (int i = 0; i < values.length; i++) {
+            FieldLayout field = fields.get(i);
+            if (field.isNested() && !field.getNestedLayout().isImmutable()) {
+                Object nestedObj = newNestedInstance(field);
+                parseFromBinary(nestedObj, data, currentPos, recordEncoding, errors);
+                values[i] = nestedObj;
+            } else {
+                values[i] = decodeField(field, data, currentPos, recordEncoding, errors);
+            }
+            currentPos += field.getLength();
+        }
+        try {
+            return layout.newInstance(values);
+        } catch (ReflectiveOperationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new CobolParseException("Failed to construct " + layout.getRecordClass().getName()
+                    + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Decode the value of one field, or a new instance for an immutable nested object.
+     * Without an error context a bad field throws; with one it is reported to the
+     * context's policy, which may replace it with the field's default value.
+     */
+    private static Object decodeField(FieldLayout field, RecordBytes data, int startPos, CobolEncoding recordEncoding,
+            FieldErrors errors) throws IllegalAccessException, CobolParseException {
+        if (field.isNested()) {
+            try {
+                return decodeRecord(field.getNestedLayout(), data, startPos, recordEncoding, errors);
+            } catch (IllegalAccessException e) {
+                throw e;
+            } catch (ReflectiveOperationException e) {
+                throw new CobolParseException("Failed to instantiate nested object", e);
+            }
+        }
+
+        int endPos = startPos + field.getLength();
+        try {
+            if (startPos < 0 || endPos > data.length()) {
+                throw new CobolParseException(
+                    "Invalid position range for field " + field.getName() +
+                    ": [" + startPos + "," + endPos + "] with data length " + data.length());
+            }
+
+            // Extract and convert field value based on COBOL type
+            CobolField cobolField = field.getCobolField();
+            return fieldExtractor.extractBinaryFieldValue(data, startPos, endPos, field.getField(),
+                    cobolField, field.getCodePage(recordEncoding));
+        } catch (CobolParseException e) {
+            if (errors == null) {
+                throw e;
+            }
+            return errors.fieldFailed(field, startPos, e);
+        }
+    }
+
+    /**
+     * Error state of a multi-record parse under an {@link ErrorPolicy}. The one
+     * {@link RecordError} is reused for every error the parse reports.
+     */
+    private static final class FieldErrors {
+        private final ErrorPolicy policy;
+        private final RecordError error = new RecordError();
+        private long recordIndex;
+        private boolean reported;
+
+        FieldErrors(ErrorPolicy policy) {
+            this.policy = policy;
+        }
+
+        void startRecord(long recordIndex) {
+            this.recordIndex = recordIndex;
+            this.reported = false;
+        }
+
+        /**
+         * Report a bad field, returning its default value if the policy keeps the record.
+         */
+        Object fieldFailed(FieldLayout field, int offset, CobolParseException e) throws CobolParseException {
+            boolean keep = policy.getAction() == ErrorPolicy.Action.DEFAULT;
+            reported = !keep;
+            policy.handle(error.set(recordIndex, field.getName(), offset, e));
+            if (!keep) {
+                throw e;
+            }
+            return field.getDefaultValue();
+        }
+
+        /**
+         * Report a record that failed as a whole, unless one of its fields already was.
+         */
+        void recordFailed(int offset, CobolParseException e) throws CobolParseException {
+            if (!reported) {
+                policy.handle(error.set(recordIndex, null, offset, e));
+            } else if (policy.getAction() == ErrorPolicy.Action.FAIL) {
+                throw e;
+            }
+        }
+    }
+
+    private static Object newNestedInstance(FieldLayout field) throws CobolParseException {
+        try {
+            return field.getNestedLayout().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new CobolParseException("Failed to instantiate nested object", e);
+        }
+    }
+
+    /**
+     * Parse a record from a buffer, heap or direct, at an absolute position.
+     * The buffer's position and limit are not changed. Heap buffers are parsed
+     * from their backing array, and direct or read-only buffers are read in place
+     * with absolute gets, so the record is never copied to the heap.
+     *
+     * @param obj The object to populate
+     * @param data The buffer holding the record
+     * @param startPos The absolute position of the record in the buffer
+     * @return The total length of the parsed record
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If the record cannot be parsed or extends past the buffer limit
+     */
+    public static int parseFromBuffer(Object obj, ByteBuffer data, int startPos)
+            throws IllegalAccessException, CobolParseException {
+        checkRange(data, startPos, RecordLayout.of(obj.getClass()).getLength());
+        if (data.hasArray()) {
+            return parseFromBinary(obj, data.array(), data.arrayOffset() + startPos);
+        }
+        return parseFromBytes(obj, RecordBytes.of(data), startPos);
+    }
+
+    /**
+     * Parse one record from a buffer into a new instance of a class.
+     * The buffer is read as by {@link #parseFromBuffer(Object, ByteBuffer, int)}.
+     *
+     * @param <T> The record type
+     * @param data The buffer holding the record
+     * @param startPos The absolute position of the record in the buffer
+     * @param clazz The record class
+     * @return The new record
+     * @throws CobolParseException If the record cannot be parsed or extends past the buffer limit
+     * @throws ReflectiveOperationException If an instance of the class cannot be created or accessed
+     */
+    public static <T> T parseFromBuffer(ByteBuffer data, int startPos, Class<T> clazz)
+            throws CobolParseException, ReflectiveOperationException {
+        checkRange(data, startPos, RecordLayout.of(clazz).getLength());
+        if (data.hasArray()) {
+            return parseFromBinary(data.array(), data.arrayOffset() + startPos, clazz);
+        }
+        return parseFromBytes(RecordBytes.of(data), startPos, clazz);
+    }
+
+    /**
+     * Parse a record from record data at a position, reading every field in place.
+     *
+     * @param obj The object to populate
+     * @param data The record data
+     * @param startPos The position of the record in the data
+     * @return The total length of the parsed record
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If the record cannot be parsed correctly
+     */
+    public static int parseFromBytes(Object obj, RecordBytes data, int startPos)
+            throws IllegalAccessException, CobolParseException {
+        if (data == null) {
+            throw new CobolParseException("Binary data cannot be null");
+        }
+        return parseFromBinary(obj, data, startPos, CobolEncoding.INHERIT, null);
+    }
+
+    /**
+     * Parse one record from record data into a new instance of a class, reading every
+     * field in place. Classes are created as by {@link #parseFromBinary(byte[], int, Class)}.
+     *
+     * @param <T> The record type
+     * @param data The record data
+     * @param startPos The position of the record in the data
+     * @param clazz The record class
+     * @return The new record
+     * @throws CobolParseException If the record cannot be parsed, or the constructor rejects its values
+     * @throws ReflectiveOperationException If an instance of the class cannot be created or accessed
+     */
+    public static <T> T parseFromBytes(RecordBytes data, int startPos, Class<T> clazz)
+            throws CobolParseException, ReflectiveOperationException {
+        if (data == null) {
+            throw new CobolParseException("Binary data cannot be null");
+        }
+        return clazz.cast(decodeRecord(RecordLayout.of(clazz), data, startPos, CobolEncoding.INHERIT, null));
+    }
+
+    /**
+     * Write a record into a buffer at an absolute position, with null nested objects
+     * written as default values so the record has the length of its class.
+     * The buffer's position and limit are not changed. Records for a direct buffer
+     * are encoded in a reused per-thread array and stored with one bulk put.
+     *
+     * @param obj The object to write
+     * @param dest The buffer to write to
+     * @param startPos The absolute position of the record in the buffer
+     * @return The record length
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If a value cannot be encoded or the record does not fit before the limit
+     */
+    public static int writeToBuffer(Object obj, ByteBuffer dest, int startPos)
+            throws IllegalAccessException, CobolParseException {
+        int length = checkRange(dest, startPos, RecordLayout.of(obj.getClass()).getLength());
+        if (dest.hasArray()) {
+            return writeObjectToBinary(obj, dest.array(), dest.arrayOffset() + startPos, CobolEncoding.INHERIT, true);
+        }
+        byte[] encoded = encodingArray(length);
+        writeObjectToBinary(obj, encoded, 0, CobolEncoding.INHERIT, true);
+        ByteBuffer target = dest.duplicate();
+        target.position(startPos);
+        target.put(encoded, 0, length);
+        return length;
+    }
+
+    private static int checkRange(ByteBuffer data, int startPos, int length) throws CobolParseException {
+        if (data == null) {
+            throw new CobolParseException("Binary data cannot be null");
+        }
+        if (startPos < 0 || startPos + length > data.limit()) {
+            throw new CobolParseException("Record range [" + startPos + "," + (startPos + length)
+                    + "] is outside the buffer limit " + data.limit());
+        }
+        return length;
+    }
+
+    private static byte[] encodingArray(int length) {
+        byte[] encoded = encodingArrays.get();
+        if (encoded == null || encoded.length < length) {
+            encoded = new byte[length];
+            encodingArrays.set(encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * Parse one record into a new instance that remembers its source bytes.
+     * Writing it back with {@link TrackedRecord#writeTo(byte[], int)} copies
+     * those bytes and re-encodes only the fields that were changed.
+     *
+     * @param <T> The record type
+     * @param data The binary data to parse
+     * @param startPos The starting position in the data
+     * @param clazz The record class
+     * @return The tracked record
+     * @throws CobolParseException If the record cannot be parsed
+     * @throws ReflectiveOperationException If an instance of the class cannot be created or accessed
+     */
+    public static <T> TrackedRecord<T> parseTracked(byte[] data, int startPos, Class<T> clazz)
+            throws CobolParseException, ReflectiveOperationException {
+        RecordLayout<T> layout = RecordLayout.of(clazz);
+        T record = parseFromBinary(data, startPos, clazz);
+        if (startPos + layout.getLength() > data.length) {
+            throw new CobolParseException("Record at " + startPos + " extends past the data length " + data.length);
+        }
+        byte[] image = Arrays.copyOfRange(data, startPos, startPos + layout.getLength());
+        return new TrackedRecord<>(layout, record, image);
+    }
+
     /**
      * Parse multiple records from a byte array into a list of objects of the specified class.
      *
@@ -108,50 +405,174 @@ public class CobolFieldProcessor {
             return new ArrayList<>();
         }
 
+        RecordLayout<T> layout = RecordLayout.of(clazz);
+        RecordBytes bytes = RecordBytes.of(data);
         List<T> results = new ArrayList<>();
         int currentPos = 0;
         
         // Continue parsing records until we reach the end of the data
         while (currentPos < data.length) {
-            // Create a new instance of the class
-            T obj = clazz.getDeclaredConstructor().newInstance();
-
             // Parse a single record starting at the current position
-            int recordLength = parseFromBinary(obj, data, currentPos);
-
-            // Add the parsed object to the results
-            results.add(obj);
+            results.add(clazz.cast(decodeRecord(layout, bytes, currentPos, CobolEncoding.INHERIT, null)));
 
             // Move to the next record
-            currentPos += recordLength;
+            currentPos += layout.getLength();
         }
 
         return results;
     }
     
     /**
-     * Parse fields from a byte array using the provided field position information.
+     * Parse multiple records, handling records with bad fields as a policy says:
+     * stop, leave them out, report them to a sink, or keep them with default values.
+     * A trailing partial record is a framing error: it is never returned, and is reported
+     * to the policy as an error of the whole record, or thrown by a fail-fast policy.
+     *
+     * @param <T> The type of objects to create
+     * @param data The byte array containing all records
+     * @param clazz The class of the objects to create
+     * @param policy What to do with records that cannot be decoded
+     * @return The records that were kept, in input order
+     * @throws CobolParseException If a record cannot be parsed and the policy is fail-fast
+     * @throws ReflectiveOperationException If an instance of the class cannot be created
      */
-    private static void parseFieldsFromBinary(Object obj, byte[] data, List<FieldInfo> fieldInfos)
-            throws IllegalAccessException, CobolParseException {
-        for (FieldInfo info : fieldInfos) {
-            Field field = info.getField();
-            CobolField cobolField = info.getCobolField();
-            int startPos = info.getStartPos();
-            int endPos = info.getEndPos();
-            
-            if (startPos >= 0 && endPos <= data.length) {
-                field.setAccessible(true);
-                
-                // Extract and convert field value based on COBOL type
-                Object value = fieldExtractor.extractBinaryFieldValue(data, startPos, endPos, field, cobolField);
-                field.set(obj, value);
-            } else {
-                throw new CobolParseException(
-                    "Invalid position range for field " + field.getName() + 
-                    ": [" + startPos + "," + endPos + "] with data length " + data.length);
+    public static <T> List<T> parseRecordsFromBinary(byte[] data, Class<T> clazz, ErrorPolicy policy)
+            throws CobolParseException, ReflectiveOperationException {
+        if (data == null || data.length == 0) {
+            return new ArrayList<>();
+        }
+
+        RecordLayout<T> layout = RecordLayout.of(clazz);
+        int recordLength = layout.getLength();
+        if (recordLength == 0) {
+            throw new IllegalArgumentException("Record class " + clazz.getName() + " has no COBOL fields");
+        }
+        FieldErrors errors = new FieldErrors(policy);
+        RecordBytes bytes = RecordBytes.of(data);
+        List<T> results = new ArrayList<>(data.length / recordLength + 1);
+        long index = 0;
+        int whole = data.length - data.length % recordLength;
+        for (int currentPos = 0; currentPos < whole; currentPos += recordLength) {
+            errors.startRecord(index++);
+            try {
+                results.add(clazz.cast(decodeRecord(layout, bytes, currentPos, CobolEncoding.INHERIT, errors)));
+            } catch (CobolParseException e) {
+                errors.recordFailed(currentPos, e);
+            }
+        }
+        if (whole < data.length) {
+            errors.startRecord(index);
+            errors.recordFailed(whole, new CobolParseException("Data ends inside the record: "
+                    + (data.length - whole) + " of " + recordLength + " bytes"));
+        }
+        return results;
+    }
+
+    /**
+     * Parse fixed-length records in parallel, keeping their order.
+     * The byte range is split on record boundaries into one slice per worker, and
+     * each slice is decoded into its part of a pre-sized result array.
+     *
+     * @param <T> The type of objects to create
+     * @param data The byte array containing all records
+     * @param clazz The class of the objects to create
+     * @param executor The executor running the slices, for example a {@link ForkJoinPool}
+     * @return A list of populated objects, in input order
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If a record cannot be parsed correctly
+     * @throws ReflectiveOperationException If an instance of the class cannot be created
+     */
+    public static <T> List<T> parseRecordsFromBinary(byte[] data, Class<T> clazz, Executor executor)
+            throws IllegalAccessException, CobolParseException, ReflectiveOperationException {
+        if (data == null || data.length == 0) {
+            return new ArrayList<>();
+        }
+
+        RecordLayout<T> layout = RecordLayout.of(clazz);
+        int recordLength = layout.getLength();
+        if (recordLength == 0 || data.length % recordLength != 0) {
+            throw new CobolParseException("Data length " + data.length
+                    + " is not a multiple of the record length " + recordLength);
+        }
+
+        int count = data.length / recordLength;
+        Object[] results = new Object[count];
+        RecordBytes bytes = RecordBytes.of(data);
+        runPartitioned(count, executor, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = decodeRecord(layout, bytes, i * recordLength, CobolEncoding.INHERIT, null);
             }
+        });
+
+        @SuppressWarnings("unchecked")
+        List<T> list = (List<T>) Arrays.asList(results);
+        return new ArrayList<>(list);
+    }
+
+    /**
+     * Decode one numeric field of every record in a block of fixed-length records,
+     * without creating the record objects. Useful for aggregating a column such as
+     * an amount over a large file.
+     * <p>
+     * Values are unscaled at the scale of the field, so a DECIMAL_ASSUMED field with
+     * scale 2 holding 123.45 decodes as 12345. COMP-3 and zoned columns use the
+     * word-at-a-time decoders in {@link org.jcobol.core.bulk}.
+     *
+     * @param data The byte array containing all records
+     * @param clazz The record class
+     * @param fieldPath The field name, or a dotted path such as {@code address.zipCode}
+     *                  for fields of nested objects
+     * @return The unscaled values, one per record
+     * @throws CobolParseException If the field cannot be found or a value cannot be decoded
+     */
+    public static long[] decodeColumn(byte[] data, Class<?> clazz, String fieldPath) throws CobolParseException {
+        if (data == null) {
+            throw new CobolParseException("Binary data cannot be null");
         }
+        return decodeColumn(RecordBytes.of(data), clazz, fieldPath);
+    }
+
+    /**
+     * Decode one numeric field of every record in record data, as
+     * {@link #decodeColumn(byte[], Class, String)} does, reading each value in place.
+     *
+     * @param data The record data, holding whole records only
+     * @param clazz The record class
+     * @param fieldPath The field name, or a dotted path for fields of nested objects
+     * @return The unscaled values, one per record
+     * @throws CobolParseException If the field cannot be found or a value cannot be decoded
+     */
+    public static long[] decodeColumn(RecordBytes data, Class<?> clazz, String fieldPath) throws CobolParseException {
+        if (data == null) {
+            throw new CobolParseException("Binary data cannot be null");
+        }
+        RecordLayout<?> layout = RecordLayout.of(clazz);
+        int recordLength = layout.getLength();
+        if (recordLength == 0 || data.length() % recordLength != 0) {
+            throw new CobolParseException("Data length " + data.length()
+                    + " is not a multiple of the record length " + recordLength);
+        }
+
+        FieldLocation location = layout.locate(fieldPath);
+        if (location == null || location.getField().isNested()) {
+            throw new CobolParseException("No COBOL field " + fieldPath + " in " + clazz.getName());
+        }
+        int count = data.length() / recordLength;
+        long[] values = new long[count];
+        fieldExtractor.extractColumn(data, location.getOffset(), recordLength, count,
+                location.getField().getCobolField(), location.getCodePage(), values);
+        return values;
+    }
+
+    /**
+     * Calculate the binary length of a record class, counting nested objects by their declared type.
+     * This is the length every record of the class has when parsed.
+     *
+     * @param clazz The record class
+     * @return The record length in bytes
+     */
+    public static int calculateClassBinaryLength(Class<?> clazz) {
+        return RecordLayout.of(clazz).getLength();
     }
 
     /**
@@ -169,102 +590,257 @@ public class CobolFieldProcessor {
         byte[] result = new byte[totalLength];
         
         // Fill the byte array with field values
-        writeObjectToBinary(obj, result, 0);
+        writeObjectToBinary(obj, result, 0, CobolEncoding.INHERIT, false);
         
         return result;
     }
     
+    /**
+     * Write records of the same class into one byte array.
+     * The record length is calculated once from the class, and nested objects that
+     * are null are written with their default values so every record has the same length.
+     *
+     * @param records The records to write
+     * @return The concatenated binary records
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If there's an error during conversion
+     */
+    public static byte[] writeRecordsToBinary(List<?> records)
+            throws IllegalAccessException, CobolParseException {
+        return writeRecordsToBinary(records, null);
+    }
+
+    /**
+     * Write records of the same class into one byte array, encoding slices of the
+     * output concurrently. Each worker writes its own range of records directly into
+     * the shared output array.
+     *
+     * @param records The records to write
+     * @param executor The executor running the slices, or null to write sequentially
+     * @return The concatenated binary records
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If there's an error during conversion
+     */
+    public static byte[] writeRecordsToBinary(List<?> records, Executor executor)
+            throws IllegalAccessException, CobolParseException {
+        if (records.isEmpty()) {
+            return new byte[0];
+        }
+
+        Class<?> clazz = records.get(0).getClass();
+        for (Object record : records) {
+            if (record == null || record.getClass() != clazz) {
+                throw new CobolParseException("All records must be non-null instances of " + clazz.getName());
+            }
+        }
+
+        int recordLength = RecordLayout.of(clazz).getLength();
+        byte[] result = new byte[recordLength * records.size()];
+        RangeTask task = (from, to) -> {
+            for (int i = from; i < to; i++) {
+                writeObjectToBinary(records.get(i), result, i * recordLength, CobolEncoding.INHERIT, true);
+            }
+        };
+
+        if (executor == null) {
+            try {
+                task.run(0, records.size());
+            } catch (IllegalAccessException | CobolParseException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CobolParseException("Failed to write records: " + e.getMessage(), e);
+            }
+        } else {
+            try {
+                runPartitioned(records.size(), executor, task);
+            } catch (IllegalAccessException e) {
+                throw e;
+            } catch (ReflectiveOperationException e) {
+                throw new CobolParseException("Failed to write records: " + e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Work on a range of records [from, to).
+     */
+    private interface RangeTask {
+        void run(int from, int to) throws Exception;
+    }
+
+    /**
+     * Split {@code count} records into contiguous slices, run them on the executor
+     * and wait for all of them. The first failure is rethrown with its original type.
+     */
+    private static void runPartitioned(int count, Executor executor, RangeTask task)
+            throws IllegalAccessException, CobolParseException, ReflectiveOperationException {
+        int workers = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        int slices = Math.max(1, Math.min(count, workers));
+        int sliceSize = (count + slices - 1) / slices;
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < count; from += sliceSize) {
+            int start = from;
+            int end = Math.min(count, from + sliceSize);
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    task.run(start, end);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CobolParseException) {
+                throw (CobolParseException) cause;
+            } else if (cause instanceof IllegalAccessException) {
+                throw (IllegalAccessException) cause;
+            } else if (cause instanceof ReflectiveOperationException) {
+                throw (ReflectiveOperationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CobolParseException("Failed to process records: " + cause, cause);
+        }
+    }
+
     /**
      * Calculate the total binary length of an object including all its fields.
      */
     public static int calculateObjectBinaryLength(Object obj) throws IllegalAccessException {
         int totalLength = 0;
-        Class<?> clazz = obj.getClass();
-        
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            
-            if (field.isAnnotationPresent(CobolField.class)) {
-                CobolField cobolField = field.getAnnotation(CobolField.class);
-                totalLength += fieldCalculator.calculateBinaryLength(cobolField);
-            } 
-            else if (field.isAnnotationPresent(CobolNestedObject.class)) {
+        List<FieldLayout> fields = RecordLayout.of(obj.getClass()).getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            FieldLayout field = fields.get(i);
+            if (field.isNested()) {
                 Object nestedObj = field.get(obj);
                 if (nestedObj != null) {
                     totalLength += calculateObjectBinaryLength(nestedObj);
                 }
+            } else {
+                totalLength += field.getLength();
             }
         }
-        
         return totalLength;
     }
     
     /**
      * Recursively write an object and its nested objects to a byte array.
+     * With {@code fixedLength}, null nested objects are written with their default
+     * values instead of being skipped.
      */
-    private static int writeObjectToBinary(Object obj, byte[] data, int offset) 
-            throws IllegalAccessException, CobolParseException {
+    private static int writeObjectToBinary(Object obj, byte[] data, int offset, CobolEncoding inheritedEncoding,
+            boolean fixedLength) throws IllegalAccessException, CobolParseException {
+        RecordLayout<?> layout = RecordLayout.of(obj.getClass());
+        CobolEncoding recordEncoding = layout.resolveEncoding(inheritedEncoding);
+        List<FieldLayout> fields = layout.getFields();
         int currentPos = offset;
-        Class<?> clazz = obj.getClass();
-        
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            
-            if (field.isAnnotationPresent(CobolField.class)) {
-                CobolField cobolField = field.getAnnotation(CobolField.class);
-                Object value = field.get(obj);
-                
-                // Convert field value to bytes according to COBOL type
-                int bytesWritten = fieldWriter.writeBinaryFieldValue(value, data, currentPos, cobolField);
-                currentPos += bytesWritten;
-            } 
-            else if (field.isAnnotationPresent(CobolNestedObject.class)) {
+
+        for (int i = 0; i < fields.size(); i++) {
+            FieldLayout field = fields.get(i);
+            Object value = field.get(obj);
+            if (value == null && (fixedLength || !field.isNested())) {
+                // Null fields and missing nested objects are copied from the default record image
+                layout.copyDefaultImage(inheritedEncoding, field.getOffset(), field.getLength(), data, currentPos);
+                currentPos += field.getLength();
+            } else if (field.isNested()) {
                 // Handle nested objects recursively
-                Object nestedObj = field.get(obj);
-                if (nestedObj != null) {
-                    int bytesWritten = writeObjectToBinary(nestedObj, data, currentPos);
-                    currentPos += bytesWritten;
+                if (value != null) {
+                    currentPos += writeObjectToBinary(value, data, currentPos, recordEncoding, fixedLength);
                 }
+            } else {
+                // Convert field value to bytes according to COBOL type
+                currentPos += fieldWriter.writeBinaryFieldValue(value, data, currentPos, field.getCobolField(),
+                        field.getCodePage(recordEncoding));
             }
         }
         
         return currentPos - offset;
     }
     
+    /**
+     * Create a nested object holding the default values of its fields.
+     * Immutable classes are constructed from the defaults directly.
+     */
+    private static Object newDefaultInstance(RecordLayout<?> layout) throws IllegalAccessException, CobolParseException {
+        try {
+            if (!layout.isImmutable()) {
+                Object obj = layout.newInstance();
+                initialize(obj);
+                return obj;
+            }
+
+            List<FieldLayout> fields = layout.getFields();
+            Object[] values = new Object[fields.size()];
+            for (int i = 0; i < values.length; i++) {
+                FieldLayout field = fields.get(i);
+                values[i] = field.isNested()
+                        ? newDefaultInstance(field.getNestedLayout())
+                        : field.getDefaultValue();
+            }
+            return layout.newInstance(values);
+        } catch (IllegalAccessException e) {
+            throw e;
+        } catch (ReflectiveOperationException e) {
+            throw new CobolParseException("Failed to instantiate nested object", e);
+        }
+    }
+
+    /**
+     * Drop the values kept for alphanumeric fields with an {@code internLimit}.
+     * The caches are shared by all parsing in the process and are filled again on use.
+     */
+    public static void clearInternCaches() {
+        fieldExtractor.clearInternCaches();
+    }
+
     /**
      * Initialize an object's fields based on COBOL data type annotations.
      * Fields are set to appropriate default values based on their COBOL type.
+     * Nested immutable objects are replaced with new default instances.
      *
      * @param obj The object to initialize
      * @throws IllegalAccessException If a field cannot be accessed
+     * @throws IllegalArgumentException If the object itself is immutable
      */
     public static void initialize(Object obj) throws IllegalAccessException {
-        Class<?> clazz = obj.getClass();
-        for (Field field : clazz.getDeclaredFields()) {
-            field.setAccessible(true);
-            
-            if (field.isAnnotationPresent(CobolField.class)) {
-                CobolField cobolField = field.getAnnotation(CobolField.class);
-                field.set(obj, CobolDefaultValueProvider.getDefaultValue(cobolField, field.getType()));
-            }
-            else if (field.isAnnotationPresent(CobolNestedObject.class)) {
-                // Initialize nested objects recursively
+        RecordLayout<?> layout = RecordLayout.of(obj.getClass());
+        if (layout.isImmutable()) {
+            throw new IllegalArgumentException(obj.getClass().getName() + " is immutable and cannot be initialized");
+        }
+        List<FieldLayout> fields = layout.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            FieldLayout field = fields.get(i);
+            if (field.isNested() && field.getNestedLayout().isImmutable()) {
+                try {
+                    field.set(obj, newDefaultInstance(field.getNestedLayout()));
+                } catch (CobolParseException e) {
+                    throw new IllegalStateException("Failed to instantiate nested object", e);
+                }
+            } else if (field.isNested()) {
+                // Initialize nested objects recursively, creating them if null
                 Object nestedObj = field.get(obj);
-                
-                // Create instance if null
                 if (nestedObj == null) {
                     try {
-                        nestedObj = field.getType().getDeclaredConstructor().newInstance();
-                        field.set(obj, nestedObj);
-                    } catch (InstantiationException | NoSuchMethodException | 
-                             InvocationTargetException e) {
+                        nestedObj = field.getNestedLayout().newInstance();
+                    } catch (ReflectiveOperationException e) {
                         throw new IllegalStateException("Failed to instantiate nested object", e);
                     }
+                    field.set(obj, nestedObj);
                 }
-                
-                // Recursively initialize this nested object
                 initialize(nestedObj);
+            } else {
+                field.set(obj, field.getDefaultValue());
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package org.jcobol.core;
+
+import org.jcobol.core.layout.FieldLayout;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.core.utils.CobolFieldWriter;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.exception.CobolParseException;
+import org.jcobol.types.MutableCobolDecimal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A decoded record that keeps the bytes it was decoded from, so it can be
+ * written back by re-encoding only the fields that changed.
+ * <p>
+ * The value of every simple field is remembered when the record is decoded.
+ * On write, each current value is compared with that snapshot, by identity
+ * first and then with {@code equals}; unchanged fields keep their original
+ * bytes and only changed fields are encoded. Fields of nested objects are
+ * compared one by one, including when the nested object itself was replaced.
+ * {@link MutableCobolDecimal} values can change without a new reference and
+ * are always re-encoded.
+ * <p>
+ * A tracked record is not thread-safe.
+ *
+ * @param <T> The record type
+ */
+public final class TrackedRecord<T> {
+
+    private static final CobolFieldWriter fieldWriter = new CobolFieldWriter();
+
+    private final RecordLayout<T> layout;
+    private final T record;
+    private final byte[] image;
+    private final Object[] snapshot;
+
+    TrackedRecord(RecordLayout<T> layout, T record, byte[] image) {
+        this.layout = layout;
+        this.record = record;
+        this.image = image;
+        this.snapshot = new Object[countFields(layout)];
+        capture(layout, record, 0);
+    }
+
+    /**
+     * @return The decoded record, to be read and modified
+     */
+    public T getRecord() {
+        return record;
+    }
+
+    /**
+     * @return true if any field differs from the last decoded or written state
+     */
+    public boolean isDirty() {
+        return !getDirtyFields().isEmpty();
+    }
+
+    /**
+     * @return The dotted paths of the fields that will be re-encoded on the next write
+     */
+    public List<String> getDirtyFields() {
+        List<String> paths = new ArrayList<>();
+        collectDirty(layout, record, 0, "", paths);
+        return paths;
+    }
+
+    /**
+     * Encode the record into a new byte array.
+     *
+     * @return The binary record
+     * @throws CobolParseException If a changed value cannot be encoded
+     */
+    public byte[] toBinary() throws CobolParseException {
+        byte[] result = new byte[image.length];
+        writeTo(result, 0);
+        return result;
+    }
+
+    /**
+     * Encode the record into a byte array: the original bytes are copied and
+     * the changed fields encoded over them. The written state becomes the new
+     * baseline, so fields are only re-encoded again after further changes.
+     *
+     * @param dest The byte array to write to
+     * @param offset The position of the record in the array
+     * @return The record length
+     * @throws CobolParseException If a changed value cannot be encoded
+     */
+    public int writeTo(byte[] dest, int offset) throws CobolParseException {
+        encodeDirty(layout, record, 0, 0, CobolEncoding.INHERIT);
+        System.arraycopy(image, 0, dest, offset, image.length);
+        return image.length;
+    }
+
+    private static int countFields(RecordLayout<?> layout) {
+        int count = 0;
+        for (FieldLayout field : layout.getFields()) {
+            count += field.isNested() ? countFields(field.getNestedLayout()) : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Remember the current value of every simple field, depth first.
+     *
+     * @return The next snapshot index
+     */
+    private int capture(RecordLayout<?> layout, Object obj, int index) {
+        List<FieldLayout> fields = layout.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            FieldLayout field = fields.get(i);
+            Object value = obj == null ? null : field.get(obj);
+            if (field.isNested()) {
+                index = capture(field.getNestedLayout(), value, index);
+            } else {
+                snapshot[index++] = value;
+            }
+        }
+        return index;
+    }
+
+    private boolean isChanged(Object value, int index) {
+        Object previous = snapshot[index];
+        if (value == previous) {
+            return value instanceof MutableCobolDecimal;
+        }
+        return value == null || !value.equals(previous);
+    }
+
+    private int collectDirty(RecordLayout<?> layout, Object obj, int index, String prefix, List<String> paths) {
+        List<FieldLayout> fields = layout.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            FieldLayout field = fields.get(i);
+            Object value = obj == null ? null : field.get(obj);
+            if (field.isNested()) {
+                index = collectDirty(field.getNestedLayout(), value, index, prefix + field.getName() + ".", paths);
+            } else if (isChanged(value, index++)) {
+                paths.add(prefix + field.getName());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Encode the changed fields of an object into the image and update the snapshot.
+     * A missing nested object counts as all of its fields set to null.
+     *
+     * @return The next snapshot index
+     */
+    private int encodeDirty(RecordLayout<?> layout, Object obj, int offset, int index,
+            CobolEncoding inheritedEncoding) throws CobolParseException {
+        CobolEncoding recordEncoding = layout.resolveEncoding(inheritedEncoding);
+        List<FieldLayout> fields = layout.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            FieldLayout field = fields.get(i);
+            Object value = obj == null ? null : field.get(obj);
+            int position = offset + field.getOffset();
+            if (field.isNested()) {
+                index = encodeDirty(field.getNestedLayout(), value, position, index, recordEncoding);
+                continue;
+            }
+            if (isChanged(value, index)) {
+                if (value == null) {
+                    layout.copyDefaultImage(inheritedEncoding, field.getOffset(), field.getLength(), image, position);
+                } else {
+                    fieldWriter.writeBinaryFieldValue(value, image, position, field.getCobolField(),
+                            field.getCodePage(recordEncoding));
+                }
+                snapshot[index] = value;
+            }
+            index++;
+        }
+        return index;
+    }
+}
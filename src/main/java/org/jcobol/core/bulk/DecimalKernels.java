@@ -0,0 +1,36 @@
+package org.jcobol.core.bulk;
+
+/**
+ * Decodes runs of up to 8 packed or zoned digit bytes.
+ * <p>
+ * This is the Java 8 implementation, using {@link Swar} arithmetic. On Java 17
+ * and later the multi-release jar provides a version that uses the
+ * {@code jdk.incubator.vector} API when the module is enabled with
+ * {@code --add-modules jdk.incubator.vector} and {@code -Djcobol.vector=true} is set.
+ */
+final class DecimalKernels {
+
+    private DecimalKernels() {
+    }
+
+    /**
+     * @return true if the Vector API kernels are in use
+     */
+    static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * @return The binary value of {@code count} packed digit bytes, or -1 if a nibble is not a digit
+     */
+    static long packed(byte[] data, int offset, int count) {
+        return Swar.packed(data, offset, count);
+    }
+
+    /**
+     * @return The binary value of {@code count} zoned digit bytes, or -1 if a byte is not a digit
+     */
+    static long zoned(byte[] data, int offset, int count, int zone) {
+        return Swar.zoned(data, offset, count, zone);
+    }
+}
@@ -0,0 +1,247 @@
+package org.jcobol.core.bulk;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.utils.CobolFieldCalculator;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
+import org.jcobol.exception.CobolParseException;
+
+/**
+ * Word-at-a-time decoder for COMP-3 (packed decimal) values.
+ * Digit bytes are validated and converted 8 bytes (16 digits) at a time
+ * instead of nibble by nibble, and whole columns of a fixed-length record
+ * file can be decoded into a {@code long[]} in one call.
+ * <p>
+ * Values use the same nibble layout as {@link org.jcobol.core.handlers.Comp3FieldHandler}
+ * and are returned unscaled, at the scale of the field.
+ */
+public final class PackedDecimalDecoder {
+
+    private static final CobolFieldCalculator calculator = new CobolFieldCalculator();
+
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+        1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+        100000000000000L, 1000000000000000L, 10000000000000000L
+    };
+
+    private PackedDecimalDecoder() {
+    }
+
+    /**
+     * @return true if the Vector API kernels are in use, false for the SWAR kernels
+     */
+    public static boolean isVectorized() {
+        return DecimalKernels.isVectorized();
+    }
+
+    /**
+     * Decode a COMP-3 field into an unscaled long.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param cobolField The CobolField annotation
+     * @return The unscaled value
+     * @throws CobolParseException If a digit nibble is invalid or the value exceeds a long
+     */
+    public static long decode(byte[] data, int offset, CobolField cobolField) throws CobolParseException {
+        return decode(RecordBytes.of(data), offset, cobolField);
+    }
+
+    /**
+     * Decode a COMP-3 field of record data into an unscaled long, reading it in place.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param cobolField The CobolField annotation
+     * @return The unscaled value
+     * @throws CobolParseException If a digit nibble is invalid or the value exceeds a long
+     */
+    public static long decode(RecordBytes data, int offset, CobolField cobolField) throws CobolParseException {
+        int length = calculator.calculateBinaryLength(cobolField);
+        return decode(data, offset, length, cobolField.length() > (length - 1) * 2);
+    }
+
+    /**
+     * Decode a packed decimal value into an unscaled long.
+     *
+     * @param data The binary data
+     * @param offset The start of the value
+     * @param length The length of the value in bytes, including the sign byte
+     * @param lastHasDigit true if the high nibble of the sign byte holds a digit
+     * @return The unscaled value
+     * @throws CobolParseException If a digit nibble is invalid or the value exceeds a long
+     */
+    public static long decode(byte[] data, int offset, int length, boolean lastHasDigit)
+            throws CobolParseException {
+        return decode(RecordBytes.of(data), offset, length, lastHasDigit);
+    }
+
+    /**
+     * Decode a packed decimal value of record data into an unscaled long, reading it
+     * in place a word at a time.
+     *
+     * @param data The record data
+     * @param offset The start of the value
+     * @param length The length of the value in bytes, including the sign byte
+     * @param lastHasDigit true if the high nibble of the sign byte holds a digit
+     * @return The unscaled value
+     * @throws CobolParseException If a digit nibble is invalid or the value exceeds a long
+     */
+    public static long decode(RecordBytes data, int offset, int length, boolean lastHasDigit)
+            throws CobolParseException {
+        int digitBytes = length - 1;
+        boolean mayOverflow = digitBytes * 2 + (lastHasDigit ? 1 : 0) > 18;
+
+        // Arrays go through the kernels, which may be vectorized
+        byte[] array = data.array();
+        long value = 0;
+        int position = offset;
+        int remaining = digitBytes;
+        // Take the odd-sized chunk first so every following chunk is a full word
+        int chunk = remaining % 8 == 0 ? Math.min(8, remaining) : remaining % 8;
+        while (remaining > 0) {
+            long part = array != null ? DecimalKernels.packed(array, position, chunk)
+                    : Swar.packed(data, position, chunk);
+            if (part < 0) {
+                throw CobolDataException.of(ViolationType.INVALID_DIGIT);
+            }
+            value = mayOverflow
+                    ? addExact(multiplyExact(value, POW10[chunk * 2]), part)
+                    : value * POW10[chunk * 2] + part;
+            position += chunk;
+            remaining -= chunk;
+            chunk = 8;
+        }
+
+        byte lastByte = data.get(offset + digitBytes);
+        if (lastHasDigit) {
+            int digit = (lastByte >> 4) & 0xF;
+            if (digit > 9) {
+                throw CobolDataException.of(ViolationType.INVALID_DIGIT);
+            }
+            value = mayOverflow ? addExact(multiplyExact(value, 10L), digit) : value * 10 + digit;
+        }
+        int sign = lastByte & 0xF;
+        if (!isSign(sign)) {
+            throw CobolDataException.of(ViolationType.INVALID_SIGN);
+        }
+        return isNegative(sign) ? -value : value;
+    }
+
+    /**
+     * @param nibble The low nibble of the last byte of a packed decimal
+     * @return true if the nibble is a sign: A, C, E and F are positive, B and D negative
+     */
+    public static boolean isSign(int nibble) {
+        return nibble >= 0xA;
+    }
+
+    /**
+     * @param sign A sign nibble
+     * @return true if the sign is one of the negative signs B and D
+     */
+    public static boolean isNegative(int sign) {
+        return sign == 0xB || sign == 0xD;
+    }
+
+    /**
+     * Decode the same COMP-3 field of consecutive fixed-length records.
+     *
+     * @param data The record data
+     * @param offset The position of the field in the first record
+     * @param stride The record length
+     * @param count The number of records
+     * @param cobolField The CobolField annotation
+     * @param out The array receiving the unscaled values
+     * @param outOffset The position in {@code out} of the first value
+     * @throws CobolParseException If a value is invalid, the message names the record
+     */
+    public static void decodeColumn(byte[] data, int offset, int stride, int count, CobolField cobolField,
+            long[] out, int outOffset) throws CobolParseException {
+        decodeColumn(RecordBytes.of(data), offset, stride, count, cobolField, out, outOffset);
+    }
+
+    /**
+     * Decode the same COMP-3 field of consecutive fixed-length records of record data,
+     * reading each value in place.
+     *
+     * @param data The record data
+     * @param offset The position of the field in the first record
+     * @param stride The record length
+     * @param count The number of records
+     * @param cobolField The CobolField annotation
+     * @param out The array receiving the unscaled values
+     * @param outOffset The position in {@code out} of the first value
+     * @throws CobolParseException If a value is invalid, the message names the record
+     */
+    public static void decodeColumn(RecordBytes data, int offset, int stride, int count, CobolField cobolField,
+            long[] out, int outOffset) throws CobolParseException {
+        int length = calculator.calculateBinaryLength(cobolField);
+        boolean lastHasDigit = cobolField.length() > (length - 1) * 2;
+        int position = offset;
+        for (int i = 0; i < count; i++) {
+            try {
+                out[outOffset + i] = decode(data, position, length, lastHasDigit);
+            } catch (CobolParseException e) {
+                // A single value needs no record number
+                throw count == 1 ? e : new CobolParseException("Record " + i + ": " + e.getMessage(), e);
+            }
+            position += stride;
+        }
+    }
+
+    /**
+     * Check a packed decimal value without decoding it. Digit bytes are checked a
+     * word at a time; the sign nibble must be A to F, as {@link #decode} accepts,
+     * and a positive sign for an unsigned field.
+     *
+     * @param data The binary data
+     * @param offset The start of the value
+     * @param length The length of the value in bytes, including the sign byte
+     * @param lastHasDigit true if the high nibble of the sign byte holds a digit
+     * @param signed true if the field may hold negative values
+     * @return The first problem found, or null if the value is valid
+     */
+    public static ViolationType validate(byte[] data, int offset, int length, boolean lastHasDigit,
+            boolean signed) {
+        int position = offset;
+        int end = offset + length - 1;
+        while (end - position >= 8) {
+            if (Swar.invalidNibbles(Swar.load(data, position, 8)) != 0) {
+                return ViolationType.INVALID_DIGIT;
+            }
+            position += 8;
+        }
+        if (position < end && Swar.invalidNibbles(Swar.load(data, position, end - position)) != 0) {
+            return ViolationType.INVALID_DIGIT;
+        }
+
+        int last = data[end] & 0xFF;
+        if (lastHasDigit && (last >> 4) > 9) {
+            return ViolationType.INVALID_DIGIT;
+        }
+        int sign = last & 0xF;
+        if (!isSign(sign)) {
+            return ViolationType.INVALID_SIGN;
+        }
+        return isNegative(sign) && !signed ? ViolationType.OUT_OF_RANGE : null;
+    }
+
+    private static long multiplyExact(long value, long factor) throws CobolParseException {
+        try {
+            return Math.multiplyExact(value, factor);
+        } catch (ArithmeticException e) {
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
+        }
+    }
+
+    private static long addExact(long value, long addend) throws CobolParseException {
+        try {
+            return Math.addExact(value, addend);
+        } catch (ArithmeticException e) {
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
+        }
+    }
+}
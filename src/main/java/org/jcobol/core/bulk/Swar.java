@@ -0,0 +1,136 @@
+package org.jcobol.core.bulk;
+
+import org.jcobol.core.utils.BinaryAccess;
+import org.jcobol.core.utils.RecordBytes;
+
+/**
+ * SWAR (SIMD within a register) arithmetic on decimal digits held in a long.
+ * Words are big-endian: the first byte of the field is the most significant
+ * byte, and shorter fields are right-aligned with leading zero bytes.
+ * <p>
+ * The conversions combine neighbouring lanes with one multiply-add per step,
+ * so 16 packed digits become a binary value in four steps instead of sixteen.
+ */
+final class Swar {
+
+    static final long LOW_NIBBLES = 0x0F0F0F0F0F0F0F0FL;
+    static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long NIBBLE_LSB = 0x1111111111111111L;
+    private static final long BYTE_LSB = 0x0101010101010101L;
+
+    private Swar() {
+    }
+
+    /**
+     * Load up to 8 bytes big-endian, right-aligned in the result.
+     */
+    static long load(byte[] data, int offset, int count) {
+        if (count == 8) {
+            return BinaryAccess.getLong(data, offset, false);
+        }
+        long word = 0;
+        for (int i = 0; i < count; i++) {
+            word = word << 8 | (data[offset + i] & 0xFF);
+        }
+        return word;
+    }
+
+    /**
+     * Load up to 8 bytes of record data big-endian, right-aligned in the result.
+     */
+    static long load(RecordBytes data, int offset, int count) {
+        if (count == 8) {
+            return data.getLong(offset, false);
+        }
+        long word = 0;
+        for (int i = 0; i < count; i++) {
+            word = word << 8 | (data.get(offset + i) & 0xFF);
+        }
+        return word;
+    }
+
+    /**
+     * @return Non-zero if any nibble of the word is above 9,
+     *         that is has bit 3 set together with bit 2 or bit 1
+     */
+    static long invalidNibbles(long word) {
+        return (word >>> 3) & ((word >>> 2) | (word >>> 1)) & NIBBLE_LSB;
+    }
+
+    /**
+     * Convert 16 packed BCD digits to binary. The word must hold valid digits only.
+     */
+    static long packedToBinary(long word) {
+        // 8 byte lanes of 0-99
+        long pairs = ((word >>> 4) & LOW_NIBBLES) * 10 + (word & LOW_NIBBLES);
+        return pairsToBinary(pairs);
+    }
+
+    /**
+     * Convert 8 byte lanes holding 0-99 each to binary.
+     */
+    static long pairsToBinary(long word) {
+        word = ((word >>> 8) & 0x00FF00FF00FF00FFL) * 100 + (word & 0x00FF00FF00FF00FFL);
+        word = ((word >>> 16) & 0x0000FFFF0000FFFFL) * 10000 + (word & 0x0000FFFF0000FFFFL);
+        return (word >>> 32) * 100000000L + (word & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Convert 8 byte lanes holding 0-9 each to binary.
+     */
+    static long digitsToBinary(long word) {
+        word = ((word >>> 8) & 0x00FF00FF00FF00FFL) * 10 + (word & 0x00FF00FF00FF00FFL);
+        word = ((word >>> 16) & 0x0000FFFF0000FFFFL) * 100 + (word & 0x0000FFFF0000FFFFL);
+        return (word >>> 32) * 10000 + (word & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Decode up to 8 packed digit bytes (2 digits each).
+     *
+     * @return The binary value, or -1 if a nibble is not a digit
+     */
+    static long packed(byte[] data, int offset, int count) {
+        long word = load(data, offset, count);
+        return invalidNibbles(word) != 0 ? -1 : packedToBinary(word);
+    }
+
+    /**
+     * Decode up to 8 packed digit bytes of record data.
+     *
+     * @return The binary value, or -1 if a nibble is not a digit
+     */
+    static long packed(RecordBytes data, int offset, int count) {
+        long word = load(data, offset, count);
+        return invalidNibbles(word) != 0 ? -1 : packedToBinary(word);
+    }
+
+    /**
+     * Decode up to 8 zoned digit bytes whose zone nibble must equal {@code zone}.
+     *
+     * @return The binary value, or -1 if a byte is not a digit
+     */
+    static long zoned(byte[] data, int offset, int count, int zone) {
+        long word = load(data, offset, count);
+        return invalidZoned(word, count, zone) != 0 ? -1 : digitsToBinary(word & LOW_NIBBLES);
+    }
+
+    /**
+     * Decode up to 8 zoned digit bytes of record data.
+     *
+     * @return The binary value, or -1 if a byte is not a digit
+     */
+    static long zoned(RecordBytes data, int offset, int count, int zone) {
+        long word = load(data, offset, count);
+        return invalidZoned(word, count, zone) != 0 ? -1 : digitsToBinary(word & LOW_NIBBLES);
+    }
+
+    /**
+     * @return Non-zero if any of the low {@code count} bytes of the word is not a
+     *         digit nibble under the zone nibble {@code zone}
+     */
+    static long invalidZoned(long word, int count, int zone) {
+        long laneMask = count == 8 ? -1L : (1L << (count * 8)) - 1;
+        long zones = (word ^ zone * 0x10 * BYTE_LSB) & HIGH_NIBBLES & laneMask;
+        return zones | invalidNibbles(word & LOW_NIBBLES);
+    }
+}
@@ -0,0 +1,131 @@
+package org.jcobol.core.bulk;
+
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.ViolationType;
+
+/**
+ * Word-at-a-time fast path for zoned decimal (display numeric) values.
+ * Validates and converts 8 digit bytes at a time, with an optional
+ * overpunched sign on the last byte.
+ * <p>
+ * Only plain digit strings are handled here. Values with spaces, separate
+ * sign characters or more than 18 digits return {@link #NOT_SIMPLE}, and
+ * callers fall back to the general zoned parser.
+ */
+public final class ZonedDecimalDecoder {
+
+    /**
+     * Returned when a value is not a plain run of digits
+     */
+    public static final long NOT_SIMPLE = Long.MIN_VALUE;
+
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L
+    };
+
+    private ZonedDecimalDecoder() {
+    }
+
+    /**
+     * Decode a zoned value into an unscaled long if it is a plain run of digits.
+     *
+     * @param data The binary data
+     * @param offset The start of the value
+     * @param length The length of the value in bytes
+     * @param signed true if the last byte may carry an overpunched sign
+     * @param codePage The code page of the data
+     * @return The unscaled value, or {@link #NOT_SIMPLE}
+     */
+    public static long tryDecode(byte[] data, int offset, int length, boolean signed, CodePage codePage) {
+        return tryDecode(RecordBytes.of(data), offset, length, signed, codePage);
+    }
+
+    /**
+     * Decode a zoned value of record data into an unscaled long if it is a plain
+     * run of digits, reading it in place.
+     *
+     * @param data The record data
+     * @param offset The start of the value
+     * @param length The length of the value in bytes
+     * @param signed true if the last byte may carry an overpunched sign
+     * @param codePage The code page of the data
+     * @return The unscaled value, or {@link #NOT_SIMPLE}
+     */
+    public static long tryDecode(RecordBytes data, int offset, int length, boolean signed, CodePage codePage) {
+        if (length == 0 || length > 18) {
+            return NOT_SIMPLE;
+        }
+        int zone = (codePage.digitByte(0) >> 4) & 0xF;
+
+        byte lastByte = data.get(offset + length - 1);
+        int lastDigit = codePage.digitValue(lastByte);
+        boolean negative = false;
+        if (lastDigit < 0) {
+            if (!signed || (lastDigit = codePage.overpunchDigit(lastByte)) < 0) {
+                return NOT_SIMPLE;
+            }
+            negative = codePage.isNegativeOverpunch(lastByte);
+        }
+
+        // Arrays go through the kernels, which may be vectorized
+        byte[] array = data.array();
+        long value = 0;
+        int position = offset;
+        int remaining = length - 1;
+        int chunk = remaining % 8 == 0 ? Math.min(8, remaining) : remaining % 8;
+        while (remaining > 0) {
+            long part = array != null ? DecimalKernels.zoned(array, position, chunk, zone)
+                    : Swar.zoned(data, position, chunk, zone);
+            if (part < 0) {
+                return NOT_SIMPLE;
+            }
+            value = value * POW10[chunk] + part;
+            position += chunk;
+            remaining -= chunk;
+            chunk = 8;
+        }
+
+        value = value * 10 + lastDigit;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Check that a zoned value is a plain run of digits, with an overpunched sign
+     * on the last byte allowed for signed fields, without decoding it. All but the
+     * last byte are checked a word at a time.
+     *
+     * @param data The binary data
+     * @param offset The start of the value
+     * @param length The length of the value in bytes
+     * @param signed true if the last byte may carry an overpunched sign
+     * @param codePage The code page of the data
+     * @return The first problem found, or null if the value is valid
+     */
+    public static ViolationType validate(byte[] data, int offset, int length, boolean signed, CodePage codePage) {
+        if (length == 0) {
+            return null;
+        }
+        int zone = (codePage.digitByte(0) >> 4) & 0xF;
+        int position = offset;
+        int end = offset + length - 1;
+        while (end - position >= 8) {
+            if (Swar.invalidZoned(Swar.load(data, position, 8), 8, zone) != 0) {
+                return ViolationType.INVALID_DIGIT;
+            }
+            position += 8;
+        }
+        if (position < end && Swar.invalidZoned(Swar.load(data, position, end - position), end - position, zone) != 0) {
+            return ViolationType.INVALID_DIGIT;
+        }
+
+        byte lastByte = data[end];
+        if (codePage.digitValue(lastByte) >= 0) {
+            return null;
+        }
+        if (!signed) {
+            return codePage.overpunchDigit(lastByte) >= 0 ? ViolationType.INVALID_SIGN : ViolationType.INVALID_DIGIT;
+        }
+        return codePage.overpunchDigit(lastByte) >= 0 ? null : ViolationType.INVALID_SIGN;
+    }
+}
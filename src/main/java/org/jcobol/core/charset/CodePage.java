@@ -0,0 +1,266 @@
+package org.jcobol.core.charset;
+
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.CobolEncoding;
+
+import java.util.Arrays;
+
+/**
+ * Table-driven single-byte code page used to decode and encode COBOL display data.
+ * Each code page holds a 256-entry byte to char table and the reverse char to byte
+ * table, so conversion is a lookup per byte with no charset decoder objects.
+ * <p>
+ * The {@link CobolEncoding#PLATFORM} code page keeps the original behaviour of
+ * converting through the platform default charset.
+ */
+public final class CodePage {
+
+    private static final byte EBCDIC_SUBSTITUTE = 0x3F;
+    private static final byte ASCII_SUBSTITUTE = '?';
+
+    private static final CodePage[] CODE_PAGES = new CodePage[CobolEncoding.values().length];
+
+    static {
+        CodePage platform = new CodePage(CobolEncoding.PLATFORM, null, false);
+        CODE_PAGES[CobolEncoding.INHERIT.ordinal()] = platform;
+        CODE_PAGES[CobolEncoding.PLATFORM.ordinal()] = platform;
+        CODE_PAGES[CobolEncoding.ASCII.ordinal()] = new CodePage(CobolEncoding.ASCII, asciiTable(), false);
+        CODE_PAGES[CobolEncoding.LATIN1.ordinal()] = new CodePage(CobolEncoding.LATIN1, latin1Table(), false);
+        CODE_PAGES[CobolEncoding.CP037.ordinal()] = new CodePage(CobolEncoding.CP037, CodePageTables.CP037, true);
+        CODE_PAGES[CobolEncoding.CP1047.ordinal()] = new CodePage(CobolEncoding.CP1047, CodePageTables.CP1047, true);
+        CODE_PAGES[CobolEncoding.CP500.ordinal()] = new CodePage(CobolEncoding.CP500, CodePageTables.CP500, true);
+        CODE_PAGES[CobolEncoding.CP273.ordinal()] = new CodePage(CobolEncoding.CP273, CodePageTables.CP273, true);
+    }
+
+    private final CobolEncoding encoding;
+    private final char[] byteToChar;
+    private final byte[] charToByte;
+    private final boolean ebcdic;
+    private final byte space;
+    private final byte zero;
+
+    private CodePage(CobolEncoding encoding, String table, boolean ebcdic) {
+        this.encoding = encoding;
+        this.ebcdic = ebcdic;
+        if (table == null) {
+            this.byteToChar = null;
+            this.charToByte = null;
+            this.space = ' ';
+            this.zero = '0';
+            return;
+        }
+
+        this.byteToChar = table.toCharArray();
+        this.charToByte = new byte[256];
+        Arrays.fill(charToByte, ebcdic ? EBCDIC_SUBSTITUTE : ASCII_SUBSTITUTE);
+        for (int b = 0; b < 256; b++) {
+            char c = byteToChar[b];
+            if (c < 256) {
+                charToByte[c] = (byte) b;
+            }
+        }
+        this.space = charToByte[' '];
+        this.zero = charToByte['0'];
+    }
+
+    /**
+     * Get the code page for an encoding.
+     *
+     * @param encoding The encoding; INHERIT resolves to the platform default
+     * @return The code page
+     */
+    public static CodePage of(CobolEncoding encoding) {
+        return CODE_PAGES[encoding.ordinal()];
+    }
+
+    /**
+     * @return The code page that converts through the platform default charset
+     */
+    public static CodePage platform() {
+        return CODE_PAGES[CobolEncoding.PLATFORM.ordinal()];
+    }
+
+    public CobolEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return true if conversion is done through the 256-entry tables,
+     *         false for the platform default charset
+     */
+    public boolean isTableDriven() {
+        return byteToChar != null;
+    }
+
+    /**
+     * @return true for EBCDIC code pages, where zoned digits are 0xF0-0xF9
+     *         and overpunch signs live in the zone nibble
+     */
+    public boolean isEbcdic() {
+        return ebcdic;
+    }
+
+    /**
+     * @return The byte used for a space in this code page
+     */
+    public byte spaceByte() {
+        return space;
+    }
+
+    /**
+     * Encode a single digit as a display byte.
+     *
+     * @param digit The digit (0-9)
+     * @return The display byte for the digit
+     */
+    public byte digitByte(int digit) {
+        return (byte) (zero + digit);
+    }
+
+    /**
+     * Decode a display byte as a digit.
+     *
+     * @param b The display byte
+     * @return The digit value, or -1 if the byte is not a digit
+     */
+    public int digitValue(byte b) {
+        int digit = (b & 0xFF) - (zero & 0xFF);
+        return digit >= 0 && digit <= 9 ? digit : -1;
+    }
+
+    /**
+     * Decode the digit of an overpunched sign byte, or -1 if it is not an overpunch.
+     * EBCDIC code pages carry the sign in the zone nibble (0xC0-0xD9); other code
+     * pages use the ASCII convention of '{', 'A'-'I' (positive) and 'p'-'y' (negative).
+     *
+     * @param b The display byte
+     * @return The digit value, or -1 if the byte is not an overpunch
+     */
+    public int overpunchDigit(byte b) {
+        if (ebcdic) {
+            int zone = (b >> 4) & 0xF;
+            int digit = b & 0xF;
+            return zone >= 0xA && digit <= 9 ? digit : -1;
+        }
+        if (b >= 'p' && b <= 'y') {
+            return b - 'p';
+        } else if (b >= 'A' && b <= 'I') {
+            return b - 'A' + 1;
+        } else if (b == '{') {
+            return 0;
+        }
+        return -1;
+    }
+
+    /**
+     * @param b An overpunched sign byte
+     * @return true if the overpunch denotes a negative value
+     */
+    public boolean isNegativeOverpunch(byte b) {
+        if (ebcdic) {
+            int zone = (b >> 4) & 0xF;
+            return zone == 0xD || zone == 0xB;
+        }
+        return b >= 'p' && b <= 'y';
+    }
+
+    /**
+     * Decode a single byte to a character. Only valid for table-driven code pages.
+     *
+     * @param b The byte
+     * @return The character
+     */
+    public char toChar(byte b) {
+        return byteToChar[b & 0xFF];
+    }
+
+    /**
+     * Encode a single character to a byte. Only valid for table-driven code pages.
+     * Characters outside the code page become the substitute character.
+     *
+     * @param c The character
+     * @return The byte
+     */
+    public byte toByte(char c) {
+        return c < 256 ? charToByte[c] : (ebcdic ? EBCDIC_SUBSTITUTE : ASCII_SUBSTITUTE);
+    }
+
+    /**
+     * Decode a range of bytes to a string.
+     *
+     * @param data The binary data
+     * @param offset The start of the range
+     * @param length The number of bytes
+     * @return The decoded string
+     */
+    public String decode(byte[] data, int offset, int length) {
+        return decode(RecordBytes.of(data), offset, length);
+    }
+
+    /**
+     * Decode a range of record bytes to a string, reading them in place.
+     * The platform code page decodes through the platform charset, from a copy
+     * of the range unless the bytes are in an array.
+     *
+     * @param data The record data
+     * @param offset The start of the range
+     * @param length The number of bytes
+     * @return The decoded string
+     */
+    public String decode(RecordBytes data, int offset, int length) {
+        if (byteToChar == null) {
+            byte[] array = data.array();
+            return array != null ? new String(array, offset, length) : new String(data.copy(offset, length));
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = byteToChar[data.get(offset + i) & 0xFF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Encode a value left-justified into a fixed-length range,
+     * truncating it or padding it with spaces as needed.
+     *
+     * @param value The value to encode
+     * @param data The byte array to write to
+     * @param offset The start of the range
+     * @param length The length of the range
+     */
+    public void encode(CharSequence value, byte[] data, int offset, int length) {
+        int copyLength;
+        if (charToByte == null) {
+            byte[] bytes = value.toString().getBytes();
+            copyLength = Math.min(bytes.length, length);
+            System.arraycopy(bytes, 0, data, offset, copyLength);
+        } else {
+            copyLength = Math.min(value.length(), length);
+            for (int i = 0; i < copyLength; i++) {
+                data[offset + i] = toByte(value.charAt(i));
+            }
+        }
+        Arrays.fill(data, offset + copyLength, offset + length, space);
+    }
+
+    @Override
+    public String toString() {
+        return "CodePage[" + encoding + "]";
+    }
+
+    private static String asciiTable() {
+        char[] table = new char[256];
+        for (int b = 0; b < 256; b++) {
+            table[b] = b < 128 ? (char) b : '\uFFFD';
+        }
+        return new String(table);
+    }
+
+    private static String latin1Table() {
+        char[] table = new char[256];
+        for (int b = 0; b < 256; b++) {
+            table[b] = (char) b;
+        }
+        return new String(table);
+    }
+}
@@ -0,0 +1,155 @@
+package org.jcobol.core.charset;
+
+import org.jcobol.core.utils.RecordBytes;
+
+/**
+ * Bounded cache that maps the raw bytes of an alphanumeric field to a shared String.
+ * Used for low-cardinality fields such as currency codes and status flags, so repeated
+ * values return the same instance without being decoded again.
+ * <p>
+ * The cache is an open-addressing table keyed on the bytes themselves. A lookup hashes
+ * the bytes, probes a few slots and compares bytes before anything is decoded. Once the
+ * cardinality limit is reached, new values evict the entry in their home slot, so the
+ * table never grows beyond its initial size.
+ * <p>
+ * The cache is safe to share between threads. Entries are immutable, and a race between
+ * two writers only loses one of the cached values, never returns a wrong one.
+ */
+public final class StringInternCache {
+
+    private static final int MAX_PROBES = 8;
+
+    private final CodePage codePage;
+    private final Entry[] table;
+    private final int mask;
+    private final int limit;
+    private int size;
+
+    /**
+     * Create a cache for a code page.
+     *
+     * @param codePage The code page used to decode values that are not cached yet
+     * @param limit The maximum number of distinct values to keep
+     */
+    public StringInternCache(CodePage codePage, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Intern limit must be positive: " + limit);
+        }
+        this.codePage = codePage;
+        this.limit = limit;
+        // Keep the load factor at or below one half so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(limit, 2) * 2 - 1) << 1;
+        this.table = new Entry[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public CodePage getCodePage() {
+        return codePage;
+    }
+
+    /**
+     * @return The maximum number of distinct values kept
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return The approximate number of cached values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the shared String for a range of bytes, decoding it only if it is not cached.
+     *
+     * @param data The binary data
+     * @param offset The start of the range
+     * @param length The number of bytes
+     * @return The decoded value
+     */
+    public String intern(byte[] data, int offset, int length) {
+        return intern(RecordBytes.of(data), offset, length);
+    }
+
+    /**
+     * Return the shared String for a range of record bytes, reading them in place.
+     * Only a value that is not cached yet is copied, to be kept as its key.
+     *
+     * @param data The record data
+     * @param offset The start of the range
+     * @param length The number of bytes
+     * @return The decoded value
+     */
+    public String intern(RecordBytes data, int offset, int length) {
+        int hash = hash(data, offset, length);
+        int home = hash & mask;
+        int index = home;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            Entry entry = table[index];
+            if (entry == null) {
+                String value = codePage.decode(data, offset, length);
+                if (size < limit) {
+                    table[index] = new Entry(hash, data.copy(offset, length), value);
+                    size++;
+                } else {
+                    table[home] = new Entry(hash, data.copy(offset, length), value);
+                }
+                return value;
+            }
+            if (entry.hash == hash && entry.matches(data, offset, length)) {
+                return entry.value;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // Probe chain is full, so replace the entry in the home slot
+        String value = codePage.decode(data, offset, length);
+        table[home] = new Entry(hash, data.copy(offset, length), value);
+        return value;
+    }
+
+    /**
+     * Remove all cached values.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = null;
+        }
+        size = 0;
+    }
+
+    private static int hash(RecordBytes data, int offset, int length) {
+        int hash = length;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            hash = 31 * hash + data.get(i);
+        }
+        // Spread the high bits, since short codes differ mostly in the low bits
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Entry {
+        final int hash;
+        final byte[] bytes;
+        final String value;
+
+        Entry(int hash, byte[] bytes, String value) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        boolean matches(RecordBytes data, int offset, int length) {
+            if (bytes.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != data.get(offset + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
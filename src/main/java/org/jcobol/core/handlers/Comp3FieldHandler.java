@@ -1,9 +1,15 @@
 package org.jcobol.core.handlers;
 
 import org.jcobol.annotation.CobolField;
+import org.jcobol.core.bulk.PackedDecimalDecoder;
 import org.jcobol.core.utils.CobolFieldCalculator;
 import org.jcobol.core.utils.CobolTypeConverter;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
 import org.jcobol.exception.CobolParseException;
+import org.jcobol.types.CobolDecimal;
+import org.jcobol.types.MutableCobolDecimal;
 
 /**
  * Handler for COMP-3 (packed decimal) COBOL fields
@@ -24,27 +30,51 @@ public class Comp3FieldHandler {
      */
     public Object extractValue(byte[] data, Class<?> fieldType, CobolField cobolField)
             throws CobolParseException {
+        if (isUnscaledTarget(fieldType, cobolField)) {
+            return convertUnscaled(extractUnscaled(data, cobolField), fieldType, cobolField);
+        }
+        return extractText(RecordBytes.of(data), 0, data.length, fieldType, cobolField);
+    }
+
+    /**
+     * Extract a COMP-3 value through its digit string, for types the unscaled path does not cover.
+     */
+    private Object extractText(RecordBytes data, int offset, int length, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
         try {
             StringBuilder valueStr = new StringBuilder();
             boolean negative = false;
+            int end = offset + length - 1;
 
             // Process all bytes except the last one
-            for (int i = 0; i < data.length - 1; i++) {
-                byte b = data[i];
+            for (int i = offset; i < end; i++) {
+                byte b = data.get(i);
                 // Each byte contains two digits, one in each nibble
-                valueStr.append((b >> 4) & 0xF); // High nibble
-                valueStr.append(b & 0xF);        // Low nibble
+                int high = (b >> 4) & 0xF;
+                int low = b & 0xF;
+                if (high > 9 || low > 9) {
+                    throw CobolDataException.of(ViolationType.INVALID_DIGIT);
+                }
+                valueStr.append(high);
+                valueStr.append(low);
             }
 
             // Process the last byte - contains the last digit and the sign
-            byte lastByte = data[data.length - 1];
-            if(cobolField.length() > (data.length - 1) * 2){
-                valueStr.append((lastByte >> 4) & 0xF); // High nibble is the last digit
+            byte lastByte = data.get(end);
+            if(cobolField.length() > (length - 1) * 2){
+                int digit = (lastByte >> 4) & 0xF; // High nibble is the last digit
+                if (digit > 9) {
+                    throw CobolDataException.of(ViolationType.INVALID_DIGIT);
+                }
+                valueStr.append(digit);
             }
 
-            // Low nibble of last byte is the sign
-            byte sign = (byte) (lastByte & 0xF);
-            negative = (sign == 0xD); // 0xD indicates negative in COMP-3
+            // Low nibble of last byte is the sign, B or D for negative values
+            int sign = lastByte & 0xF;
+            if (!PackedDecimalDecoder.isSign(sign)) {
+                throw CobolDataException.of(ViolationType.INVALID_SIGN);
+            }
+            negative = PackedDecimalDecoder.isNegative(sign);
 
             // Create numeric value with sign
             String numStr = (negative ? "-" : "") + valueStr.toString();
@@ -58,11 +88,90 @@ public class Comp3FieldHandler {
             }
 
             return converter.convertToNumericType(numStr, fieldType);
+        } catch (CobolParseException e) {
+            throw e;
+        } catch (NumberFormatException | ArithmeticException e) {
+            // The digits are valid, so only the target type can be too small
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
         } catch (Exception e) {
             throw new CobolParseException("Error extracting COMP-3 value: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Extract a COMP-3 value from a position in a record.
+     * Decimal and whole-number targets are decoded in place, without copying the field.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, int offset, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
+        return extractValue(RecordBytes.of(data), offset, fieldType, cobolField);
+    }
+
+    /**
+     * Extract a COMP-3 value from a position in record data, reading it in place.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(RecordBytes data, int offset, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
+        if (isUnscaledTarget(fieldType, cobolField)) {
+            return convertUnscaled(PackedDecimalDecoder.decode(data, offset, cobolField), fieldType, cobolField);
+        }
+        return extractText(data, offset, calculator.calculateBinaryLength(cobolField), fieldType, cobolField);
+    }
+
+    /**
+     * Decode a COMP-3 value straight into an unscaled long without building
+     * an intermediate string. Digits are read with the same nibble layout
+     * that {@link #writeValue} produces.
+     *
+     * @param data The binary data
+     * @param cobolField The CobolField annotation
+     * @return The unscaled value
+     * @throws CobolParseException If a digit nibble is invalid or the value exceeds a long
+     */
+    public long extractUnscaled(byte[] data, CobolField cobolField) throws CobolParseException {
+        return PackedDecimalDecoder.decode(data, 0, data.length, cobolField.length() > (data.length - 1) * 2);
+    }
+
+    /**
+     * Decimal types, and int or long fields without a scale, are decoded
+     * through the unscaled value instead of a digit string.
+     */
+    private static boolean isUnscaledTarget(Class<?> fieldType, CobolField cobolField) {
+        if (CobolTypeConverter.isCobolDecimalType(fieldType)) {
+            return true;
+        }
+        return cobolField.scale() == 0 && cobolField.length() <= 18
+                && (fieldType == int.class || fieldType == Integer.class
+                || fieldType == long.class || fieldType == Long.class);
+    }
+
+    private Object convertUnscaled(long unscaled, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
+        if (fieldType == int.class || fieldType == Integer.class) {
+            if (unscaled != (int) unscaled) {
+                throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
+            }
+            return (int) unscaled;
+        } else if (fieldType == long.class || fieldType == Long.class) {
+            return unscaled;
+        }
+        return converter.convertToNumericType(unscaled, cobolField.scale(), fieldType);
+    }
+
     /**
      * Write a COMP-3 (packed decimal) value to a byte array.
      *
@@ -75,6 +184,9 @@ public class Comp3FieldHandler {
      */
     public int writeValue(Object value, byte[] data, int offset, CobolField cobolField) 
             throws CobolParseException {
+        if (value instanceof CobolDecimal || value instanceof MutableCobolDecimal) {
+            return writeUnscaled(unscaledAtFieldScale(value, cobolField), data, offset, cobolField);
+        }
         try {
             int length = calculator.calculateBinaryLength(cobolField);
             int declaredLength = cobolField.length();
@@ -125,4 +237,51 @@ public class Comp3FieldHandler {
             throw new CobolParseException("Error writing COMP-3 value: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Write an unscaled value as COMP-3 digit by digit, without an intermediate string.
+     * Like the string path, digits beyond the declared length are truncated on the left.
+     *
+     * @param unscaled The unscaled value at the field scale
+     * @param data The byte array to write to
+     * @param offset The offset position in the byte array
+     * @param cobolField The CobolField annotation
+     * @return The number of bytes written
+     */
+    public int writeUnscaled(long unscaled, byte[] data, int offset, CobolField cobolField) {
+        int length = calculator.calculateBinaryLength(cobolField);
+        int declaredLength = cobolField.length();
+        boolean negative = unscaled < 0;
+
+        // Clear all digit nibbles, then fill the declared digits from the right
+        for (int i = 0; i < length; i++) {
+            data[offset + i] = 0;
+        }
+        long remaining = unscaled;
+        for (int nibble = declaredLength - 1; nibble >= 0 && remaining != 0; nibble--) {
+            int digit = (int) Math.abs(remaining % 10);
+            remaining /= 10;
+            int index = offset + (nibble >> 1);
+            data[index] = (byte) (data[index] | ((nibble & 1) == 0 ? digit << 4 : digit));
+        }
+
+        int last = offset + length - 1;
+        data[last] = (byte) ((data[last] & 0xF0) | (negative ? 0x0D : 0x0C));
+        return length;
+    }
+
+    /**
+     * Express a {@link CobolDecimal} or {@link MutableCobolDecimal} as an unscaled
+     * long at the scale of the field, truncating extra fraction digits.
+     */
+    static long unscaledAtFieldScale(Object value, CobolField cobolField) throws CobolParseException {
+        try {
+            if (value instanceof CobolDecimal) {
+                return ((CobolDecimal) value).unscaledValue(cobolField.scale());
+            }
+            return ((MutableCobolDecimal) value).unscaledValue(cobolField.scale());
+        } catch (ArithmeticException e) {
+            throw new CobolParseException("Decimal value " + value + " does not fit scale " + cobolField.scale(), e);
+        }
+    }
+}
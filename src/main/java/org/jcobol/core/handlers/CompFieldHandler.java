@@ -1,16 +1,21 @@
 package org.jcobol.core.handlers;
 
 import org.jcobol.annotation.CobolField;
+import org.jcobol.core.utils.BinaryAccess;
 import org.jcobol.core.utils.CobolFieldCalculator;
 import org.jcobol.core.utils.CobolTypeConverter;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
 import org.jcobol.exception.CobolParseException;
+import org.jcobol.types.CobolDecimal;
+import org.jcobol.types.MutableCobolDecimal;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 
 /**
- * Handler for COMP (computational) COBOL fields
+ * Handler for COMP and COMP-5 (binary) COBOL fields
  */
 public class CompFieldHandler {
 
@@ -28,32 +33,80 @@ public class CompFieldHandler {
      */
     public Object extractValue(byte[] data, Class<?> fieldType, CobolField cobolField) 
             throws CobolParseException {
-        ByteBuffer buffer = ByteBuffer.wrap(data);
-        buffer.order(ByteOrder.BIG_ENDIAN); // COBOL typically uses big-endian
-        
+        return extractValue(data, 0, fieldType, cobolField);
+    }
+
+    /**
+     * Extract a COMP or COMP-5 (binary) value from a position in a record.
+     * Unsigned fields are read as unsigned, so a halfword holds 0 to 65535.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, int offset, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
+        return extractValue(RecordBytes.of(data), offset, fieldType, cobolField);
+    }
+
+    /**
+     * Extract a COMP or COMP-5 value from a position in record data, reading it in place.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(RecordBytes data, int offset, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
         // COMP fields are binary representations
         int length = calculator.calculateBinaryLength(cobolField);
-        
+        boolean signed = cobolField.signed();
+
         try {
-            // Handle different field sizes
-            if (length <= 2) {
-                short value = buffer.getShort(0);
-                return converter.convertToNumericType(value, fieldType);
-            } else if (length <= 4) {
-                int value = buffer.getInt(0);
-                return converter.convertToNumericType(value, fieldType);
-            } else if (length <= 8) {
-                long value = buffer.getLong(0);
-                return converter.convertToNumericType(value, fieldType);
-            } else {
-                // For larger values, use BigInteger
-                BigInteger value = new BigInteger(data);
-                return converter.convertToNumericType(value, fieldType);
+            long raw = readBinary(data, offset, length, signed, cobolField.littleEndian());
+
+            // An unsigned doubleword above Long.MAX_VALUE only fits the arbitrary precision types
+            if (!signed && raw < 0) {
+                if (fieldType == BigInteger.class || fieldType == BigDecimal.class || fieldType == String.class) {
+                    return converter.convertToNumericType(new BigInteger(Long.toUnsignedString(raw)), fieldType);
+                }
+                throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
+            }
+
+            // Binary fields with an implied decimal point decode natively into the decimal types
+            if (CobolTypeConverter.isCobolDecimalType(fieldType)) {
+                return converter.convertToNumericType(raw, cobolField.scale(), fieldType);
             }
+
+            return converter.convertToNumericType(raw, fieldType);
+        } catch (CobolParseException e) {
+            throw e;
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
         } catch (Exception e) {
             throw new CobolParseException("Error extracting COMP value: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Read a 2, 4 or 8 byte binary integer, widening unsigned values without sign extension.
+     */
+    private static long readBinary(RecordBytes data, int offset, int length, boolean signed, boolean littleEndian) {
+        if (length <= 2) {
+            short value = data.getShort(offset, littleEndian);
+            return signed ? value : value & 0xFFFF;
+        } else if (length <= 4) {
+            int value = data.getInt(offset, littleEndian);
+            return signed ? value : value & 0xFFFFFFFFL;
+        }
+        return data.getLong(offset, littleEndian);
+    }
     
     /**
      * Write a COMP (binary) value to a byte array.
@@ -69,32 +122,29 @@ public class CompFieldHandler {
             throws CobolParseException {
         try {
             int length = calculator.calculateBinaryLength(cobolField);
-            ByteBuffer buffer = ByteBuffer.allocate(length);
-            buffer.order(ByteOrder.BIG_ENDIAN); // COBOL typically uses big-endian
+            boolean littleEndian = cobolField.littleEndian();
             
+            // Decimal types are stored as their unscaled value at the field scale
+            if (value instanceof CobolDecimal || value instanceof MutableCobolDecimal) {
+                value = Comp3FieldHandler.unscaledAtFieldScale(value, cobolField);
+            }
+
+            // Parse as long so unsigned values above the signed range keep their bit pattern
+            long longValue = value == null ? 0 : 
+                (value instanceof Number ? ((Number) value).longValue() : 
+                Long.parseLong(value.toString()));
+
             // Convert value based on length
             if (length <= 2) {
-                short shortValue = value == null ? 0 : 
-                    (value instanceof Number ? ((Number) value).shortValue() : 
-                    Short.parseShort(value.toString()));
-                buffer.putShort(shortValue);
+                BinaryAccess.putShort(data, offset, (short) longValue, littleEndian);
             } else if (length <= 4) {
-                int intValue = value == null ? 0 : 
-                    (value instanceof Number ? ((Number) value).intValue() : 
-                    Integer.parseInt(value.toString()));
-                buffer.putInt(intValue);
+                BinaryAccess.putInt(data, offset, (int) longValue, littleEndian);
             } else {
-                long longValue = value == null ? 0 : 
-                    (value instanceof Number ? ((Number) value).longValue() : 
-                    Long.parseLong(value.toString()));
-                buffer.putLong(longValue);
+                BinaryAccess.putLong(data, offset, longValue, littleEndian);
             }
-            
-            // Copy from buffer to output array
-            System.arraycopy(buffer.array(), 0, data, offset, length);
             return length;
         } catch (Exception e) {
             throw new CobolParseException("Error writing COMP value: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
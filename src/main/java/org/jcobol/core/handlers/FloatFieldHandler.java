@@ -0,0 +1,103 @@
+package org.jcobol.core.handlers;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.utils.BinaryAccess;
+import org.jcobol.core.utils.CobolTypeConverter;
+import org.jcobol.core.utils.HexFloatConverter;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
+import org.jcobol.exception.CobolParseException;
+
+/**
+ * Handler for COMP-1 and COMP-2 (IBM hexadecimal floating point) COBOL fields
+ */
+public class FloatFieldHandler {
+
+    private final CobolTypeConverter converter = new CobolTypeConverter();
+
+    /**
+     * Extract a COMP-1 or COMP-2 value from byte data.
+     *
+     * @param data The binary data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
+        return extractValue(data, 0, fieldType, cobolField);
+    }
+
+    /**
+     * Extract a COMP-1 or COMP-2 value from a position in a record.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, int offset, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
+        return extractValue(RecordBytes.of(data), offset, fieldType, cobolField);
+    }
+
+    /**
+     * Extract a COMP-1 or COMP-2 value from a position in record data, reading it in place.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(RecordBytes data, int offset, Class<?> fieldType, CobolField cobolField)
+            throws CobolParseException {
+        try {
+            if (cobolField.comp1()) {
+                float value = HexFloatConverter.hfp32ToFloat(data.getInt(offset, cobolField.littleEndian()));
+                return fieldType == float.class || fieldType == Float.class
+                        ? (Object) value : converter.convertToNumericType((double) value, fieldType);
+            }
+            double value = HexFloatConverter.hfp64ToDouble(data.getLong(offset, cobolField.littleEndian()));
+            return converter.convertToNumericType(value, fieldType);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
+        } catch (Exception e) {
+            throw new CobolParseException("Error extracting floating point value: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write a COMP-1 or COMP-2 value to a byte array.
+     *
+     * @param value The field value
+     * @param data The byte array to write to
+     * @param offset The offset position in the byte array
+     * @param cobolField The CobolField annotation
+     * @return The number of bytes written
+     * @throws CobolParseException If there's an error during conversion
+     */
+    public int writeValue(Object value, byte[] data, int offset, CobolField cobolField)
+            throws CobolParseException {
+        try {
+            double doubleValue = value == null ? 0.0 :
+                (value instanceof Number ? ((Number) value).doubleValue() :
+                Double.parseDouble(value.toString()));
+
+            if (cobolField.comp1()) {
+                BinaryAccess.putInt(data, offset, HexFloatConverter.floatToHfp32((float) doubleValue),
+                        cobolField.littleEndian());
+                return 4;
+            }
+            BinaryAccess.putLong(data, offset, HexFloatConverter.doubleToHfp64(doubleValue), cobolField.littleEndian());
+            return 8;
+        } catch (Exception e) {
+            throw new CobolParseException("Error writing floating point value: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package org.jcobol.core.handlers;
 
 import org.jcobol.annotation.CobolField;
+import org.jcobol.core.bulk.ZonedDecimalDecoder;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.charset.StringInternCache;
 import org.jcobol.core.utils.CobolFieldCalculator;
 import org.jcobol.core.utils.CobolTypeConverter;
+import org.jcobol.core.utils.RecordBytes;
 import org.jcobol.enums.CobolFieldType;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
 import org.jcobol.exception.CobolParseException;
+import org.jcobol.types.CobolDecimal;
+import org.jcobol.types.CobolString;
+import org.jcobol.types.MutableCobolDecimal;
+
+import java.util.Arrays;
 
 /**
  * Handler for standard (non-COMP) COBOL fields
@@ -25,14 +36,37 @@ public class StandardFieldHandler {
      */
     public Object extractValue(byte[] data, Class<?> fieldType, CobolField cobolField) 
             throws CobolParseException {
+        return extractValue(data, fieldType, cobolField, CodePage.of(cobolField.encoding()));
+    }
+
+    /**
+     * Extract a standard field value from byte data in the given code page.
+     * Table-driven code pages decode numeric fields directly from the bytes,
+     * interpreting EBCDIC zones and overpunch signs natively.
+     *
+     * @param data The binary data
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of the data
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, Class<?> fieldType, CobolField cobolField, CodePage codePage)
+            throws CobolParseException {
         CobolFieldType type = cobolField.type();
         
+        if (type != CobolFieldType.ALPHANUMERIC
+                && (codePage.isTableDriven() || CobolTypeConverter.isCobolDecimalType(fieldType))) {
+            return extractZonedValue(RecordBytes.of(data), 0, data.length, fieldType, cobolField, codePage);
+        }
+
         try {
             // Regular character fields
             switch (type) {
                 case ALPHANUMERIC:
                     // Simple string extraction
-                    return new String(data);
+                    return extractAlphanumeric(RecordBytes.of(data), 0, data.length, fieldType, cobolField,
+                            codePage, null);
                     
                 case NUMERIC:
                     // Extract numeric value (may be signed)
@@ -55,11 +89,256 @@ public class StandardFieldHandler {
                     // Default to string extraction
                     return new String(data);
             }
+        } catch (CobolParseException e) {
+            throw e;
+        } catch (NumberFormatException e) {
+            throw CobolDataException.of(ViolationType.INVALID_DIGIT);
+        } catch (ArithmeticException e) {
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
         } catch (Exception e) {
             throw new CobolParseException("Error extracting standard field value: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Extract a standard field value from a range of a record.
+     * Alphanumeric fields are decoded in place, without first copying
+     * the field bytes out of the record.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param length The length of the field in bytes
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of the data
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, int offset, int length, Class<?> fieldType, CobolField cobolField,
+            CodePage codePage) throws CobolParseException {
+        return extractValue(data, offset, length, fieldType, cobolField, codePage, null);
+    }
+
+    /**
+     * Extract a standard field value from a range of a record, returning shared
+     * String instances from an intern cache for alphanumeric String fields.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param length The length of the field in bytes
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of the data
+     * @param internCache The intern cache for the field, or null for none
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, int offset, int length, Class<?> fieldType, CobolField cobolField,
+            CodePage codePage, StringInternCache internCache) throws CobolParseException {
+        return extractValue(RecordBytes.of(data), offset, length, fieldType, cobolField, codePage, internCache);
+    }
+
+    /**
+     * Extract a standard field value from a range of record data, returning shared
+     * String instances from an intern cache for alphanumeric String fields.
+     * Alphanumeric and zoned fields are read in place; only the character-based
+     * numeric paths of the platform code page decode a copy of the field.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param length The length of the field in bytes
+     * @param fieldType The Java field type
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of the data
+     * @param internCache The intern cache for the field, or null for none
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(RecordBytes data, int offset, int length, Class<?> fieldType, CobolField cobolField,
+            CodePage codePage, StringInternCache internCache) throws CobolParseException {
+        if (cobolField.type() == CobolFieldType.ALPHANUMERIC) {
+            return extractAlphanumeric(data, offset, length, fieldType, cobolField, codePage, internCache);
+        }
+        if (codePage.isTableDriven() || CobolTypeConverter.isCobolDecimalType(fieldType)) {
+            return extractZonedValue(data, offset, length, fieldType, cobolField, codePage);
+        }
+        return extractValue(data.copy(offset, length), fieldType, cobolField, codePage);
+    }
+
+    /**
+     * Extract an alphanumeric field, optionally trimming trailing spaces with a
+     * reverse scan over the bytes and optionally deferring decoding to a {@link CobolString}.
+     */
+    private Object extractAlphanumeric(RecordBytes data, int offset, int length, Class<?> fieldType,
+            CobolField cobolField, CodePage codePage, StringInternCache internCache) throws CobolParseException {
+        int end = offset + length;
+        if (cobolField.trimTrailing()) {
+            byte space = codePage.spaceByte();
+            while (end > offset && data.get(end - 1) == space) {
+                end--;
+            }
+        }
+
+        if (fieldType == CobolString.class || (cobolField.lazy() && fieldType == CharSequence.class)) {
+            return CobolString.of(data, offset, end - offset, codePage);
+        }
+        if (cobolField.lazy()) {
+            throw new CobolParseException("Lazy field must be a CharSequence or CobolString, not " + fieldType.getName());
+        }
+        if (internCache != null && internCache.getCodePage() == codePage) {
+            return internCache.intern(data, offset, end - offset);
+        }
+        return codePage.decode(data, offset, end - offset);
+    }
+
+    /**
+     * Extract a zoned numeric field by reading the digits straight from the bytes,
+     * without building intermediate strings. Accepts the same sign conventions as
+     * the string-based paths, and EBCDIC zone nibbles for EBCDIC code pages.
+     */
+    private Object extractZonedValue(RecordBytes data, int offset, int length, Class<?> fieldType,
+            CobolField cobolField, CodePage codePage) throws CobolParseException {
+        boolean explicit = cobolField.type() == CobolFieldType.DECIMAL_EXPLICIT;
+        int maxDigits = explicit ? length - 1 : length;
+        if (maxDigits > 18 && !CobolTypeConverter.isCobolDecimalType(fieldType)) {
+            // Too wide for a long, normalize to text and let the converter handle it
+            StringBuilder text = new StringBuilder(length + 1);
+            scanZoned(data, offset, length, cobolField, codePage, text);
+            return converter.convertToNumericType(text.toString(), fieldType);
+        }
+
+        long value = explicit ? ZonedDecimalDecoder.NOT_SIMPLE
+                : ZonedDecimalDecoder.tryDecode(data, offset, length, cobolField.signed(), codePage);
+        if (value == ZonedDecimalDecoder.NOT_SIMPLE) {
+            value = scanZoned(data, offset, length, cobolField, codePage, null);
+        }
+        int scale = explicit ? explicitScale(data, offset, length, codePage) : assumedScale(cobolField);
+        return converter.convertToNumericType(value, scale, fieldType);
+    }
+
+    private static int assumedScale(CobolField cobolField) {
+        return cobolField.type() == CobolFieldType.DECIMAL_ASSUMED ? cobolField.scale() : 0;
+    }
+
+    /**
+     * Decode a NUMERIC or DECIMAL_ASSUMED zoned field into an unscaled long at the
+     * field scale. Plain digit runs take the word-at-a-time fast path.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param length The length of the field in bytes
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of the data
+     * @return The unscaled value
+     * @throws CobolParseException If the field is not a valid number of up to 18 digits
+     */
+    public long extractZonedUnscaled(byte[] data, int offset, int length, CobolField cobolField, CodePage codePage)
+            throws CobolParseException {
+        return extractZonedUnscaled(RecordBytes.of(data), offset, length, cobolField, codePage);
+    }
+
+    /**
+     * Decode a NUMERIC or DECIMAL_ASSUMED zoned field of record data into an unscaled
+     * long at the field scale, reading it in place.
+     *
+     * @param data The record data
+     * @param offset The start of the field in the data
+     * @param length The length of the field in bytes
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of the data
+     * @return The unscaled value
+     * @throws CobolParseException If the field is not a valid number of up to 18 digits
+     */
+    public long extractZonedUnscaled(RecordBytes data, int offset, int length, CobolField cobolField,
+            CodePage codePage) throws CobolParseException {
+        long value = ZonedDecimalDecoder.tryDecode(data, offset, length, cobolField.signed(), codePage);
+        if (value != ZonedDecimalDecoder.NOT_SIMPLE) {
+            return value;
+        }
+        return scanZoned(data, offset, length, cobolField, codePage, null);
+    }
+
+    /**
+     * Scan zoned digits into a signed unscaled long, or into {@code text} as a
+     * normalized numeric string when a builder is given.
+     */
+    private long scanZoned(RecordBytes data, int offset, int length, CobolField cobolField, CodePage codePage,
+            StringBuilder text) throws CobolParseException {
+        boolean explicit = cobolField.type() == CobolFieldType.DECIMAL_EXPLICIT;
+        boolean assumedScale = cobolField.type() == CobolFieldType.DECIMAL_ASSUMED && cobolField.scale() > 0;
+        int last = length - 1;
+        boolean negative = false;
+        long value = 0;
+        int digits = 0;
+
+        for (int i = 0; i <= last; i++) {
+            byte b = data.get(offset + i);
+            int digit = codePage.digitValue(b);
+            if (digit < 0 && i == last && cobolField.signed()) {
+                digit = codePage.overpunchDigit(b);
+                negative = digit >= 0 && codePage.isNegativeOverpunch(b);
+            }
+            if (digit < 0) {
+                char c = codePage.isTableDriven() ? codePage.toChar(b) : (char) (b & 0xFF);
+                if (c == '-' && (i == 0 || i == last)) {
+                    negative = true;
+                } else if (c == '.' && explicit) {
+                    if (text != null) {
+                        text.append('.');
+                    }
+                } else if (!(c == ' ' || (c == '+' && (i == 0 || i == last)))) {
+                    throw CobolDataException.of(ViolationType.INVALID_DIGIT);
+                }
+                continue;
+            }
+
+            if (text != null) {
+                text.append((char) ('0' + digit));
+            } else {
+                value = digits < 18 ? value * 10 + digit : addDigitExact(value, digit);
+            }
+            digits++;
+        }
+
+        if (text != null) {
+            if (assumedScale && text.length() >= cobolField.scale()) {
+                text.insert(text.length() - cobolField.scale(), '.');
+            }
+            if (negative) {
+                text.insert(0, '-');
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Count the digits after the decimal point of an explicit decimal field.
+     */
+    private static int explicitScale(RecordBytes data, int offset, int length, CodePage codePage) {
+        byte point = codePage.isTableDriven() ? codePage.toByte('.') : (byte) '.';
+        for (int i = 0; i < length; i++) {
+            if (data.get(offset + i) == point) {
+                int scale = 0;
+                for (int j = i + 1; j < length; j++) {
+                    byte b = data.get(offset + j);
+                    if (codePage.digitValue(b) >= 0 || (j == length - 1 && codePage.overpunchDigit(b) >= 0)) {
+                        scale++;
+                    }
+                }
+                return scale;
+            }
+        }
+        return 0;
+    }
+
+    private static long addDigitExact(long value, int digit) throws CobolParseException {
+        try {
+            return Math.addExact(Math.multiplyExact(value, 10L), digit);
+        } catch (ArithmeticException e) {
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
+        }
+    }
+
     /**
      * Extract a signed numeric value from byte data.
      */
@@ -100,6 +379,8 @@ public class StandardFieldHandler {
             
             String finalStr = (negative ? "-" : "") + numStr.toString();
             return converter.convertToNumericType(finalStr, fieldType);
+        } catch (NumberFormatException e) {
+            throw CobolDataException.of(ViolationType.INVALID_DIGIT);
         } catch (Exception e) {
             throw new CobolParseException("Error extracting signed numeric: " + e.getMessage(), e);
         }
@@ -147,6 +428,8 @@ public class StandardFieldHandler {
             }
             
             return converter.convertToNumericType(rawStr, fieldType);
+        } catch (NumberFormatException e) {
+            throw CobolDataException.of(ViolationType.INVALID_DIGIT);
         } catch (Exception e) {
             throw new CobolParseException("Error extracting decimal value: " + e.getMessage(), e);
         }
@@ -164,12 +447,55 @@ public class StandardFieldHandler {
      */
     public int writeValue(Object value, byte[] data, int offset, CobolField cobolField) 
             throws CobolParseException {
+        return writeValue(value, data, offset, cobolField, CodePage.of(cobolField.encoding()));
+    }
+
+    /**
+     * Write a standard field value to a byte array in the given code page.
+     *
+     * @param value The field value
+     * @param data The byte array to write to
+     * @param offset The offset position in the byte array
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page to write in
+     * @return The number of bytes written
+     * @throws CobolParseException If there's an error during conversion
+     */
+    public int writeValue(Object value, byte[] data, int offset, CobolField cobolField, CodePage codePage)
+            throws CobolParseException {
         try {
             int length = cobolField.length();
             CobolFieldType type = cobolField.type();
             boolean signed = cobolField.signed();
             int scale = cobolField.scale();
             
+            // Decimal types, and any numeric value in a table-driven code page,
+            // are written digit by digit at the field scale
+            if (type == CobolFieldType.NUMERIC || type == CobolFieldType.DECIMAL_ASSUMED) {
+                CobolDecimal decimal = value instanceof CobolDecimal || value instanceof MutableCobolDecimal
+                        || codePage.isTableDriven() ? toZonedDecimal(value) : null;
+                if (decimal != null) {
+                    long unscaled = type == CobolFieldType.NUMERIC
+                            ? decimal.longValue()
+                            : Comp3FieldHandler.unscaledAtFieldScale(decimal, cobolField);
+                    writeZonedValue(unscaled, data, offset, length, signed, codePage);
+                    return length;
+                }
+            }
+            if (value instanceof CobolDecimal && type == CobolFieldType.DECIMAL_EXPLICIT) {
+                value = ((CobolDecimal) value).setScale(scale);
+            } else if (value instanceof MutableCobolDecimal && type == CobolFieldType.DECIMAL_EXPLICIT) {
+                value = ((MutableCobolDecimal) value).toCobolDecimal().setScale(scale);
+            }
+
+            // Lazy values in the same code page are copied without decoding
+            if (type == CobolFieldType.ALPHANUMERIC && value instanceof CobolString
+                    && ((CobolString) value).getCodePage() == codePage) {
+                int copied = ((CobolString) value).copyBytes(data, offset, length);
+                Arrays.fill(data, offset + copied, offset + length, codePage.spaceByte());
+                return length;
+            }
+
             // Convert value to string representation
             String strValue = value == null ? "" : value.toString();
             
@@ -177,8 +503,8 @@ public class StandardFieldHandler {
             switch (type) {
                 case ALPHANUMERIC:
                     // Left-justify and pad with spaces
-                    writeAlphanumericValue(strValue, data, offset, length);
-                    break;
+                    codePage.encode(strValue, data, offset, length);
+                    return length;
                     
                 case NUMERIC:
                     // Write numeric value - handles sign if needed
@@ -201,28 +527,72 @@ public class StandardFieldHandler {
                     
                 default:
                     // Default to alphanumeric handling
-                    writeAlphanumericValue(strValue, data, offset, length);
+                    codePage.encode(strValue, data, offset, length);
+                    return length;
             }
             
+            // Numeric text is formatted in ASCII, translate it to the target code page
+            if (codePage.isTableDriven()) {
+                for (int i = offset; i < offset + length; i++) {
+                    data[i] = codePage.toByte((char) (data[i] & 0xFF));
+                }
+                if (signed && codePage.isEbcdic() && length > 0) {
+                    // Move an ASCII overpunch or plain digit into the EBCDIC sign zone
+                    int last = offset + length - 1;
+                    char c = codePage.toChar(data[last]);
+                    if (c >= 'p' && c <= 'y') {
+                        data[last] = (byte) (0xD0 | (c - 'p'));
+                    } else if (c >= '0' && c <= '9') {
+                        data[last] = (byte) (0xC0 | (c - '0'));
+                    }
+                }
+            }
             return length;
         } catch (Exception e) {
             throw new CobolParseException("Error writing regular field: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Convert a value to a decimal for digit-wise zoned output, or return null
+     * when it is too wide for a long and has to take the string path.
+     */
+    private static CobolDecimal toZonedDecimal(Object value) {
+        try {
+            if (value == null) {
+                return CobolDecimal.ZERO;
+            } else if (value instanceof Number) {
+                return CobolTypeConverter.toCobolDecimal((Number) value);
+            }
+            String text = value.toString().trim();
+            return text.isEmpty() ? CobolDecimal.ZERO : CobolDecimal.parse(text);
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+    }
     
     /**
-     * Write an alphanumeric value to a byte array.
+     * Write an unscaled value as right-aligned, zero-padded digits.
+     * Negative values of signed fields carry an overpunch on the last digit;
+     * unsigned fields store the absolute value, as a COBOL MOVE would.
+     * EBCDIC code pages store the sign of signed fields in the zone nibble
+     * of the last digit (0xC positive, 0xD negative).
      */
-    private void writeAlphanumericValue(String value, byte[] data, int offset, int length) {
-        byte[] bytes = value.getBytes();
-        int copyLength = Math.min(bytes.length, length);
-        
-        // Copy actual data
-        System.arraycopy(bytes, 0, data, offset, copyLength);
-        
-        // Fill remaining space with spaces
-        for (int i = copyLength; i < length; i++) {
-            data[offset + i] = (byte) ' '; // Space character
+    private void writeZonedValue(long unscaled, byte[] data, int offset, int length, boolean signed,
+            CodePage codePage) {
+        long remaining = unscaled;
+        for (int i = length - 1; i >= 0; i--) {
+            data[offset + i] = codePage.digitByte((int) Math.abs(remaining % 10));
+            remaining /= 10;
+        }
+        if (signed && length > 0) {
+            int last = offset + length - 1;
+            int digit = codePage.digitValue(data[last]);
+            if (codePage.isEbcdic()) {
+                data[last] = (byte) ((unscaled < 0 ? 0xD0 : 0xC0) | digit);
+            } else if (unscaled < 0) {
+                data[last] = (byte) ('p' + digit);
+            }
         }
     }
     
@@ -0,0 +1,177 @@
+package org.jcobol.core.layout;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Resolves record constructors and field accessors.
+ * <p>
+ * This is the Java 8 implementation. Constructors of public classes are bound to a
+ * {@link Supplier} with {@link LambdaMetafactory}; other constructors and all fields
+ * use method handles from {@code unreflect}, falling back to plain reflection if a
+ * handle cannot be created. On Java 9 and later the multi-release jar provides a
+ * version using {@code privateLookupIn} and var handles.
+ */
+final class Accessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private Accessors() {
+    }
+
+    /**
+     * @return A supplier creating instances with the no-argument constructor,
+     *         or null if the class has none
+     */
+    static Supplier<Object> constructor(Class<?> clazz) {
+        Constructor<?> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            return () -> newInstance(constructor);
+        }
+
+        if (isAccessible(clazz) && Modifier.isPublic(constructor.getModifiers())) {
+            try {
+                return bind(LOOKUP, handle, clazz);
+            } catch (Throwable e) {
+                // Fall through to the method handle
+            }
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+        return () -> invoke(generic);
+    }
+
+    /**
+     * @return An accessor for the field, using method handles where possible
+     */
+    static FieldAccessor field(Field field) {
+        field.setAccessible(true);
+        if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+            try {
+                MethodHandle getter = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+                MethodHandle setter = LOOKUP.unreflectSetter(field).asType(SETTER_TYPE);
+                return new MethodHandleAccessor(getter, setter);
+            } catch (IllegalAccessException e) {
+                // Fall back to reflection
+            }
+        }
+        return new ReflectiveAccessor(field);
+    }
+
+    /**
+     * Bind a constructor handle to a Supplier implemented by a generated class.
+     */
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> bind(MethodHandles.Lookup lookup, MethodHandle constructor, Class<?> clazz)
+            throws Throwable {
+        return (Supplier<Object>) LambdaMetafactory.metafactory(lookup, "get",
+                MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                constructor, MethodType.methodType(clazz)).getTarget().invoke();
+    }
+
+    /**
+     * A generated class in this package can only call the constructor of a public
+     * class whose enclosing classes are public too.
+     */
+    private static boolean isAccessible(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object newInstance(Constructor<?> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    static Object invoke(MethodHandle constructor) {
+        try {
+            return constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to instantiate record", e);
+        }
+    }
+
+    static final class MethodHandleAccessor implements FieldAccessor {
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        MethodHandleAccessor(MethodHandle getter, MethodHandle setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object record) {
+            try {
+                return (Object) getter.invokeExact(record);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void set(Object record, Object value) {
+            try {
+                setter.invokeExact(record, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    static final class ReflectiveAccessor implements FieldAccessor {
+        private final Field field;
+
+        ReflectiveAccessor(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public Object get(Object record) {
+            try {
+                return field.get(record);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void set(Object record, Object value) {
+            try {
+                field.set(record, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.jcobol.core.layout;
+
+/**
+ * Reads and writes one field of a record object.
+ * Implementations are resolved once per field and cached in the {@link RecordLayout}.
+ */
+public interface FieldAccessor {
+
+    /**
+     * @param record The record object
+     * @return The field value, boxed for primitive fields
+     */
+    Object get(Object record);
+
+    /**
+     * @param record The record object
+     * @param value The new value, boxed for primitive fields
+     */
+    void set(Object record, Object value);
+}
@@ -0,0 +1,123 @@
+package org.jcobol.core.layout;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.utils.CobolDefaultValueProvider;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.types.MutableCobolDecimal;
+
+import java.lang.reflect.Field;
+
+/**
+ * Position and accessor of one annotated field in a {@link RecordLayout}.
+ * A field is either a {@link CobolField} or a nested object with its own layout.
+ */
+public final class FieldLayout {
+    private final Field field;
+    private final CobolField cobolField;
+    private final RecordLayout<?> nestedLayout;
+    private final int offset;
+    private final int length;
+    private final FieldAccessor accessor;
+    private final Object defaultValue;
+
+    FieldLayout(Field field, CobolField cobolField, RecordLayout<?> nestedLayout, int offset, int length) {
+        this.field = field;
+        this.cobolField = cobolField;
+        this.nestedLayout = nestedLayout;
+        this.offset = offset;
+        this.length = length;
+        this.accessor = Accessors.field(field);
+        this.defaultValue = cobolField == null || field.getType() == MutableCobolDecimal.class
+                ? null : CobolDefaultValueProvider.getDefaultValue(cobolField, field.getType());
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public String getName() {
+        return field.getName();
+    }
+
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    /**
+     * @return The field annotation, or null for nested objects
+     */
+    public CobolField getCobolField() {
+        return cobolField;
+    }
+
+    /**
+     * @return The layout of the nested object, or null for simple fields
+     */
+    public RecordLayout<?> getNestedLayout() {
+        return nestedLayout;
+    }
+
+    public boolean isNested() {
+        return nestedLayout != null;
+    }
+
+    /**
+     * @return The offset of the field from the start of its record
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The binary length of the field, or of the whole nested object
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Resolve the code page of a simple field: its own encoding, or the record encoding.
+     *
+     * @param recordEncoding The encoding of the enclosing record
+     * @return The code page of display data
+     */
+    public CodePage getCodePage(CobolEncoding recordEncoding) {
+        CobolEncoding encoding = cobolField.encoding();
+        return CodePage.of(encoding == CobolEncoding.INHERIT ? recordEncoding : encoding);
+    }
+
+    /**
+     * Get the default value of a simple field, as set by {@code initialize}.
+     * Immutable defaults are created once and shared; mutable decimals are
+     * created new on every call.
+     *
+     * @return The default value
+     */
+    public Object getDefaultValue() {
+        if (defaultValue == null) {
+            return CobolDefaultValueProvider.getDefaultValue(cobolField, field.getType());
+        }
+        return defaultValue;
+    }
+
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * @param record The record object
+     * @return The field value
+     */
+    public Object get(Object record) {
+        return accessor.get(record);
+    }
+
+    /**
+     * @param record The record object
+     * @param value The new value
+     */
+    public void set(Object record, Object value) {
+        accessor.set(record, value);
+    }
+}
@@ -0,0 +1,85 @@
+package org.jcobol.core.layout;
+
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.enums.CobolEncoding;
+
+/**
+ * A field found by its dotted path from a top-level record, with its absolute
+ * offset and the encoding of the record that contains it.
+ */
+public final class FieldLocation {
+    private final String path;
+    private final RecordLayout<?> recordLayout;
+    private final FieldLayout field;
+    private final int offset;
+    private final CobolEncoding recordEncoding;
+
+    FieldLocation(String path, RecordLayout<?> recordLayout, FieldLayout field, int offset,
+            CobolEncoding recordEncoding) {
+        this.path = path;
+        this.recordLayout = recordLayout;
+        this.field = field;
+        this.offset = offset;
+        this.recordEncoding = recordEncoding;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return The layout of the record or nested object declaring the field
+     */
+    public RecordLayout<?> getRecordLayout() {
+        return recordLayout;
+    }
+
+    public FieldLayout getField() {
+        return field;
+    }
+
+    /**
+     * @return The offset of the field from the start of the top-level record
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The binary length of the field
+     */
+    public int getLength() {
+        return field.getLength();
+    }
+
+    /**
+     * @return The resolved encoding of the record declaring the field
+     */
+    public CobolEncoding getRecordEncoding() {
+        return recordEncoding;
+    }
+
+    /**
+     * @return The resolved encoding of a nested object's own fields
+     */
+    public CobolEncoding getNestedEncoding() {
+        return field.getNestedLayout().resolveEncoding(recordEncoding);
+    }
+
+    /**
+     * @return The code page of a simple field
+     */
+    public CodePage getCodePage() {
+        return field.getCodePage(recordEncoding);
+    }
+
+    /**
+     * Copy the default bytes of the field from the default record image.
+     *
+     * @param dest The byte array to copy to
+     * @param destOffset The position in the destination
+     */
+    public void copyDefault(byte[] dest, int destOffset) {
+        recordLayout.copyDefaultImage(recordEncoding, field.getOffset(), field.getLength(), dest, destOffset);
+    }
+}
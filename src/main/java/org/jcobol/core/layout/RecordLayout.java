@@ -0,0 +1,416 @@
+package org.jcobol.core.layout;
+
+import org.jcobol.annotation.CobolConstructor;
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.core.utils.CobolFieldCalculator;
+import org.jcobol.core.utils.CobolFieldWriter;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.exception.CobolParseException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Binary layout of a COBOL-annotated class, resolved once per class and cached.
+ * <p>
+ * The layout holds the annotated fields in declaration order with their offsets
+ * and lengths, an accessor for each field and a factory for new instances.
+ * Parsing, writing and initializing records go through the layout, so annotations
+ * are read and accessors are created only on first use of a class.
+ * <p>
+ * Each layout also keeps a default record image per encoding: the bytes of a
+ * record holding the default values set by {@code initialize}, with spaces for
+ * alphanumeric fields and zeros for numeric ones. Null fields and missing nested objects are written by copying
+ * from the image instead of being formatted.
+ * <p>
+ * Classes with a {@link CobolConstructor}, and Java records on Java 17 and later,
+ * are immutable: their values are decoded first and passed to the constructor
+ * in one call through a cached method handle.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ *
+ * @param <T> The record type
+ */
+public final class RecordLayout<T> {
+
+    private static final CobolFieldCalculator fieldCalculator = new CobolFieldCalculator();
+    private static final CobolFieldWriter fieldWriter = new CobolFieldWriter();
+
+    private static final ClassValue<RecordLayout<?>> LAYOUTS = new ClassValue<RecordLayout<?>>() {
+        @Override
+        protected RecordLayout<?> computeValue(Class<?> type) {
+            return new RecordLayout<>(type);
+        }
+    };
+
+    private final Class<T> recordClass;
+    private final CobolEncoding encoding;
+    private final FieldLayout[] fields;
+    private final List<FieldLayout> fieldList;
+    private final int length;
+    private final MethodHandle creator;
+    private final int[] parameterFields;
+    private final Object[] parameterDefaults;
+    private final boolean identityMapping;
+    private final AtomicReferenceArray<byte[]> defaultImages =
+            new AtomicReferenceArray<>(CobolEncoding.values().length);
+    private volatile Supplier<Object> factory;
+
+    private RecordLayout(Class<T> recordClass) {
+        this.recordClass = recordClass;
+        CobolRecord record = recordClass.getAnnotation(CobolRecord.class);
+        this.encoding = record == null ? CobolEncoding.INHERIT : record.encoding();
+
+        List<FieldLayout> layouts = new ArrayList<>();
+        int offset = 0;
+        for (Field field : recordClass.getDeclaredFields()) {
+            FieldLayout layout = null;
+            if (field.isAnnotationPresent(CobolField.class)) {
+                CobolField cobolField = field.getAnnotation(CobolField.class);
+                layout = new FieldLayout(field, cobolField, null, offset,
+                        fieldCalculator.calculateBinaryLength(cobolField));
+            } else if (field.isAnnotationPresent(CobolNestedObject.class)) {
+                RecordLayout<?> nested = of(field.getType());
+                layout = new FieldLayout(field, null, nested, offset, nested.getLength());
+            }
+            if (layout != null) {
+                layouts.add(layout);
+                offset += layout.getLength();
+            }
+        }
+        this.fields = layouts.toArray(new FieldLayout[0]);
+        this.fieldList = Collections.unmodifiableList(Arrays.asList(fields));
+        this.length = offset;
+
+        Constructor<?> constructor = findImmutableConstructor(recordClass);
+        if (constructor == null) {
+            this.creator = null;
+            this.parameterFields = null;
+            this.parameterDefaults = null;
+            this.identityMapping = false;
+        } else {
+            Class<?>[] types = constructor.getParameterTypes();
+            this.parameterFields = mapParameters(recordClass, types.length);
+            this.parameterDefaults = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                if (parameterFields[i] < 0) {
+                    parameterDefaults[i] = defaultValue(types[i]);
+                }
+            }
+            this.identityMapping = isIdentity(parameterFields, fields.length);
+            this.creator = spreadConstructor(constructor);
+        }
+    }
+
+    private static Constructor<?> findImmutableConstructor(Class<?> clazz) {
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            if (constructor.isAnnotationPresent(CobolConstructor.class)) {
+                return constructor;
+            }
+        }
+        return RecordSupport.canonicalConstructor(clazz);
+    }
+
+    /**
+     * Map each constructor parameter to the index of the field it receives,
+     * or -1 for record components without a COBOL annotation.
+     */
+    private int[] mapParameters(Class<?> clazz, int parameterCount) {
+        int[] mapping = new int[parameterCount];
+        String[] components = RecordSupport.componentNames(clazz);
+        if (components == null) {
+            if (parameterCount != fields.length) {
+                throw new IllegalArgumentException("@CobolConstructor of " + clazz.getName() + " takes "
+                        + parameterCount + " parameters but the class has " + fields.length + " COBOL fields");
+            }
+            for (int i = 0; i < parameterCount; i++) {
+                mapping[i] = i;
+            }
+            return mapping;
+        }
+
+        for (int i = 0; i < parameterCount; i++) {
+            mapping[i] = -1;
+            for (int f = 0; f < fields.length; f++) {
+                if (fields[f].getName().equals(components[i])) {
+                    mapping[i] = f;
+                    break;
+                }
+            }
+        }
+        return mapping;
+    }
+
+    private static boolean isIdentity(int[] mapping, int fieldCount) {
+        if (mapping.length != fieldCount) {
+            return false;
+        }
+        for (int i = 0; i < mapping.length; i++) {
+            if (mapping[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MethodHandle spreadConstructor(Constructor<?> constructor) {
+        try {
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot access the constructor of "
+                    + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == float.class) {
+            return 0f;
+        }
+        return 0d;
+    }
+
+    /**
+     * Get the layout of a class.
+     *
+     * @param <T> The record type
+     * @param recordClass The record class
+     * @return The cached layout
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RecordLayout<T> of(Class<T> recordClass) {
+        return (RecordLayout<T>) LAYOUTS.get(recordClass);
+    }
+
+    public Class<T> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * @return The encoding declared by the class's {@link CobolRecord}, or INHERIT
+     */
+    public CobolEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Resolve the encoding of the record: its own encoding, or the encoding
+     * inherited from the enclosing record.
+     *
+     * @param inheritedEncoding The encoding of the enclosing record
+     * @return The record encoding
+     */
+    public CobolEncoding resolveEncoding(CobolEncoding inheritedEncoding) {
+        return encoding == CobolEncoding.INHERIT ? inheritedEncoding : encoding;
+    }
+
+    /**
+     * @return The annotated fields in declaration order
+     */
+    public List<FieldLayout> getFields() {
+        return fieldList;
+    }
+
+    /**
+     * Find an annotated field by name.
+     *
+     * @param name The field name
+     * @return The field layout, or null if there is no annotated field with that name
+     */
+    public FieldLayout getField(String name) {
+        for (FieldLayout field : fields) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find a field by its dotted path, such as {@code address.zipCode} for a field
+     * of a nested object. This layout is taken as a top-level record.
+     *
+     * @param path The field name or dotted path
+     * @return The location of the field, or null if there is no annotated field at that path
+     */
+    public FieldLocation locate(String path) {
+        RecordLayout<?> layout = this;
+        int offset = 0;
+        CobolEncoding recordEncoding = resolveEncoding(CobolEncoding.INHERIT);
+        String[] names = path.split("\\.");
+        for (int i = 0; i < names.length; i++) {
+            FieldLayout field = layout.getField(names[i]);
+            if (field == null) {
+                return null;
+            }
+            offset += field.getOffset();
+            if (i == names.length - 1) {
+                return new FieldLocation(path, layout, field, offset, recordEncoding);
+            }
+            if (!field.isNested()) {
+                return null;
+            }
+            layout = field.getNestedLayout();
+            recordEncoding = layout.resolveEncoding(recordEncoding);
+        }
+        return null;
+    }
+
+    /**
+     * @return The binary length of a record, counting nested objects by their declared type
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get a copy of the default record image.
+     *
+     * @param inheritedEncoding The encoding of the enclosing record, used if the class has none
+     * @return The bytes of a record holding the default values
+     */
+    public byte[] getDefaultImage(CobolEncoding inheritedEncoding) {
+        return defaultImage(inheritedEncoding).clone();
+    }
+
+    /**
+     * Copy part of the default record image, for example the bytes of one field
+     * at {@link FieldLayout#getOffset()}.
+     *
+     * @param inheritedEncoding The encoding of the enclosing record, used if the class has none
+     * @param offset The start of the range in the image
+     * @param count The number of bytes to copy
+     * @param dest The byte array to copy to
+     * @param destOffset The position in the destination
+     */
+    public void copyDefaultImage(CobolEncoding inheritedEncoding, int offset, int count, byte[] dest, int destOffset) {
+        System.arraycopy(defaultImage(inheritedEncoding), offset, dest, destOffset, count);
+    }
+
+    private byte[] defaultImage(CobolEncoding inheritedEncoding) {
+        CobolEncoding recordEncoding = resolveEncoding(inheritedEncoding);
+        byte[] image = defaultImages.get(recordEncoding.ordinal());
+        if (image == null) {
+            // Benign race: concurrent callers build identical images
+            image = buildDefaultImage(recordEncoding);
+            defaultImages.set(recordEncoding.ordinal(), image);
+        }
+        return image;
+    }
+
+    private byte[] buildDefaultImage(CobolEncoding recordEncoding) {
+        byte[] image = new byte[length];
+        for (FieldLayout field : fields) {
+            if (field.isNested()) {
+                RecordLayout<?> nested = field.getNestedLayout();
+                nested.copyDefaultImage(recordEncoding, 0, nested.getLength(), image, field.getOffset());
+            } else {
+                try {
+                    fieldWriter.writeBinaryFieldValue(field.getDefaultValue(), image, field.getOffset(),
+                            field.getCobolField(),
+                            field.getCodePage(recordEncoding));
+                } catch (CobolParseException e) {
+                    throw new IllegalStateException("Cannot write the default value of field " + field.getName(), e);
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * @return true if instances are created from decoded values through a
+     *         {@link CobolConstructor} or a record's canonical constructor
+     */
+    public boolean isImmutable() {
+        return creator != null;
+    }
+
+    /**
+     * Create an immutable instance from its field values.
+     *
+     * @param values The values of the annotated fields, in the order of {@link #getFields()}
+     * @return The new instance
+     * @throws NoSuchMethodException If the class is not immutable
+     * @throws InvocationTargetException If the constructor throws an exception
+     */
+    public T newInstance(Object[] values) throws ReflectiveOperationException {
+        if (creator == null) {
+            throw new NoSuchMethodException(recordClass.getName() + " has no @CobolConstructor");
+        }
+        Object[] arguments = values;
+        if (!identityMapping) {
+            arguments = new Object[parameterFields.length];
+            for (int i = 0; i < arguments.length; i++) {
+                int field = parameterFields[i];
+                arguments[i] = field < 0 ? parameterDefaults[i] : values[field];
+            }
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            T instance = (T) (Object) creator.invokeExact(arguments);
+            return instance;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Get the factory creating instances with the no-argument constructor.
+     * For accessible classes the factory is a lambda bound to the constructor
+     * with {@link java.lang.invoke.LambdaMetafactory}.
+     *
+     * @return The factory, or null if the class has no no-argument constructor
+     */
+    @SuppressWarnings("unchecked")
+    public Supplier<T> getFactory() {
+        Supplier<Object> supplier = factory;
+        if (supplier == null) {
+            // Benign race: concurrent callers resolve equivalent factories
+            supplier = Accessors.constructor(recordClass);
+            factory = supplier;
+        }
+        return (Supplier<T>) supplier;
+    }
+
+    /**
+     * Create a new instance with the no-argument constructor.
+     *
+     * @return The new instance
+     * @throws NoSuchMethodException If the class has no no-argument constructor
+     */
+    public T newInstance() throws ReflectiveOperationException {
+        Supplier<T> supplier = getFactory();
+        if (supplier == null) {
+            throw new NoSuchMethodException(recordClass.getName() + ".<init>()");
+        }
+        return supplier.get();
+    }
+}
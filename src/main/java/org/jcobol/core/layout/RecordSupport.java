@@ -0,0 +1,29 @@
+package org.jcobol.core.layout;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Access to Java record classes.
+ * <p>
+ * Java 8 has no records, so this implementation never finds one. The
+ * multi-release jar provides a Java 17 version using the record reflection API.
+ */
+final class RecordSupport {
+
+    private RecordSupport() {
+    }
+
+    /**
+     * @return The canonical constructor if the class is a record, otherwise null
+     */
+    static Constructor<?> canonicalConstructor(Class<?> clazz) {
+        return null;
+    }
+
+    /**
+     * @return The record component names in declaration order, or null if the class is not a record
+     */
+    static String[] componentNames(Class<?> clazz) {
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package org.jcobol.core.mapping;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.utils.CobolFieldExtractor;
+import org.jcobol.core.utils.CobolFieldWriter;
+import org.jcobol.exception.CobolParseException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Converts a field through a decoded value, for formats the byte-level steps
+ * do not cover: binary, floating point and explicit decimal fields.
+ * Only the one value is decoded; no record object is created.
+ */
+final class ConvertStep implements MappingStep {
+    private static final CobolFieldExtractor fieldExtractor = new CobolFieldExtractor();
+    private static final CobolFieldWriter fieldWriter = new CobolFieldWriter();
+
+    private final int srcOffset;
+    private final int srcLength;
+    private final CobolField srcField;
+    private final CodePage srcCodePage;
+    private final int destOffset;
+    private final CobolField destField;
+    private final CodePage destCodePage;
+    private final Class<?> valueType;
+    private final int destScale;
+
+    ConvertStep(int srcOffset, int srcLength, CobolField srcField, CodePage srcCodePage,
+            int destOffset, CobolField destField, CodePage destCodePage, Class<?> valueType, int destScale) {
+        this.srcOffset = srcOffset;
+        this.srcLength = srcLength;
+        this.srcField = srcField;
+        this.srcCodePage = srcCodePage;
+        this.destOffset = destOffset;
+        this.destField = destField;
+        this.destCodePage = destCodePage;
+        this.valueType = valueType;
+        this.destScale = destScale;
+    }
+
+    @Override
+    public void apply(byte[] src, int srcBase, byte[] dest, int destBase) throws CobolParseException {
+        int from = srcBase + srcOffset;
+        Object value = fieldExtractor.extractValue(src, from, from + srcLength, valueType, srcField, srcCodePage);
+        if (value instanceof BigDecimal) {
+            // Align on the target scale, dropping extra fraction digits like a COBOL MOVE
+            value = ((BigDecimal) value).setScale(destScale, RoundingMode.DOWN);
+        }
+        fieldWriter.writeBinaryFieldValue(value, dest, destBase + destOffset, destField, destCodePage);
+    }
+}
@@ -0,0 +1,32 @@
+package org.jcobol.core.mapping;
+
+/**
+ * Copies a byte range unchanged, for fields with the same format on both sides.
+ * Adjacent copies are merged into one step when the plan is compiled.
+ */
+final class CopyStep implements MappingStep {
+    final int srcOffset;
+    final int destOffset;
+    final int length;
+
+    CopyStep(int srcOffset, int destOffset, int length) {
+        this.srcOffset = srcOffset;
+        this.destOffset = destOffset;
+        this.length = length;
+    }
+
+    /**
+     * @return A step copying both ranges, or null if the copies are not adjacent on both sides
+     */
+    CopyStep merge(CopyStep next) {
+        if (srcOffset + length == next.srcOffset && destOffset + length == next.destOffset) {
+            return new CopyStep(srcOffset, destOffset, length + next.length);
+        }
+        return null;
+    }
+
+    @Override
+    public void apply(byte[] src, int srcBase, byte[] dest, int destBase) {
+        System.arraycopy(src, srcBase + srcOffset, dest, destBase + destOffset, length);
+    }
+}
@@ -0,0 +1,130 @@
+package org.jcobol.core.mapping;
+
+import org.jcobol.core.bulk.PackedDecimalDecoder;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.exception.CobolParseException;
+
+/**
+ * Moves a zoned or packed decimal into a zoned or packed decimal, digit by digit.
+ * <p>
+ * Digits are aligned on the decimal point, so a change of scale pads or drops
+ * fraction digits, and high-order digits that do not fit the target are dropped,
+ * like a COBOL MOVE. No intermediate number is built. Packed digits follow the
+ * layout of the COMP-3 handler: the declared digits fill the nibbles from the left,
+ * and the last byte holds the sign nibble.
+ */
+final class DecimalMoveStep implements MappingStep {
+    private final String name;
+    private final boolean srcPacked;
+    private final int srcOffset;
+    private final int srcDigits;
+    private final boolean srcSigned;
+    private final CodePage srcCodePage;
+    private final boolean destPacked;
+    private final int destOffset;
+    private final int destDigits;
+    private final int destBytes;
+    private final boolean destSigned;
+    private final CodePage destCodePage;
+    private final int shift;
+
+    DecimalMoveStep(String name,
+            boolean srcPacked, int srcOffset, int srcDigits, int srcScale, boolean srcSigned, CodePage srcCodePage,
+            boolean destPacked, int destOffset, int destDigits, int destBytes, int destScale, boolean destSigned,
+            CodePage destCodePage) {
+        this.name = name;
+        this.srcPacked = srcPacked;
+        this.srcOffset = srcOffset;
+        this.srcDigits = srcDigits;
+        this.srcSigned = srcSigned;
+        this.srcCodePage = srcCodePage;
+        this.destPacked = destPacked;
+        this.destOffset = destOffset;
+        this.destDigits = destDigits;
+        this.destBytes = destBytes;
+        this.destSigned = destSigned;
+        this.destCodePage = destCodePage;
+        this.shift = srcScale - destScale;
+    }
+
+    @Override
+    public void apply(byte[] src, int srcBase, byte[] dest, int destBase) throws CobolParseException {
+        int from = srcBase + srcOffset;
+        int to = destBase + destOffset;
+        if (destPacked) {
+            for (int i = 0; i < destBytes; i++) {
+                dest[to + i] = 0;
+            }
+        }
+
+        // Digit 0 is the least significant digit at the target scale
+        boolean nonZero = false;
+        for (int t = 0; t < destDigits; t++) {
+            int k = t + shift;
+            int digit = k >= 0 && k < srcDigits ? sourceDigit(src, from, k) : 0;
+            nonZero |= digit != 0;
+            if (destPacked) {
+                int nibble = destDigits - 1 - t;
+                int index = to + (nibble >> 1);
+                dest[index] = (byte) (dest[index] | ((nibble & 1) == 0 ? digit << 4 : digit));
+            } else {
+                dest[to + destDigits - 1 - t] = destCodePage.digitByte(digit);
+            }
+        }
+
+        boolean negative = isNegative(src, from) && destSigned && nonZero && srcSigned;
+        if (destPacked) {
+            int last = to + destBytes - 1;
+            dest[last] = (byte) ((dest[last] & 0xF0) | (negative ? 0x0D : 0x0C));
+        } else if (destSigned && destDigits > 0) {
+            int last = to + destDigits - 1;
+            int digit = destCodePage.digitValue(dest[last]);
+            if (destCodePage.isEbcdic()) {
+                dest[last] = (byte) ((negative ? 0xD0 : 0xC0) | digit);
+            } else if (negative) {
+                dest[last] = (byte) ('p' + digit);
+            }
+        }
+    }
+
+    private int sourceDigit(byte[] src, int from, int k) throws CobolParseException {
+        int digit;
+        if (srcPacked) {
+            int nibble = srcDigits - 1 - k;
+            int b = src[from + (nibble >> 1)];
+            digit = (nibble & 1) == 0 ? (b >> 4) & 0xF : b & 0xF;
+            if (digit > 9) {
+                throw new CobolParseException("Invalid COMP-3 digit in field " + name);
+            }
+            return digit;
+        }
+
+        byte b = src[from + srcDigits - 1 - k];
+        digit = srcCodePage.digitValue(b);
+        if (digit < 0 && k == 0) {
+            digit = srcCodePage.overpunchDigit(b);
+        }
+        if (digit < 0) {
+            if (b != srcCodePage.spaceByte()) {
+                throw new CobolParseException("Invalid zoned digit in field " + name);
+            }
+            // Leading spaces read as zeros
+            digit = 0;
+        }
+        return digit;
+    }
+
+    /**
+     * Read the sign of the source. A packed source must have a valid sign nibble.
+     */
+    private boolean isNegative(byte[] src, int from) throws CobolParseException {
+        if (srcPacked) {
+            int sign = src[from + (srcDigits >> 1)] & 0x0F;
+            if (!PackedDecimalDecoder.isSign(sign)) {
+                throw new CobolParseException("Invalid COMP-3 sign in field " + name);
+            }
+            return PackedDecimalDecoder.isNegative(sign);
+        }
+        return srcDigits > 0 && srcCodePage.isNegativeOverpunch(src[from + srcDigits - 1]);
+    }
+}
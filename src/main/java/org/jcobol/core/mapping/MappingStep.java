@@ -0,0 +1,19 @@
+package org.jcobol.core.mapping;
+
+import org.jcobol.exception.CobolParseException;
+
+/**
+ * One compiled step of a {@link RecordMapping}, moving one field, or a run of
+ * fields, from a source record to a target record.
+ */
+interface MappingStep {
+
+    /**
+     * @param src The source data
+     * @param srcBase The start of the source record
+     * @param dest The target data
+     * @param destBase The start of the target record
+     * @throws CobolParseException If a source value cannot be converted
+     */
+    void apply(byte[] src, int srcBase, byte[] dest, int destBase) throws CobolParseException;
+}
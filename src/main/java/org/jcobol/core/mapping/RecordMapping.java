@@ -0,0 +1,371 @@
+package org.jcobol.core.mapping;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.layout.FieldLayout;
+import org.jcobol.core.layout.FieldLocation;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reformats records of one fixed layout into another without creating record objects,
+ * like an OUTREC step of a sort utility.
+ * <p>
+ * Fields of the source and target classes are paired by dotted path, explicitly
+ * with {@link Builder#map} or by name with {@link Builder#mapByName}, and the pairs
+ * are compiled into a plan of byte-level steps:
+ * <ul>
+ *   <li>fields with the same format are copied, and adjacent copies merged into one</li>
+ *   <li>alphanumeric fields are translated between code pages, then padded or truncated</li>
+ *   <li>zoned and packed decimals are moved digit by digit, aligned on the decimal point</li>
+ *   <li>other numeric formats are converted through a decoded value</li>
+ * </ul>
+ * Target fields without a source keep the bytes of the target's default record image.
+ * <p>
+ * A compiled mapping is immutable and safe to share between threads.
+ */
+public final class RecordMapping {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final RecordLayout<?> source;
+    private final RecordLayout<?> target;
+    private final byte[] targetImage;
+    private final boolean needsImage;
+    private final MappingStep[] steps;
+
+    private RecordMapping(RecordLayout<?> source, RecordLayout<?> target, boolean needsImage, MappingStep[] steps) {
+        this.source = source;
+        this.target = target;
+        this.targetImage = target.getDefaultImage(CobolEncoding.INHERIT);
+        this.needsImage = needsImage;
+        this.steps = steps;
+    }
+
+    /**
+     * Start a mapping between two record classes.
+     *
+     * @param sourceClass The class describing the input records
+     * @param targetClass The class describing the output records
+     * @return A builder for the field pairs
+     */
+    public static Builder between(Class<?> sourceClass, Class<?> targetClass) {
+        return new Builder(RecordLayout.of(sourceClass), RecordLayout.of(targetClass));
+    }
+
+    /**
+     * @return The length of a source record in bytes
+     */
+    public int getSourceLength() {
+        return source.getLength();
+    }
+
+    /**
+     * @return The length of a target record in bytes
+     */
+    public int getTargetLength() {
+        return target.getLength();
+    }
+
+    /**
+     * @return The number of compiled steps, after adjacent copies are merged
+     */
+    public int getStepCount() {
+        return steps.length;
+    }
+
+    /**
+     * Reformat one record.
+     *
+     * @param src The source data
+     * @param srcOffset The start of the source record
+     * @param dest The target data
+     * @param destOffset The start of the target record
+     * @throws CobolParseException If a source value cannot be converted
+     */
+    public void apply(byte[] src, int srcOffset, byte[] dest, int destOffset) throws CobolParseException {
+        if (needsImage) {
+            System.arraycopy(targetImage, 0, dest, destOffset, targetImage.length);
+        }
+        for (MappingStep step : steps) {
+            step.apply(src, srcOffset, dest, destOffset);
+        }
+    }
+
+    /**
+     * Reformat a block of fixed-length records.
+     *
+     * @param src The source records
+     * @return The target records, in the same order
+     * @throws CobolParseException If the data is not a whole number of records or a value cannot be converted
+     */
+    public byte[] apply(byte[] src) throws CobolParseException {
+        int srcLength = source.getLength();
+        int destLength = target.getLength();
+        if (srcLength == 0 || src.length % srcLength != 0) {
+            throw new CobolParseException("Data length " + src.length
+                    + " is not a multiple of the record length " + srcLength);
+        }
+        int count = src.length / srcLength;
+        byte[] dest = new byte[count * destLength];
+        applyBlock(src, dest, count, 0);
+        return dest;
+    }
+
+    /**
+     * Reformat every record of a stream. Records are processed in blocks, and the
+     * streams are not closed.
+     *
+     * @param in The source records
+     * @param out The target records
+     * @return The number of records written
+     * @throws IOException If a stream cannot be read or written
+     * @throws CobolParseException If the input ends inside a record or a value cannot be converted
+     */
+    public long apply(InputStream in, OutputStream out) throws IOException, CobolParseException {
+        int srcLength = source.getLength();
+        int destLength = target.getLength();
+        if (srcLength == 0) {
+            throw new CobolParseException("Source record " + source.getRecordClass().getName() + " has no COBOL fields");
+        }
+        int blockRecords = Math.max(1, BUFFER_SIZE / srcLength);
+        byte[] src = new byte[blockRecords * srcLength];
+        byte[] dest = new byte[blockRecords * destLength];
+
+        long records = 0;
+        while (true) {
+            int filled = 0;
+            int n;
+            while (filled < src.length && (n = in.read(src, filled, src.length - filled)) >= 0) {
+                filled += n;
+            }
+            int count = filled / srcLength;
+            if (count > 0) {
+                applyBlock(src, dest, count, records);
+                out.write(dest, 0, count * destLength);
+                records += count;
+            }
+            if (filled % srcLength != 0) {
+                throw new CobolParseException("Stream ends inside record " + records
+                        + ": " + filled % srcLength + " of " + srcLength + " bytes");
+            }
+            if (filled < src.length) {
+                return records;
+            }
+        }
+    }
+
+    /**
+     * Map a block of records, reporting errors by the index of the record in the
+     * whole input, of which {@code first} records came before this block.
+     */
+    private void applyBlock(byte[] src, byte[] dest, int count, long first) throws CobolParseException {
+        int srcLength = source.getLength();
+        int destLength = target.getLength();
+        for (int i = 0; i < count; i++) {
+            try {
+                apply(src, i * srcLength, dest, i * destLength);
+            } catch (CobolParseException e) {
+                throw new CobolParseException("Record " + (first + i) + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Collects the field pairs of a mapping and compiles them.
+     */
+    public static final class Builder {
+        private final RecordLayout<?> source;
+        private final RecordLayout<?> target;
+        private final Map<String, String> pairs = new LinkedHashMap<>();
+
+        private Builder(RecordLayout<?> source, RecordLayout<?> target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        /**
+         * Map a source field to a target field. Both paths may name nested objects
+         * of the same class, which are copied as a whole.
+         *
+         * @param sourcePath The source field name or dotted path
+         * @param targetPath The target field name or dotted path
+         * @return This builder
+         */
+        public Builder map(String sourcePath, String targetPath) {
+            pairs.put(targetPath, sourcePath);
+            return this;
+        }
+
+        /**
+         * Map every target field not mapped yet to the source field with the same path.
+         * Target fields without a match keep their default value.
+         *
+         * @return This builder
+         */
+        public Builder mapByName() {
+            List<String> leaves = new ArrayList<>();
+            collectLeaves(target, "", leaves);
+            for (String path : leaves) {
+                FieldLocation match = source.locate(path);
+                if (!isMapped(path) && match != null && !match.getField().isNested()) {
+                    pairs.put(path, path);
+                }
+            }
+            return this;
+        }
+
+        private boolean isMapped(String path) {
+            for (String mapped : pairs.keySet()) {
+                if (path.equals(mapped) || path.startsWith(mapped + ".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Compile the mapping.
+         *
+         * @return The compiled mapping
+         * @throws IllegalArgumentException If a path does not exist or two fields cannot be paired
+         */
+        public RecordMapping build() {
+            List<MappingStep> steps = new ArrayList<>();
+            List<Integer> destOffsets = new ArrayList<>();
+            BitSet covered = new BitSet(target.getLength());
+            for (Map.Entry<String, String> pair : pairs.entrySet()) {
+                FieldLocation from = require(source, pair.getValue());
+                FieldLocation to = require(target, pair.getKey());
+                steps.add(compile(from, to));
+                destOffsets.add(to.getOffset());
+                covered.set(to.getOffset(), to.getOffset() + to.getLength());
+            }
+
+            // Order the steps by target offset so the output is written sequentially
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < steps.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparing(destOffsets::get));
+            List<MappingStep> merged = new ArrayList<>();
+            for (int i : order) {
+                MappingStep step = steps.get(i);
+                int last = merged.size() - 1;
+                if (step instanceof CopyStep && last >= 0 && merged.get(last) instanceof CopyStep) {
+                    CopyStep combined = ((CopyStep) merged.get(last)).merge((CopyStep) step);
+                    if (combined != null) {
+                        merged.set(last, combined);
+                        continue;
+                    }
+                }
+                merged.add(step);
+            }
+
+            boolean needsImage = covered.cardinality() < target.getLength();
+            return new RecordMapping(source, target, needsImage, merged.toArray(new MappingStep[0]));
+        }
+
+        private MappingStep compile(FieldLocation from, FieldLocation to) {
+            FieldLayout sourceField = from.getField();
+            FieldLayout targetField = to.getField();
+            if (sourceField.isNested() || targetField.isNested()) {
+                if (sourceField.getNestedLayout() != targetField.getNestedLayout()
+                        || from.getNestedEncoding() != to.getNestedEncoding()) {
+                    throw new IllegalArgumentException("Cannot map " + from.getPath() + " to " + to.getPath()
+                            + ": nested objects must have the same class and encoding");
+                }
+                return new CopyStep(from.getOffset(), to.getOffset(), from.getLength());
+            }
+
+            CobolField sf = sourceField.getCobolField();
+            CobolField tf = targetField.getCobolField();
+            CodePage sp = from.getCodePage();
+            CodePage tp = to.getCodePage();
+            Kind sk = kind(sf, sp);
+            Kind tk = kind(tf, tp);
+
+            if (sameFormat(sf, sp, tf, tp)) {
+                return new CopyStep(from.getOffset(), to.getOffset(), from.getLength());
+            } else if (sk == Kind.ALPHANUMERIC && tk == Kind.ALPHANUMERIC) {
+                return new TranslateStep(from.getOffset(), from.getLength(), sp, to.getOffset(), to.getLength(), tp);
+            } else if (sk.isDecimal() && tk.isDecimal()) {
+                return new DecimalMoveStep(to.getPath(),
+                        sk == Kind.PACKED, from.getOffset(), sf.length(), scale(sf), sf.signed(), sp,
+                        tk == Kind.PACKED, to.getOffset(), tf.length(), to.getLength(), scale(tf), tf.signed(), tp);
+            }
+            Class<?> valueType = sf.type() == CobolFieldType.ALPHANUMERIC || tf.type() == CobolFieldType.ALPHANUMERIC
+                    ? String.class : BigDecimal.class;
+            return new ConvertStep(from.getOffset(), from.getLength(), sf, sp, to.getOffset(), tf, tp, valueType,
+                    scale(tf));
+        }
+    }
+
+    private enum Kind {
+        ALPHANUMERIC, ZONED, PACKED, OTHER;
+
+        boolean isDecimal() {
+            return this == ZONED || this == PACKED;
+        }
+    }
+
+    private static Kind kind(CobolField field, CodePage codePage) {
+        if (field.comp() || field.comp5() || field.comp1() || field.comp2()) {
+            return Kind.OTHER;
+        }
+        CobolFieldType type = field.type();
+        if (field.comp3()) {
+            return type == CobolFieldType.ALPHANUMERIC ? Kind.OTHER : Kind.PACKED;
+        }
+        if (type == CobolFieldType.ALPHANUMERIC) {
+            // Byte-wise translation needs one byte per character
+            return codePage.isTableDriven() ? Kind.ALPHANUMERIC : Kind.OTHER;
+        }
+        // Zoned digits are single bytes in every supported code page
+        return type == CobolFieldType.NUMERIC || type == CobolFieldType.DECIMAL_ASSUMED ? Kind.ZONED : Kind.OTHER;
+    }
+
+    private static int scale(CobolField field) {
+        return field.type() == CobolFieldType.NUMERIC ? 0 : field.scale();
+    }
+
+    private static boolean sameFormat(CobolField a, CodePage ap, CobolField b, CodePage bp) {
+        boolean binary = a.comp() || a.comp5() || a.comp1() || a.comp2() || a.comp3();
+        return a.type() == b.type() && a.length() == b.length() && scale(a) == scale(b)
+                && a.signed() == b.signed() && a.comp3() == b.comp3() && a.comp() == b.comp()
+                && a.comp5() == b.comp5() && a.comp1() == b.comp1() && a.comp2() == b.comp2()
+                && a.littleEndian() == b.littleEndian() && (binary || ap == bp);
+    }
+
+    private static FieldLocation require(RecordLayout<?> layout, String path) {
+        FieldLocation location = layout.locate(path);
+        if (location == null) {
+            throw new IllegalArgumentException("No COBOL field " + path + " in " + layout.getRecordClass().getName());
+        }
+        return location;
+    }
+
+    private static void collectLeaves(RecordLayout<?> layout, String prefix, List<String> leaves) {
+        for (FieldLayout field : layout.getFields()) {
+            String path = prefix + field.getName();
+            if (field.isNested()) {
+                collectLeaves(field.getNestedLayout(), path + ".", leaves);
+            } else {
+                leaves.add(path);
+            }
+        }
+    }
+}
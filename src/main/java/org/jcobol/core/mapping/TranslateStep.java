@@ -0,0 +1,51 @@
+package org.jcobol.core.mapping;
+
+import org.jcobol.core.charset.CodePage;
+
+/**
+ * Moves an alphanumeric field into one of another length or code page.
+ * Bytes are translated through a 256-entry table, then the target is padded
+ * with spaces or truncated on the right, like a COBOL MOVE.
+ */
+final class TranslateStep implements MappingStep {
+    private final int srcOffset;
+    private final int srcLength;
+    private final int destOffset;
+    private final int destLength;
+    private final byte[] table;
+    private final byte pad;
+
+    TranslateStep(int srcOffset, int srcLength, CodePage srcCodePage,
+            int destOffset, int destLength, CodePage destCodePage) {
+        this.srcOffset = srcOffset;
+        this.srcLength = srcLength;
+        this.destOffset = destOffset;
+        this.destLength = destLength;
+        this.pad = destCodePage.spaceByte();
+        if (srcCodePage == destCodePage) {
+            this.table = null;
+        } else {
+            this.table = new byte[256];
+            for (int b = 0; b < 256; b++) {
+                table[b] = destCodePage.toByte(srcCodePage.toChar((byte) b));
+            }
+        }
+    }
+
+    @Override
+    public void apply(byte[] src, int srcBase, byte[] dest, int destBase) {
+        int count = Math.min(srcLength, destLength);
+        int from = srcBase + srcOffset;
+        int to = destBase + destOffset;
+        if (table == null) {
+            System.arraycopy(src, from, dest, to, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                dest[to + i] = table[src[from + i] & 0xFF];
+            }
+        }
+        for (int i = count; i < destLength; i++) {
+            dest[to + i] = pad;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.jcobol.core.profile;
+
+/**
+ * Count-Min sketch of the frequencies of 64-bit hashes. Estimates never fall
+ * below the true count, and sketches of the same size merge by adding counters.
+ */
+final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+
+    private final long[] counters;
+    private final int mask;
+
+    CountMinSketch(int width) {
+        this.counters = new long[DEPTH * width];
+        this.mask = width - 1;
+    }
+
+    /**
+     * Count one occurrence and return the new estimate.
+     */
+    long add(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            estimate = Math.min(estimate, ++counters[index]);
+        }
+        return estimate;
+    }
+
+    long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            estimate = Math.min(estimate, counters[index(hash, i)]);
+        }
+        return estimate;
+    }
+
+    void merge(CountMinSketch other) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+    }
+
+    private int index(long hash, int row) {
+        // Double hashing from the two halves of the hash
+        int h = (int) hash + row * ((int) (hash >>> 32) | 1);
+        return row * (mask + 1) + (h & mask);
+    }
+}
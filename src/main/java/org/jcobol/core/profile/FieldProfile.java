@@ -0,0 +1,388 @@
+package org.jcobol.core.profile;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Statistics of one field over the records added to a {@link RecordProfile}.
+ * <p>
+ * Counts, lengths, minimum, maximum and sum are exact. The number of distinct
+ * values is a HyperLogLog estimate, within about 2%. The most frequent values are
+ * tracked with a Count-Min sketch: their counts may be overestimated, never under.
+ * <p>
+ * The candidates for the most frequent values are kept in a min-heap on their
+ * estimates, so a value that does not beat the weakest candidate costs one
+ * comparison. A value is only turned into a string once it is admitted.
+ */
+public final class FieldProfile {
+
+    private static final int HLL_PRECISION = 12;
+    private static final int SKETCH_WIDTH = 2048;
+
+    private final RecordProfiler.Column column;
+    private final int topK;
+    private final HyperLogLog distinct = new HyperLogLog(HLL_PRECISION);
+    private final CountMinSketch frequencies = new CountMinSketch(SKETCH_WIDTH);
+    private final int capacity;
+    // Min-heap of the candidates on their estimates, and a hash table of them on their value hashes
+    private final Candidate[] heap;
+    private final Candidate[] table;
+    private final int tableMask;
+    private int size;
+
+    private long count;
+    private long nullCount;
+    private long invalidCount;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private long sumHigh;
+    private long sumLow;
+    private int minLength = Integer.MAX_VALUE;
+    private int maxLength;
+
+    FieldProfile(RecordProfiler.Column column, int topK) {
+        this.column = column;
+        this.topK = topK;
+        this.capacity = Math.max(16, topK * 2);
+        this.heap = new Candidate[capacity];
+        this.table = new Candidate[Integer.highestOneBit(capacity * 4 - 1)];
+        this.tableMask = table.length - 1;
+    }
+
+    /**
+     * The value and estimated number of occurrences of a frequent value.
+     */
+    public static final class Frequency {
+        private final String value;
+        private final long count;
+
+        Frequency(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        /**
+         * @return The value, numbers at the field scale and text without trailing spaces
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * @return The estimated number of occurrences
+         */
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return value + "=" + count;
+        }
+    }
+
+    private static final class Candidate {
+        long hash;
+        String value;
+        long estimate;
+        int index;
+    }
+
+    /**
+     * @return The field name, or a dotted path for fields of nested objects
+     */
+    public String getPath() {
+        return column.path;
+    }
+
+    /**
+     * @return true if the field is profiled as a number, false as text
+     */
+    public boolean isNumeric() {
+        return column.numeric;
+    }
+
+    /**
+     * @return The number of values that were neither blank nor invalid
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The number of values that were all spaces or all low-values (zero bytes)
+     */
+    public long getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * @return The number of numeric values that could not be decoded
+     */
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * @return The smallest numeric value, or null for text fields or if there were no values
+     */
+    public BigDecimal getMin() {
+        return column.numeric && count > 0 ? BigDecimal.valueOf(min, column.scale) : null;
+    }
+
+    /**
+     * @return The largest numeric value, or null for text fields or if there were no values
+     */
+    public BigDecimal getMax() {
+        return column.numeric && count > 0 ? BigDecimal.valueOf(max, column.scale) : null;
+    }
+
+    /**
+     * @return The sum of the numeric values, or null for text fields
+     */
+    public BigDecimal getSum() {
+        if (!column.numeric) {
+            return null;
+        }
+        BigInteger low = new BigInteger(Long.toUnsignedString(sumLow));
+        return new BigDecimal(BigInteger.valueOf(sumHigh).shiftLeft(64).add(low), column.scale);
+    }
+
+    /**
+     * @return The shortest text value without trailing spaces, or 0 if there were no values
+     */
+    public int getMinLength() {
+        return count > 0 && !column.numeric ? minLength : 0;
+    }
+
+    /**
+     * @return The longest text value without trailing spaces, useful for sizing columns
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return The estimated number of distinct values
+     */
+    public long getDistinctEstimate() {
+        return distinct.estimate();
+    }
+
+    /**
+     * @return The most frequent values, most frequent first
+     */
+    public List<Frequency> getTopValues() {
+        List<Frequency> top = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            top.add(new Frequency(heap[i].value, frequencies.estimate(heap[i].hash)));
+        }
+        top.sort((a, b) -> Long.compare(b.count, a.count));
+        return top.size() > topK ? new ArrayList<>(top.subList(0, topK)) : top;
+    }
+
+    void addNull() {
+        nullCount++;
+    }
+
+    void addInvalid() {
+        invalidCount++;
+    }
+
+    void addNumber(long value) {
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        // 128-bit sum: add the sign-extended value with the carry out of the low word
+        long low = sumLow + value;
+        sumHigh += (value >> 63) + (Long.compareUnsigned(low, sumLow) < 0 ? 1 : 0);
+        sumLow = low;
+
+        long hash = RecordProfiler.mix(value);
+        distinct.add(hash);
+        track(hash, frequencies.add(hash), null, value, 0, 0);
+    }
+
+    void addText(byte[] data, int offset, int length, long hash) {
+        count++;
+        if (length < minLength) {
+            minLength = length;
+        }
+        if (length > maxLength) {
+            maxLength = length;
+        }
+        distinct.add(hash);
+        track(hash, frequencies.add(hash), data, 0, offset, length);
+    }
+
+    /**
+     * Keep the value among the candidates for the top values if its estimate beats the weakest.
+     */
+    private void track(long hash, long estimate, byte[] data, long number, int offset, int length) {
+        Candidate candidate = find(hash);
+        if (candidate != null) {
+            candidate.estimate = estimate;
+            siftDown(candidate.index);
+            return;
+        }
+        if (size < capacity) {
+            candidate = new Candidate();
+        } else if ((candidate = evictBelow(estimate)) == null) {
+            return;
+        }
+        candidate.hash = hash;
+        candidate.value = data == null ? BigDecimal.valueOf(number, column.scale).toPlainString()
+                : column.codePage.decode(data, offset, length);
+        candidate.estimate = estimate;
+        add(candidate);
+    }
+
+    /**
+     * Remove the weakest candidate if its estimate is below {@code estimate}.
+     * Estimates of candidates not seen for a while are refreshed from the sketch
+     * first, so they are compared with the same sketch noise as the new value.
+     *
+     * @return The removed candidate, to be reused, or null if all are at least as strong
+     */
+    private Candidate evictBelow(long estimate) {
+        while (heap[0].estimate < estimate) {
+            Candidate weakest = heap[0];
+            long current = frequencies.estimate(weakest.hash);
+            if (current == weakest.estimate) {
+                removeRoot();
+                return weakest;
+            }
+            weakest.estimate = current;
+            siftDown(0);
+        }
+        return null;
+    }
+
+    private void add(Candidate candidate) {
+        candidate.index = size;
+        heap[size++] = candidate;
+        siftUp(candidate.index);
+        int slot = (int) candidate.hash & tableMask;
+        while (table[slot] != null) {
+            slot = (slot + 1) & tableMask;
+        }
+        table[slot] = candidate;
+    }
+
+    private Candidate find(long hash) {
+        for (int slot = (int) hash & tableMask; table[slot] != null; slot = (slot + 1) & tableMask) {
+            if (table[slot].hash == hash) {
+                return table[slot];
+            }
+        }
+        return null;
+    }
+
+    private void removeRoot() {
+        Candidate root = heap[0];
+        Candidate last = heap[--size];
+        heap[size] = null;
+        if (size > 0) {
+            last.index = 0;
+            heap[0] = last;
+            siftDown(0);
+        }
+
+        // Remove from the table, moving later entries of the probe run back into the gap
+        int gap = (int) root.hash & tableMask;
+        while (table[gap] != root) {
+            gap = (gap + 1) & tableMask;
+        }
+        table[gap] = null;
+        for (int slot = (gap + 1) & tableMask; table[slot] != null; slot = (slot + 1) & tableMask) {
+            int home = (int) table[slot].hash & tableMask;
+            if (((slot - home) & tableMask) >= ((slot - gap) & tableMask)) {
+                table[gap] = table[slot];
+                table[slot] = null;
+                gap = slot;
+            }
+        }
+    }
+
+    private void siftUp(int index) {
+        Candidate candidate = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].estimate <= candidate.estimate) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].index = index;
+            index = parent;
+        }
+        heap[index] = candidate;
+        candidate.index = index;
+    }
+
+    private void siftDown(int index) {
+        Candidate candidate = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].estimate < heap[child].estimate) {
+                child++;
+            }
+            if (candidate.estimate <= heap[child].estimate) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].index = index;
+            index = child;
+        }
+        heap[index] = candidate;
+        candidate.index = index;
+    }
+
+    void merge(FieldProfile other) {
+        count += other.count;
+        nullCount += other.nullCount;
+        invalidCount += other.invalidCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        long low = sumLow + other.sumLow;
+        sumHigh += other.sumHigh + (Long.compareUnsigned(low, sumLow) < 0 ? 1 : 0);
+        sumLow = low;
+        minLength = Math.min(minLength, other.minLength);
+        maxLength = Math.max(maxLength, other.maxLength);
+        distinct.merge(other.distinct);
+        frequencies.merge(other.frequencies);
+
+        // Re-rank the union of both candidate sets with the merged counts
+        List<Candidate> union = new ArrayList<>(size + other.size);
+        for (int i = 0; i < size; i++) {
+            union.add(heap[i]);
+        }
+        for (int i = 0; i < other.size; i++) {
+            if (find(other.heap[i].hash) == null) {
+                Candidate copy = new Candidate();
+                copy.hash = other.heap[i].hash;
+                copy.value = other.heap[i].value;
+                union.add(copy);
+            }
+        }
+        for (Candidate candidate : union) {
+            candidate.estimate = frequencies.estimate(candidate.hash);
+        }
+        union.sort((a, b) -> Long.compare(b.estimate, a.estimate));
+        Arrays.fill(heap, null);
+        Arrays.fill(table, null);
+        size = 0;
+        for (int i = 0; i < Math.min(capacity, union.size()); i++) {
+            add(union.get(i));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.jcobol.core.profile;
+
+/**
+ * HyperLogLog estimate of the number of distinct 64-bit hashes seen, in
+ * 2^precision one-byte registers. Sketches of the same precision merge by
+ * taking the larger register, so partial profiles can be combined.
+ */
+final class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    HyperLogLog(int precision) {
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the first set bit of the remaining bits, with a sentinel bit so it is bounded
+        long rest = hash << precision | 1L << (precision - 1);
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    void merge(HyperLogLog other) {
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Linear counting is more accurate for small cardinalities
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+}
@@ -0,0 +1,87 @@
+package org.jcobol.core.profile;
+
+import org.jcobol.exception.CobolParseException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Field statistics of a set of records, built in one pass by a {@link RecordProfiler}.
+ * <p>
+ * A profile is not thread-safe. To profile in parallel, give each thread its own
+ * profile from {@link RecordProfiler#newProfile()} and {@link #merge} them at the end.
+ */
+public final class RecordProfile {
+
+    private final RecordProfiler profiler;
+    private final FieldProfile[] fields;
+    private final long[] value = new long[1];
+    private long recordCount;
+
+    RecordProfile(RecordProfiler profiler, FieldProfile[] fields) {
+        this.profiler = profiler;
+        this.fields = fields;
+    }
+
+    /**
+     * Add one record to the profile. Numeric fields are decoded straight from the
+     * bytes into accumulators, without creating a record object.
+     *
+     * @param data The record data
+     * @param offset The start of the record in the data
+     * @throws CobolParseException If the record extends past the end of the data
+     */
+    public void add(byte[] data, int offset) throws CobolParseException {
+        if (offset < 0 || offset + profiler.getRecordLength() > data.length) {
+            throw new CobolParseException("Record at " + offset + " extends past the data length " + data.length);
+        }
+        profiler.scan(fields, data, offset, value);
+        recordCount++;
+    }
+
+    /**
+     * Add the statistics of another profile of the same profiler to this one.
+     *
+     * @param other The profile to add
+     * @return This profile
+     * @throws IllegalArgumentException If the other profile was made by a different profiler
+     */
+    public RecordProfile merge(RecordProfile other) {
+        if (other.profiler != profiler) {
+            throw new IllegalArgumentException("Profiles of different profilers cannot be merged");
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i].merge(other.fields[i]);
+        }
+        recordCount += other.recordCount;
+        return this;
+    }
+
+    /**
+     * @return The number of records added
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return The profiles of all profiled fields, in layout order
+     */
+    public List<FieldProfile> getFields() {
+        return Collections.unmodifiableList(Arrays.asList(fields));
+    }
+
+    /**
+     * @param path The field name, or a dotted path for fields of nested objects
+     * @return The profile of the field, or null if the field is not profiled
+     */
+    public FieldProfile getField(String path) {
+        for (FieldProfile field : fields) {
+            if (field.getPath().equals(path)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,361 @@
+package org.jcobol.core.profile;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.layout.FieldLayout;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.core.utils.CobolFieldExtractor;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Computes per-field statistics of fixed-length records in one streaming pass:
+ * value, blank and invalid counts, minimum, maximum and sum of numeric fields,
+ * lengths of text fields, distinct-value estimates and the most frequent values.
+ * <p>
+ * Numeric fields (zoned, COMP-3 and binary) are decoded straight into primitive
+ * accumulators with the column decoders; other fields, except floating point
+ * ones, are profiled as text. Distinct values are estimated with HyperLogLog and
+ * frequent values with a Count-Min sketch, so memory per field is fixed however
+ * large the input is. Ranges of records can be profiled in parallel and the
+ * partial profiles merged.
+ */
+public final class RecordProfiler {
+
+    private static final int DEFAULT_TOP_K = 10;
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final CobolFieldExtractor fieldExtractor = new CobolFieldExtractor();
+
+    private final int recordLength;
+    private final int topK;
+    private final Column[] columns;
+
+    /**
+     * Create a profiler that keeps the 10 most frequent values of each field.
+     *
+     * @param recordClass The record class
+     */
+    public RecordProfiler(Class<?> recordClass) {
+        this(recordClass, DEFAULT_TOP_K);
+    }
+
+    /**
+     * Create a profiler.
+     *
+     * @param recordClass The record class
+     * @param topK The number of most frequent values to keep per field
+     */
+    public RecordProfiler(Class<?> recordClass, int topK) {
+        RecordLayout<?> layout = RecordLayout.of(recordClass);
+        this.recordLength = layout.getLength();
+        if (recordLength == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Top value count must be positive: " + topK);
+        }
+        this.topK = topK;
+        List<Column> list = new ArrayList<>();
+        addColumns(layout, "", 0, CobolEncoding.INHERIT, list);
+        this.columns = list.toArray(new Column[0]);
+    }
+
+    /**
+     * @return The record length in bytes
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * @return A new empty profile, for adding records one at a time
+     */
+    public RecordProfile newProfile() {
+        FieldProfile[] fields = new FieldProfile[columns.length];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = new FieldProfile(columns[i], topK);
+        }
+        return new RecordProfile(this, fields);
+    }
+
+    /**
+     * Profile the records of a byte array on the calling thread.
+     *
+     * @param data The record data
+     * @return The profile
+     * @throws CobolParseException If the data length is not a multiple of the record length
+     */
+    public RecordProfile profile(byte[] data) throws CobolParseException {
+        int count = recordCount(data);
+        RecordProfile profile = newProfile();
+        for (int i = 0; i < count; i++) {
+            profile.add(data, i * recordLength);
+        }
+        return profile;
+    }
+
+    /**
+     * Profile the records of a byte array, split into one range of records per worker.
+     *
+     * @param data The record data
+     * @param executor The executor running the ranges, for example a {@link ForkJoinPool}
+     * @return The profile
+     * @throws CobolParseException If the data length is not a multiple of the record length
+     */
+    public RecordProfile profile(byte[] data, Executor executor) throws CobolParseException {
+        return profilePartitioned(recordCount(data), executor, (profile, from, to) -> {
+            for (int i = from; i < to; i++) {
+                profile.add(data, i * recordLength);
+            }
+        });
+    }
+
+    /**
+     * Profile the records of a stream on the calling thread.
+     *
+     * @param in The input stream, not closed
+     * @return The profile
+     * @throws IOException If the stream cannot be read
+     * @throws CobolParseException If the stream ends inside a record
+     */
+    public RecordProfile profile(InputStream in) throws IOException, CobolParseException {
+        RecordProfile profile = newProfile();
+        byte[] block = new byte[Math.max(1, BLOCK_SIZE / recordLength) * recordLength];
+        int limit = 0;
+        int n;
+        while ((n = in.read(block, limit, block.length - limit)) >= 0) {
+            limit += n;
+            int whole = limit - limit % recordLength;
+            for (int position = 0; position < whole; position += recordLength) {
+                profile.add(block, position);
+            }
+            System.arraycopy(block, whole, block, 0, limit - whole);
+            limit -= whole;
+        }
+        if (limit > 0) {
+            throw new CobolParseException("Stream ends inside record " + profile.getRecordCount()
+                    + ": " + limit + " of " + recordLength + " bytes");
+        }
+        return profile;
+    }
+
+    /**
+     * Profile the records of a file, split into one range of records per worker.
+     * Each worker reads its range in blocks of about 1 MB.
+     *
+     * @param file The record file
+     * @param executor The executor running the ranges, for example a {@link ForkJoinPool}
+     * @return The profile
+     * @throws IOException If the file cannot be read
+     * @throws CobolParseException If the file length is not a multiple of the record length
+     */
+    public RecordProfile profile(Path file, Executor executor) throws IOException, CobolParseException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % recordLength != 0 || size / recordLength > Integer.MAX_VALUE) {
+                throw new CobolParseException("File length " + size + " is not a multiple of the record length "
+                        + recordLength + " or holds too many records");
+            }
+            int perBlock = Math.max(1, BLOCK_SIZE / recordLength);
+            try {
+                return profilePartitioned((int) (size / recordLength), executor, (profile, from, to) -> {
+                    byte[] block = new byte[perBlock * recordLength];
+                    for (int first = from; first < to; first += perBlock) {
+                        int records = Math.min(perBlock, to - first);
+                        ByteBuffer buffer = ByteBuffer.wrap(block, 0, records * recordLength);
+                        long position = (long) first * recordLength;
+                        while (buffer.hasRemaining()) {
+                            if (channel.read(buffer, position + buffer.position()) < 0) {
+                                throw new IOException("File ends at " + (position + buffer.position()));
+                            }
+                        }
+                        for (int i = 0; i < records; i++) {
+                            profile.add(block, i * recordLength);
+                        }
+                    }
+                });
+            } catch (CompletionException e) {
+                throw (IOException) e.getCause();
+            }
+        }
+    }
+
+    private int recordCount(byte[] data) throws CobolParseException {
+        if (data.length % recordLength != 0) {
+            throw new CobolParseException("Data length " + data.length
+                    + " is not a multiple of the record length " + recordLength);
+        }
+        return data.length / recordLength;
+    }
+
+    private interface RangeProfile {
+        void run(RecordProfile profile, int from, int to) throws IOException, CobolParseException;
+    }
+
+    /**
+     * Profile ranges of records in parallel, each into its own profile, and merge them.
+     * An IOException of a range is rethrown wrapped in a CompletionException.
+     */
+    private RecordProfile profilePartitioned(int count, Executor executor, RangeProfile task)
+            throws CobolParseException {
+        int workers = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        int slices = Math.max(1, Math.min(count, workers));
+        int sliceSize = Math.max(1, (count + slices - 1) / slices);
+
+        List<CompletableFuture<RecordProfile>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < count; from += sliceSize) {
+            int start = from;
+            int end = Math.min(count, from + sliceSize);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                RecordProfile profile = newProfile();
+                try {
+                    task.run(profile, start, end);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+                return profile;
+            }, executor));
+        }
+
+        RecordProfile total = newProfile();
+        try {
+            for (CompletableFuture<RecordProfile> future : futures) {
+                total.merge(future.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CobolParseException) {
+                throw (CobolParseException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        return total;
+    }
+
+    /**
+     * Add the statistics of one record to the profiles of its fields.
+     */
+    void scan(FieldProfile[] fields, byte[] data, int offset, long[] value) {
+        for (int i = 0; i < columns.length; i++) {
+            Column column = columns[i];
+            FieldProfile field = fields[i];
+            int position = offset + column.offset;
+            if (!column.binary && isBlank(data, position, column.length, column.space)) {
+                field.addNull();
+            } else if (column.numeric) {
+                try {
+                    fieldExtractor.extractColumn(data, position, recordLength, 1, column.cobolField,
+                            column.codePage, value);
+                    field.addNumber(value[0]);
+                } catch (CobolParseException e) {
+                    field.addInvalid();
+                }
+            } else {
+                int length = column.length;
+                while (length > 0 && data[position + length - 1] == column.space) {
+                    length--;
+                }
+                field.addText(data, position, length, hash(data, position, length));
+            }
+        }
+    }
+
+    private static boolean isBlank(byte[] data, int offset, int length, byte space) {
+        byte first = data[offset];
+        if (first != space && first != 0) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            if (data[offset + i] != first) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over a byte range, finished with {@link #mix} to spread the bits.
+     */
+    private static long hash(byte[] data, int offset, int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (data[offset + i] & 0xFF)) * 0x100000001b3L;
+        }
+        return mix(hash ^ length);
+    }
+
+    /**
+     * The MurmurHash3 finalizer, a well-distributed 64-bit hash of a long.
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static void addColumns(RecordLayout<?> layout, String prefix, int base, CobolEncoding inheritedEncoding,
+            List<Column> columns) {
+        CobolEncoding recordEncoding = layout.resolveEncoding(inheritedEncoding);
+        for (FieldLayout field : layout.getFields()) {
+            String path = prefix + field.getName();
+            int offset = base + field.getOffset();
+            if (field.isNested()) {
+                addColumns(field.getNestedLayout(), path + ".", offset, recordEncoding, columns);
+                continue;
+            }
+            CobolField cobolField = field.getCobolField();
+            if (!cobolField.comp1() && !cobolField.comp2()) {
+                columns.add(new Column(path, offset, field.getLength(), cobolField,
+                        field.getCodePage(recordEncoding)));
+            }
+        }
+    }
+
+    /**
+     * A profiled field at a fixed offset in every record.
+     */
+    static final class Column {
+        final String path;
+        final int offset;
+        final int length;
+        final CobolField cobolField;
+        final CodePage codePage;
+        final byte space;
+        final boolean binary;
+        final boolean numeric;
+        final int scale;
+
+        Column(String path, int offset, int length, CobolField cobolField, CodePage codePage) {
+            this.path = path;
+            this.offset = offset;
+            this.length = length;
+            this.cobolField = cobolField;
+            this.codePage = codePage;
+            this.space = codePage.spaceByte();
+            this.binary = cobolField.comp() || cobolField.comp5();
+            this.numeric = binary || cobolField.comp3() || cobolField.type() == CobolFieldType.NUMERIC
+                    || cobolField.type() == CobolFieldType.DECIMAL_ASSUMED;
+            this.scale = numeric ? cobolField.scale() : 0;
+        }
+    }
+}
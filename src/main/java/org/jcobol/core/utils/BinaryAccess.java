@@ -0,0 +1,73 @@
+package org.jcobol.core.utils;
+
+/**
+ * Reads and writes binary integers in a byte array in either byte order,
+ * without wrapping the array in a {@link java.nio.ByteBuffer}.
+ * <p>
+ * This is the Java 8 implementation using shifts. On Java 9 and later the
+ * multi-release jar provides a version backed by
+ * {@code MethodHandles.byteArrayViewVarHandle}, which the JIT compiles to
+ * single (possibly byte-swapping) loads and stores.
+ */
+public final class BinaryAccess {
+
+    private BinaryAccess() {
+    }
+
+    public static short getShort(byte[] data, int offset, boolean littleEndian) {
+        if (littleEndian) {
+            return (short) ((data[offset] & 0xFF) | data[offset + 1] << 8);
+        }
+        return (short) (data[offset] << 8 | (data[offset + 1] & 0xFF));
+    }
+
+    public static int getInt(byte[] data, int offset, boolean littleEndian) {
+        if (littleEndian) {
+            return (data[offset] & 0xFF)
+                    | (data[offset + 1] & 0xFF) << 8
+                    | (data[offset + 2] & 0xFF) << 16
+                    | data[offset + 3] << 24;
+        }
+        return data[offset] << 24
+                | (data[offset + 1] & 0xFF) << 16
+                | (data[offset + 2] & 0xFF) << 8
+                | (data[offset + 3] & 0xFF);
+    }
+
+    public static long getLong(byte[] data, int offset, boolean littleEndian) {
+        long first = getInt(data, offset, littleEndian) & 0xFFFFFFFFL;
+        long second = getInt(data, offset + 4, littleEndian) & 0xFFFFFFFFL;
+        return littleEndian ? second << 32 | first : first << 32 | second;
+    }
+
+    public static void putShort(byte[] data, int offset, short value, boolean littleEndian) {
+        if (littleEndian) {
+            data[offset] = (byte) value;
+            data[offset + 1] = (byte) (value >> 8);
+        } else {
+            data[offset] = (byte) (value >> 8);
+            data[offset + 1] = (byte) value;
+        }
+    }
+
+    public static void putInt(byte[] data, int offset, int value, boolean littleEndian) {
+        if (littleEndian) {
+            data[offset] = (byte) value;
+            data[offset + 1] = (byte) (value >> 8);
+            data[offset + 2] = (byte) (value >> 16);
+            data[offset + 3] = (byte) (value >> 24);
+        } else {
+            data[offset] = (byte) (value >> 24);
+            data[offset + 1] = (byte) (value >> 16);
+            data[offset + 2] = (byte) (value >> 8);
+            data[offset + 3] = (byte) value;
+        }
+    }
+
+    public static void putLong(byte[] data, int offset, long value, boolean littleEndian) {
+        int high = (int) (value >>> 32);
+        int low = (int) value;
+        putInt(data, offset, littleEndian ? low : high, littleEndian);
+        putInt(data, offset + 4, littleEndian ? high : low, littleEndian);
+    }
+}
@@ -2,6 +2,9 @@ package org.jcobol.core.utils;
 
 import org.jcobol.annotation.CobolField;
 import org.jcobol.enums.CobolFieldType;
+import org.jcobol.types.CobolDecimal;
+import org.jcobol.types.CobolString;
+import org.jcobol.types.MutableCobolDecimal;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -27,8 +30,8 @@ public class CobolDefaultValueProvider {
         if (targetType == String.class) {
             switch (type) {
                 case ALPHANUMERIC:
-                    // Alphanumeric - fill with spaces
-                    return repeatString(" ", length);
+                    // Alphanumeric - fill with spaces, or empty when trailing spaces are trimmed
+                    return cobolField.trimTrailing() ? "" : repeatString(" ", length);
                     
                 case NUMERIC:
                     // Numeric - fill with zeros
@@ -53,6 +56,10 @@ public class CobolDefaultValueProvider {
             }
         }
         
+        if (targetType == CobolString.class) {
+            return CobolString.valueOf((String) getDefaultValue(cobolField, String.class));
+        }
+        
         // For numeric fields, return appropriate numeric types
         if (targetType == Integer.class || targetType == int.class) {
             return 0;
@@ -70,6 +77,10 @@ public class CobolDefaultValueProvider {
             return new BigDecimal("0");
         } else if (targetType == BigInteger.class) {
             return BigInteger.ZERO;
+        } else if (targetType == CobolDecimal.class) {
+            return CobolDecimal.valueOf(0, scale);
+        } else if (targetType == MutableCobolDecimal.class) {
+            return new MutableCobolDecimal(0, scale);
         }
         
         // Default to string representation
@@ -84,7 +95,7 @@ public class CobolDefaultValueProvider {
      * @return The repeated string
      */
     public static String repeatString(String str, int count) {
-        StringBuilder builder = new StringBuilder();
+        StringBuilder builder = new StringBuilder(str.length() * Math.max(count, 0));
         for (int i = 0; i < count; i++) {
             builder.append(str);
         }
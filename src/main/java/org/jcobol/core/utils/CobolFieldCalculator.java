@@ -9,7 +9,7 @@ public class CobolFieldCalculator {
 
     /**
      * Calculate the binary length of a COBOL field.
-     * This accounts for COMP and COMP-3 fields which may have different storage lengths.
+     * This accounts for binary, floating point and COMP-3 fields which may have different storage lengths.
      *
      * @param cobolField The CobolField annotation
      * @return The binary length of the field
@@ -17,8 +17,14 @@ public class CobolFieldCalculator {
     public int calculateBinaryLength(CobolField cobolField) {
         int declaredLength = cobolField.length();
         
-        // COMP fields use binary storage which may be shorter
-        if (cobolField.comp()) {
+        // COMP-1 and COMP-2 are single and double precision floating point
+        if (cobolField.comp1()) {
+            return 4;
+        } else if (cobolField.comp2()) {
+            return 8;
+        }
+        // COMP and COMP-5 fields use binary storage which may be shorter
+        if (cobolField.comp() || cobolField.comp5()) {
             if (declaredLength <= 4) {
                 return 2;  // 16-bit word
             } else if (declaredLength <= 9) {
@@ -1,14 +1,21 @@
 package org.jcobol.core.utils;
 
 import org.jcobol.annotation.CobolField;
+import org.jcobol.core.bulk.PackedDecimalDecoder;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.charset.StringInternCache;
 import org.jcobol.core.handlers.Comp3FieldHandler;
 import org.jcobol.core.handlers.CompFieldHandler;
+import org.jcobol.core.handlers.FloatFieldHandler;
 import org.jcobol.core.handlers.StandardFieldHandler;
 import org.jcobol.enums.CobolFieldType;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
 import org.jcobol.exception.CobolParseException;
 
 import java.lang.reflect.Field;
-import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utility class for extracting field values from binary data
@@ -16,8 +23,12 @@ import java.util.Arrays;
 public class CobolFieldExtractor {
 
     private final CompFieldHandler compHandler = new CompFieldHandler();
+    private final FloatFieldHandler floatHandler = new FloatFieldHandler();
     private final Comp3FieldHandler comp3Handler = new Comp3FieldHandler();
     private final StandardFieldHandler standardHandler = new StandardFieldHandler();
+    private final CobolFieldCalculator calculator = new CobolFieldCalculator();
+    private final ConcurrentMap<Field, ConcurrentMap<CodePage, StringInternCache>> internCaches =
+            new ConcurrentHashMap<>();
     
     /**
      * Extract a field value from binary data according to its COBOL type.
@@ -32,21 +43,177 @@ public class CobolFieldExtractor {
      */
     public Object extractBinaryFieldValue(byte[] data, int startPos, int endPos, 
             Field field, CobolField cobolField) throws CobolParseException {
-        byte[] fieldData = Arrays.copyOfRange(data, startPos, endPos);
-        CobolFieldType type = cobolField.type();
-        Class<?> fieldType = field.getType();
-        
+        return extractBinaryFieldValue(data, startPos, endPos, field, cobolField,
+                CodePage.of(cobolField.encoding()));
+    }
+
+    /**
+     * Extract a field value from binary data according to its COBOL type,
+     * decoding display data in the given code page.
+     *
+     * @param data The binary data
+     * @param startPos Start position in the data
+     * @param endPos End position in the data
+     * @param field The Java field
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of display data
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractBinaryFieldValue(byte[] data, int startPos, int endPos,
+            Field field, CobolField cobolField, CodePage codePage) throws CobolParseException {
+        return extractBinaryFieldValue(RecordBytes.of(data), startPos, endPos, field, cobolField, codePage);
+    }
+
+    /**
+     * Extract a value from binary data as a given Java type, without a Java field.
+     *
+     * @param data The binary data
+     * @param startPos Start position in the data
+     * @param endPos End position in the data
+     * @param fieldType The Java type to convert to
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of display data
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractValue(byte[] data, int startPos, int endPos, Class<?> fieldType,
+            CobolField cobolField, CodePage codePage) throws CobolParseException {
+        return extractValue(RecordBytes.of(data), startPos, endPos, fieldType, cobolField, codePage, null);
+    }
+
+    /**
+     * Extract a field value from record data according to its COBOL type, decoding
+     * display data in the given code page. The field is read in place.
+     *
+     * @param data The record data
+     * @param startPos Start position in the data
+     * @param endPos End position in the data
+     * @param field The Java field
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of display data
+     * @return The extracted value
+     * @throws CobolParseException If the data cannot be parsed correctly
+     */
+    public Object extractBinaryFieldValue(RecordBytes data, int startPos, int endPos,
+            Field field, CobolField cobolField, CodePage codePage) throws CobolParseException {
+        return extractValue(data, startPos, endPos, field.getType(), cobolField, codePage,
+                getInternCache(field, cobolField, codePage));
+    }
+
+    private Object extractValue(RecordBytes data, int startPos, int endPos, Class<?> fieldType, CobolField cobolField,
+            CodePage codePage, StringInternCache internCache) throws CobolParseException {
         try {
             // Handle different COBOL field types
-            if (cobolField.comp()) {
-                return compHandler.extractValue(fieldData, fieldType, cobolField);
+            if (cobolField.comp1() || cobolField.comp2()) {
+                return floatHandler.extractValue(data, startPos, fieldType, cobolField);
+            } else if (cobolField.comp() || cobolField.comp5()) {
+                return compHandler.extractValue(data, startPos, fieldType, cobolField);
             } else if (cobolField.comp3()) {
-                return comp3Handler.extractValue(fieldData, fieldType, cobolField);
+                return comp3Handler.extractValue(data, startPos, fieldType, cobolField);
             } else {
-                return standardHandler.extractValue(fieldData, fieldType, cobolField);
+                return standardHandler.extractValue(data, startPos, endPos - startPos, fieldType, cobolField, codePage,
+                        internCache);
             }
+        } catch (CobolParseException e) {
+            throw e;
+        } catch (NumberFormatException e) {
+            throw CobolDataException.of(ViolationType.INVALID_DIGIT);
+        } catch (ArithmeticException e) {
+            throw CobolDataException.of(ViolationType.OUT_OF_RANGE);
         } catch (Exception e) {
             throw new CobolParseException("Error extracting field value: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Decode the same numeric field of consecutive fixed-length records into unscaled
+     * longs at the field scale. COMP-3 and zoned columns use the word-at-a-time decoders.
+     *
+     * @param data The record data
+     * @param offset The position of the field in the first record
+     * @param stride The record length
+     * @param count The number of records
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of display data
+     * @param out The array receiving the values, from index 0
+     * @throws CobolParseException If a value cannot be decoded or the field is not numeric
+     */
+    public void extractColumn(byte[] data, int offset, int stride, int count, CobolField cobolField,
+            CodePage codePage, long[] out) throws CobolParseException {
+        extractColumn(RecordBytes.of(data), offset, stride, count, cobolField, codePage, out);
+    }
+
+    /**
+     * Decode the same numeric field of consecutive fixed-length records of record data
+     * into unscaled longs at the field scale, reading each value in place.
+     *
+     * @param data The record data
+     * @param offset The position of the field in the first record
+     * @param stride The record length
+     * @param count The number of records
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page of display data
+     * @param out The array receiving the values, from index 0
+     * @throws CobolParseException If a value cannot be decoded or the field is not numeric
+     */
+    public void extractColumn(RecordBytes data, int offset, int stride, int count, CobolField cobolField,
+            CodePage codePage, long[] out) throws CobolParseException {
+        if (cobolField.comp3()) {
+            PackedDecimalDecoder.decodeColumn(data, offset, stride, count, cobolField, out, 0);
+            return;
+        }
+        if (cobolField.comp1() || cobolField.comp2()) {
+            throw new CobolParseException("Column decoding does not support floating point fields");
+        }
+
+        boolean binary = cobolField.comp() || cobolField.comp5();
+        if (!binary && cobolField.type() != CobolFieldType.NUMERIC && cobolField.type() != CobolFieldType.DECIMAL_ASSUMED) {
+            throw new CobolParseException("Column decoding does not support " + cobolField.type() + " fields");
+        }
+        int length = calculator.calculateBinaryLength(cobolField);
+        int position = offset;
+        for (int i = 0; i < count; i++) {
+            try {
+                out[i] = binary
+                        ? (Long) compHandler.extractValue(data, position, long.class, cobolField)
+                        : standardHandler.extractZonedUnscaled(data, position, length, cobolField, codePage);
+            } catch (CobolParseException e) {
+                // A single value needs no record number
+                throw count == 1 ? e : new CobolParseException("Record " + i + ": " + e.getMessage(), e);
+            }
+            position += stride;
+        }
+    }
+
+    /**
+     * Drop the intern caches of all fields, releasing the values they hold.
+     */
+    public void clearInternCaches() {
+        internCaches.clear();
+    }
+
+    /**
+     * Get the intern cache of an alphanumeric String field in a code page, creating it
+     * on first use. A nested class may be parsed in the code pages of several records,
+     * so each code page has its own cache. The cache is shared by every record parsed
+     * with this extractor.
+     *
+     * @return The cache, or null if the field does not use one
+     */
+    private StringInternCache getInternCache(Field field, CobolField cobolField, CodePage codePage) {
+        if (cobolField.internLimit() <= 0 || cobolField.type() != CobolFieldType.ALPHANUMERIC
+                || field.getType() != String.class) {
+            return null;
+        }
+        ConcurrentMap<CodePage, StringInternCache> caches = internCaches.get(field);
+        if (caches == null) {
+            caches = internCaches.computeIfAbsent(field, f -> new ConcurrentHashMap<>());
+        }
+        StringInternCache cache = caches.get(codePage);
+        if (cache == null) {
+            cache = caches.computeIfAbsent(codePage, c -> new StringInternCache(c, cobolField.internLimit()));
+        }
+        return cache;
+    }
 }
\ No newline at end of file
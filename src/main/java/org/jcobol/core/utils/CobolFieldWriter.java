@@ -1,8 +1,10 @@
 package org.jcobol.core.utils;
 
 import org.jcobol.annotation.CobolField;
+import org.jcobol.core.charset.CodePage;
 import org.jcobol.core.handlers.Comp3FieldHandler;
 import org.jcobol.core.handlers.CompFieldHandler;
+import org.jcobol.core.handlers.FloatFieldHandler;
 import org.jcobol.core.handlers.StandardFieldHandler;
 import org.jcobol.exception.CobolParseException;
 
@@ -13,6 +15,7 @@ public class CobolFieldWriter {
 
     private final CobolFieldCalculator calculator = new CobolFieldCalculator();
     private final CompFieldHandler compHandler = new CompFieldHandler();
+    private final FloatFieldHandler floatHandler = new FloatFieldHandler();
     private final Comp3FieldHandler comp3Handler = new Comp3FieldHandler();
     private final StandardFieldHandler standardHandler = new StandardFieldHandler();
 
@@ -28,13 +31,32 @@ public class CobolFieldWriter {
      */
     public int writeBinaryFieldValue(Object value, byte[] data, int offset, CobolField cobolField) 
             throws CobolParseException {
+        return writeBinaryFieldValue(value, data, offset, cobolField, CodePage.of(cobolField.encoding()));
+    }
+
+    /**
+     * Write a field value to a byte array according to its COBOL type,
+     * encoding display data in the given code page.
+     *
+     * @param value The field value
+     * @param data The byte array to write to
+     * @param offset The offset position in the byte array
+     * @param cobolField The CobolField annotation
+     * @param codePage The code page for display data
+     * @return The number of bytes written
+     * @throws CobolParseException If there's an error during conversion
+     */
+    public int writeBinaryFieldValue(Object value, byte[] data, int offset, CobolField cobolField,
+            CodePage codePage) throws CobolParseException {
         try {
-            if (cobolField.comp()) {
+            if (cobolField.comp1() || cobolField.comp2()) {
+                return floatHandler.writeValue(value, data, offset, cobolField);
+            } else if (cobolField.comp() || cobolField.comp5()) {
                 return compHandler.writeValue(value, data, offset, cobolField);
             } else if (cobolField.comp3()) {
                 return comp3Handler.writeValue(value, data, offset, cobolField);
             } else {
-                return standardHandler.writeValue(value, data, offset, cobolField);
+                return standardHandler.writeValue(value, data, offset, cobolField, codePage);
             }
         } catch (Exception e) {
             throw new CobolParseException("Error writing field value: " + e.getMessage(), e);
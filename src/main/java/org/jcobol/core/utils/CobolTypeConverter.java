@@ -1,5 +1,8 @@
 package org.jcobol.core.utils;
 
+import org.jcobol.types.CobolDecimal;
+import org.jcobol.types.MutableCobolDecimal;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
@@ -38,6 +41,11 @@ public class CobolTypeConverter {
             return new BigDecimal(value.trim());
         } else if (targetType == BigInteger.class) {
             return new BigInteger(value.trim());
+        } else if (targetType == CobolDecimal.class) {
+            return CobolDecimal.parse(value);
+        } else if (targetType == MutableCobolDecimal.class) {
+            CobolDecimal decimal = CobolDecimal.parse(value);
+            return new MutableCobolDecimal(decimal.unscaledValue(), decimal.scale());
         } else {
             return value; // Default to string
         }
@@ -77,8 +85,99 @@ public class CobolTypeConverter {
             } else {
                 return BigInteger.valueOf(value.longValue());
             }
+        } else if (targetType == CobolDecimal.class || targetType == MutableCobolDecimal.class) {
+            CobolDecimal decimal = toCobolDecimal(value);
+            return targetType == CobolDecimal.class ? decimal : decimal.toMutable();
         } else {
             return value.toString(); // Default to string
         }
     }
+
+    /**
+     * Convert a binary integer value to the appropriate Java type.
+     * Same conversions as {@link #convertToNumericType(Number, Class)}, without
+     * boxing the value first.
+     *
+     * @param value The numeric value
+     * @param targetType The target Java type
+     * @return The converted value
+     */
+    public Object convertToNumericType(long value, Class<?> targetType) {
+        if (targetType == Integer.class || targetType == int.class) {
+            return (int) value;
+        } else if (targetType == Long.class || targetType == long.class) {
+            return value;
+        } else if (targetType == Short.class || targetType == short.class) {
+            return (short) value;
+        } else if (targetType == Byte.class || targetType == byte.class) {
+            return (byte) value;
+        } else if (targetType == Double.class || targetType == double.class) {
+            return (double) value;
+        } else if (targetType == Float.class || targetType == float.class) {
+            return (float) value;
+        } else if (targetType == BigDecimal.class) {
+            return BigDecimal.valueOf(value);
+        } else if (targetType == BigInteger.class) {
+            return BigInteger.valueOf(value);
+        } else if (targetType == CobolDecimal.class) {
+            return CobolDecimal.valueOf(value);
+        } else if (targetType == MutableCobolDecimal.class) {
+            return new MutableCobolDecimal(value, 0);
+        } else {
+            return Long.toString(value); // Default to string
+        }
+    }
+
+    /**
+     * Convert an unscaled fixed-point value to the appropriate Java type.
+     * Decimal targets are built directly from the unscaled value, other targets
+     * go through the string conversion so their behaviour is unchanged.
+     *
+     * @param unscaled The unscaled value
+     * @param scale The number of decimal places
+     * @param targetType The target Java type
+     * @return The converted value
+     */
+    public Object convertToNumericType(long unscaled, int scale, Class<?> targetType) {
+        if (targetType == CobolDecimal.class) {
+            return CobolDecimal.valueOf(unscaled, scale);
+        } else if (targetType == MutableCobolDecimal.class) {
+            return new MutableCobolDecimal(unscaled, scale);
+        } else if (targetType == BigDecimal.class) {
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+        return convertToNumericType(CobolDecimal.valueOf(unscaled, scale).toString(), targetType);
+    }
+
+    /**
+     * Check whether a Java type is one of the long-backed decimal types.
+     *
+     * @param type The Java type
+     * @return true for {@link CobolDecimal} and {@link MutableCobolDecimal}
+     */
+    public static boolean isCobolDecimalType(Class<?> type) {
+        return type == CobolDecimal.class || type == MutableCobolDecimal.class;
+    }
+
+    /**
+     * Convert any supported number to a {@link CobolDecimal}.
+     *
+     * @param value The numeric value
+     * @return The equivalent decimal value
+     */
+    public static CobolDecimal toCobolDecimal(Number value) {
+        if (value instanceof CobolDecimal) {
+            return (CobolDecimal) value;
+        } else if (value instanceof MutableCobolDecimal) {
+            return ((MutableCobolDecimal) value).toCobolDecimal();
+        } else if (value instanceof BigDecimal) {
+            return CobolDecimal.valueOf((BigDecimal) value);
+        } else if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            return CobolDecimal.valueOf(value.longValue());
+        } else if (value instanceof BigInteger) {
+            return CobolDecimal.valueOf(((BigInteger) value).longValueExact());
+        }
+        return CobolDecimal.valueOf(BigDecimal.valueOf(value.doubleValue()));
+    }
 }
\ No newline at end of file
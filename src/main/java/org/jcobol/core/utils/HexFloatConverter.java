@@ -0,0 +1,116 @@
+package org.jcobol.core.utils;
+
+/**
+ * Converts between IBM hexadecimal floating point (HFP), used by mainframe
+ * COMP-1 and COMP-2 fields, and IEEE 754 float and double.
+ * <p>
+ * An HFP value is a sign bit, a 7-bit base-16 exponent biased by 64 and a
+ * fraction of 24 bits (short form) or 56 bits (long form), with the value
+ * {@code 0.fraction * 16^(exponent - 64)}. The conversions work directly on
+ * the bits and do not allocate.
+ */
+public final class HexFloatConverter {
+
+    private static final long SIGN_64 = 0x8000000000000000L;
+    private static final long FRACTION_64 = 0x00FFFFFFFFFFFFFFL;
+    private static final int FRACTION_32 = 0x00FFFFFF;
+    private static final int EXPONENT_BIAS = 64;
+
+    private HexFloatConverter() {
+    }
+
+    /**
+     * Convert a long-form (COMP-2) HFP value to a double.
+     * A 56-bit fraction can hold more digits than a double, so the result is
+     * rounded to the nearest double.
+     *
+     * @param hfp The HFP bits
+     * @return The double value
+     */
+    public static double hfp64ToDouble(long hfp) {
+        long fraction = hfp & FRACTION_64;
+        double value;
+        if (fraction == 0) {
+            value = 0.0;
+        } else {
+            int exponent = (int) (hfp >>> 56) & 0x7F;
+            // The whole HFP range fits in the normal double range, so scaling is exact
+            value = Math.scalb((double) fraction, 4 * (exponent - EXPONENT_BIAS) - 56);
+        }
+        return hfp < 0 ? -value : value;
+    }
+
+    /**
+     * Convert a short-form (COMP-1) HFP value to a float.
+     * Values beyond the float range become infinity or zero.
+     *
+     * @param hfp The HFP bits
+     * @return The float value
+     */
+    public static float hfp32ToFloat(int hfp) {
+        return (float) hfp64ToDouble((long) hfp << 32);
+    }
+
+    /**
+     * Convert a double to a long-form (COMP-2) HFP value.
+     * Every double in the HFP range is represented exactly.
+     * Values too small for HFP become zero.
+     *
+     * @param value The double value
+     * @return The HFP bits
+     * @throws ArithmeticException If the value is infinite, NaN or too large for HFP
+     */
+    public static long doubleToHfp64(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long sign = bits & SIGN_64;
+        int biased = (int) (bits >>> 52) & 0x7FF;
+        if (biased == 0x7FF) {
+            throw new ArithmeticException("Cannot represent " + value + " as IBM hexadecimal floating point");
+        }
+        if (biased == 0) {
+            // Zero, or a subnormal far below the smallest HFP value
+            return sign;
+        }
+
+        long mantissa = (bits & 0x000FFFFFFFFFFFFFL) | 0x0010000000000000L;
+        int binaryExponent = biased - 1023;
+        // Pick the hex exponent that leaves the fraction in [1/16, 1)
+        int hexExponent = Math.floorDiv(binaryExponent, 4) + 1;
+        int biasedHex = hexExponent + EXPONENT_BIAS;
+        if (biasedHex > 0x7F) {
+            throw new ArithmeticException("Value " + value + " is too large for IBM hexadecimal floating point");
+        }
+        if (biasedHex < 0) {
+            return sign;
+        }
+        long fraction = mantissa << (binaryExponent + 4 - 4 * hexExponent);
+        return sign | (long) biasedHex << 56 | fraction;
+    }
+
+    /**
+     * Convert a float to a short-form (COMP-1) HFP value, rounding to the
+     * nearest 24-bit fraction.
+     *
+     * @param value The float value
+     * @return The HFP bits
+     * @throws ArithmeticException If the value is infinite or NaN
+     */
+    public static int floatToHfp32(float value) {
+        long hfp = doubleToHfp64(value);
+        int sign = (int) (hfp >>> 32) & 0x80000000;
+        int biasedHex = (int) (hfp >>> 56) & 0x7F;
+        long fraction = hfp & FRACTION_64;
+        if (fraction == 0) {
+            return sign;
+        }
+
+        // Round the 56-bit fraction to its top 24 bits
+        long rounded = (fraction + (1L << 31)) >>> 32;
+        if (rounded > FRACTION_32) {
+            // Rounding carried into a new hex digit
+            rounded >>>= 4;
+            biasedHex++;
+        }
+        return sign | biasedHex << 24 | (int) rounded;
+    }
+}
@@ -0,0 +1,170 @@
+package org.jcobol.core.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Read-only view of record data by absolute index. Besides byte arrays it covers
+ * data that is not on the heap, such as a direct {@link ByteBuffer} or, on Java 22
+ * and later, a {@code MemorySegment}. Field decoders read through it in place, so
+ * such a record is never copied to the heap before it is decoded.
+ * <p>
+ * Multi-byte reads assemble single bytes by default. Implementations override
+ * them with the wider loads their source provides.
+ */
+public abstract class RecordBytes {
+
+    protected RecordBytes() {
+    }
+
+    /**
+     * View a byte array.
+     *
+     * @param data The bytes
+     * @return The view
+     */
+    public static RecordBytes of(byte[] data) {
+        return new ArrayBytes(data);
+    }
+
+    /**
+     * View a buffer from index 0 to its limit. Reads use absolute indexes,
+     * so the buffer's position, limit and byte order are never used or changed.
+     *
+     * @param buffer The buffer, heap or direct
+     * @return The view
+     */
+    public static RecordBytes of(ByteBuffer buffer) {
+        return new BufferBytes(buffer);
+    }
+
+    /**
+     * @return The number of readable bytes
+     */
+    public abstract int length();
+
+    public abstract byte get(int index);
+
+    /**
+     * @return The viewed array if this is a view of a byte array, else null.
+     *         Decoders use it to take their array paths.
+     */
+    public byte[] array() {
+        return null;
+    }
+
+    public short getShort(int index, boolean littleEndian) {
+        if (littleEndian) {
+            return (short) ((get(index) & 0xFF) | get(index + 1) << 8);
+        }
+        return (short) (get(index) << 8 | (get(index + 1) & 0xFF));
+    }
+
+    public int getInt(int index, boolean littleEndian) {
+        int first = getShort(index, littleEndian) & 0xFFFF;
+        int second = getShort(index + 2, littleEndian) & 0xFFFF;
+        return littleEndian ? second << 16 | first : first << 16 | second;
+    }
+
+    public long getLong(int index, boolean littleEndian) {
+        long first = getInt(index, littleEndian) & 0xFFFFFFFFL;
+        long second = getInt(index + 4, littleEndian) & 0xFFFFFFFFL;
+        return littleEndian ? second << 32 | first : first << 32 | second;
+    }
+
+    /**
+     * Copy a range into a new array, for values such as a {@link java.math.BigInteger}
+     * that must own their bytes.
+     *
+     * @param index The start of the range
+     * @param length The number of bytes
+     * @return The bytes
+     */
+    public byte[] copy(int index, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = get(index + i);
+        }
+        return bytes;
+    }
+
+    private static final class ArrayBytes extends RecordBytes {
+        private final byte[] data;
+
+        ArrayBytes(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int length() {
+            return data.length;
+        }
+
+        @Override
+        public byte[] array() {
+            return data;
+        }
+
+        @Override
+        public byte get(int index) {
+            return data[index];
+        }
+
+        @Override
+        public short getShort(int index, boolean littleEndian) {
+            return BinaryAccess.getShort(data, index, littleEndian);
+        }
+
+        @Override
+        public int getInt(int index, boolean littleEndian) {
+            return BinaryAccess.getInt(data, index, littleEndian);
+        }
+
+        @Override
+        public long getLong(int index, boolean littleEndian) {
+            return BinaryAccess.getLong(data, index, littleEndian);
+        }
+
+        @Override
+        public byte[] copy(int index, int length) {
+            byte[] bytes = new byte[length];
+            System.arraycopy(data, index, bytes, 0, length);
+            return bytes;
+        }
+    }
+
+    private static final class BufferBytes extends RecordBytes {
+        private final ByteBuffer bigEndian;
+        private final ByteBuffer littleEndian;
+
+        BufferBytes(ByteBuffer buffer) {
+            this.bigEndian = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+            this.littleEndian = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        @Override
+        public int length() {
+            return bigEndian.limit();
+        }
+
+        @Override
+        public byte get(int index) {
+            return bigEndian.get(index);
+        }
+
+        @Override
+        public short getShort(int index, boolean littleEndian) {
+            return (littleEndian ? this.littleEndian : bigEndian).getShort(index);
+        }
+
+        @Override
+        public int getInt(int index, boolean littleEndian) {
+            return (littleEndian ? this.littleEndian : bigEndian).getInt(index);
+        }
+
+        @Override
+        public long getLong(int index, boolean littleEndian) {
+            return (littleEndian ? this.littleEndian : bigEndian).getLong(index);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.jcobol.core.validation;
+
+import org.jcobol.enums.ViolationType;
+
+import java.util.Arrays;
+
+/**
+ * The invalid values found in one field by a {@link RecordValidator} scan:
+ * how many of each kind, and the byte offsets of the first few.
+ */
+public final class FieldViolations {
+
+    private final String path;
+    private final long[] counts;
+    private final long[] sampleOffsets;
+
+    FieldViolations(String path, long[] counts, long[] sampleOffsets) {
+        this.path = path;
+        this.counts = counts;
+        this.sampleOffsets = sampleOffsets;
+    }
+
+    /**
+     * @return The field name, or a dotted path for fields of nested objects
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return The number of invalid values in the field
+     */
+    public long getCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @param type The kind of violation
+     * @return The number of values with that kind of violation
+     */
+    public long getCount(ViolationType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * @return The byte offsets in the input of the first invalid values, in input order
+     */
+    public long[] getSampleOffsets() {
+        return sampleOffsets.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(path).append(':');
+        for (ViolationType type : ViolationType.values()) {
+            if (counts[type.ordinal()] > 0) {
+                builder.append(' ').append(type).append('=').append(counts[type.ordinal()]);
+            }
+        }
+        return builder.append(" at ").append(Arrays.toString(sampleOffsets)).toString();
+    }
+}
@@ -0,0 +1,355 @@
+package org.jcobol.core.validation;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.bulk.PackedDecimalDecoder;
+import org.jcobol.core.bulk.ZonedDecimalDecoder;
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.layout.FieldLayout;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.core.utils.BinaryAccess;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.enums.ViolationType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks the numeric fields of fixed-length records without decoding them, to find
+ * out whether a feed is clean before loading it.
+ * <ul>
+ *   <li>COMP-3 fields must hold digit nibbles and a sign nibble from A to F</li>
+ *   <li>zoned NUMERIC and DECIMAL_ASSUMED fields must hold digits only, with an
+ *       overpunched sign allowed on the last byte of signed fields</li>
+ *   <li>COMP fields must fit their picture, and unsigned fields must not be negative</li>
+ * </ul>
+ * Packed and zoned fields are checked 8 bytes at a time. Alphanumeric, explicit decimal,
+ * COMP-5 and floating point fields are not checked. Scans can run in parallel over
+ * ranges of records; the result counts the violations of each field and keeps the
+ * offsets of the first few.
+ */
+public final class RecordValidator {
+
+    private static final int DEFAULT_MAX_SAMPLES = 10;
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private static final int PACKED = 0;
+    private static final int ZONED = 1;
+    private static final int BINARY = 2;
+
+    private static final long[] POW10 = new long[19];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final int recordLength;
+    private final int maxSamples;
+    private final Check[] checks;
+
+    /**
+     * Create a validator that keeps up to 10 sample offsets per field.
+     *
+     * @param recordClass The record class
+     */
+    public RecordValidator(Class<?> recordClass) {
+        this(recordClass, DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Create a validator.
+     *
+     * @param recordClass The record class
+     * @param maxSamples The number of offsets of invalid values to keep per field
+     */
+    public RecordValidator(Class<?> recordClass, int maxSamples) {
+        RecordLayout<?> layout = RecordLayout.of(recordClass);
+        this.recordLength = layout.getLength();
+        if (recordLength == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        if (maxSamples < 0) {
+            throw new IllegalArgumentException("Sample count cannot be negative: " + maxSamples);
+        }
+        this.maxSamples = maxSamples;
+        List<Check> list = new ArrayList<>();
+        addChecks(layout, "", 0, CobolEncoding.INHERIT, list);
+        this.checks = list.toArray(new Check[0]);
+    }
+
+    /**
+     * Check the records of a byte array on the calling thread.
+     *
+     * @param data The record data
+     * @return The report
+     */
+    public ValidationReport validate(byte[] data) {
+        Tally tally = new Tally();
+        int count = data.length / recordLength;
+        tally.scan(data, 0, count, 0);
+        return tally.toReport(count, data.length - (long) count * recordLength);
+    }
+
+    /**
+     * Check the records of a byte array, split into one range of records per worker.
+     *
+     * @param data The record data
+     * @param executor The executor running the ranges, for example a {@link ForkJoinPool}
+     * @return The report
+     */
+    public ValidationReport validate(byte[] data, Executor executor) {
+        int count = data.length / recordLength;
+        Tally tally = scanPartitioned(count, executor, (tallies, from, to) ->
+                tallies.scan(data, from * recordLength, to - from, (long) from * recordLength));
+        return tally.toReport(count, data.length - (long) count * recordLength);
+    }
+
+    /**
+     * Check the records of a file, split into one range of records per worker.
+     * Each worker reads its range in blocks of about 1 MB.
+     *
+     * @param file The record file
+     * @param executor The executor running the ranges, for example a {@link ForkJoinPool}
+     * @return The report
+     * @throws IOException If the file cannot be read
+     */
+    public ValidationReport validate(Path file, Executor executor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long count = size / recordLength;
+            if (count > Integer.MAX_VALUE) {
+                throw new IOException("File " + file + " holds more than " + Integer.MAX_VALUE + " records");
+            }
+            int perBlock = Math.max(1, BLOCK_SIZE / recordLength);
+            Tally tally;
+            try {
+                tally = scanPartitioned((int) count, executor, (tallies, from, to) -> {
+                    byte[] block = new byte[perBlock * recordLength];
+                    for (int first = from; first < to; first += perBlock) {
+                        int records = Math.min(perBlock, to - first);
+                        long position = (long) first * recordLength;
+                        read(channel, ByteBuffer.wrap(block, 0, records * recordLength), position);
+                        tallies.scan(block, 0, records, position);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return tally.toReport(count, size - count * recordLength);
+        }
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("File ends at " + (position + buffer.position()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RangeScan {
+        void run(Tally tally, int from, int to);
+    }
+
+    /**
+     * Scan ranges of records in parallel, each into its own tally, and merge
+     * the tallies in input order so the sample offsets stay the first ones.
+     */
+    private Tally scanPartitioned(int count, Executor executor, RangeScan scan) {
+        int workers = executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        int slices = Math.max(1, Math.min(count, workers));
+        int sliceSize = Math.max(1, (count + slices - 1) / slices);
+
+        List<CompletableFuture<Tally>> futures = new ArrayList<>(slices);
+        for (int from = 0; from < count; from += sliceSize) {
+            int start = from;
+            int end = Math.min(count, from + sliceSize);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Tally tally = new Tally();
+                scan.run(tally, start, end);
+                return tally;
+            }, executor));
+        }
+
+        Tally total = new Tally();
+        try {
+            for (CompletableFuture<Tally> future : futures) {
+                total.merge(future.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+        return total;
+    }
+
+    private static void addChecks(RecordLayout<?> layout, String prefix, int base, CobolEncoding inheritedEncoding,
+            List<Check> checks) {
+        CobolEncoding recordEncoding = layout.resolveEncoding(inheritedEncoding);
+        for (FieldLayout field : layout.getFields()) {
+            String path = prefix + field.getName();
+            int offset = base + field.getOffset();
+            if (field.isNested()) {
+                addChecks(field.getNestedLayout(), path + ".", offset, recordEncoding, checks);
+                continue;
+            }
+            CobolField cobolField = field.getCobolField();
+            if (cobolField.comp1() || cobolField.comp2() || cobolField.comp5()) {
+                continue;
+            }
+            if (cobolField.comp3()) {
+                checks.add(new Check(path, PACKED, offset, field.getLength(), cobolField, null));
+            } else if (cobolField.comp()) {
+                if (cobolField.length() < POW10.length) {
+                    checks.add(new Check(path, BINARY, offset, field.getLength(), cobolField, null));
+                }
+            } else if (cobolField.type() == CobolFieldType.NUMERIC
+                    || cobolField.type() == CobolFieldType.DECIMAL_ASSUMED) {
+                checks.add(new Check(path, ZONED, offset, field.getLength(), cobolField,
+                        field.getCodePage(recordEncoding)));
+            }
+        }
+    }
+
+    /**
+     * The check of one field at a fixed offset in every record.
+     */
+    private static final class Check {
+        final String path;
+        final int kind;
+        final int offset;
+        final int length;
+        final boolean signed;
+        final boolean lastHasDigit;
+        final boolean littleEndian;
+        final long limit;
+        final CodePage codePage;
+
+        Check(String path, int kind, int offset, int length, CobolField cobolField, CodePage codePage) {
+            this.path = path;
+            this.kind = kind;
+            this.offset = offset;
+            this.length = length;
+            this.signed = cobolField.signed();
+            this.lastHasDigit = cobolField.length() > (length - 1) * 2;
+            this.littleEndian = cobolField.littleEndian();
+            this.limit = kind == BINARY ? POW10[cobolField.length()] : 0;
+            this.codePage = codePage;
+        }
+
+        ViolationType check(byte[] data, int position) {
+            switch (kind) {
+                case PACKED:
+                    return PackedDecimalDecoder.validate(data, position, length, lastHasDigit, signed);
+                case ZONED:
+                    return ZonedDecimalDecoder.validate(data, position, length, signed, codePage);
+                default:
+                    return checkBinary(data, position);
+            }
+        }
+
+        private ViolationType checkBinary(byte[] data, int position) {
+            long value;
+            if (length == 2) {
+                short raw = BinaryAccess.getShort(data, position, littleEndian);
+                value = signed ? raw : raw & 0xFFFF;
+            } else if (length == 4) {
+                int raw = BinaryAccess.getInt(data, position, littleEndian);
+                value = signed ? raw : raw & 0xFFFFFFFFL;
+            } else {
+                value = BinaryAccess.getLong(data, position, littleEndian);
+                if (!signed && value < 0) {
+                    return ViolationType.OUT_OF_RANGE;
+                }
+            }
+            return value >= limit || value <= -limit ? ViolationType.OUT_OF_RANGE : null;
+        }
+    }
+
+    /**
+     * Violation counts and sample offsets of every check, for one range of records.
+     */
+    private final class Tally {
+        final long[][] counts = new long[checks.length][ViolationType.values().length];
+        final long[][] samples = new long[checks.length][maxSamples];
+        final int[] sampleCounts = new int[checks.length];
+
+        /**
+         * @param inputOffset The offset in the input of the first record
+         */
+        void scan(byte[] data, int offset, int records, long inputOffset) {
+            int position = offset;
+            for (int r = 0; r < records; r++) {
+                for (int c = 0; c < checks.length; c++) {
+                    Check check = checks[c];
+                    ViolationType violation = check.check(data, position + check.offset);
+                    if (violation != null) {
+                        add(c, violation, inputOffset + (position - offset) + check.offset);
+                    }
+                }
+                position += recordLength;
+            }
+        }
+
+        private void add(int check, ViolationType violation, long inputOffset) {
+            counts[check][violation.ordinal()]++;
+            if (sampleCounts[check] < maxSamples) {
+                samples[check][sampleCounts[check]++] = inputOffset;
+            }
+        }
+
+        /**
+         * Add the tally of the records that follow this tally's records.
+         */
+        void merge(Tally later) {
+            for (int c = 0; c < checks.length; c++) {
+                for (int t = 0; t < counts[c].length; t++) {
+                    counts[c][t] += later.counts[c][t];
+                }
+                int copy = Math.min(maxSamples - sampleCounts[c], later.sampleCounts[c]);
+                System.arraycopy(later.samples[c], 0, samples[c], sampleCounts[c], copy);
+                sampleCounts[c] += copy;
+            }
+        }
+
+        ValidationReport toReport(long recordCount, long trailingBytes) {
+            List<FieldViolations> fields = new ArrayList<>();
+            for (int c = 0; c < checks.length; c++) {
+                long total = 0;
+                for (long count : counts[c]) {
+                    total += count;
+                }
+                if (total > 0) {
+                    long[] offsets = new long[sampleCounts[c]];
+                    System.arraycopy(samples[c], 0, offsets, 0, offsets.length);
+                    fields.add(new FieldViolations(checks[c].path, counts[c].clone(), offsets));
+                }
+            }
+            return new ValidationReport(recordCount, trailingBytes, fields);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.jcobol.core.validation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a {@link RecordValidator} scan.
+ */
+public final class ValidationReport {
+
+    private final long recordCount;
+    private final long trailingBytes;
+    private final List<FieldViolations> fieldViolations;
+
+    ValidationReport(long recordCount, long trailingBytes, List<FieldViolations> fieldViolations) {
+        this.recordCount = recordCount;
+        this.trailingBytes = trailingBytes;
+        this.fieldViolations = Collections.unmodifiableList(fieldViolations);
+    }
+
+    /**
+     * @return The number of whole records scanned
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return The number of bytes after the last whole record, not scanned
+     */
+    public long getTrailingBytes() {
+        return trailingBytes;
+    }
+
+    /**
+     * @return The fields with at least one invalid value, in layout order
+     */
+    public List<FieldViolations> getFieldViolations() {
+        return fieldViolations;
+    }
+
+    /**
+     * @return The number of invalid values in all fields
+     */
+    public long getViolationCount() {
+        long total = 0;
+        for (FieldViolations violations : fieldViolations) {
+            total += violations.getCount();
+        }
+        return total;
+    }
+
+    /**
+     * @return true if no field has an invalid value and the input ends on a record boundary
+     */
+    public boolean isClean() {
+        return fieldViolations.isEmpty() && trailingBytes == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append(recordCount).append(" records, ")
+                .append(getViolationCount()).append(" violations");
+        if (trailingBytes > 0) {
+            builder.append(", ").append(trailingBytes).append(" trailing bytes");
+        }
+        for (FieldViolations violations : fieldViolations) {
+            builder.append(System.lineSeparator()).append("  ").append(violations);
+        }
+        return builder.toString();
+    }
+}
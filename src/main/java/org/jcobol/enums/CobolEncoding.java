@@ -0,0 +1,63 @@
+package org.jcobol.enums;
+
+/**
+ * Enumeration of supported character encodings for COBOL display data.
+ * Used by the CobolField and CobolRecord annotations.
+ */
+public enum CobolEncoding {
+    /**
+     * Use the encoding of the enclosing record, or the platform default
+     * charset when no record declares one
+     */
+    INHERIT(null),
+
+    /**
+     * The platform default charset (the behaviour before encodings were configurable)
+     */
+    PLATFORM(null),
+
+    /**
+     * 7-bit US-ASCII
+     */
+    ASCII("US-ASCII"),
+
+    /**
+     * ISO-8859-1 (Latin-1)
+     */
+    LATIN1("ISO-8859-1"),
+
+    /**
+     * EBCDIC code page 037 (US/Canada)
+     */
+    CP037("IBM037"),
+
+    /**
+     * EBCDIC code page 1047 (Latin-1, z/OS Open Systems)
+     */
+    CP1047("IBM1047"),
+
+    /**
+     * EBCDIC code page 500 (International)
+     */
+    CP500("IBM500"),
+
+    /**
+     * EBCDIC code page 273 (Germany/Austria)
+     */
+    CP273("IBM273");
+
+    private final String charsetName;
+
+    CobolEncoding(String charsetName) {
+        this.charsetName = charsetName;
+    }
+
+    /**
+     * Returns the name of the equivalent Java charset
+     *
+     * @return The charset name, or null for INHERIT and PLATFORM
+     */
+    public String getCharsetName() {
+        return charsetName;
+    }
+}
@@ -0,0 +1,24 @@
+package org.jcobol.enums;
+
+/**
+ * Enumeration of the ways records are laid out in a file.
+ */
+public enum RecordFormat {
+    /**
+     * Records of the length of their layout, one after another (RECFM=F/FB)
+     */
+    FIXED,
+
+    /**
+     * Variable-length records, each preceded by a 4-byte record descriptor word:
+     * a big-endian 2-byte length that includes the descriptor, then 2 bytes of zeros
+     * (RECFM=V/VB)
+     */
+    RDW,
+
+    /**
+     * Variable-length records, each preceded by a big-endian 4-byte length of the
+     * record that does not include the prefix, as used by message framing
+     */
+    LENGTH_PREFIXED
+}
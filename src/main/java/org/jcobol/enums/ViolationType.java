@@ -0,0 +1,23 @@
+package org.jcobol.enums;
+
+/**
+ * Enumeration of the ways the bytes of a numeric field can be invalid.
+ */
+public enum ViolationType {
+    /**
+     * A packed nibble or zoned byte that is not a digit
+     */
+    INVALID_DIGIT,
+
+    /**
+     * A packed sign nibble other than C, D or F, or a last zoned byte that is
+     * neither a digit nor a valid overpunched sign
+     */
+    INVALID_SIGN,
+
+    /**
+     * A value with more digits than its picture allows, or a negative value
+     * in an unsigned field
+     */
+    OUT_OF_RANGE
+}
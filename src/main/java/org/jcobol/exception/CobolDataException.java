@@ -0,0 +1,52 @@
+package org.jcobol.exception;
+
+import org.jcobol.enums.ViolationType;
+
+/**
+ * Exception thrown when the bytes of a field are not valid for its COBOL type,
+ * such as a bad packed decimal nibble or a letter in a zoned number.
+ * <p>
+ * A feed with many bad records would otherwise spend most of its time building
+ * exceptions, so the decoders throw one shared instance per {@link ViolationType},
+ * from {@link #of(ViolationType)}. These carry no stack trace, cannot be changed,
+ * and do not say where the bad bytes are: the field and offset are reported with
+ * the {@link RecordError} of the record being parsed.
+ */
+public class CobolDataException extends CobolParseException {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final CobolDataException[] SHARED = {
+            new CobolDataException(ViolationType.INVALID_DIGIT, "Invalid digit in numeric field"),
+            new CobolDataException(ViolationType.INVALID_SIGN, "Invalid sign in numeric field"),
+            new CobolDataException(ViolationType.OUT_OF_RANGE, "Numeric value out of range")
+    };
+
+    private final ViolationType violationType;
+
+    /**
+     * Constructs a new exception without a stack trace.
+     *
+     * @param violationType what is wrong with the field
+     * @param message the detail message
+     */
+    public CobolDataException(ViolationType violationType, String message) {
+        super(message, null, false, false);
+        this.violationType = violationType;
+    }
+
+    /**
+     * @param violationType what is wrong with the field
+     * @return The shared exception for the violation
+     */
+    public static CobolDataException of(ViolationType violationType) {
+        return SHARED[violationType.ordinal()];
+    }
+
+    /**
+     * @return What is wrong with the field
+     */
+    public ViolationType getViolationType() {
+        return violationType;
+    }
+}
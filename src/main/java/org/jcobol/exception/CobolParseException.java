@@ -23,4 +23,17 @@ public class CobolParseException extends Exception {
     public CobolParseException(String message, Throwable cause) {
         super(message, cause);
     }
-}
\ No newline at end of file
+
+    /**
+     * Constructs a new exception, optionally without suppressed exceptions or a stack trace.
+     *
+     * @param message the detail message
+     * @param cause the cause of this exception, or null
+     * @param enableSuppression false to ignore suppressed exceptions
+     * @param writableStackTrace false to skip capturing the stack trace
+     */
+    protected CobolParseException(String message, Throwable cause, boolean enableSuppression,
+            boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,117 @@
+package org.jcobol.exception;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Decides what a multi-record parse does when a field cannot be decoded.
+ * <ul>
+ *   <li>{@link #failFast()} stops with an exception naming the record, field and offset</li>
+ *   <li>{@link #skip()} leaves the record out and counts it</li>
+ *   <li>{@link #collect(Consumer)} leaves the record out and reports the error to a sink</li>
+ *   <li>{@link #replaceWithDefault()} keeps the record with the default value in the bad field</li>
+ * </ul>
+ * Errors are reported through one reused {@link RecordError} per parse, and the
+ * decoding exceptions for bad data carry no stack trace, so bad records cost about
+ * as much as good ones. A policy counts the errors it has handled and can be shared
+ * by parses running on several threads, as long as its sink is thread-safe.
+ */
+public final class ErrorPolicy {
+
+    /**
+     * What happens to a record with a field that cannot be decoded.
+     */
+    public enum Action {
+        /** Stop the parse with an exception */
+        FAIL,
+        /** Leave the record out */
+        SKIP,
+        /** Keep the record with the default value in the bad field */
+        DEFAULT
+    }
+
+    private static final ErrorPolicy FAIL_FAST = new ErrorPolicy(Action.FAIL, null);
+
+    private final Action action;
+    private final Consumer<? super RecordError> sink;
+    private final LongAdder errorCount = new LongAdder();
+
+    private ErrorPolicy(Action action, Consumer<? super RecordError> sink) {
+        this.action = action;
+        this.sink = sink;
+    }
+
+    /**
+     * @return A policy that stops at the first bad field
+     */
+    public static ErrorPolicy failFast() {
+        return FAIL_FAST;
+    }
+
+    /**
+     * @return A new policy that leaves out records with bad fields and counts them
+     */
+    public static ErrorPolicy skip() {
+        return new ErrorPolicy(Action.SKIP, null);
+    }
+
+    /**
+     * Leave out records with bad fields and report each one to a sink.
+     *
+     * @param sink Receives each error; the instance is reused, see {@link RecordError#copy()}
+     * @return The new policy
+     */
+    public static ErrorPolicy collect(Consumer<? super RecordError> sink) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Error sink cannot be null");
+        }
+        return new ErrorPolicy(Action.SKIP, sink);
+    }
+
+    /**
+     * @return A new policy that decodes bad fields as their default values and counts them
+     */
+    public static ErrorPolicy replaceWithDefault() {
+        return new ErrorPolicy(Action.DEFAULT, null);
+    }
+
+    /**
+     * Decode bad fields as their default values and report each one to a sink.
+     *
+     * @param sink Receives each error; the instance is reused, see {@link RecordError#copy()}
+     * @return The new policy
+     */
+    public static ErrorPolicy replaceWithDefault(Consumer<? super RecordError> sink) {
+        return new ErrorPolicy(Action.DEFAULT, sink);
+    }
+
+    /**
+     * @return What happens to a record with a bad field
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return The number of bad fields handled so far; always 0 for {@link #failFast()}
+     */
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    /**
+     * Handle a bad field: count it and report it to the sink, or throw for a fail-fast policy.
+     *
+     * @param error The error, reused by the caller afterwards
+     * @throws CobolParseException For a fail-fast policy, naming the record, field and offset
+     */
+    public void handle(RecordError error) throws CobolParseException {
+        if (action == Action.FAIL) {
+            throw new CobolParseException(error.toString(), error.getCause());
+        }
+        errorCount.increment();
+        if (sink != null) {
+            sink.accept(error);
+        }
+    }
+}
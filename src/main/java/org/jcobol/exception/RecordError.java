@@ -0,0 +1,87 @@
+package org.jcobol.exception;
+
+/**
+ * Describes a field that could not be decoded: the record it belongs to, the
+ * field name, its byte offset in the input and the exception raised.
+ * <p>
+ * A parse reports every error through the same instance, so an error sink that
+ * keeps errors must copy them with {@link #copy()}.
+ */
+public final class RecordError {
+
+    private long recordIndex;
+    private String fieldName;
+    private int offset;
+    private CobolParseException cause;
+
+    /**
+     * Create an empty error, filled in by {@link #set} before it is reported.
+     */
+    public RecordError() {
+    }
+
+    /**
+     * Set every property of the error.
+     *
+     * @param recordIndex The index of the record in the input
+     * @param fieldName The name of the field, or null if the record failed as a whole
+     * @param offset The byte offset of the field in the input
+     * @param cause The exception raised while decoding the field
+     * @return This error
+     */
+    public RecordError set(long recordIndex, String fieldName, int offset, CobolParseException cause) {
+        this.recordIndex = recordIndex;
+        this.fieldName = fieldName;
+        this.offset = offset;
+        this.cause = cause;
+        return this;
+    }
+
+    /**
+     * @return The index of the record in the input
+     */
+    public long getRecordIndex() {
+        return recordIndex;
+    }
+
+    /**
+     * @return The name of the field, or null if the record failed as a whole
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * @return The byte offset of the field in the input
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The exception raised while decoding the field
+     */
+    public CobolParseException getCause() {
+        return cause;
+    }
+
+    /**
+     * @return The message of the exception
+     */
+    public String getMessage() {
+        return cause == null ? null : cause.getMessage();
+    }
+
+    /**
+     * @return A copy of this error that later errors will not overwrite
+     */
+    public RecordError copy() {
+        return new RecordError().set(recordIndex, fieldName, offset, cause);
+    }
+
+    @Override
+    public String toString() {
+        return "Record " + recordIndex + (fieldName == null ? "" : ", field " + fieldName)
+                + " at offset " + offset + ": " + getMessage();
+    }
+}
@@ -0,0 +1,265 @@
+package org.jcobol.io;
+
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Reads fixed-length records from a file with several blocks loading ahead,
+ * so the next block is read while the current one is decoded.
+ * <p>
+ * The file is read through an {@link AsynchronousFileChannel} into a ring of
+ * direct buffers. When all records of a block have been read, its buffer is
+ * sent off for the block after the last one in flight, and the reader moves on
+ * to the next block, waiting only if it has not arrived yet. Blocks hold a
+ * whole number of records, so no record spans two blocks, and records are
+ * parsed in place from the direct buffers.
+ * <p>
+ * The time spent waiting for blocks and the time spent decoding are measured
+ * separately, to show whether a job is bound by I/O or by decoding.
+ * <p>
+ * A reader is not thread-safe.
+ *
+ * @param <T> The record type
+ */
+public class CobolAsyncFileReader<T> implements Closeable {
+
+    private final AsynchronousFileChannel channel;
+    private final RecordLayout<T> layout;
+    private final int recordLength;
+    private final boolean reuseInstance;
+    private final long fileSize;
+    private final Block[] ring;
+    private long nextReadPosition;
+    private int current = -1;
+    private int position;
+    private int limit;
+    private boolean endOfFile;
+    private int trailingBytes;
+    private T instance;
+    private long recordsRead;
+    private long blocksRead;
+    private long ioWaitNanos;
+    private long decodeNanos;
+
+    private static final class Block {
+        final ByteBuffer buffer;
+        long filePosition;
+        Future<Integer> pending;
+
+        Block(int size) {
+            this.buffer = ByteBuffer.allocateDirect(size);
+        }
+    }
+
+    /**
+     * Open a file with two blocks of 1 MB in flight.
+     *
+     * @param file The record file
+     * @param recordClass The record class
+     * @throws IOException If the file cannot be opened
+     */
+    public CobolAsyncFileReader(Path file, Class<T> recordClass) throws IOException {
+        this(file, recordClass, 1 << 20, 2, false);
+    }
+
+    /**
+     * Open a file.
+     *
+     * @param file The record file
+     * @param recordClass The record class
+     * @param blockSize The bytes read per block, rounded down to whole records (at least one)
+     * @param depth The number of blocks in flight, at least 2
+     * @param reuseInstance true to return the same instance from every {@link #read()}
+     * @throws IOException If the file cannot be opened
+     */
+    public CobolAsyncFileReader(Path file, Class<T> recordClass, int blockSize, int depth, boolean reuseInstance)
+            throws IOException {
+        this.layout = RecordLayout.of(recordClass);
+        this.recordLength = layout.getLength();
+        if (recordLength == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        if (depth < 2) {
+            throw new IllegalArgumentException("Depth must be at least 2: " + depth);
+        }
+        if (reuseInstance && layout.isImmutable()) {
+            throw new IllegalArgumentException("Immutable record class " + recordClass.getName() + " cannot be reused");
+        }
+        this.reuseInstance = reuseInstance;
+        int size = Math.max(1, blockSize / recordLength) * recordLength;
+        this.ring = new Block[depth];
+        this.channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            for (int i = 0; i < depth; i++) {
+                ring[i] = new Block(size);
+                submit(ring[i]);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return The record, or null at the end of the file
+     * @throws IOException If the file cannot be read
+     * @throws CobolParseException If the record cannot be parsed or the file ends inside a record
+     * @throws ReflectiveOperationException If a record instance cannot be created or accessed
+     */
+    public T read() throws IOException, CobolParseException, ReflectiveOperationException {
+        if (position == limit && !nextBlock()) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        ByteBuffer data = ring[current].buffer;
+        T record;
+        if (layout.isImmutable()) {
+            record = CobolFieldProcessor.parseFromBuffer(data, position, layout.getRecordClass());
+        } else {
+            record = reuseInstance && instance != null ? instance : layout.newInstance();
+            CobolFieldProcessor.parseFromBuffer(record, data, position);
+        }
+        decodeNanos += System.nanoTime() - start;
+
+        position += recordLength;
+        recordsRead++;
+        if (reuseInstance) {
+            instance = record;
+        }
+        return record;
+    }
+
+    /**
+     * Send the finished block off for the next part of the file and take the next block of the ring.
+     *
+     * @return false at the end of the file
+     */
+    private boolean nextBlock() throws IOException, CobolParseException {
+        if (endOfFile) {
+            if (trailingBytes > 0) {
+                int bytes = trailingBytes;
+                trailingBytes = 0;
+                throw new CobolParseException("File ends inside record " + recordsRead
+                        + ": " + bytes + " of " + recordLength + " bytes");
+            }
+            return false;
+        }
+        if (current >= 0) {
+            submit(ring[current]);
+        }
+        current = (current + 1) % ring.length;
+        Block block = ring[current];
+        int length = await(block);
+        if (length == 0) {
+            endOfFile = true;
+            return false;
+        }
+        if (length % recordLength != 0) {
+            // Only the last block can be short; its whole records are still read
+            endOfFile = true;
+            trailingBytes = length % recordLength;
+            length -= trailingBytes;
+        }
+
+        // Records are parsed from the buffer until it is sent off again by the next call
+        block.buffer.flip();
+        position = 0;
+        limit = length;
+        blocksRead++;
+        return length > 0 || nextBlock();
+    }
+
+    private void submit(Block block) {
+        block.buffer.clear();
+        block.filePosition = nextReadPosition;
+        if (nextReadPosition < fileSize) {
+            block.pending = channel.read(block.buffer, nextReadPosition);
+            nextReadPosition += block.buffer.capacity();
+        } else {
+            block.pending = null;
+        }
+    }
+
+    /**
+     * Wait for a block, reading the rest of it if the read came back short.
+     *
+     * @return The number of bytes in the block
+     */
+    private int await(Block block) throws IOException {
+        long start = System.nanoTime();
+        try {
+            while (block.pending != null) {
+                int n = block.pending.get();
+                block.pending = null;
+                long end = Math.min(fileSize, block.filePosition + block.buffer.capacity());
+                if (n >= 0 && block.filePosition + block.buffer.position() < end) {
+                    block.pending = channel.read(block.buffer, block.filePosition + block.buffer.position());
+                }
+            }
+            return block.buffer.position();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a block");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } finally {
+            ioWaitNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * @return The record length in bytes
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * @return The number of records read so far
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    /**
+     * @return The number of blocks decoded so far
+     */
+    public long getBlocksRead() {
+        return blocksRead;
+    }
+
+    /**
+     * @return The time spent waiting for blocks to arrive, in nanoseconds
+     */
+    public long getIoWaitNanos() {
+        return ioWaitNanos;
+    }
+
+    /**
+     * @return The time spent decoding records, in nanoseconds
+     */
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,537 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolKey;
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.FieldLayout;
+import org.jcobol.core.layout.FieldLocation;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.core.utils.CobolFieldWriter;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A keyed record store in the style of a VSAM KSDS.
+ * <p>
+ * Records are kept in the jcobol binary format in a data file, one fixed-length
+ * slot per record, and a B+tree on the {@link CobolKey} field maps keys to slots
+ * in a separate index file. Both files are memory-mapped, so a lookup reads a
+ * few index pages and one record, and recently used pages stay in the operating
+ * system page cache.
+ * <p>
+ * Keys are unique and compared by their encoded bytes. Key values passed to
+ * {@link #get} and {@link #range} are encoded like the key field, so an
+ * alphanumeric key can be given as a {@code String} without padding.
+ * Space of deleted records is not reused; their slots are cleared to zero
+ * bytes, so a record of all zero bytes is taken as a free slot.
+ * <p>
+ * {@link #force()} and {@link #close()} write the data file to the storage device
+ * before the index, and then mark the index clean. The first update after that
+ * marks it dirty again, on the device, before anything else is written, and
+ * takes a lock on the index file until the index is clean. When a file is
+ * opened with a dirty index that nobody holds the lock on, the last writer did
+ * not shut down cleanly: the index is rebuilt from the data file, skipping the
+ * zero-filled space mapped ahead of the last record, and updates since the last
+ * force may be lost.
+ * <p>
+ * Lookups may run concurrently; updates lock out other readers and writers.
+ * Hot records can be kept decoded in a {@link RecordCache}, keyed on their key
+ * bytes; updates through this file invalidate the cached copies. Every update
+ * also counts a generation in the index header, which all openers of the file
+ * share through the mapping, so when another file object or process changes the
+ * files, the records cached here are dropped on the next lookup. Only one of
+ * them should update the files at a time.
+ *
+ * @param <T> The record type
+ */
+public class CobolIndexedFile<T> implements Closeable {
+
+    private static final int SEGMENT_SIZE = 1 << 20;
+    private static final CobolFieldWriter fieldWriter = new CobolFieldWriter();
+
+    private final RecordLayout<T> layout;
+    private final FieldLocation key;
+    private final int recordLength;
+    private final MappedFile data;
+    private final MappedFile indexFile;
+    private final KeyIndex index;
+    private final RecordCache<T> cache;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileLock writerLock;
+    private volatile long seenGeneration;
+    private volatile long epoch;
+
+    private CobolIndexedFile(RecordLayout<T> layout, FieldLocation key, MappedFile data, MappedFile indexFile,
+            KeyIndex index, RecordCache<T> cache) {
+        this.layout = layout;
+        this.key = key;
+        this.recordLength = layout.getLength();
+        this.data = data;
+        this.indexFile = indexFile;
+        this.index = index;
+        this.cache = cache;
+        this.seenGeneration = index.getGeneration();
+    }
+
+    /**
+     * Open an indexed file, creating the files if they do not exist.
+     * If the index file is missing or empty and the data file has records,
+     * the index is built from the data file, so a flat file of records
+     * can be loaded as is.
+     *
+     * @param <T> The record type
+     * @param dataFile The data file
+     * @param indexFile The index file
+     * @param recordClass The record class, with one {@link CobolKey} field
+     * @return The open file
+     * @throws IOException If the files cannot be opened, the index does not match the
+     *         record class, or the data file holds duplicate keys
+     * @throws IllegalArgumentException If the record class has no key field or more than one
+     */
+    public static <T> CobolIndexedFile<T> open(Path dataFile, Path indexFile, Class<T> recordClass)
+            throws IOException {
+        return open(dataFile, indexFile, recordClass, null);
+    }
+
+    /**
+     * Open an indexed file with a cache of decoded records for {@link #get}.
+     *
+     * @param <T> The record type
+     * @param dataFile The data file
+     * @param indexFile The index file
+     * @param recordClass The record class, with one {@link CobolKey} field
+     * @param cache The cache, used by this file only, or null
+     * @return The open file
+     * @throws IOException If the files cannot be opened, the index does not match the
+     *         record class, or the data file holds duplicate keys
+     * @throws IllegalArgumentException If the record class has no key field or more than one
+     */
+    public static <T> CobolIndexedFile<T> open(Path dataFile, Path indexFile, Class<T> recordClass,
+            RecordCache<T> cache) throws IOException {
+        RecordLayout<T> layout = RecordLayout.of(recordClass);
+        if (layout.getLength() == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        FieldLocation key = findKey(layout);
+
+        MappedFile data = new MappedFile(dataFile, SEGMENT_SIZE);
+        MappedFile indexData = null;
+        try {
+            indexData = new MappedFile(indexFile, SEGMENT_SIZE);
+            long dataSize = data.size();
+            boolean load = indexData.size() == 0 && dataSize > 0;
+            KeyIndex index = KeyIndex.open(indexData, key.getLength(), layout.getLength());
+            data.ensureCapacity(dataSize);
+            CobolIndexedFile<T> file = new CobolIndexedFile<>(layout, key, data, indexData, index, cache);
+            if (load) {
+                file.rebuild(dataSize, false);
+            } else if (index.isDirty() && (file.writerLock = indexData.tryLock()) != null) {
+                // Dirty, yet no other opener is updating the files: the last writer crashed
+                file.rebuild(dataSize, true);
+            } else if (dataSize < index.getSlotCount() * layout.getLength()) {
+                throw new IOException("Data file " + dataFile + " is shorter than its index");
+            }
+            return file;
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            if (indexData != null) {
+                indexData.close();
+            }
+            throw e;
+        }
+    }
+
+    private static FieldLocation findKey(RecordLayout<?> layout) {
+        List<String> paths = new ArrayList<>();
+        collectKeys(layout, "", paths);
+        if (paths.size() != 1) {
+            throw new IllegalArgumentException("Record class " + layout.getRecordClass().getName()
+                    + " must have exactly one @CobolKey field, found " + paths);
+        }
+        return layout.locate(paths.get(0));
+    }
+
+    private static void collectKeys(RecordLayout<?> layout, String prefix, List<String> paths) {
+        for (FieldLayout field : layout.getFields()) {
+            if (field.isNested()) {
+                collectKeys(field.getNestedLayout(), prefix + field.getName() + ".", paths);
+            } else if (field.getField().isAnnotationPresent(CobolKey.class)) {
+                paths.add(prefix + field.getName());
+            }
+        }
+    }
+
+    /**
+     * Build the index from the data file, skipping free slots. When recovering from
+     * a crash, the data file may end in zero-filled or partly written space, and a
+     * key found twice keeps its later slot, as deleted slots may not have been cleared.
+     */
+    private void rebuild(long dataSize, boolean recovering) throws IOException {
+        if (dataSize % recordLength != 0 && !recovering) {
+            throw new IOException("Data file length " + dataSize + " is not a multiple of the record length "
+                    + recordLength);
+        }
+        markDirty();
+        index.reset();
+        long slots = dataSize / recordLength;
+        long used = 0;
+        byte[] record = new byte[recordLength];
+        for (long slot = 0; slot < slots; slot++) {
+            data.read(slot * recordLength, record, 0, recordLength);
+            if (isFree(record)) {
+                continue;
+            }
+            byte[] keyBytes = keyOf(record);
+            if (!index.insert(keyBytes, slot)) {
+                if (!recovering) {
+                    throw new IOException("Duplicate key in record " + slot);
+                }
+                index.remove(keyBytes);
+                index.insert(keyBytes, slot);
+            }
+            used = slot + 1;
+        }
+        index.setSlotCount(used);
+        seenGeneration = index.nextGeneration();
+        indexFile.force();
+        markClean();
+    }
+
+    private static boolean isFree(byte[] record) {
+        for (byte b : record) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The record length in bytes
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * @return The number of records
+     */
+    public long size() {
+        epoch();
+        lock.readLock().lock();
+        try {
+            return index.getEntryCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Look up a record by key. With a cache, the record may be a shared instance.
+     *
+     * @param keyValue The key value
+     * @return The record, or null if there is no record with the key
+     * @throws CobolParseException If the key cannot be encoded or the record cannot be parsed
+     * @throws ReflectiveOperationException If a record instance cannot be created
+     */
+    public T get(Object keyValue) throws CobolParseException, ReflectiveOperationException {
+        byte[] keyBytes = encodeKey(keyValue);
+        ByteBuffer cacheKey = ByteBuffer.wrap(keyBytes);
+        long version = epoch();
+        if (cache != null) {
+            T cached = cache.get(cacheKey, version);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Decode under the read lock, so an update cannot invalidate the entry before it is cached
+        byte[] image = new byte[recordLength];
+        lock.readLock().lock();
+        try {
+            long slot = index.find(keyBytes);
+            if (slot < 0) {
+                return null;
+            }
+            data.read(slot * recordLength, image, 0, recordLength);
+            T record = CobolFieldProcessor.parseFromBinary(image, 0, layout.getRecordClass());
+            if (cache != null) {
+                cache.put(cacheKey, record, version);
+            }
+            return record;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read the records with keys in a range, in key order.
+     *
+     * @param fromKey The lowest key, inclusive, or null to start at the first record
+     * @param toKey The highest key, inclusive, or null to continue to the last record
+     * @return The records
+     * @throws CobolParseException If a key cannot be encoded or a record cannot be parsed
+     * @throws ReflectiveOperationException If a record instance cannot be created
+     */
+    public List<T> range(Object fromKey, Object toKey) throws CobolParseException, ReflectiveOperationException {
+        byte[] from = fromKey == null ? null : encodeKey(fromKey);
+        byte[] to = toKey == null ? null : encodeKey(toKey);
+        List<byte[]> images = new ArrayList<>();
+        epoch();
+        lock.readLock().lock();
+        try {
+            index.scan(from, to, slot -> {
+                byte[] record = new byte[recordLength];
+                data.read(slot * recordLength, record, 0, recordLength);
+                images.add(record);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (images.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> records = new ArrayList<>(images.size());
+        for (byte[] image : images) {
+            records.add(CobolFieldProcessor.parseFromBinary(image, 0, layout.getRecordClass()));
+        }
+        return records;
+    }
+
+    /**
+     * Add a record whose key is not in the file yet.
+     *
+     * @param record The record
+     * @return false if a record with the same key exists; the file is not changed
+     * @throws IOException If the files cannot be extended
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If the record cannot be encoded
+     */
+    public boolean insert(T record) throws IOException, IllegalAccessException, CobolParseException {
+        byte[] image = encode(record);
+        byte[] keyBytes = keyOf(image);
+        lock.writeLock().lock();
+        try {
+            epoch();
+            markDirty();
+            if (index.find(keyBytes) >= 0) {
+                return false;
+            }
+            // Write the record before its key, so a lookup never finds an unwritten slot
+            long slot = index.getSlotCount();
+            data.write(slot * recordLength, image, 0, recordLength);
+            index.insert(keyBytes, slot);
+            index.setSlotCount(slot + 1);
+            changed();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a record, or replace the record with the same key in place.
+     *
+     * @param record The record
+     * @throws IOException If the files cannot be extended
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If the record cannot be encoded
+     */
+    public void put(T record) throws IOException, IllegalAccessException, CobolParseException {
+        byte[] image = encode(record);
+        byte[] keyBytes = keyOf(image);
+        lock.writeLock().lock();
+        try {
+            epoch();
+            markDirty();
+            long slot = index.find(keyBytes);
+            if (slot < 0) {
+                slot = index.getSlotCount();
+                data.write(slot * recordLength, image, 0, recordLength);
+                index.insert(keyBytes, slot);
+                index.setSlotCount(slot + 1);
+            } else {
+                data.write(slot * recordLength, image, 0, recordLength);
+            }
+            if (cache != null) {
+                cache.invalidate(ByteBuffer.wrap(keyBytes));
+            }
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete the record with a key and clear its slot.
+     *
+     * @param keyValue The key value
+     * @return false if there is no record with the key
+     * @throws IOException If the files cannot be written
+     * @throws CobolParseException If the key cannot be encoded
+     */
+    public boolean delete(Object keyValue) throws IOException, CobolParseException {
+        byte[] keyBytes = encodeKey(keyValue);
+        lock.writeLock().lock();
+        try {
+            epoch();
+            markDirty();
+            if (cache != null) {
+                cache.invalidate(ByteBuffer.wrap(keyBytes));
+            }
+            long slot = index.remove(keyBytes);
+            if (slot < 0) {
+                return false;
+            }
+            data.write(slot * recordLength, new byte[recordLength], 0, recordLength);
+            changed();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write changes in both files to the storage device, the data file first,
+     * and mark the index clean.
+     *
+     * @throws IOException If the index file lock cannot be released
+     */
+    public void force() throws IOException {
+        lock.writeLock().lock();
+        try {
+            data.force();
+            indexFile.force();
+            markClean();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Close both files. While this file holds the update lock, they are forced first and
+     * the space mapped ahead of the last record and page is trimmed; otherwise another
+     * opener may be extending them, so their length is left alone.
+     * Records cached for this file are invalidated.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (cache != null) {
+                cache.invalidateAll();
+            }
+            if (writerLock == null) {
+                try {
+                    data.close();
+                } finally {
+                    indexFile.close();
+                }
+                return;
+            }
+            try {
+                data.close(index.getSlotCount() * recordLength);
+                index.setDirty(false);
+            } finally {
+                // Closing the channel also releases the lock
+                writerLock = null;
+                indexFile.close(index.getLength());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The version of the cached records: advanced whenever the generation in the index
+     * header moved by a change not made through this file. The files are mapped again
+     * to their current length first, as the other writer may have extended them.
+     * Not called under the read lock, which cannot be upgraded.
+     */
+    private long epoch() {
+        if (index.getGeneration() != seenGeneration) {
+            lock.writeLock().lock();
+            try {
+                long generation = index.getGeneration();
+                if (generation != seenGeneration) {
+                    data.ensureCapacity(data.size());
+                    indexFile.ensureCapacity(indexFile.size());
+                    seenGeneration = generation;
+                    epoch++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return epoch;
+    }
+
+    /**
+     * Before the first change after the files were forced, take the update lock and
+     * get the dirty mark onto the device, so a crash cannot leave a changed index marked clean.
+     */
+    private void markDirty() throws IOException {
+        if (writerLock != null) {
+            return;
+        }
+        writerLock = indexFile.tryLock();
+        if (writerLock == null) {
+            throw new IOException("The files are being updated by another opener");
+        }
+        index.setDirty(true);
+        indexFile.force();
+    }
+
+    /**
+     * After both files were forced, clear the dirty mark and release the update lock.
+     */
+    private void markClean() throws IOException {
+        if (writerLock == null) {
+            return;
+        }
+        index.setDirty(false);
+        indexFile.force();
+        writerLock.release();
+        writerLock = null;
+    }
+
+    /**
+     * Count a change made through this file, under the write lock after {@link #epoch()}
+     * picked up the changes of others, so the cached records of this file stay valid.
+     */
+    private void changed() {
+        seenGeneration = index.nextGeneration();
+    }
+
+    private byte[] encode(T record) throws IllegalAccessException, CobolParseException {
+        return CobolFieldProcessor.writeRecordsToBinary(Collections.singletonList(record));
+    }
+
+    private byte[] keyOf(byte[] image) {
+        byte[] keyBytes = new byte[key.getLength()];
+        System.arraycopy(image, key.getOffset(), keyBytes, 0, keyBytes.length);
+        return keyBytes;
+    }
+
+    private byte[] encodeKey(Object keyValue) throws CobolParseException {
+        if (keyValue == null) {
+            throw new CobolParseException("Key value cannot be null");
+        }
+        byte[] keyBytes = new byte[key.getLength()];
+        fieldWriter.writeBinaryFieldValue(keyValue, keyBytes, 0, key.getField().getCobolField(), key.getCodePage());
+        return keyBytes;
+    }
+}
@@ -0,0 +1,408 @@
+package org.jcobol.io;
+
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Reads, decodes and consumes fixed-length records in overlapping stages.
+ * <p>
+ * A reader thread reads batches of records ahead into a bounded queue,
+ * worker threads decode the batches in parallel into a second bounded queue,
+ * and the calling thread hands the records to the consumer. When a stage falls
+ * behind, the queues fill up and the stages before it wait, so memory use is
+ * bounded by the queue capacity. Records are handed over in batches to keep the
+ * cost of each hand-off small.
+ * <p>
+ * With ordered delivery, records reach the consumer in stream order; otherwise
+ * batches are delivered as soon as they are decoded. Batches decoded ahead of
+ * their turn wait in a reorder window, and the reader waits while the window is
+ * full, so a slow batch cannot make the others pile up without bound. Workers are virtual threads
+ * when the JVM supports them and platform daemon threads otherwise.
+ *
+ * @param <T> The record type
+ */
+public final class CobolPipeline<T> {
+
+    private static final long POLL_MILLIS = 50;
+    private static final Batch END = new Batch(-1, null, 0);
+    private static final Batch DONE = new Batch(-1, null, 0);
+
+    private final InputStream in;
+    private final RecordLayout<T> layout;
+    private final int workers;
+    private final int batchSize;
+    private final int capacity;
+    private final boolean ordered;
+    private final ThreadFactory threadFactory;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean cancelled;
+
+    private CobolPipeline(Builder<T> builder) {
+        this.in = builder.in;
+        this.layout = builder.layout;
+        this.workers = builder.workers;
+        this.batchSize = builder.batchSize;
+        this.capacity = builder.capacity;
+        this.ordered = builder.ordered;
+        this.threadFactory = builder.threadFactory != null ? builder.threadFactory : defaultThreadFactory();
+    }
+
+    /**
+     * Start building a pipeline over a stream of records.
+     *
+     * @param <T> The record type
+     * @param in The input stream, read to its end
+     * @param recordClass The record class
+     * @return A builder with one worker per processor, batches of 256 records,
+     *         queues of 4 batches per worker and ordered delivery
+     */
+    public static <T> Builder<T> reading(InputStream in, Class<T> recordClass) {
+        return new Builder<>(in, RecordLayout.of(recordClass));
+    }
+
+    /**
+     * Run the pipeline to the end of the stream. The consumer runs on the calling thread.
+     * If any stage fails, the other stages are stopped and the first failure is thrown.
+     * A pipeline can only be run once.
+     *
+     * @param consumer Receives every record
+     * @return The number of records consumed
+     * @throws IOException If the stream cannot be read
+     * @throws CobolParseException If a record cannot be parsed or the stream ends inside a record
+     * @throws ReflectiveOperationException If a record instance cannot be created
+     * @throws InterruptedException If the calling thread is interrupted
+     * @throws IllegalStateException If the pipeline was run before
+     */
+    public long run(Consumer<? super T> consumer)
+            throws IOException, CobolParseException, ReflectiveOperationException, InterruptedException {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("A pipeline can only be run once");
+        }
+        BlockingQueue<Batch> input = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<Batch> output = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(2 * capacity + workers);
+        // Batches read but not yet delivered: enough for both queues and the workers
+        int window = 2 * capacity + workers;
+        Semaphore permits = ordered ? new Semaphore(window) : null;
+
+        List<Thread> threads = new ArrayList<>(workers + 1);
+        threads.add(threadFactory.newThread(stage(() -> read(input, blocks, permits))));
+        for (int i = 0; i < workers; i++) {
+            threads.add(threadFactory.newThread(stage(() -> decode(input, output, blocks))));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        long count = 0;
+        try {
+            // Batches ahead of their turn, at sequence % window; the reader never gets further ahead
+            Batch[] pending = ordered ? new Batch[window] : null;
+            long next = 0;
+            int done = 0;
+            while (done < workers) {
+                Batch batch = take(output);
+                if (batch == null) {
+                    break;
+                }
+                if (batch == DONE) {
+                    done++;
+                } else if (!ordered) {
+                    count += deliver(batch, consumer);
+                } else {
+                    pending[(int) (batch.sequence % window)] = batch;
+                    int slot;
+                    while ((batch = pending[slot = (int) (next % window)]) != null) {
+                        pending[slot] = null;
+                        count += deliver(batch, consumer);
+                        next++;
+                        permits.release();
+                    }
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            fail(e);
+        } finally {
+            // Stop the other stages if the consumer failed or the caller was interrupted
+            cancelled = true;
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        rethrow();
+        return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    private long deliver(Batch batch, Consumer<? super T> consumer) {
+        List<T> records = (List<T>) batch.records;
+        for (T record : records) {
+            consumer.accept(record);
+        }
+        return records.size();
+    }
+
+    private void read(BlockingQueue<Batch> input, BlockingQueue<byte[]> blocks, Semaphore permits)
+            throws Exception {
+        int recordLength = layout.getLength();
+        long sequence = 0;
+        while (!cancelled) {
+            if (permits != null && !acquire(permits)) {
+                break;
+            }
+            byte[] block = blocks.poll();
+            if (block == null) {
+                block = new byte[batchSize * recordLength];
+            }
+            int length = 0;
+            int n;
+            while (length < block.length && (n = in.read(block, length, block.length - length)) >= 0) {
+                length += n;
+            }
+            if (length == 0) {
+                break;
+            }
+            if (length % recordLength != 0) {
+                throw new CobolParseException("Stream ends inside record " + (sequence * batchSize
+                        + length / recordLength) + ": " + length % recordLength + " of " + recordLength + " bytes");
+            }
+            put(input, new Batch(sequence++, block, length));
+            if (length < block.length) {
+                break;
+            }
+        }
+        put(input, END);
+    }
+
+    private void decode(BlockingQueue<Batch> input, BlockingQueue<Batch> output, BlockingQueue<byte[]> blocks)
+            throws Exception {
+        int recordLength = layout.getLength();
+        Class<T> recordClass = layout.getRecordClass();
+        while (true) {
+            Batch batch = take(input);
+            if (batch == null) {
+                return;
+            }
+            if (batch == END) {
+                // Leave the end marker for the other workers
+                put(input, END);
+                put(output, DONE);
+                return;
+            }
+            List<T> records = new ArrayList<>(batch.length / recordLength);
+            for (int pos = 0; pos < batch.length; pos += recordLength) {
+                records.add(CobolFieldProcessor.parseFromBinary(batch.data, pos, recordClass));
+            }
+            blocks.offer(batch.data);
+            Batch decoded = new Batch(batch.sequence, null, batch.length);
+            decoded.records = records;
+            put(output, decoded);
+        }
+    }
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    private Runnable stage(Stage stage) {
+        return () -> {
+            try {
+                stage.run();
+            } catch (Throwable e) {
+                fail(e);
+            }
+        };
+    }
+
+    private void fail(Throwable e) {
+        failure.compareAndSet(null, e);
+        cancelled = true;
+    }
+
+    private void rethrow() throws IOException, CobolParseException, ReflectiveOperationException {
+        Throwable cause = failure.get();
+        if (cause == null) {
+            return;
+        }
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        } else if (cause instanceof CobolParseException) {
+            throw (CobolParseException) cause;
+        } else if (cause instanceof ReflectiveOperationException) {
+            throw (ReflectiveOperationException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new CobolParseException("Pipeline failed: " + cause, cause);
+    }
+
+    /**
+     * Wait for space in a queue, giving up once the pipeline is cancelled.
+     */
+    private <E> void put(BlockingQueue<E> queue, E item) throws InterruptedException {
+        while (!cancelled) {
+            if (queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Wait for a permit, returning false once the pipeline is cancelled.
+     */
+    private boolean acquire(Semaphore permits) throws InterruptedException {
+        while (!cancelled) {
+            if (permits.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wait for an item, returning null once the pipeline is cancelled.
+     */
+    private <E> E take(BlockingQueue<E> queue) throws InterruptedException {
+        while (!cancelled) {
+            E item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Use virtual threads when the JVM has them (Java 21 and later), platform daemon threads otherwise.
+     */
+    static ThreadFactory defaultThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "jcobol-pipeline-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, "jcobol-pipeline-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    private static final class Batch {
+        final long sequence;
+        final byte[] data;
+        final int length;
+        List<?> records;
+
+        Batch(long sequence, byte[] data, int length) {
+            this.sequence = sequence;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Builder of {@link CobolPipeline}.
+     *
+     * @param <T> The record type
+     */
+    public static final class Builder<T> {
+        private final InputStream in;
+        private final RecordLayout<T> layout;
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int batchSize = 256;
+        private int capacity = -1;
+        private boolean ordered = true;
+        private ThreadFactory threadFactory;
+
+        private Builder(InputStream in, RecordLayout<T> layout) {
+            if (layout.getLength() == 0) {
+                throw new IllegalArgumentException("Record class " + layout.getRecordClass().getName()
+                        + " has no COBOL fields");
+            }
+            this.in = in;
+            this.layout = layout;
+        }
+
+        /**
+         * @param workers The number of decoding threads
+         * @return This builder
+         */
+        public Builder<T> workers(int workers) {
+            this.workers = positive("Worker count", workers);
+            return this;
+        }
+
+        /**
+         * @param batchSize The number of records read, decoded and handed over together
+         * @return This builder
+         */
+        public Builder<T> batchSize(int batchSize) {
+            this.batchSize = positive("Batch size", batchSize);
+            return this;
+        }
+
+        /**
+         * @param capacity The number of batches each queue holds before the stage filling it waits
+         * @return This builder
+         */
+        public Builder<T> queueCapacity(int capacity) {
+            this.capacity = positive("Queue capacity", capacity);
+            return this;
+        }
+
+        /**
+         * @param ordered true to deliver records in stream order, false to deliver batches as they are decoded
+         * @return This builder
+         */
+        public Builder<T> ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * @param threadFactory The factory of the reader and worker threads
+         * @return This builder
+         */
+        public Builder<T> threadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        public CobolPipeline<T> build() {
+            if (capacity < 0) {
+                capacity = 4 * workers;
+            }
+            return new CobolPipeline<>(this);
+        }
+
+        private static int positive(String name, int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive: " + value);
+            }
+            return value;
+        }
+    }
+}
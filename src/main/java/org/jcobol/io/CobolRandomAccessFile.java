@@ -0,0 +1,228 @@
+package org.jcobol.io;
+
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.RecordFormat;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads records by their number, without scanning the records before them.
+ * <p>
+ * Fixed-length records are found at {@code index * recordLength}. Variable-length
+ * records with record descriptor words or length prefixes are found through an
+ * offset index, which is built by walking the headers once and can be saved next
+ * to the data file.
+ * A saved index is reused on later opens while the size and modification time of
+ * the data file still match, so every {@link #get} is a single positioned read.
+ * <p>
+ * A variable-length record shorter than its layout is read as if the missing
+ * trailing fields held their default values.
+ * <p>
+ * Reads are positioned, so one file can be shared between threads.
+ *
+ * @param <T> The record type
+ */
+public class CobolRandomAccessFile<T> implements Closeable {
+
+    private final Path file;
+    private final RecordLayout<T> layout;
+    private final RecordFormat format;
+    private final Path indexFile;
+    private final RecordCache<T> cache;
+    private final FileChannel channel;
+    private volatile State state;
+    private long generation;
+
+    /**
+     * The record count and offsets for one version of the data file. Cached records
+     * are tagged with the generation of the state they were decoded from.
+     */
+    private static final class State {
+        final long generation;
+        final long size;
+        final long modified;
+        final long count;
+        final OffsetIndex offsets;
+
+        State(long generation, long size, long modified, long count, OffsetIndex offsets) {
+            this.generation = generation;
+            this.size = size;
+            this.modified = modified;
+            this.count = count;
+            this.offsets = offsets;
+        }
+    }
+
+    private CobolRandomAccessFile(Path file, RecordLayout<T> layout, RecordFormat format, Path indexFile,
+            RecordCache<T> cache) throws IOException {
+        this.file = file;
+        this.layout = layout;
+        this.format = format;
+        this.indexFile = indexFile;
+        this.cache = cache;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.state = loadState();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open a file of fixed-length records.
+     *
+     * @param <T> The record type
+     * @param file The data file
+     * @param recordClass The record class
+     * @return The open file
+     * @throws IOException If the file cannot be opened or is not a whole number of records
+     */
+    public static <T> CobolRandomAccessFile<T> open(Path file, Class<T> recordClass) throws IOException {
+        return open(file, recordClass, RecordFormat.FIXED, null, null);
+    }
+
+    /**
+     * Open a record file.
+     *
+     * @param <T> The record type
+     * @param file The data file
+     * @param recordClass The record class
+     * @param format The record format
+     * @param indexFile Where the offset index of variable-length records is saved, or null
+     *        to build it in memory on every open; not used for fixed-length records
+     * @param cache A cache of decoded records keyed on the record number, or null
+     * @return The open file
+     * @throws IOException If the file cannot be opened, its records are malformed, or the
+     *         index cannot be saved
+     */
+    public static <T> CobolRandomAccessFile<T> open(Path file, Class<T> recordClass, RecordFormat format,
+            Path indexFile, RecordCache<T> cache) throws IOException {
+        RecordLayout<T> layout = RecordLayout.of(recordClass);
+        if (layout.getLength() == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        return new CobolRandomAccessFile<>(file, layout, format, indexFile, cache);
+    }
+
+    private State loadState() throws IOException {
+        long size = channel.size();
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        if (format == RecordFormat.FIXED) {
+            if (size % layout.getLength() != 0) {
+                throw new IOException("File length " + size + " is not a multiple of the record length "
+                        + layout.getLength());
+            }
+            return new State(++generation, size, modified, size / layout.getLength(), null);
+        }
+
+        OffsetIndex offsets = indexFile != null ? OffsetIndex.load(indexFile, size, modified) : null;
+        if (offsets == null) {
+            offsets = OffsetIndex.build(channel, format);
+            if (indexFile != null) {
+                offsets.save(indexFile, size, modified);
+            }
+        }
+        return new State(++generation, size, modified, offsets.getCount(), offsets);
+    }
+
+    /**
+     * @return The number of records
+     */
+    public long getRecordCount() {
+        return state.count;
+    }
+
+    public RecordFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Read a record by number. With a cache, the record may be a shared instance.
+     *
+     * @param index The record number, from 0
+     * @return The record
+     * @throws IOException If the file cannot be read
+     * @throws CobolParseException If the record cannot be parsed
+     * @throws ReflectiveOperationException If a record instance cannot be created
+     * @throws IndexOutOfBoundsException If there is no record with the number
+     */
+    public T get(long index) throws IOException, CobolParseException, ReflectiveOperationException {
+        State current = state;
+        if (index < 0 || index >= current.count) {
+            throw new IndexOutOfBoundsException("Record " + index + " is outside the file of "
+                    + current.count + " records");
+        }
+        if (cache != null) {
+            T cached = cache.get(index, current.generation);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        byte[] image;
+        if (current.offsets == null) {
+            image = new byte[layout.getLength()];
+            read(ByteBuffer.wrap(image), index * layout.getLength(), index);
+        } else {
+            int length = current.offsets.length(index);
+            ByteBuffer record = ByteBuffer.allocate(length);
+            read(record, current.offsets.offset(index), index);
+            int bodyLength = length - Frames.HEADER_LENGTH;
+            if (bodyLength >= layout.getLength()) {
+                image = new byte[layout.getLength()];
+            } else {
+                // Fill the fields missing from a short record with their defaults
+                image = layout.getDefaultImage(CobolEncoding.INHERIT);
+            }
+            System.arraycopy(record.array(), Frames.HEADER_LENGTH, image, 0, Math.min(bodyLength, image.length));
+        }
+
+        T value = CobolFieldProcessor.parseFromBinary(image, 0, layout.getRecordClass());
+        if (cache != null) {
+            // Tagged with the generation it was read from, so a put racing refresh() is never served
+            cache.put(index, value, current.generation);
+        }
+        return value;
+    }
+
+    /**
+     * Check whether the data file changed since it was opened or last refreshed, and if so
+     * recount its records, rebuild the offset index and invalidate the cached records.
+     *
+     * @return true if the file had changed
+     * @throws IOException If the file cannot be read or the index cannot be saved
+     */
+    public synchronized boolean refresh() throws IOException {
+        State current = state;
+        if (channel.size() == current.size && Files.getLastModifiedTime(file).toMillis() == current.modified) {
+            return false;
+        }
+        state = loadState();
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+        return true;
+    }
+
+    private void read(ByteBuffer buffer, long position, long index) throws IOException {
+        OffsetIndex.readFully(channel, buffer, position);
+        if (buffer.hasRemaining()) {
+            throw new IOException("File ends inside record " + index);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,71 @@
+package org.jcobol.io;
+
+import org.jcobol.core.layout.RecordLayout;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of record instances for hand-off pipelines, where a reader
+ * passes records to other threads and cannot reuse a single instance.
+ * Consumers {@link #release} records when done with them, and the reader
+ * parses the next records into the released instances.
+ * <p>
+ * The pool is thread-safe. Records released while the pool is full are
+ * dropped and left to the garbage collector.
+ *
+ * @param <T> The record type
+ */
+public class CobolRecordPool<T> {
+
+    private final RecordLayout<T> layout;
+    private final BlockingQueue<T> available;
+
+    /**
+     * Create a pool.
+     *
+     * @param recordClass The record class, which must have a no-argument constructor
+     * @param capacity The maximum number of idle records kept
+     * @throws IllegalArgumentException If the record class is immutable
+     */
+    public CobolRecordPool(Class<T> recordClass, int capacity) {
+        this.layout = RecordLayout.of(recordClass);
+        if (layout.isImmutable()) {
+            throw new IllegalArgumentException("Immutable record class " + recordClass.getName() + " cannot be pooled");
+        }
+        this.available = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public Class<T> getRecordClass() {
+        return layout.getRecordClass();
+    }
+
+    /**
+     * Take an idle record, or create one if the pool is empty.
+     *
+     * @return A record instance; its fields still hold the values of its previous use
+     * @throws ReflectiveOperationException If a new instance cannot be created
+     */
+    public T acquire() throws ReflectiveOperationException {
+        T record = available.poll();
+        return record != null ? record : layout.newInstance();
+    }
+
+    /**
+     * Return a record to the pool.
+     *
+     * @param record The record, which the caller must no longer use
+     */
+    public void release(T record) {
+        if (record != null) {
+            available.offer(record);
+        }
+    }
+
+    /**
+     * @return The number of idle records in the pool
+     */
+    public int size() {
+        return available.size();
+    }
+}
@@ -0,0 +1,174 @@
+package org.jcobol.io;
+
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads fixed-length COBOL records from a stream one at a time.
+ * <p>
+ * Three modes control how record objects are allocated:
+ * <ul>
+ *   <li>a new instance per record (the default)</li>
+ *   <li>one mutable instance reused for every record, for consumers that
+ *       finish with a record before reading the next one</li>
+ *   <li>instances taken from a {@link CobolRecordPool}, for consumers that
+ *       hand records to other threads and release them later</li>
+ * </ul>
+ * The two reuse modes allocate no record objects once the scan is running.
+ * Immutable records, with a {@link org.jcobol.annotation.CobolConstructor} or Java
+ * records, are always created new and cannot be reused.
+ *
+ * @param <T> The record type
+ */
+public class CobolRecordReader<T> implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final RecordLayout<T> layout;
+    private final int recordLength;
+    private final boolean reuseInstance;
+    private final CobolRecordPool<T> pool;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private T current;
+    private long recordsRead;
+
+    /**
+     * Create a reader that returns a new instance for every record.
+     *
+     * @param in The input stream
+     * @param recordClass The record class
+     */
+    public CobolRecordReader(InputStream in, Class<T> recordClass) {
+        this(in, recordClass, false, null);
+    }
+
+    /**
+     * Create a reader, optionally reusing one instance for every record.
+     *
+     * @param in The input stream
+     * @param recordClass The record class
+     * @param reuseInstance true to return the same instance from every {@link #read()}
+     */
+    public CobolRecordReader(InputStream in, Class<T> recordClass, boolean reuseInstance) {
+        this(in, recordClass, reuseInstance, null);
+    }
+
+    /**
+     * Create a reader that parses records into instances taken from a pool.
+     *
+     * @param in The input stream
+     * @param pool The pool supplying the record instances
+     */
+    public CobolRecordReader(InputStream in, CobolRecordPool<T> pool) {
+        this(in, pool.getRecordClass(), false, pool);
+    }
+
+    private CobolRecordReader(InputStream in, Class<T> recordClass, boolean reuseInstance, CobolRecordPool<T> pool) {
+        this.in = in;
+        this.layout = RecordLayout.of(recordClass);
+        this.recordLength = layout.getLength();
+        if (recordLength == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        if (reuseInstance && layout.isImmutable()) {
+            throw new IllegalArgumentException("Immutable record class " + recordClass.getName() + " cannot be reused");
+        }
+        this.reuseInstance = reuseInstance;
+        this.pool = pool;
+        this.buffer = new byte[Math.max(1, BUFFER_SIZE / recordLength) * recordLength];
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return The record, or null at the end of the stream
+     * @throws IOException If the stream cannot be read
+     * @throws CobolParseException If the record cannot be parsed or the stream ends inside a record
+     * @throws ReflectiveOperationException If a record instance cannot be created or accessed
+     */
+    public T read() throws IOException, CobolParseException, ReflectiveOperationException {
+        if (!ensureRecord()) {
+            return null;
+        }
+
+        T record;
+        if (layout.isImmutable()) {
+            record = CobolFieldProcessor.parseFromBinary(buffer, position, layout.getRecordClass());
+        } else {
+            if (pool != null) {
+                record = pool.acquire();
+            } else if (reuseInstance && current != null) {
+                record = current;
+            } else {
+                record = layout.newInstance();
+            }
+            CobolFieldProcessor.parseFromBinary(record, buffer, position);
+        }
+
+        position += recordLength;
+        recordsRead++;
+        if (reuseInstance) {
+            current = record;
+        }
+        return record;
+    }
+
+    /**
+     * @return The record length in bytes
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * @return The number of records read so far
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    /**
+     * Make sure a whole record is buffered, reading more of the stream if needed.
+     * Reads return as soon as one record is available, so slow streams are not
+     * held up waiting for a full buffer.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean ensureRecord() throws IOException, CobolParseException {
+        if (limit - position >= recordLength) {
+            return true;
+        }
+
+        // Move the start of a partial record to the front of the buffer
+        int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+
+        while (limit < recordLength) {
+            int n = in.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                if (limit == 0) {
+                    return false;
+                }
+                throw new CobolParseException("Stream ends inside record " + recordsRead
+                        + ": " + limit + " of " + recordLength + " bytes");
+            }
+            limit += n;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
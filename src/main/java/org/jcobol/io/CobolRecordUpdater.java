@@ -0,0 +1,286 @@
+package org.jcobol.io;
+
+import org.jcobol.core.layout.FieldLocation;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.core.utils.CobolFieldWriter;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Patches single fields of fixed-length records in place, without decoding or
+ * rewriting the rest of the record.
+ * <p>
+ * A value is encoded into the bytes at {@code recordIndex * recordLength + fieldOffset}
+ * of a byte array, a {@link ByteBuffer} or a file mapped with {@link #open(Path, Class)}.
+ * Updates are applied immediately with {@link #update}, or collected with {@link #add}
+ * and applied in offset order by {@link #flush()}, so a mapped file is written
+ * front to back. {@link #force()} writes mapped changes to the storage device.
+ * <p>
+ * An updater is not thread-safe.
+ *
+ * @param <T> The record type
+ */
+public class CobolRecordUpdater<T> implements Closeable {
+
+    private static final CobolFieldWriter fieldWriter = new CobolFieldWriter();
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private final RecordLayout<T> layout;
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final MappedByteBuffer[] windows;
+    private final int windowSize;
+    private final FileChannel channel;
+    private final long capacity;
+    private final Map<String, FieldLocation> locations = new HashMap<>();
+    private final List<PendingUpdate> pending = new ArrayList<>();
+    private final byte[] scratch;
+
+    /**
+     * Create an updater over records in a byte array.
+     *
+     * @param recordClass The record class
+     * @param data The records
+     */
+    public CobolRecordUpdater(Class<T> recordClass, byte[] data) {
+        this(recordClass, data, null, null, 0, null, data.length);
+    }
+
+    /**
+     * Create an updater over records in a buffer, starting at index 0.
+     * Absolute puts are used, so the buffer position is not changed.
+     *
+     * @param recordClass The record class
+     * @param buffer The records, for example a writable {@link MappedByteBuffer}
+     */
+    public CobolRecordUpdater(Class<T> recordClass, ByteBuffer buffer) {
+        this(recordClass, null, buffer, null, 0, null, buffer.limit());
+    }
+
+    private CobolRecordUpdater(Class<T> recordClass, byte[] array, ByteBuffer buffer, MappedByteBuffer[] windows,
+            int windowSize, FileChannel channel, long capacity) {
+        this.layout = RecordLayout.of(recordClass);
+        if (layout.getLength() == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        this.array = array;
+        this.buffer = buffer;
+        this.windows = windows;
+        this.windowSize = windowSize;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.scratch = new byte[layout.getLength()];
+    }
+
+    /**
+     * Map a record file for update. The file is mapped in windows of 1 GB, so
+     * files of any size can be updated.
+     *
+     * @param <T> The record type
+     * @param file The record file
+     * @param recordClass The record class
+     * @return An updater writing to the mapped file; close it to release the file
+     * @throws IOException If the file cannot be opened or mapped
+     */
+    public static <T> CobolRecordUpdater<T> open(Path file, Class<T> recordClass) throws IOException {
+        return open(file, recordClass, WINDOW_SIZE);
+    }
+
+    static <T> CobolRecordUpdater<T> open(Path file, Class<T> recordClass, int windowSize) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            // The last window ends at the end of the file, so mapping never extends it
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((size + windowSize - 1) / windowSize)];
+            for (int i = 0; i < windows.length; i++) {
+                long position = (long) i * windowSize;
+                windows[i] = channel.map(FileChannel.MapMode.READ_WRITE, position,
+                        Math.min(windowSize, size - position));
+            }
+            return new CobolRecordUpdater<>(recordClass, null, null, windows, windowSize, channel, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The record length in bytes
+     */
+    public int getRecordLength() {
+        return layout.getLength();
+    }
+
+    /**
+     * @return The number of whole records in the data
+     */
+    public long getRecordCount() {
+        return capacity / layout.getLength();
+    }
+
+    /**
+     * Encode a field value into a record immediately. The value is encoded
+     * aside first, so a value that cannot be encoded leaves the record unchanged.
+     *
+     * @param recordIndex The index of the record, from 0
+     * @param fieldPath The field name, or a dotted path for fields of nested objects
+     * @param value The new value; null writes the default value of the field
+     * @throws CobolParseException If the value cannot be encoded
+     * @throws IllegalArgumentException If there is no such field
+     * @throws IndexOutOfBoundsException If the record is outside the data
+     */
+    public void update(long recordIndex, String fieldPath, Object value) throws CobolParseException {
+        FieldLocation location = locate(fieldPath);
+        long position = position(recordIndex, location);
+        int length = location.getLength();
+        Arrays.fill(scratch, 0, length, (byte) 0);
+        encode(location, value, scratch, 0);
+        if (array != null) {
+            System.arraycopy(scratch, 0, array, (int) position, length);
+        } else {
+            put(position, scratch, length);
+        }
+    }
+
+    /**
+     * Encode a field value now and queue it for the next {@link #flush()}.
+     *
+     * @param recordIndex The index of the record, from 0
+     * @param fieldPath The field name, or a dotted path for fields of nested objects
+     * @param value The new value; null writes the default value of the field
+     * @throws CobolParseException If the value cannot be encoded
+     * @throws IllegalArgumentException If there is no such field
+     * @throws IndexOutOfBoundsException If the record is outside the data
+     */
+    public void add(long recordIndex, String fieldPath, Object value) throws CobolParseException {
+        FieldLocation location = locate(fieldPath);
+        long position = position(recordIndex, location);
+        byte[] bytes = new byte[location.getLength()];
+        encode(location, value, bytes, 0);
+        pending.add(new PendingUpdate(position, bytes));
+    }
+
+    /**
+     * @return The number of queued updates
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Apply the queued updates in ascending offset order. Updates to the same
+     * field keep the order they were added in, so the last one wins.
+     */
+    public void flush() {
+        pending.sort(Comparator.comparingLong(update -> update.position));
+        for (PendingUpdate update : pending) {
+            if (array != null) {
+                System.arraycopy(update.bytes, 0, array, (int) update.position, update.bytes.length);
+            } else {
+                put(update.position, update.bytes, update.bytes.length);
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Apply the queued updates and, for a mapped file, write the changes to the
+     * storage device.
+     */
+    public void force() {
+        flush();
+        if (windows != null) {
+            for (MappedByteBuffer window : windows) {
+                window.force();
+            }
+        } else if (buffer instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) buffer).force();
+        }
+    }
+
+    /**
+     * Apply the queued updates and, for a mapped file, force and close it.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private FieldLocation locate(String fieldPath) {
+        FieldLocation location = locations.get(fieldPath);
+        if (location == null) {
+            location = layout.locate(fieldPath);
+            if (location == null || location.getField().isNested()) {
+                throw new IllegalArgumentException("No COBOL field " + fieldPath + " in "
+                        + layout.getRecordClass().getName());
+            }
+            locations.put(fieldPath, location);
+        }
+        return location;
+    }
+
+    private long position(long recordIndex, FieldLocation location) {
+        long position = recordIndex * layout.getLength() + location.getOffset();
+        if (recordIndex < 0 || position + location.getLength() > capacity) {
+            throw new IndexOutOfBoundsException("Record " + recordIndex + " is outside the data of "
+                    + getRecordCount() + " records");
+        }
+        return position;
+    }
+
+    private static void encode(FieldLocation location, Object value, byte[] dest, int offset)
+            throws CobolParseException {
+        if (value == null) {
+            location.copyDefault(dest, offset);
+        } else {
+            fieldWriter.writeBinaryFieldValue(value, dest, offset, location.getField().getCobolField(),
+                    location.getCodePage());
+        }
+    }
+
+    private void put(long position, byte[] bytes, int length) {
+        if (windows == null) {
+            ByteBuffer target = buffer.duplicate();
+            target.position((int) position);
+            target.put(bytes, 0, length);
+            return;
+        }
+        // A field may cross from one window into the next
+        int offset = 0;
+        while (offset < length) {
+            ByteBuffer target = windows[(int) (position / windowSize)].duplicate();
+            int start = (int) (position % windowSize);
+            int count = Math.min(length - offset, windowSize - start);
+            target.position(start);
+            target.put(bytes, offset, count);
+            position += count;
+            offset += count;
+        }
+    }
+
+    private static final class PendingUpdate {
+        final long position;
+        final byte[] bytes;
+
+        PendingUpdate(long position, byte[] bytes) {
+            this.position = position;
+            this.bytes = bytes;
+        }
+    }
+}
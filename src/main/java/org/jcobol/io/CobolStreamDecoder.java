@@ -0,0 +1,245 @@
+package org.jcobol.io;
+
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.RecordFormat;
+import org.jcobol.exception.CobolParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Consumer;
+
+/**
+ * Decodes records from a stream that arrives in chunks of any size, such as
+ * network buffers or message segments, where a record may span several chunks
+ * and a chunk may hold several records.
+ * <p>
+ * Each chunk passed to {@link #decode} is consumed completely. Records that lie
+ * wholly inside a heap buffer are decoded in place; only a record that straddles
+ * chunks is gathered in a carry-over buffer, which grows to the longest such record.
+ * Records of direct buffers are read in place as well. Frame headers are big-endian
+ * whatever the byte order of the chunk.
+ * <p>
+ * Fixed-length, RDW and length-prefixed framing are supported. A variable-length
+ * record shorter than its layout is decoded as if the missing trailing fields held
+ * their default values; bytes past the layout are ignored.
+ * <p>
+ * A decoder is not thread-safe. After an exception, {@link #reset} it before
+ * decoding a new stream.
+ *
+ * @param <T> The record type
+ */
+public final class CobolStreamDecoder<T> {
+
+    private static final int DEFAULT_MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+    private final RecordLayout<T> layout;
+    private final RecordFormat format;
+    private final Consumer<? super T> consumer;
+    private final int headerLength;
+    private final int maxRecordLength;
+
+    private byte[] carry = new byte[64];
+    private int carryLength;
+    private int frameLength = -1;
+    private long recordsDecoded;
+
+    /**
+     * Create a decoder accepting variable-length records of up to 16 MB.
+     *
+     * @param recordClass The record class
+     * @param format The framing of the records
+     * @param consumer Receives each record as soon as its last byte arrives
+     */
+    public CobolStreamDecoder(Class<T> recordClass, RecordFormat format, Consumer<? super T> consumer) {
+        this(recordClass, format, consumer, DEFAULT_MAX_RECORD_LENGTH);
+    }
+
+    /**
+     * Create a decoder.
+     *
+     * @param recordClass The record class
+     * @param format The framing of the records
+     * @param consumer Receives each record as soon as its last byte arrives
+     * @param maxRecordLength The longest variable-length frame accepted, header included
+     */
+    public CobolStreamDecoder(Class<T> recordClass, RecordFormat format, Consumer<? super T> consumer,
+            int maxRecordLength) {
+        this.layout = RecordLayout.of(recordClass);
+        if (layout.getLength() == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        this.format = format;
+        this.consumer = consumer;
+        this.headerLength = format == RecordFormat.FIXED ? 0 : Frames.HEADER_LENGTH;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Decode the records completed by a chunk, keeping any trailing partial record
+     * for the next chunk. The chunk's position is moved to its limit.
+     *
+     * @param chunk The next bytes of the stream
+     * @return The number of records passed to the consumer
+     * @throws CobolParseException If a record or frame header is invalid
+     * @throws ReflectiveOperationException If a record instance cannot be created
+     */
+    public int decode(ByteBuffer chunk) throws CobolParseException, ReflectiveOperationException {
+        int decoded = 0;
+        ByteBuffer headers = headerLength > 0 ? chunk.duplicate().order(ByteOrder.BIG_ENDIAN) : null;
+        while (chunk.hasRemaining()) {
+            if (carryLength > 0) {
+                if (!fillCarry(chunk)) {
+                    break;
+                }
+                emit(carry, 0, frameLength);
+                carryLength = 0;
+                frameLength = -1;
+                decoded++;
+                continue;
+            }
+
+            int length = layout.getLength();
+            if (headerLength > 0) {
+                if (chunk.remaining() < headerLength) {
+                    startCarry(chunk);
+                    break;
+                }
+                length = frameLength(headers, chunk.position());
+            }
+            if (chunk.remaining() < length) {
+                startCarry(chunk);
+                break;
+            }
+
+            // The whole record is in this chunk
+            int position = chunk.position();
+            if (chunk.hasArray()) {
+                emit(chunk.array(), chunk.arrayOffset() + position, length);
+            } else {
+                emit(chunk, position, length);
+            }
+            chunk.position(position + length);
+            decoded++;
+        }
+        return decoded;
+    }
+
+    /**
+     * Check that the stream did not end inside a record.
+     *
+     * @throws CobolParseException If a partial record is pending
+     */
+    public void finish() throws CobolParseException {
+        if (carryLength > 0) {
+            throw new CobolParseException("Stream ends inside record " + recordsDecoded + ": " + carryLength
+                    + (frameLength > 0 ? " of " + frameLength : "") + " bytes");
+        }
+    }
+
+    /**
+     * Drop any partial record, to start decoding a new stream.
+     */
+    public void reset() {
+        carryLength = 0;
+        frameLength = -1;
+    }
+
+    /**
+     * @return The number of bytes of a partial record waiting for the next chunk
+     */
+    public int getPendingBytes() {
+        return carryLength;
+    }
+
+    /**
+     * @return The number of records decoded so far
+     */
+    public long getRecordsDecoded() {
+        return recordsDecoded;
+    }
+
+    private int frameLength(ByteBuffer header, int offset) throws CobolParseException {
+        int length = Frames.frameLength(format, header, offset);
+        if (length < 0) {
+            throw new CobolParseException("Invalid " + Frames.describe(format) + " before record " + recordsDecoded);
+        }
+        if (length > maxRecordLength) {
+            throw new CobolParseException("Record " + recordsDecoded + " is " + length
+                    + " bytes, longer than the limit of " + maxRecordLength);
+        }
+        return length;
+    }
+
+    private void startCarry(ByteBuffer chunk) throws CobolParseException {
+        carryLength = 0;
+        frameLength = headerLength == 0 ? layout.getLength() : -1;
+        fillCarry(chunk);
+    }
+
+    /**
+     * Move bytes of the current record from the chunk into the carry-over buffer.
+     *
+     * @return true once the record is complete
+     */
+    private boolean fillCarry(ByteBuffer chunk) throws CobolParseException {
+        if (frameLength < 0) {
+            take(chunk, headerLength);
+            if (carryLength < headerLength) {
+                return false;
+            }
+            frameLength = frameLength(ByteBuffer.wrap(carry), 0);
+        }
+        take(chunk, frameLength);
+        return carryLength == frameLength;
+    }
+
+    private void take(ByteBuffer chunk, int upTo) {
+        int count = Math.min(upTo - carryLength, chunk.remaining());
+        if (count <= 0) {
+            return;
+        }
+        if (carry.length < carryLength + count) {
+            byte[] grown = new byte[Math.max(carry.length * 2, carryLength + count)];
+            System.arraycopy(carry, 0, grown, 0, carryLength);
+            carry = grown;
+        }
+        chunk.get(carry, carryLength, count);
+        carryLength += count;
+    }
+
+    private void emit(byte[] data, int offset, int length) throws CobolParseException, ReflectiveOperationException {
+        int bodyLength = length - headerLength;
+        if (bodyLength >= layout.getLength()) {
+            accept(CobolFieldProcessor.parseFromBinary(data, offset + headerLength, layout.getRecordClass()));
+        } else {
+            byte[] image = layout.getDefaultImage(CobolEncoding.INHERIT);
+            System.arraycopy(data, offset + headerLength, image, 0, bodyLength);
+            accept(CobolFieldProcessor.parseFromBinary(image, 0, layout.getRecordClass()));
+        }
+    }
+
+    /**
+     * Decode a record of a direct buffer in place. Only a short record is copied,
+     * into the default image that completes it.
+     */
+    private void emit(ByteBuffer data, int position, int length)
+            throws CobolParseException, ReflectiveOperationException {
+        int bodyLength = length - headerLength;
+        if (bodyLength >= layout.getLength()) {
+            accept(CobolFieldProcessor.parseFromBuffer(data, position + headerLength, layout.getRecordClass()));
+        } else {
+            byte[] image = layout.getDefaultImage(CobolEncoding.INHERIT);
+            ByteBuffer body = data.duplicate();
+            body.position(position + headerLength);
+            body.get(image, 0, bodyLength);
+            accept(CobolFieldProcessor.parseFromBinary(image, 0, layout.getRecordClass()));
+        }
+    }
+
+    private void accept(T record) {
+        recordsDecoded++;
+        consumer.accept(record);
+    }
+}
@@ -0,0 +1,221 @@
+package org.jcobol.io;
+
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes fixed-length records from a channel only as far as a subscriber has
+ * asked for them, following the Reactive Streams rules used by
+ * {@code java.util.concurrent.Flow}.
+ * <p>
+ * The channel is read a batch of records at a time, and records are decoded one
+ * by one as demand allows. There is no thread of its own: whichever thread calls
+ * {@link #request} runs the delivery loop, and calls made from inside the
+ * subscriber, such as {@code request} from {@code onNext}, only add demand for
+ * the loop already running, so the stack does not grow.
+ * <p>
+ * Failures of the channel or the decoding end the subscription with
+ * {@code onError}. An exception thrown by the subscriber itself cancels the
+ * subscription instead, as Reactive Streams rule 2.13 requires, and no further
+ * signal is sent.
+ *
+ * @param <T> The record type
+ */
+final class DemandReader<T> {
+
+    /**
+     * Receives the records and the terminal signal.
+     */
+    interface Sink<T> {
+        void onNext(T record);
+
+        void onError(Throwable error);
+
+        void onComplete();
+    }
+
+    /**
+     * Opens the channel on the first request.
+     */
+    interface ChannelOpener {
+        ReadableByteChannel open() throws IOException;
+
+        /**
+         * Release the channel when the subscription ends before it was opened,
+         * for example a channel supplied by the caller.
+         */
+        default void discard() throws IOException {
+        }
+    }
+
+    private final RecordLayout<T> layout;
+    private final ChannelOpener opener;
+    private final Sink<? super T> sink;
+    private final int batchSize;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable invalidRequest;
+
+    // Only used by the thread running the delivery loop
+    private ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    private boolean done;
+    private long delivered;
+
+    DemandReader(RecordLayout<T> layout, ChannelOpener opener, Sink<? super T> sink, int batchSize) {
+        this.layout = layout;
+        this.opener = opener;
+        this.sink = sink;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Add demand for {@code n} more records.
+     * A non-positive {@code n} cancels the subscription with an {@link IllegalArgumentException}.
+     */
+    void request(long n) {
+        if (n <= 0) {
+            invalidRequest = new IllegalArgumentException("Request must be positive: " + n);
+        } else {
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!requested.compareAndSet(current, next));
+        }
+        drain();
+    }
+
+    /**
+     * Stop delivering records. The channel is closed by the delivery loop,
+     * or discarded if no record was requested yet.
+     */
+    void cancel() {
+        cancelled = true;
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            if (!done) {
+                try {
+                    deliver();
+                } catch (Throwable e) {
+                    // Subscriber exceptions are caught where the subscriber is called, so this is a source failure
+                    finish();
+                    signalError(e);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void deliver() throws IOException, CobolParseException, ReflectiveOperationException {
+        if (channel == null && !cancelled) {
+            channel = opener.open();
+            buffer = ByteBuffer.allocate(batchSize * layout.getLength());
+            buffer.flip();
+        }
+        int recordLength = layout.getLength();
+        while (true) {
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (invalidRequest != null) {
+                finish();
+                signalError(invalidRequest);
+                return;
+            }
+            if (requested.get() == 0) {
+                return;
+            }
+            if (buffer.remaining() < recordLength && !fill()) {
+                int remaining = buffer.remaining();
+                finish();
+                if (remaining > 0) {
+                    signalError(new CobolParseException("Stream ends inside record " + delivered
+                            + ": " + remaining + " of " + recordLength + " bytes"));
+                } else {
+                    try {
+                        sink.onComplete();
+                    } catch (Throwable e) {
+                        // The subscription has ended; there is nobody left to tell
+                    }
+                }
+                return;
+            }
+
+            int position = buffer.position();
+            T record = CobolFieldProcessor.parseFromBinary(buffer.array(), position, layout.getRecordClass());
+            buffer.position(position + recordLength);
+            delivered++;
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+            try {
+                sink.onNext(record);
+            } catch (Throwable e) {
+                // Rule 2.13: the subscriber broke the contract, so treat the subscription as cancelled
+                cancelled = true;
+                finish();
+                return;
+            }
+        }
+    }
+
+    private void signalError(Throwable error) {
+        try {
+            sink.onError(error);
+        } catch (Throwable e) {
+            // The subscription has ended; there is nobody left to tell
+        }
+    }
+
+    /**
+     * Read the next batch behind the unread bytes.
+     *
+     * @return false at the end of the channel
+     */
+    private boolean fill() throws IOException {
+        buffer.compact();
+        try {
+            while (buffer.position() < layout.getLength()) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    private void finish() {
+        done = true;
+        buffer = null;
+        try {
+            if (channel != null) {
+                channel.close();
+            } else {
+                opener.discard();
+            }
+        } catch (IOException e) {
+            // Nothing more is read from the channel
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,40 @@
+package org.jcobol.io;
+
+import org.jcobol.enums.RecordFormat;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the headers of variable-length record frames.
+ */
+final class Frames {
+
+    /**
+     * Length of the record descriptor word or length prefix
+     */
+    static final int HEADER_LENGTH = 4;
+
+    private Frames() {
+    }
+
+    /**
+     * Get the length of a frame from its header.
+     *
+     * @param format {@link RecordFormat#RDW} or {@link RecordFormat#LENGTH_PREFIXED}
+     * @param header The buffer holding the header
+     * @param offset The position of the header in the buffer
+     * @return The frame length including the header, or -1 if the header is invalid
+     */
+    static int frameLength(RecordFormat format, ByteBuffer header, int offset) {
+        if (format == RecordFormat.RDW) {
+            int length = header.getShort(offset) & 0xFFFF;
+            return length < HEADER_LENGTH ? -1 : length;
+        }
+        int length = header.getInt(offset);
+        return length < 0 || length > Integer.MAX_VALUE - HEADER_LENGTH ? -1 : length + HEADER_LENGTH;
+    }
+
+    static String describe(RecordFormat format) {
+        return format == RecordFormat.RDW ? "record descriptor length" : "record length prefix";
+    }
+}
@@ -0,0 +1,486 @@
+package org.jcobol.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * A B+tree of unique fixed-length keys and record slot numbers, stored in
+ * 4 KB pages of a {@link MappedFile}.
+ * <p>
+ * Page 0 is the header. Every other page is a node:
+ * <pre>
+ *   0  type (1 = leaf, 2 = internal)
+ *   2  entry count
+ *   4  next leaf page (leaf) or first child page (internal)
+ *   8  entries: key + slot (8 bytes) in a leaf, key + child page (4 bytes) in an internal node
+ * </pre>
+ * The child of internal entry {@code i} holds keys greater than or equal to its key.
+ * Keys are compared as unsigned bytes. Deleted entries are removed from their
+ * leaf without merging pages, so empty leaves may remain in the chain.
+ */
+final class KeyIndex {
+
+    static final int PAGE_SIZE = 4096;
+
+    private static final int MAGIC = 0x4A434958;
+    private static final int VERSION = 1;
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int HEADER = 8;
+
+    // Header offsets
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_KEY_LENGTH = 8;
+    private static final int H_RECORD_LENGTH = 12;
+    private static final int H_ROOT = 16;
+    private static final int H_PAGE_COUNT = 20;
+    private static final int H_ENTRY_COUNT = 24;
+    private static final int H_SLOT_COUNT = 32;
+    private static final int H_GENERATION = 40;
+    private static final int H_DIRTY = 48;
+
+    private final MappedFile file;
+    private final int keyLength;
+    private final int leafEntrySize;
+    private final int internalEntrySize;
+    private final int leafCapacity;
+    private final int internalCapacity;
+
+    private KeyIndex(MappedFile file, int keyLength) {
+        this.file = file;
+        this.keyLength = keyLength;
+        this.leafEntrySize = keyLength + 8;
+        this.internalEntrySize = keyLength + 4;
+        this.leafCapacity = (PAGE_SIZE - HEADER) / leafEntrySize;
+        this.internalCapacity = (PAGE_SIZE - HEADER) / internalEntrySize;
+    }
+
+    /**
+     * Open an index file, creating an empty tree if the file is empty.
+     *
+     * @throws IOException If the file is not an index for this key and record length
+     */
+    static KeyIndex open(MappedFile file, int keyLength, int recordLength) throws IOException {
+        if ((PAGE_SIZE - HEADER) / (keyLength + 8) < 4) {
+            throw new IllegalArgumentException("Key length " + keyLength + " is too long for " + PAGE_SIZE
+                    + " byte index pages");
+        }
+        KeyIndex index = new KeyIndex(file, keyLength);
+        long size = file.size();
+        if (size == 0) {
+            file.ensureCapacity(2L * PAGE_SIZE);
+            ByteBuffer header = file.segment(0);
+            header.putInt(H_MAGIC, MAGIC);
+            header.putInt(H_VERSION, VERSION);
+            header.putInt(H_KEY_LENGTH, keyLength);
+            header.putInt(H_RECORD_LENGTH, recordLength);
+            header.putLong(H_GENERATION, 0);
+            index.reset();
+            return index;
+        }
+
+        file.ensureCapacity(size);
+        ByteBuffer header = file.segment(0);
+        if (size < PAGE_SIZE || header.getInt(H_MAGIC) != MAGIC) {
+            throw new IOException("Not a jcobol index file");
+        }
+        if (header.getInt(H_VERSION) != VERSION) {
+            throw new IOException("Unsupported index version " + header.getInt(H_VERSION));
+        }
+        if (header.getInt(H_KEY_LENGTH) != keyLength || header.getInt(H_RECORD_LENGTH) != recordLength) {
+            throw new IOException("Index was built for key length " + header.getInt(H_KEY_LENGTH)
+                    + " and record length " + header.getInt(H_RECORD_LENGTH) + ", not " + keyLength
+                    + " and " + recordLength);
+        }
+        return index;
+    }
+
+    /**
+     * Empty the tree, leaving the old pages to be reused. The generation and dirty mark are kept.
+     */
+    void reset() {
+        ByteBuffer header = file.segment(0);
+        header.putInt(H_ROOT, 1);
+        header.putInt(H_PAGE_COUNT, 2);
+        header.putLong(H_ENTRY_COUNT, 0);
+        header.putLong(H_SLOT_COUNT, 0);
+        initNode(1, LEAF);
+    }
+
+    /**
+     * @return true if the files were changed after they were last forced, so a crash
+     *         may have left the index out of step with the data file
+     */
+    boolean isDirty() {
+        return file.segment(0).getInt(H_DIRTY) != 0;
+    }
+
+    void setDirty(boolean dirty) {
+        file.segment(0).putInt(H_DIRTY, dirty ? 1 : 0);
+    }
+
+    /**
+     * @return The number of keys in the index
+     */
+    long getEntryCount() {
+        return file.segment(0).getLong(H_ENTRY_COUNT);
+    }
+
+    /**
+     * @return The number of data file slots in use, deleted records included
+     */
+    long getSlotCount() {
+        return file.segment(0).getLong(H_SLOT_COUNT);
+    }
+
+    void setSlotCount(long slotCount) {
+        file.segment(0).putLong(H_SLOT_COUNT, slotCount);
+    }
+
+    /**
+     * @return The number of changes made to the files, by any writer of the mapped index
+     */
+    long getGeneration() {
+        return file.segment(0).getLong(H_GENERATION);
+    }
+
+    /**
+     * Count a change, after the records and keys it changed have been written.
+     *
+     * @return The new generation
+     */
+    long nextGeneration() {
+        ByteBuffer header = file.segment(0);
+        long generation = header.getLong(H_GENERATION) + 1;
+        header.putLong(H_GENERATION, generation);
+        return generation;
+    }
+
+    /**
+     * @return The length of the index file in use
+     */
+    long getLength() {
+        return (long) file.segment(0).getInt(H_PAGE_COUNT) * PAGE_SIZE;
+    }
+
+    /**
+     * Look up a key.
+     *
+     * @return The slot of the record, or -1 if the key is not in the index
+     */
+    long find(byte[] key) {
+        int page = findLeaf(key);
+        ByteBuffer node = node(page);
+        int base = base(page);
+        int index = lowerBound(node, base, count(node, base), leafEntrySize, key);
+        if (index < count(node, base) && compare(node, entry(base, index, leafEntrySize), key) == 0) {
+            return node.getLong(entry(base, index, leafEntrySize) + keyLength);
+        }
+        return -1;
+    }
+
+    /**
+     * Add a key that is not in the index yet.
+     *
+     * @return false if the key is already in the index
+     */
+    boolean insert(byte[] key, long slot) throws IOException {
+        if (find(key) >= 0) {
+            return false;
+        }
+        byte[] entry = new byte[leafEntrySize];
+        System.arraycopy(key, 0, entry, 0, keyLength);
+        ByteBuffer.wrap(entry).putLong(keyLength, slot);
+
+        ByteBuffer header = file.segment(0);
+        int root = header.getInt(H_ROOT);
+        Split split = insert(root, key, entry);
+        if (split != null) {
+            int newRoot = allocate(INTERNAL);
+            ByteBuffer node = node(newRoot);
+            int base = base(newRoot);
+            node.putInt(base + 4, root);
+            byte[] separator = new byte[internalEntrySize];
+            System.arraycopy(split.key, 0, separator, 0, keyLength);
+            ByteBuffer.wrap(separator).putInt(keyLength, split.page);
+            put(node, entry(base, 0, internalEntrySize), separator, 0, separator.length);
+            setCount(node, base, 1);
+            header.putInt(H_ROOT, newRoot);
+        }
+        header.putLong(H_ENTRY_COUNT, header.getLong(H_ENTRY_COUNT) + 1);
+        return true;
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @return The slot of the removed record, or -1 if the key is not in the index
+     */
+    long remove(byte[] key) {
+        int page = findLeaf(key);
+        ByteBuffer node = node(page);
+        int base = base(page);
+        int count = count(node, base);
+        int index = lowerBound(node, base, count, leafEntrySize, key);
+        if (index == count || compare(node, entry(base, index, leafEntrySize), key) != 0) {
+            return -1;
+        }
+        long slot = node.getLong(entry(base, index, leafEntrySize) + keyLength);
+        int from = entry(base, index + 1, leafEntrySize);
+        move(node, from, entry(base, index, leafEntrySize), entry(base, count, leafEntrySize) - from);
+        setCount(node, base, count - 1);
+        ByteBuffer header = file.segment(0);
+        header.putLong(H_ENTRY_COUNT, header.getLong(H_ENTRY_COUNT) - 1);
+        return slot;
+    }
+
+    /**
+     * Visit the slots of keys in a range, in key order.
+     *
+     * @param from The lowest key, or null to start with the first key
+     * @param to The highest key, or null to continue to the last key
+     * @param action Receives the slot of each key
+     */
+    void scan(byte[] from, byte[] to, LongConsumer action) {
+        int page = from != null ? findLeaf(from) : firstLeaf();
+        ByteBuffer node = node(page);
+        int base = base(page);
+        int index = from != null ? lowerBound(node, base, count(node, base), leafEntrySize, from) : 0;
+        while (true) {
+            int count = count(node, base);
+            for (; index < count; index++) {
+                int entry = entry(base, index, leafEntrySize);
+                if (to != null && compare(node, entry, to) > 0) {
+                    return;
+                }
+                action.accept(node.getLong(entry + keyLength));
+            }
+            page = node.getInt(base + 4);
+            if (page == 0) {
+                return;
+            }
+            node = node(page);
+            base = base(page);
+            index = 0;
+        }
+    }
+
+    private int findLeaf(byte[] key) {
+        int page = file.segment(0).getInt(H_ROOT);
+        while (true) {
+            ByteBuffer node = node(page);
+            int base = base(page);
+            if (node.get(base) == LEAF) {
+                return page;
+            }
+            page = child(node, base, upperBound(node, base, count(node, base), key));
+        }
+    }
+
+    private int firstLeaf() {
+        int page = file.segment(0).getInt(H_ROOT);
+        while (node(page).get(base(page)) != LEAF) {
+            page = node(page).getInt(base(page) + 4);
+        }
+        return page;
+    }
+
+    /**
+     * Insert a leaf entry below a page.
+     *
+     * @return The separator and new right page if the page was split
+     */
+    private Split insert(int page, byte[] key, byte[] leafEntry) throws IOException {
+        ByteBuffer node = node(page);
+        int base = base(page);
+        int count = count(node, base);
+        if (node.get(base) == LEAF) {
+            int index = lowerBound(node, base, count, leafEntrySize, key);
+            if (count < leafCapacity) {
+                insertEntry(node, base, count, index, leafEntrySize, leafEntry);
+                return null;
+            }
+            byte[] entries = spliceEntries(node, base, count, index, leafEntrySize, leafEntry);
+            int leftCount = (count + 1) / 2;
+            int right = allocate(LEAF);
+            ByteBuffer rightNode = node(right);
+            int rightBase = base(right);
+            put(rightNode, rightBase + HEADER, entries, leftCount * leafEntrySize,
+                    (count + 1 - leftCount) * leafEntrySize);
+            setCount(rightNode, rightBase, count + 1 - leftCount);
+            rightNode.putInt(rightBase + 4, node.getInt(base + 4));
+            put(node, base + HEADER, entries, 0, leftCount * leafEntrySize);
+            setCount(node, base, leftCount);
+            node.putInt(base + 4, right);
+            byte[] separator = new byte[keyLength];
+            System.arraycopy(entries, leftCount * leafEntrySize, separator, 0, keyLength);
+            return new Split(separator, right);
+        }
+
+        int index = upperBound(node, base, count, key);
+        Split split = insert(child(node, base, index), key, leafEntry);
+        if (split == null) {
+            return null;
+        }
+        byte[] entry = new byte[internalEntrySize];
+        System.arraycopy(split.key, 0, entry, 0, keyLength);
+        ByteBuffer.wrap(entry).putInt(keyLength, split.page);
+        if (count < internalCapacity) {
+            insertEntry(node, base, count, index, internalEntrySize, entry);
+            return null;
+        }
+
+        // The middle key moves up; its child becomes the first child of the new page
+        byte[] entries = spliceEntries(node, base, count, index, internalEntrySize, entry);
+        int middle = (count + 1) / 2;
+        int right = allocate(INTERNAL);
+        ByteBuffer rightNode = node(right);
+        int rightBase = base(right);
+        rightNode.putInt(rightBase + 4, ByteBuffer.wrap(entries).getInt(middle * internalEntrySize + keyLength));
+        put(rightNode, rightBase + HEADER, entries, (middle + 1) * internalEntrySize,
+                (count - middle) * internalEntrySize);
+        setCount(rightNode, rightBase, count - middle);
+        put(node, base + HEADER, entries, 0, middle * internalEntrySize);
+        setCount(node, base, middle);
+        byte[] separator = new byte[keyLength];
+        System.arraycopy(entries, middle * internalEntrySize, separator, 0, keyLength);
+        return new Split(separator, right);
+    }
+
+    private void insertEntry(ByteBuffer node, int base, int count, int index, int entrySize, byte[] entry) {
+        int at = entry(base, index, entrySize);
+        move(node, at, at + entrySize, (count - index) * entrySize);
+        put(node, at, entry, 0, entrySize);
+        setCount(node, base, count + 1);
+    }
+
+    /**
+     * Copy the entries of a full node with a new entry inserted at {@code index}.
+     */
+    private static byte[] spliceEntries(ByteBuffer node, int base, int count, int index, int entrySize,
+            byte[] entry) {
+        byte[] entries = new byte[(count + 1) * entrySize];
+        ByteBuffer view = node.duplicate();
+        view.position(base + HEADER);
+        view.get(entries, 0, index * entrySize);
+        System.arraycopy(entry, 0, entries, index * entrySize, entrySize);
+        view.get(entries, (index + 1) * entrySize, (count - index) * entrySize);
+        return entries;
+    }
+
+    private int allocate(byte type) throws IOException {
+        ByteBuffer header = file.segment(0);
+        int page = header.getInt(H_PAGE_COUNT);
+        file.ensureCapacity((long) (page + 1) * PAGE_SIZE);
+        header.putInt(H_PAGE_COUNT, page + 1);
+        initNode(page, type);
+        return page;
+    }
+
+    private void initNode(int page, byte type) {
+        ByteBuffer node = node(page);
+        int base = base(page);
+        node.put(base, type);
+        setCount(node, base, 0);
+        node.putInt(base + 4, 0);
+    }
+
+    private ByteBuffer node(int page) {
+        return file.segment((long) page * PAGE_SIZE);
+    }
+
+    private int base(int page) {
+        return file.offset((long) page * PAGE_SIZE);
+    }
+
+    private static int count(ByteBuffer node, int base) {
+        return node.getShort(base + 2);
+    }
+
+    private static void setCount(ByteBuffer node, int base, int count) {
+        node.putShort(base + 2, (short) count);
+    }
+
+    private static int entry(int base, int index, int entrySize) {
+        return base + HEADER + index * entrySize;
+    }
+
+    private int child(ByteBuffer node, int base, int index) {
+        return index == 0
+                ? node.getInt(base + 4)
+                : node.getInt(entry(base, index - 1, internalEntrySize) + keyLength);
+    }
+
+    /**
+     * @return The index of the first entry with a key not less than {@code key}
+     */
+    private int lowerBound(ByteBuffer node, int base, int count, int entrySize, byte[] key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(node, entry(base, mid, entrySize), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The number of internal entries with a key not greater than {@code key}
+     */
+    private int upperBound(ByteBuffer node, int base, int count, byte[] key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(node, entry(base, mid, internalEntrySize), key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compare(ByteBuffer node, int position, byte[] key) {
+        for (int i = 0; i < keyLength; i++) {
+            int diff = (node.get(position + i) & 0xFF) - (key[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    private static void put(ByteBuffer node, int position, byte[] src, int offset, int length) {
+        ByteBuffer view = node.duplicate();
+        view.position(position);
+        view.put(src, offset, length);
+    }
+
+    private static void move(ByteBuffer node, int from, int to, int length) {
+        if (length == 0) {
+            return;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = node.duplicate();
+        view.position(from);
+        view.get(bytes);
+        put(node, to, bytes, 0, length);
+    }
+
+    private static final class Split {
+        final byte[] key;
+        final int page;
+
+        Split(byte[] key, int page) {
+            this.key = key;
+            this.page = page;
+        }
+    }
+}
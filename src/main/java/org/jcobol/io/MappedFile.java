@@ -0,0 +1,137 @@
+package org.jcobol.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A file mapped into memory in fixed-size segments, which are added as the
+ * file grows. Reads and writes go through the mapped segments, so the
+ * operating system page cache holds the recently used parts of the file.
+ */
+final class MappedFile implements Closeable {
+
+    private final FileChannel channel;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    MappedFile(Path file, int segmentSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * @return The size of the file, including mapped space not yet written
+     */
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Map enough segments to cover the first {@code length} bytes, extending the file if needed.
+     */
+    void ensureCapacity(long length) throws IOException {
+        while ((long) segments.size() * segmentSize < length) {
+            long position = (long) segments.size() * segmentSize;
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize));
+        }
+    }
+
+    /**
+     * Get the segment holding a range that does not cross a segment boundary,
+     * such as an aligned page.
+     *
+     * @param position The start of the range in the file
+     * @return The mapped segment, to be accessed with absolute offsets from {@link #offset(long)}
+     */
+    ByteBuffer segment(long position) {
+        return segments.get((int) (position / segmentSize));
+    }
+
+    /**
+     * @param position A position in the file
+     * @return The offset of the position in its segment
+     */
+    int offset(long position) {
+        return (int) (position % segmentSize);
+    }
+
+    void read(long position, byte[] dest, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer segment = segments.get((int) (position / segmentSize)).duplicate();
+            int start = (int) (position % segmentSize);
+            int count = Math.min(length, segmentSize - start);
+            segment.position(start);
+            segment.get(dest, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    void write(long position, byte[] src, int offset, int length) throws IOException {
+        ensureCapacity(position + length);
+        while (length > 0) {
+            ByteBuffer segment = segments.get((int) (position / segmentSize)).duplicate();
+            int start = (int) (position % segmentSize);
+            int count = Math.min(length, segmentSize - start);
+            segment.position(start);
+            segment.put(src, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Write changes in all mapped segments to the storage device.
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Try to take the exclusive lock that marks the file as being updated. The lock
+     * covers a byte far past the data, so it does not block access to the mapped pages.
+     *
+     * @return The lock, or null if another opener, in this process or another, holds it
+     */
+    FileLock tryLock() throws IOException {
+        try {
+            return channel.tryLock(Long.MAX_VALUE - 1, 1, false);
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Force the mapped segments and close the file, cutting off mapped space past {@code length}.
+     */
+    void close(long length) throws IOException {
+        try {
+            force();
+            segments.clear();
+            if (channel.size() > length) {
+                channel.truncate(length);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,217 @@
+package org.jcobol.io;
+
+import org.jcobol.enums.RecordFormat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Start offsets of the records in a file of variable-length records, framed
+ * with record descriptor words or length prefixes.
+ * <p>
+ * The distance from each record to the next is stored as a variable-length
+ * integer, usually two or three bytes per record, and the absolute offset of
+ * every 64th record is kept as a checkpoint. Finding a record decodes at most
+ * 64 distances from its checkpoint.
+ * <p>
+ * The index can be saved next to the data file together with the size and
+ * modification time of that file, and is only loaded again while both match.
+ */
+final class OffsetIndex {
+
+    private static final int MAGIC = 0x4A434F46;
+    private static final int VERSION = 1;
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+
+    private final long count;
+    private final byte[] deltas;
+    private final int deltaLength;
+    private final long[] checkpoints;
+    private final int[] blockStarts;
+
+    private OffsetIndex(long count, byte[] deltas, int deltaLength) {
+        this.count = count;
+        this.deltas = deltas;
+        this.deltaLength = deltaLength;
+        int blocks = (int) ((count + BLOCK_MASK) >>> BLOCK_SHIFT);
+        this.checkpoints = new long[blocks];
+        this.blockStarts = new int[blocks];
+        long offset = 0;
+        int position = 0;
+        for (long i = 0; i < count; i++) {
+            if ((i & BLOCK_MASK) == 0) {
+                checkpoints[(int) (i >>> BLOCK_SHIFT)] = offset;
+                blockStarts[(int) (i >>> BLOCK_SHIFT)] = position;
+            }
+            long delta = readVarInt(position);
+            position = nextVarInt(position);
+            offset += delta;
+        }
+    }
+
+    /**
+     * Build the index by walking the record descriptor words or length prefixes of a file.
+     *
+     * @throws IOException If the file cannot be read, has an invalid header or ends inside a record
+     */
+    static OffsetIndex build(FileChannel channel, RecordFormat format) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long bufferStart = 0;
+        byte[] deltas = new byte[1024];
+        int deltaLength = 0;
+        long count = 0;
+        long offset = 0;
+        while (offset < size) {
+            if (offset < bufferStart || offset + Frames.HEADER_LENGTH > bufferStart + buffer.position()) {
+                // Refill the buffer starting at this record
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), size - offset));
+                readFully(channel, buffer, offset);
+                bufferStart = offset;
+                if (buffer.position() < Frames.HEADER_LENGTH) {
+                    throw new IOException("File ends inside the header of record " + count);
+                }
+            }
+            int length = Frames.frameLength(format, buffer, (int) (offset - bufferStart));
+            if (length < 0) {
+                throw new IOException("Invalid " + Frames.describe(format) + " at offset " + offset);
+            }
+            if (offset + length > size) {
+                throw new IOException("File ends inside record " + count);
+            }
+            if (deltaLength + 5 > deltas.length) {
+                deltas = Arrays.copyOf(deltas, deltas.length * 2);
+            }
+            deltaLength = writeVarInt(deltas, deltaLength, length);
+            offset += length;
+            count++;
+        }
+        return new OffsetIndex(count, deltas, deltaLength);
+    }
+
+    /**
+     * Load a saved index.
+     *
+     * @return The index, or null if there is none or it was saved for another version of the data file
+     */
+    static OffsetIndex load(Path file, long dataSize, long dataModified) throws IOException {
+        InputStream stream;
+        try {
+            stream = Files.newInputStream(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || in.readLong() != dataSize || in.readLong() != dataModified) {
+                return null;
+            }
+            long count = in.readLong();
+            int deltaLength = in.readInt();
+            byte[] deltas = new byte[deltaLength];
+            in.readFully(deltas);
+            return new OffsetIndex(count, deltas, deltaLength);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Save the index, replacing the file atomically where the file system allows it.
+     */
+    void save(Path file, long dataSize, long dataModified) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(dataSize);
+            out.writeLong(dataModified);
+            out.writeLong(count);
+            out.writeInt(deltaLength);
+            out.write(deltas, 0, deltaLength);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * @param index The record number
+     * @return The offset of the record in the file
+     */
+    long offset(long index) {
+        int block = (int) (index >>> BLOCK_SHIFT);
+        long offset = checkpoints[block];
+        int position = blockStarts[block];
+        for (int skip = (int) (index & BLOCK_MASK); skip > 0; skip--) {
+            offset += readVarInt(position);
+            position = nextVarInt(position);
+        }
+        return offset;
+    }
+
+    /**
+     * @param index The record number
+     * @return The length of the record, including its header
+     */
+    int length(long index) {
+        int position = blockStarts[(int) (index >>> BLOCK_SHIFT)];
+        for (int skip = (int) (index & BLOCK_MASK); skip > 0; skip--) {
+            position = nextVarInt(position);
+        }
+        return (int) readVarInt(position);
+    }
+
+    private long readVarInt(int position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = deltas[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private int nextVarInt(int position) {
+        while (deltas[position++] < 0) {
+            // Skip continuation bytes
+        }
+        return position;
+    }
+
+    private static int writeVarInt(byte[] dest, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            dest[position++] = (byte) (value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        dest[position++] = (byte) value;
+        return position;
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                return;
+            }
+        }
+    }
+}
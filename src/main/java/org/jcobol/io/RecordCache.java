@@ -0,0 +1,374 @@
+package org.jcobol.io;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded cache of decoded records for random lookups into record files, so
+ * hot records are not decoded again on every access.
+ * <p>
+ * Keys are record positions ({@code Long}) or key bytes wrapped in a
+ * {@link java.nio.ByteBuffer}, as used by the files the cache is plugged into.
+ * The cache is bounded by entry count or by an estimated size in bytes, and
+ * split into lock stripes, each an access-ordered map with its own share of
+ * the bound, so concurrent readers rarely wait for each other.
+ * <p>
+ * With {@link Eviction#LRU} the least recently used entry of a stripe is evicted.
+ * With {@link Eviction#TINY_LFU} a new entry is only admitted to a full stripe if
+ * it has been requested more often than the entry it would evict, as counted by a
+ * small frequency sketch, so a scan over cold records does not flush the hot ones.
+ * <p>
+ * Cached records are shared between callers and must be treated as read-only.
+ *
+ * @param <T> The record type
+ */
+public final class RecordCache<T> {
+
+    /**
+     * How a full stripe makes room for a new entry.
+     */
+    public enum Eviction {
+        /** Always admit the new entry and evict the least recently used one */
+        LRU,
+        /** Admit the new entry only if it is used more often than the least recently used one */
+        TINY_LFU
+    }
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final Segment<T>[] segments;
+    private final int mask;
+    private final ToIntFunction<? super T> weigher;
+    private final long maximumWeight;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache.
+     *
+     * @param maximumWeight The maximum total weight of the cached records
+     * @param weigher The weight of a record, such as 1 or its estimated size in bytes
+     * @param eviction The eviction policy
+     * @param stripes The number of lock stripes, rounded up to a power of two
+     */
+    public RecordCache(long maximumWeight, ToIntFunction<? super T> weigher, Eviction eviction, int stripes) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive: " + stripes);
+        }
+        int count = Integer.highestOneBit(Math.max(1, stripes) * 2 - 1);
+        while (count > 1 && maximumWeight / count < 1) {
+            count >>= 1;
+        }
+        @SuppressWarnings("unchecked")
+        Segment<T>[] array = new Segment[count];
+        this.segments = array;
+        this.mask = count - 1;
+        this.weigher = weigher;
+        this.maximumWeight = maximumWeight;
+        for (int i = 0; i < count; i++) {
+            long share = maximumWeight / count + (i < maximumWeight % count ? 1 : 0);
+            segments[i] = new Segment<>(share, eviction == Eviction.TINY_LFU ? new FrequencySketch(share) : null);
+        }
+    }
+
+    /**
+     * Create an LRU cache bounded by entry count.
+     *
+     * @param <T> The record type
+     * @param maximumSize The maximum number of cached records
+     * @return The cache
+     */
+    public static <T> RecordCache<T> maximumSize(long maximumSize) {
+        return new RecordCache<>(maximumSize, record -> 1, Eviction.LRU, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Create an LRU cache bounded by the estimated size of the cached records.
+     *
+     * @param <T> The record type
+     * @param maximumBytes The maximum estimated size of all cached records
+     * @param sizeEstimator The estimated size of a record in bytes
+     * @return The cache
+     */
+    public static <T> RecordCache<T> maximumBytes(long maximumBytes, ToIntFunction<? super T> sizeEstimator) {
+        return new RecordCache<>(maximumBytes, sizeEstimator, Eviction.LRU, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @return The maximum total weight
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Look up a cached record.
+     *
+     * @param key The record position or key bytes
+     * @return The record, or null if it is not cached
+     */
+    public T get(Object key) {
+        return get(key, 0);
+    }
+
+    /**
+     * Look up a record cached for one version of the file. An entry of another
+     * version is a miss and is removed.
+     */
+    T get(Object key, long version) {
+        T value = segmentFor(key).get(key, version);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Cache a record. Records heavier than a whole stripe are not cached.
+     *
+     * @param key The record position or key bytes
+     * @param value The decoded record
+     */
+    public void put(Object key, T value) {
+        put(key, value, 0);
+    }
+
+    /**
+     * Cache a record decoded from one version of the file. The version is stored with
+     * the entry, so a record put after the file changed is never returned for the new version.
+     */
+    void put(Object key, T value, long version) {
+        int weight = weigher.applyAsInt(value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative record weight: " + weight);
+        }
+        evictions.add(segmentFor(key).put(key, value, weight, version));
+    }
+
+    /**
+     * Remove a record, for example after it was changed in the file.
+     *
+     * @param key The record position or key bytes
+     */
+    public void invalidate(Object key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Remove all records, for example after the file was replaced.
+     */
+    public void invalidateAll() {
+        for (Segment<T> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return The number of cached records
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<T> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return The total weight of the cached records
+     */
+    public long weight() {
+        long weight = 0;
+        for (Segment<T> segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of records evicted to make room, not counting invalidations
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The share of lookups that were hits, or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private Segment<T> segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return segments[hash & mask];
+    }
+
+    /**
+     * One lock stripe: an access-ordered map with its own weight limit.
+     */
+    private static final class Segment<T> {
+        private final LinkedHashMap<Object, Entry<T>> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maximumWeight;
+        private final FrequencySketch sketch;
+        private long weight;
+
+        Segment(long maximumWeight, FrequencySketch sketch) {
+            this.maximumWeight = maximumWeight;
+            this.sketch = sketch;
+        }
+
+        synchronized T get(Object key, long version) {
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+            Entry<T> entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.version != version) {
+                map.remove(key);
+                weight -= entry.weight;
+                return null;
+            }
+            return entry.value;
+        }
+
+        /**
+         * @return The number of evicted entries
+         */
+        synchronized int put(Object key, T value, int entryWeight, long version) {
+            Entry<T> previous = map.remove(key);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            if (entryWeight > maximumWeight) {
+                return 0;
+            }
+            if (sketch != null && previous == null && weight + entryWeight > maximumWeight) {
+                // Admit the new entry only if it is more popular than the first victim
+                Map.Entry<Object, Entry<T>> eldest = map.entrySet().iterator().next();
+                if (sketch.frequency(key) <= sketch.frequency(eldest.getKey())) {
+                    return 0;
+                }
+            }
+
+            int evicted = 0;
+            Iterator<Entry<T>> lru = map.values().iterator();
+            while (weight + entryWeight > maximumWeight && lru.hasNext()) {
+                weight -= lru.next().weight;
+                lru.remove();
+                evicted++;
+            }
+            map.put(key, new Entry<>(value, entryWeight, version));
+            weight += entryWeight;
+            return evicted;
+        }
+
+        synchronized void remove(Object key) {
+            Entry<T> entry = map.remove(key);
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+        }
+
+        synchronized void clear() {
+            map.clear();
+            weight = 0;
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+    }
+
+    private static final class Entry<T> {
+        final T value;
+        final int weight;
+        final long version;
+
+        Entry(T value, int weight, long version) {
+            this.value = value;
+            this.weight = weight;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters estimating how often keys were requested.
+     * All counters are halved after a sample period, so old popularity fades.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int[] SEEDS = {0x97cb3127, 0xcbf29ce5, 0x85ebca6b, 0xc2b2ae35};
+
+        private final byte[] counters;
+        private final int mask;
+        private final int samplePeriod;
+        private int samples;
+
+        FrequencySketch(long expectedEntries) {
+            int width = Integer.highestOneBit((int) Math.min(1 << 13, Math.max(16, expectedEntries)) * 2 - 1);
+            this.counters = new byte[DEPTH * width];
+            this.mask = width - 1;
+            this.samplePeriod = 10 * width;
+        }
+
+        void increment(Object key) {
+            int hash = key.hashCode();
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(hash, i);
+                if (counters[index] < 15) {
+                    counters[index]++;
+                }
+            }
+            if (++samples >= samplePeriod) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+                samples /= 2;
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = 15;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * 0x9E3779B1;
+            h ^= h >>> 15;
+            return row * (mask + 1) + (h & mask);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.jcobol.types;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable fixed-point decimal backed by an unscaled {@code long} and a scale.
+ * A cheaper alternative to {@link BigDecimal} for COBOL numeric fields of up to
+ * 18 digits, such as {@code DECIMAL_ASSUMED} and COMP-3 amounts.
+ * <p>
+ * Arithmetic is exact and throws {@link ArithmeticException} on overflow.
+ * Reducing the scale truncates toward zero, matching a COBOL MOVE.
+ * Use {@link MutableCobolDecimal} for allocation-free accumulation.
+ */
+public final class CobolDecimal extends Number implements Comparable<CobolDecimal> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The largest supported scale
+     */
+    public static final int MAX_SCALE = 18;
+
+    /**
+     * Zero with a scale of 0
+     */
+    public static final CobolDecimal ZERO = new CobolDecimal(0L, 0);
+
+    private final long unscaled;
+    private final int scale;
+
+    private CobolDecimal(long unscaled, int scale) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+    }
+
+    /**
+     * Create a decimal from an unscaled value and a scale.
+     * For example {@code valueOf(12345, 2)} is {@code 123.45}.
+     *
+     * @param unscaled The unscaled value
+     * @param scale The number of decimal places
+     * @return The decimal value
+     */
+    public static CobolDecimal valueOf(long unscaled, int scale) {
+        if (unscaled == 0 && scale == 0) {
+            return ZERO;
+        }
+        return new CobolDecimal(unscaled, DecimalMath.checkScale(scale));
+    }
+
+    /**
+     * Create a decimal from a whole number.
+     *
+     * @param value The value
+     * @return The decimal value with a scale of 0
+     */
+    public static CobolDecimal valueOf(long value) {
+        return valueOf(value, 0);
+    }
+
+    /**
+     * Create a decimal from a {@link BigDecimal}.
+     *
+     * @param value The value
+     * @return The equivalent decimal value
+     * @throws ArithmeticException If the value does not fit in 18 digits of precision
+     */
+    public static CobolDecimal valueOf(BigDecimal value) {
+        BigDecimal normalized = value.scale() < 0 ? value.setScale(0) : value;
+        return valueOf(normalized.unscaledValue().longValueExact(), normalized.scale());
+    }
+
+    /**
+     * Parse a plain decimal string such as {@code -123.45}.
+     *
+     * @param text The text to parse
+     * @return The decimal value, with a scale equal to the number of fraction digits
+     * @throws NumberFormatException If the text is not a plain decimal number
+     * @throws ArithmeticException If the value does not fit in a long
+     */
+    public static CobolDecimal parse(CharSequence text) {
+        int[] scale = new int[1];
+        long unscaled = DecimalMath.parse(text, scale);
+        return valueOf(unscaled, scale[0]);
+    }
+
+    /**
+     * @return The unscaled value
+     */
+    public long unscaledValue() {
+        return unscaled;
+    }
+
+    /**
+     * @return The number of decimal places
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * @return -1, 0 or 1 as this value is negative, zero or positive
+     */
+    public int signum() {
+        return Long.signum(unscaled);
+    }
+
+    /**
+     * @param other The value to add
+     * @return The sum, with the larger of the two scales
+     * @throws ArithmeticException If the result overflows
+     */
+    public CobolDecimal add(CobolDecimal other) {
+        return valueOf(DecimalMath.add(unscaled, scale, other.unscaled, other.scale),
+                Math.max(scale, other.scale));
+    }
+
+    /**
+     * @param other The value to subtract
+     * @return The difference, with the larger of the two scales
+     * @throws ArithmeticException If the result overflows
+     */
+    public CobolDecimal subtract(CobolDecimal other) {
+        return valueOf(DecimalMath.subtract(unscaled, scale, other.unscaled, other.scale),
+                Math.max(scale, other.scale));
+    }
+
+    /**
+     * @param other The multiplier
+     * @return The product, with the combined scale truncated to {@link #MAX_SCALE}
+     * @throws ArithmeticException If the result overflows
+     */
+    public CobolDecimal multiply(CobolDecimal other) {
+        return valueOf(DecimalMath.multiply(unscaled, scale, other.unscaled, other.scale),
+                DecimalMath.multiplyScale(scale, other.scale));
+    }
+
+    public CobolDecimal negate() {
+        return valueOf(Math.negateExact(unscaled), scale);
+    }
+
+    public CobolDecimal abs() {
+        return unscaled < 0 ? negate() : this;
+    }
+
+    /**
+     * Return this value with a different scale.
+     * Increasing the scale is exact, decreasing it truncates toward zero.
+     *
+     * @param newScale The new scale
+     * @return The rescaled value
+     * @throws ArithmeticException If the rescaled value overflows
+     */
+    public CobolDecimal setScale(int newScale) {
+        if (newScale == scale) {
+            return this;
+        }
+        return valueOf(DecimalMath.rescale(unscaled, scale, DecimalMath.checkScale(newScale)), newScale);
+    }
+
+    /**
+     * Return the unscaled value this decimal would have at the given scale,
+     * without allocating a new instance.
+     *
+     * @param targetScale The scale to express the value in
+     * @return The unscaled value at the target scale
+     */
+    public long unscaledValue(int targetScale) {
+        return DecimalMath.rescale(unscaled, scale, DecimalMath.checkScale(targetScale));
+    }
+
+    public MutableCobolDecimal toMutable() {
+        return new MutableCobolDecimal(unscaled, scale);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public int compareTo(CobolDecimal other) {
+        return DecimalMath.compare(unscaled, scale, other.unscaled, other.scale);
+    }
+
+    /**
+     * Compare with a mutable decimal by numeric value.
+     *
+     * @param other The value to compare with
+     * @return A negative, zero or positive number as this value is less, equal or greater
+     */
+    public int compareTo(MutableCobolDecimal other) {
+        return DecimalMath.compare(unscaled, scale, other.unscaledValue(), other.scale());
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return DecimalMath.rescale(unscaled, scale, 0);
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return scale == 0 ? unscaled : unscaled / (double) DecimalMath.POW10[scale];
+    }
+
+    /**
+     * Two decimals are equal if they have the same unscaled value and scale,
+     * so {@code 1.0} and {@code 1.00} are not equal. Use {@link #compareTo}
+     * for numeric comparison.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CobolDecimal)) {
+            return false;
+        }
+        CobolDecimal other = (CobolDecimal) obj;
+        return unscaled == other.unscaled && scale == other.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(unscaled) + scale;
+    }
+
+    @Override
+    public String toString() {
+        return DecimalMath.toString(unscaled, scale);
+    }
+}
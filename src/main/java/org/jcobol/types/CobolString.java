@@ -0,0 +1,172 @@
+package org.jcobol.types;
+
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.utils.RecordBytes;
+
+import java.util.Arrays;
+
+/**
+ * Lazily decoded alphanumeric value.
+ * Holds the raw field bytes and decodes them only when {@link #toString()}
+ * is first called, so fields that are never read cost no character decoding.
+ * Table-driven code pages also answer {@link #charAt} and {@link #length}
+ * straight from the bytes.
+ * <p>
+ * Instances are immutable. The bytes are a private copy, so the buffer
+ * a record was parsed from can be reused safely.
+ */
+public final class CobolString implements CharSequence, Comparable<CobolString> {
+
+    private final byte[] bytes;
+    private final CodePage codePage;
+    private String decoded;
+
+    private CobolString(byte[] bytes, CodePage codePage, String decoded) {
+        this.bytes = bytes;
+        this.codePage = codePage;
+        this.decoded = decoded;
+    }
+
+    /**
+     * Create a lazy string over a copy of a byte range.
+     *
+     * @param data The binary data
+     * @param offset The start of the range
+     * @param length The number of bytes
+     * @param codePage The code page of the bytes
+     * @return The lazy string
+     */
+    public static CobolString of(byte[] data, int offset, int length, CodePage codePage) {
+        return of(RecordBytes.of(data), offset, length, codePage);
+    }
+
+    /**
+     * Create a lazy string over a copy of a range of record bytes.
+     *
+     * @param data The record data
+     * @param offset The start of the range
+     * @param length The number of bytes
+     * @param codePage The code page of the bytes
+     * @return The lazy string
+     */
+    public static CobolString of(RecordBytes data, int offset, int length, CodePage codePage) {
+        return new CobolString(data.copy(offset, length), codePage, null);
+    }
+
+    /**
+     * Create a string-backed instance, for values built in Java rather than decoded.
+     *
+     * @param value The value
+     * @return The string
+     */
+    public static CobolString valueOf(CharSequence value) {
+        return new CobolString(null, null, value.toString());
+    }
+
+    /**
+     * @return The code page of the raw bytes, or null for string-backed instances
+     */
+    public CodePage getCodePage() {
+        return codePage;
+    }
+
+    /**
+     * @return true once the value has been decoded to a String
+     */
+    public boolean isDecoded() {
+        return decoded != null;
+    }
+
+    /**
+     * Copy the raw bytes into a byte array without decoding them.
+     * Only valid when {@link #getCodePage()} is not null.
+     *
+     * @param dest The byte array to copy to
+     * @param destOffset The position in the destination
+     * @param maxLength The maximum number of bytes to copy
+     * @return The number of bytes copied
+     */
+    public int copyBytes(byte[] dest, int destOffset, int maxLength) {
+        int count = Math.min(bytes.length, maxLength);
+        System.arraycopy(bytes, 0, dest, destOffset, count);
+        return count;
+    }
+
+    @Override
+    public int length() {
+        if (bytes != null && codePage.isTableDriven()) {
+            return bytes.length;
+        }
+        return toString().length();
+    }
+
+    /**
+     * @return true if the value has no characters
+     */
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (bytes != null && codePage.isTableDriven()) {
+            if (index < 0 || index >= bytes.length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + bytes.length);
+            }
+            return codePage.toChar(bytes[index]);
+        }
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (bytes != null && codePage.isTableDriven()) {
+            if (start < 0 || end > bytes.length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + bytes.length);
+            }
+            return new CobolString(Arrays.copyOfRange(bytes, start, end), codePage, null);
+        }
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        String value = decoded;
+        if (value == null) {
+            // Benign race: concurrent callers decode the same immutable bytes
+            value = codePage.decode(bytes, 0, bytes.length);
+            decoded = value;
+        }
+        return value;
+    }
+
+    @Override
+    public int compareTo(CobolString other) {
+        return toString().compareTo(other.toString());
+    }
+
+    /**
+     * Two instances are equal if they decode to the same characters.
+     * Instances over the same code page are compared byte by byte without decoding.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CobolString)) {
+            return false;
+        }
+        CobolString other = (CobolString) obj;
+        if (bytes != null && other.bytes != null && codePage == other.codePage && codePage.isTableDriven()
+                && Arrays.equals(bytes, other.bytes)) {
+            return true;
+        }
+        return toString().equals(other.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        return toString().hashCode();
+    }
+}
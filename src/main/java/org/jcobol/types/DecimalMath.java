@@ -0,0 +1,170 @@
+package org.jcobol.types;
+
+/**
+ * Overflow-checked fixed-point helpers shared by {@link CobolDecimal} and
+ * {@link MutableCobolDecimal}. Values are represented as an unscaled long
+ * and a decimal scale in the range 0 to {@link CobolDecimal#MAX_SCALE}.
+ */
+final class DecimalMath {
+
+    static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+        100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L,
+        1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L,
+        1_000_000_000_000_000_000L
+    };
+
+    private DecimalMath() {
+    }
+
+    static int checkScale(int scale) {
+        if (scale < 0 || scale > CobolDecimal.MAX_SCALE) {
+            throw new ArithmeticException("Scale out of range [0," + CobolDecimal.MAX_SCALE + "]: " + scale);
+        }
+        return scale;
+    }
+
+    /**
+     * Change the scale of an unscaled value. Increasing the scale is exact and
+     * fails on overflow; decreasing it truncates toward zero like a COBOL MOVE.
+     */
+    static long rescale(long unscaled, int fromScale, int toScale) {
+        if (toScale == fromScale) {
+            return unscaled;
+        }
+        if (toScale > fromScale) {
+            return Math.multiplyExact(unscaled, POW10[toScale - fromScale]);
+        }
+        return unscaled / POW10[fromScale - toScale];
+    }
+
+    static long add(long a, int aScale, long b, int bScale) {
+        int scale = Math.max(aScale, bScale);
+        return Math.addExact(rescale(a, aScale, scale), rescale(b, bScale, scale));
+    }
+
+    static long subtract(long a, int aScale, long b, int bScale) {
+        int scale = Math.max(aScale, bScale);
+        return Math.subtractExact(rescale(a, aScale, scale), rescale(b, bScale, scale));
+    }
+
+    /**
+     * Multiply two values. The product keeps the combined scale, truncated to
+     * {@link CobolDecimal#MAX_SCALE} when the operands carry more fraction digits.
+     */
+    static long multiply(long a, int aScale, long b, int bScale) {
+        long product = Math.multiplyExact(a, b);
+        return rescale(product, aScale + bScale, multiplyScale(aScale, bScale));
+    }
+
+    static int multiplyScale(int aScale, int bScale) {
+        return Math.min(aScale + bScale, CobolDecimal.MAX_SCALE);
+    }
+
+    static int compare(long a, int aScale, long b, int bScale) {
+        if (aScale == bScale) {
+            return Long.compare(a, b);
+        }
+        int signA = Long.signum(a);
+        int signB = Long.signum(b);
+        if (signA != signB) {
+            return Integer.compare(signA, signB);
+        }
+        if (aScale < bScale) {
+            return compareUpscaled(a, bScale - aScale, b);
+        }
+        return -compareUpscaled(b, aScale - bScale, a);
+    }
+
+    /**
+     * Compare {@code a * 10^shift} with {@code b} where both have the same sign,
+     * without overflowing when the upscaled value leaves the long range.
+     */
+    private static int compareUpscaled(long a, int shift, long b) {
+        long factor = POW10[shift];
+        if (a > Long.MAX_VALUE / factor) {
+            return 1;
+        }
+        if (a < Long.MIN_VALUE / factor) {
+            return -1;
+        }
+        return Long.compare(a * factor, b);
+    }
+
+    static String toString(long unscaled, int scale) {
+        String digits = Long.toString(unscaled);
+        if (scale == 0) {
+            return digits;
+        }
+        boolean negative = unscaled < 0;
+        int digitStart = negative ? 1 : 0;
+        int digitCount = digits.length() - digitStart;
+
+        StringBuilder sb = new StringBuilder(digits.length() + scale + 2);
+        if (negative) {
+            sb.append('-');
+        }
+        if (digitCount <= scale) {
+            sb.append("0.");
+            for (int i = digitCount; i < scale; i++) {
+                sb.append('0');
+            }
+            sb.append(digits, digitStart, digits.length());
+        } else {
+            int pointPos = digits.length() - scale;
+            sb.append(digits, digitStart, pointPos).append('.').append(digits, pointPos, digits.length());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parse a plain decimal string such as {@code -123.45} into an unscaled long.
+     * The scale of the result is the number of digits after the decimal point
+     * and is reported through {@code scaleOut[0]}.
+     */
+    static long parse(CharSequence text, int[] scaleOut) {
+        int len = text.length();
+        int pos = 0;
+        while (pos < len && text.charAt(pos) == ' ') {
+            pos++;
+        }
+        while (len > pos && text.charAt(len - 1) == ' ') {
+            len--;
+        }
+        if (pos == len) {
+            throw new NumberFormatException("Empty decimal value");
+        }
+
+        boolean negative = false;
+        char first = text.charAt(pos);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            pos++;
+        }
+
+        long value = 0;
+        int scale = -1;
+        int digits = 0;
+        for (; pos < len; pos++) {
+            char c = text.charAt(pos);
+            if (c == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid decimal value: " + text);
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10L), negative ? -(c - '0') : c - '0');
+            digits++;
+            if (scale >= 0) {
+                scale++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid decimal value: " + text);
+        }
+        scaleOut[0] = checkScale(Math.max(scale, 0));
+        return value;
+    }
+}
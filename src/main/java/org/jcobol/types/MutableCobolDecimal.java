@@ -0,0 +1,256 @@
+package org.jcobol.types;
+
+import java.math.BigDecimal;
+
+/**
+ * Mutable, reusable counterpart of {@link CobolDecimal}.
+ * Arithmetic updates this instance in place, so running totals over many
+ * records can be kept without allocating. Instances are not thread-safe.
+ */
+public final class MutableCobolDecimal extends Number implements Comparable<MutableCobolDecimal> {
+
+    private static final long serialVersionUID = 1L;
+
+    private long unscaled;
+    private int scale;
+
+    /**
+     * Create a mutable decimal holding zero with a scale of 0.
+     */
+    public MutableCobolDecimal() {
+    }
+
+    /**
+     * Create a mutable decimal from an unscaled value and a scale.
+     *
+     * @param unscaled The unscaled value
+     * @param scale The number of decimal places
+     */
+    public MutableCobolDecimal(long unscaled, int scale) {
+        set(unscaled, scale);
+    }
+
+    /**
+     * @return The unscaled value
+     */
+    public long unscaledValue() {
+        return unscaled;
+    }
+
+    /**
+     * @return The number of decimal places
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * @return -1, 0 or 1 as this value is negative, zero or positive
+     */
+    public int signum() {
+        return Long.signum(unscaled);
+    }
+
+    /**
+     * Replace the value of this decimal.
+     *
+     * @param unscaled The unscaled value
+     * @param scale The number of decimal places
+     * @return This instance
+     */
+    public MutableCobolDecimal set(long unscaled, int scale) {
+        this.scale = DecimalMath.checkScale(scale);
+        this.unscaled = unscaled;
+        return this;
+    }
+
+    public MutableCobolDecimal set(CobolDecimal value) {
+        return set(value.unscaledValue(), value.scale());
+    }
+
+    public MutableCobolDecimal set(MutableCobolDecimal value) {
+        return set(value.unscaled, value.scale);
+    }
+
+    /**
+     * Reset the value to zero, keeping the current scale.
+     *
+     * @return This instance
+     */
+    public MutableCobolDecimal clear() {
+        this.unscaled = 0;
+        return this;
+    }
+
+    /**
+     * Add a value given as an unscaled long and scale.
+     * The result keeps the larger of the two scales.
+     *
+     * @param otherUnscaled The unscaled value to add
+     * @param otherScale The scale of the value to add
+     * @return This instance
+     * @throws ArithmeticException If the result overflows
+     */
+    public MutableCobolDecimal add(long otherUnscaled, int otherScale) {
+        long result = DecimalMath.add(unscaled, scale, otherUnscaled, DecimalMath.checkScale(otherScale));
+        this.scale = Math.max(scale, otherScale);
+        this.unscaled = result;
+        return this;
+    }
+
+    public MutableCobolDecimal add(CobolDecimal other) {
+        return add(other.unscaledValue(), other.scale());
+    }
+
+    public MutableCobolDecimal add(MutableCobolDecimal other) {
+        return add(other.unscaled, other.scale);
+    }
+
+    /**
+     * Subtract a value given as an unscaled long and scale.
+     * The result keeps the larger of the two scales.
+     *
+     * @param otherUnscaled The unscaled value to subtract
+     * @param otherScale The scale of the value to subtract
+     * @return This instance
+     * @throws ArithmeticException If the result overflows
+     */
+    public MutableCobolDecimal subtract(long otherUnscaled, int otherScale) {
+        long result = DecimalMath.subtract(unscaled, scale, otherUnscaled, DecimalMath.checkScale(otherScale));
+        this.scale = Math.max(scale, otherScale);
+        this.unscaled = result;
+        return this;
+    }
+
+    public MutableCobolDecimal subtract(CobolDecimal other) {
+        return subtract(other.unscaledValue(), other.scale());
+    }
+
+    public MutableCobolDecimal subtract(MutableCobolDecimal other) {
+        return subtract(other.unscaled, other.scale);
+    }
+
+    /**
+     * Multiply by a value given as an unscaled long and scale.
+     * The result has the combined scale, truncated to {@link CobolDecimal#MAX_SCALE}.
+     *
+     * @param otherUnscaled The unscaled multiplier
+     * @param otherScale The scale of the multiplier
+     * @return This instance
+     * @throws ArithmeticException If the result overflows
+     */
+    public MutableCobolDecimal multiply(long otherUnscaled, int otherScale) {
+        long result = DecimalMath.multiply(unscaled, scale, otherUnscaled, DecimalMath.checkScale(otherScale));
+        this.scale = DecimalMath.multiplyScale(scale, otherScale);
+        this.unscaled = result;
+        return this;
+    }
+
+    public MutableCobolDecimal multiply(CobolDecimal other) {
+        return multiply(other.unscaledValue(), other.scale());
+    }
+
+    public MutableCobolDecimal multiply(MutableCobolDecimal other) {
+        return multiply(other.unscaled, other.scale);
+    }
+
+    public MutableCobolDecimal negate() {
+        this.unscaled = Math.negateExact(unscaled);
+        return this;
+    }
+
+    /**
+     * Change the scale in place.
+     * Increasing the scale is exact, decreasing it truncates toward zero.
+     *
+     * @param newScale The new scale
+     * @return This instance
+     * @throws ArithmeticException If the rescaled value overflows
+     */
+    public MutableCobolDecimal setScale(int newScale) {
+        this.unscaled = DecimalMath.rescale(unscaled, scale, DecimalMath.checkScale(newScale));
+        this.scale = newScale;
+        return this;
+    }
+
+    /**
+     * Return the unscaled value this decimal would have at the given scale.
+     *
+     * @param targetScale The scale to express the value in
+     * @return The unscaled value at the target scale
+     */
+    public long unscaledValue(int targetScale) {
+        return DecimalMath.rescale(unscaled, scale, DecimalMath.checkScale(targetScale));
+    }
+
+    /**
+     * @return An immutable snapshot of the current value
+     */
+    public CobolDecimal toCobolDecimal() {
+        return CobolDecimal.valueOf(unscaled, scale);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public int compareTo(MutableCobolDecimal other) {
+        return DecimalMath.compare(unscaled, scale, other.unscaled, other.scale);
+    }
+
+    /**
+     * Compare with an immutable decimal by numeric value.
+     *
+     * @param other The value to compare with
+     * @return A negative, zero or positive number as this value is less, equal or greater
+     */
+    public int compareTo(CobolDecimal other) {
+        return DecimalMath.compare(unscaled, scale, other.unscaledValue(), other.scale());
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return DecimalMath.rescale(unscaled, scale, 0);
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return scale == 0 ? unscaled : unscaled / (double) DecimalMath.POW10[scale];
+    }
+
+    /**
+     * Mutable decimals are equal if they currently hold the same unscaled value and scale.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MutableCobolDecimal)) {
+            return false;
+        }
+        MutableCobolDecimal other = (MutableCobolDecimal) obj;
+        return unscaled == other.unscaled && scale == other.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(unscaled) + scale;
+    }
+
+    @Override
+    public String toString() {
+        return DecimalMath.toString(unscaled, scale);
+    }
+}
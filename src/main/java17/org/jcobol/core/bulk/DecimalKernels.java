@@ -0,0 +1,42 @@
+package org.jcobol.core.bulk;
+
+/**
+ * Decodes runs of up to 8 packed or zoned digit bytes.
+ * <p>
+ * Java 17 implementation. Uses {@link VectorDecimalKernel} when the
+ * {@code jdk.incubator.vector} module is enabled and {@code -Djcobol.vector=true}
+ * is set, and the {@link Swar} kernels otherwise. A single field is at most one
+ * 64-bit vector, and on the JDKs measured with {@code PackedDecimalBenchmark}
+ * the SWAR kernels were faster, so the Vector API is opt-in.
+ */
+final class DecimalKernels {
+
+    private static final boolean VECTORIZED = vectorAvailable();
+
+    private DecimalKernels() {
+    }
+
+    static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    static long packed(byte[] data, int offset, int count) {
+        return VECTORIZED ? VectorDecimalKernel.packed(data, offset, count) : Swar.packed(data, offset, count);
+    }
+
+    static long zoned(byte[] data, int offset, int count, int zone) {
+        return VECTORIZED ? VectorDecimalKernel.zoned(data, offset, count, zone) : Swar.zoned(data, offset, count, zone);
+    }
+
+    private static boolean vectorAvailable() {
+        if (!Boolean.getBoolean("jcobol.vector")
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorDecimalKernel.isSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.jcobol.core.bulk;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteOrder;
+
+/**
+ * Vector API kernels for up to 8 packed or zoned digit bytes.
+ * The digit bytes are loaded right-aligned into one 64-bit vector, validated
+ * with lane-wise compares and reduced to digit pairs in one step; the pairs
+ * are then combined into a binary value with the {@link Swar} steps.
+ */
+final class VectorDecimalKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_64;
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Masks selecting the last {@code count} lanes, indexed by count
+     */
+    @SuppressWarnings("unchecked")
+    private static final VectorMask<Byte>[] TAIL_MASKS = new VectorMask[9];
+
+    static {
+        for (int count = 0; count <= 8; count++) {
+            TAIL_MASKS[count] = VectorMask.fromLong(SPECIES, ((1L << count) - 1) << (8 - count));
+        }
+    }
+
+    private VectorDecimalKernel() {
+    }
+
+    static boolean isSupported() {
+        return SPECIES.length() == 8;
+    }
+
+    static long packed(byte[] data, int offset, int count) {
+        ByteVector bytes = load(data, offset, count);
+        ByteVector high = bytes.lanewise(VectorOperators.LSHR, 4);
+        ByteVector low = bytes.and((byte) 0x0F);
+        if (high.compare(VectorOperators.GT, 9).or(low.compare(VectorOperators.GT, 9)).anyTrue()) {
+            return -1;
+        }
+        ByteVector pairs = high.mul((byte) 10).add(low);
+        return Swar.pairsToBinary(toBigEndianWord(pairs));
+    }
+
+    static long zoned(byte[] data, int offset, int count, int zone) {
+        VectorMask<Byte> mask = TAIL_MASKS[count];
+        ByteVector bytes = load(data, offset, count);
+        ByteVector digits = bytes.and((byte) 0x0F);
+        VectorMask<Byte> badZone = bytes.lanewise(VectorOperators.LSHR, 4).compare(VectorOperators.NE, zone).and(mask);
+        if (badZone.or(digits.compare(VectorOperators.GT, 9)).anyTrue()) {
+            return -1;
+        }
+        return Swar.digitsToBinary(toBigEndianWord(digits));
+    }
+
+    /**
+     * Load {@code count} bytes into the last lanes, leaving the leading lanes zero.
+     */
+    private static ByteVector load(byte[] data, int offset, int count) {
+        int start = offset - (8 - count);
+        if (count == 8) {
+            return ByteVector.fromArray(SPECIES, data, offset);
+        } else if (start >= 0) {
+            // A plain load plus a blend is much cheaper than a masked load
+            return ByteVector.fromArray(SPECIES, data, start).blend((byte) 0, TAIL_MASKS[count].not());
+        }
+        return ByteVector.fromArray(SPECIES, data, start, TAIL_MASKS[count]);
+    }
+
+    private static long toBigEndianWord(ByteVector lanes) {
+        long word = lanes.reinterpretAsLongs().lane(0);
+        return LITTLE_ENDIAN ? Long.reverseBytes(word) : word;
+    }
+}
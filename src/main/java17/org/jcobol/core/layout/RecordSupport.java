@@ -0,0 +1,49 @@
+package org.jcobol.core.layout;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+
+/**
+ * Access to Java record classes.
+ * <p>
+ * Java 17 implementation, using the record reflection API.
+ */
+final class RecordSupport {
+
+    private RecordSupport() {
+    }
+
+    /**
+     * @return The canonical constructor if the class is a record, otherwise null
+     */
+    static Constructor<?> canonicalConstructor(Class<?> clazz) {
+        if (!clazz.isRecord()) {
+            return null;
+        }
+        RecordComponent[] components = clazz.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+        }
+        try {
+            return clazz.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Record " + clazz.getName() + " has no canonical constructor", e);
+        }
+    }
+
+    /**
+     * @return The record component names in declaration order, or null if the class is not a record
+     */
+    static String[] componentNames(Class<?> clazz) {
+        if (!clazz.isRecord()) {
+            return null;
+        }
+        RecordComponent[] components = clazz.getRecordComponents();
+        String[] names = new String[components.length];
+        for (int i = 0; i < components.length; i++) {
+            names[i] = components[i].getName();
+        }
+        return names;
+    }
+}
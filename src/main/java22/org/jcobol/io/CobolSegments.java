@@ -0,0 +1,178 @@
+package org.jcobol.io;
+
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.exception.CobolParseException;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Decodes and writes fixed-length records held in {@link MemorySegment}s, such as
+ * files mapped with an {@link Arena} or buffers shared with native code.
+ * <p>
+ * Unlike a mapped {@link java.nio.MappedByteBuffer}, a segment is not limited to 2 GB
+ * and is unmapped as soon as its arena is closed. Records are decoded in place
+ * through {@link CobolFieldProcessor#parseFromBytes(RecordBytes, int, Class)}, with
+ * fields read straight from the segment, so native memory is never copied to the heap.
+ * <p>
+ * Available on Java 22 and later.
+ */
+public final class CobolSegments {
+
+    private CobolSegments() {
+    }
+
+    /**
+     * Map a whole record file read-only. The mapping lives until the arena is closed.
+     *
+     * @param file The record file
+     * @param arena The arena that owns the mapping
+     * @return The mapped segment
+     * @throws IOException If the file cannot be mapped
+     */
+    public static MemorySegment map(Path file, Arena arena) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        }
+    }
+
+    /**
+     * Parse one record into a new instance of a class.
+     *
+     * @param <T> The record type
+     * @param segment The segment holding the record
+     * @param offset The byte offset of the record in the segment
+     * @param recordClass The record class
+     * @return The new record
+     * @throws CobolParseException If the record cannot be parsed or extends past the segment
+     * @throws ReflectiveOperationException If an instance of the class cannot be created or accessed
+     */
+    public static <T> T parse(MemorySegment segment, long offset, Class<T> recordClass)
+            throws CobolParseException, ReflectiveOperationException {
+        int length = recordLength(recordClass);
+        return CobolFieldProcessor.parseFromBytes(new SegmentBytes(slice(segment, offset, length)), 0, recordClass);
+    }
+
+    /**
+     * Parse every record of a segment, in order. A trailing partial record is an error,
+     * reported after the whole records before it.
+     *
+     * @param <T> The record type
+     * @param segment The segment holding the records
+     * @param recordClass The record class
+     * @param consumer Receives each record
+     * @return The number of records parsed
+     * @throws CobolParseException If a record cannot be parsed or the segment ends inside a record
+     * @throws ReflectiveOperationException If an instance of the class cannot be created or accessed
+     */
+    public static <T> long forEach(MemorySegment segment, Class<T> recordClass, Consumer<? super T> consumer)
+            throws CobolParseException, ReflectiveOperationException {
+        int length = recordLength(recordClass);
+        long count = segment.byteSize() / length;
+        for (long i = 0; i < count; i++) {
+            consumer.accept(CobolFieldProcessor.parseFromBytes(
+                    new SegmentBytes(segment.asSlice(i * length, length)), 0, recordClass));
+        }
+        long trailing = segment.byteSize() - count * length;
+        if (trailing != 0) {
+            throw new CobolParseException("Segment ends inside record " + count
+                    + ": " + trailing + " of " + length + " bytes");
+        }
+        return count;
+    }
+
+    /**
+     * Write a record into a segment, with null nested objects written as default values.
+     *
+     * @param record The record to write
+     * @param segment The segment to write to
+     * @param offset The byte offset of the record in the segment
+     * @return The record length
+     * @throws IllegalAccessException If a field cannot be accessed
+     * @throws CobolParseException If a value cannot be encoded or the record extends past the segment
+     */
+    public static int write(Object record, MemorySegment segment, long offset)
+            throws IllegalAccessException, CobolParseException {
+        int length = recordLength(record.getClass());
+        return CobolFieldProcessor.writeToBuffer(record, slice(segment, offset, length).asByteBuffer(), 0);
+    }
+
+    private static int recordLength(Class<?> recordClass) {
+        int length = RecordLayout.of(recordClass).getLength();
+        if (length == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        return length;
+    }
+
+    private static MemorySegment slice(MemorySegment segment, long offset, int length) throws CobolParseException {
+        if (offset < 0 || offset + length > segment.byteSize()) {
+            throw new CobolParseException("Record range [" + offset + "," + (offset + length)
+                    + "] is outside the segment size " + segment.byteSize());
+        }
+        return segment.asSlice(offset, length);
+    }
+
+    /**
+     * Record data read from a segment with absolute, unaligned loads.
+     */
+    private static final class SegmentBytes extends RecordBytes {
+        private static final ValueLayout.OfShort SHORT_BE =
+                ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+        private static final ValueLayout.OfShort SHORT_LE =
+                ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+        private static final ValueLayout.OfInt INT_BE =
+                ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+        private static final ValueLayout.OfInt INT_LE =
+                ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+        private static final ValueLayout.OfLong LONG_BE =
+                ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+        private static final ValueLayout.OfLong LONG_LE =
+                ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+        private final MemorySegment segment;
+
+        SegmentBytes(MemorySegment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public int length() {
+            return (int) segment.byteSize();
+        }
+
+        @Override
+        public byte get(int index) {
+            return segment.get(ValueLayout.JAVA_BYTE, index);
+        }
+
+        @Override
+        public short getShort(int index, boolean littleEndian) {
+            return segment.get(littleEndian ? SHORT_LE : SHORT_BE, index);
+        }
+
+        @Override
+        public int getInt(int index, boolean littleEndian) {
+            return segment.get(littleEndian ? INT_LE : INT_BE, index);
+        }
+
+        @Override
+        public long getLong(int index, boolean littleEndian) {
+            return segment.get(littleEndian ? LONG_LE : LONG_BE, index);
+        }
+
+        @Override
+        public byte[] copy(int index, int length) {
+            return segment.asSlice(index, length).toArray(ValueLayout.JAVA_BYTE);
+        }
+    }
+}
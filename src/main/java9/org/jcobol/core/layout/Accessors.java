@@ -0,0 +1,141 @@
+package org.jcobol.core.layout;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+/**
+ * Resolves record constructors and field accessors.
+ * <p>
+ * Java 9 implementation. A private lookup in the record class lets
+ * {@link LambdaMetafactory} bind constructors of non-public classes too, and
+ * fields are accessed through {@link VarHandle}s. Anything that cannot be
+ * resolved that way falls back to plain reflection.
+ */
+final class Accessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Accessors() {
+    }
+
+    /**
+     * @return A supplier creating instances with the no-argument constructor,
+     *         or null if the class has none
+     */
+    static Supplier<Object> constructor(Class<?> clazz) {
+        Constructor<?> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, LOOKUP);
+            MethodHandle handle = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+            try {
+                return bind(lookup, handle, clazz);
+            } catch (Throwable e) {
+                MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+                return () -> invoke(generic);
+            }
+        } catch (IllegalAccessException | NoSuchMethodException | RuntimeException e) {
+            return () -> newInstance(constructor);
+        }
+    }
+
+    /**
+     * @return An accessor for the field, using a var handle where possible
+     */
+    static FieldAccessor field(Field field) {
+        field.setAccessible(true);
+        if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())) {
+            try {
+                VarHandle handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), LOOKUP)
+                        .unreflectVarHandle(field);
+                return new VarHandleAccessor(handle);
+            } catch (IllegalAccessException | RuntimeException e) {
+                // Fall back to reflection
+            }
+        }
+        return new ReflectiveAccessor(field);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> bind(MethodHandles.Lookup lookup, MethodHandle constructor, Class<?> clazz)
+            throws Throwable {
+        return (Supplier<Object>) LambdaMetafactory.metafactory(lookup, "get",
+                MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                constructor, MethodType.methodType(clazz)).getTarget().invoke();
+    }
+
+    private static Object newInstance(Constructor<?> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to instantiate " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    static Object invoke(MethodHandle constructor) {
+        try {
+            return constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to instantiate record", e);
+        }
+    }
+
+    static final class VarHandleAccessor implements FieldAccessor {
+        private final VarHandle handle;
+
+        VarHandleAccessor(VarHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object get(Object record) {
+            return (Object) handle.get(record);
+        }
+
+        @Override
+        public void set(Object record, Object value) {
+            handle.set(record, value);
+        }
+    }
+
+    static final class ReflectiveAccessor implements FieldAccessor {
+        private final Field field;
+
+        ReflectiveAccessor(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public Object get(Object record) {
+            try {
+                return field.get(record);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void set(Object record, Object value) {
+            try {
+                field.set(record, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
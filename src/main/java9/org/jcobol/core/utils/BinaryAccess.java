@@ -0,0 +1,61 @@
+package org.jcobol.core.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Reads and writes binary integers in a byte array in either byte order,
+ * without wrapping the array in a {@link java.nio.ByteBuffer}.
+ * <p>
+ * Java 9 implementation backed by byte array view var handles, which the JIT
+ * compiles to single (possibly byte-swapping) loads and stores.
+ */
+public final class BinaryAccess {
+
+    private static final VarHandle SHORT_BE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT_LE = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private BinaryAccess() {
+    }
+
+    public static short getShort(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian ? (short) SHORT_LE.get(data, offset) : (short) SHORT_BE.get(data, offset);
+    }
+
+    public static int getInt(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian ? (int) INT_LE.get(data, offset) : (int) INT_BE.get(data, offset);
+    }
+
+    public static long getLong(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian ? (long) LONG_LE.get(data, offset) : (long) LONG_BE.get(data, offset);
+    }
+
+    public static void putShort(byte[] data, int offset, short value, boolean littleEndian) {
+        if (littleEndian) {
+            SHORT_LE.set(data, offset, value);
+        } else {
+            SHORT_BE.set(data, offset, value);
+        }
+    }
+
+    public static void putInt(byte[] data, int offset, int value, boolean littleEndian) {
+        if (littleEndian) {
+            INT_LE.set(data, offset, value);
+        } else {
+            INT_BE.set(data, offset, value);
+        }
+    }
+
+    public static void putLong(byte[] data, int offset, long value, boolean littleEndian) {
+        if (littleEndian) {
+            LONG_LE.set(data, offset, value);
+        } else {
+            LONG_BE.set(data, offset, value);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.jcobol.io;
+
+import org.jcobol.core.layout.RecordLayout;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link Flow.Publisher} of fixed-length records read from a file or channel,
+ * for reactive consumers such as Reactor or RxJava through their Flow adapters.
+ * <p>
+ * Records are decoded only as far as the subscriber has requested them, and the
+ * channel is read a batch of records at a time. No thread is started: records are
+ * read and delivered on the thread that calls {@link Flow.Subscription#request}.
+ * Cancelling closes the channel before the next record is read, or right away
+ * if nothing was requested yet. An exception thrown by the subscriber cancels
+ * its subscription without a further signal.
+ * <p>
+ * A publisher over a file opens the file again for every subscriber. A publisher
+ * over a channel accepts a single subscriber.
+ * <p>
+ * Available on Java 9 and later.
+ *
+ * @param <T> The record type
+ */
+public final class CobolRecordPublisher<T> implements Flow.Publisher<T> {
+
+    private static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final RecordLayout<T> layout;
+    private final DemandReader.ChannelOpener opener;
+    private final AtomicBoolean subscribed;
+    private final int batchSize;
+
+    private CobolRecordPublisher(Class<T> recordClass, DemandReader.ChannelOpener opener, boolean singleUse,
+            int batchSize) {
+        this.layout = RecordLayout.of(recordClass);
+        if (layout.getLength() == 0) {
+            throw new IllegalArgumentException("Record class " + recordClass.getName() + " has no COBOL fields");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.opener = opener;
+        this.subscribed = singleUse ? new AtomicBoolean() : null;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Publish the records of a file.
+     *
+     * @param <T> The record type
+     * @param file The record file, opened when a subscriber first requests records
+     * @param recordClass The record class
+     * @return The publisher
+     */
+    public static <T> CobolRecordPublisher<T> of(Path file, Class<T> recordClass) {
+        return new CobolRecordPublisher<>(recordClass, () -> Files.newByteChannel(file), false, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Publish the records of a channel to a single subscriber.
+     *
+     * @param <T> The record type
+     * @param channel The channel, closed when the subscription ends
+     * @param recordClass The record class
+     * @param batchSize The number of records read from the channel at a time
+     * @return The publisher
+     */
+    public static <T> CobolRecordPublisher<T> of(ReadableByteChannel channel, Class<T> recordClass, int batchSize) {
+        DemandReader.ChannelOpener opener = new DemandReader.ChannelOpener() {
+            @Override
+            public ReadableByteChannel open() {
+                return channel;
+            }
+
+            @Override
+            public void discard() throws IOException {
+                channel.close();
+            }
+        };
+        return new CobolRecordPublisher<>(recordClass, opener, true, batchSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (subscribed != null && !subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("A channel publisher accepts only one subscriber"));
+            return;
+        }
+
+        DemandReader<T> reader = new DemandReader<>(layout, opener, new DemandReader.Sink<T>() {
+            @Override
+            public void onNext(T record) {
+                subscriber.onNext(record);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                subscriber.onError(error);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        }, batchSize);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                reader.request(n);
+            }
+
+            @Override
+            public void cancel() {
+                reader.cancel();
+            }
+        });
+    }
+}
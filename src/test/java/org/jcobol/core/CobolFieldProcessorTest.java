@@ -1,13 +1,28 @@
 package org.jcobol.core;
 
+import org.jcobol.annotation.CobolConstructor;
 import org.jcobol.annotation.CobolField;
 import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.CobolEncoding;
 import org.jcobol.enums.CobolFieldType;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
 import org.jcobol.exception.CobolParseException;
+import org.jcobol.exception.ErrorPolicy;
+import org.jcobol.exception.RecordError;
+import org.jcobol.types.CobolDecimal;
+import org.jcobol.types.CobolString;
+import org.jcobol.types.MutableCobolDecimal;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,6 +90,350 @@ public class CobolFieldProcessorTest {
         public void setZipCode(String zipCode) { this.zipCode = zipCode; }
     }
 
+    // Test class holding long-backed decimals in every storage format
+    public static class Ledger {
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 9, scale = 2, signed = true, comp3 = true)
+        private CobolDecimal balance;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 9, scale = 2, signed = true, comp = true)
+        private MutableCobolDecimal credit;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 3, signed = true)
+        private CobolDecimal rate;
+
+        @CobolField(type = CobolFieldType.DECIMAL_EXPLICIT, length = 8, scale = 2)
+        private CobolDecimal fee;
+    }
+
+    @Test
+    public void testCobolDecimalRoundTrip() throws IllegalAccessException, CobolParseException {
+        Ledger ledger = new Ledger();
+        ledger.balance = CobolDecimal.parse("-1234567.89");
+        ledger.credit = new MutableCobolDecimal(250075, 2);
+        ledger.rate = CobolDecimal.parse("-1.250");
+        ledger.fee = CobolDecimal.parse("12.5");
+
+        byte[] binaryData = CobolFieldProcessor.writeToBinary(ledger);
+        assertEquals(5 + 4 + 7 + 8, binaryData.length);
+        assertEquals("00012.50", new String(binaryData, 16, 8));
+
+        Ledger parsed = new Ledger();
+        CobolFieldProcessor.parseFromBinary(parsed, binaryData, 0);
+
+        assertEquals(CobolDecimal.parse("-1234567.89"), parsed.balance);
+        assertEquals(new MutableCobolDecimal(250075, 2), parsed.credit);
+        assertEquals(CobolDecimal.parse("-1.250"), parsed.rate);
+        assertEquals(0, CobolDecimal.parse("12.5").compareTo(parsed.fee));
+    }
+
+    // Test class representing a mainframe record in EBCDIC
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public static class MainframeAccount {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 6)
+        private String name;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 4, signed = true)
+        private int balance;
+
+        @CobolField(type = CobolFieldType.DECIMAL_EXPLICIT, length = 6, scale = 2, signed = true)
+        private BigDecimal rate;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3, encoding = CobolEncoding.ASCII)
+        private String tag;
+    }
+
+    @Test
+    public void testEbcdicRecord() throws IllegalAccessException, CobolParseException {
+        byte[] data = new byte[] {
+            (byte) 0xC1, (byte) 0xC3, (byte) 0xD4, (byte) 0xC5, 0x40, 0x40,     // "ACME  "
+            (byte) 0xF0, (byte) 0xF1, (byte) 0xF2, (byte) 0xD3,                 // -0123, sign in zone
+            (byte) 0xF0, (byte) 0xF0, (byte) 0xF1, 0x4B, (byte) 0xF2, (byte) 0xC5, // 001.25 positive
+            'T', 'A', 'G'
+        };
+
+        MainframeAccount account = new MainframeAccount();
+        CobolFieldProcessor.parseFromBinary(account, data, 0);
+
+        assertEquals("ACME  ", account.name);
+        assertEquals(-123, account.balance);
+        assertEquals(0, new BigDecimal("1.25").compareTo(account.rate));
+        assertEquals("TAG", account.tag);
+
+        assertArrayEquals(data, CobolFieldProcessor.writeToBinary(account));
+    }
+
+    // Test class with trimmed and lazily decoded alphanumerics
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public static class CustomerNote {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 8, trimTrailing = true)
+        private String name;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 6, lazy = true)
+        private CharSequence note;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4, trimTrailing = true)
+        private CobolString code;
+    }
+
+    @Test
+    public void testTrimmedAndLazyAlphanumerics() throws IllegalAccessException, CobolParseException {
+        byte[] data = new byte[] {
+            (byte) 0xC1, (byte) 0xC3, (byte) 0xD4, (byte) 0xC5, 0x40, 0x40, 0x40, 0x40, // "ACME    "
+            (byte) 0xD5, (byte) 0xD6, (byte) 0xE3, (byte) 0xC5, 0x40, 0x40,             // "NOTE  "
+            (byte) 0xE7, (byte) 0xF1, 0x40, 0x40                                        // "X1  "
+        };
+
+        CustomerNote customer = new CustomerNote();
+        CobolFieldProcessor.parseFromBinary(customer, data, 0);
+
+        assertEquals("ACME", customer.name);
+        assertTrue(customer.note instanceof CobolString);
+        assertFalse(((CobolString) customer.note).isDecoded());
+        assertEquals('N', customer.note.charAt(0));
+        assertEquals(6, customer.note.length());
+        assertEquals("X1", customer.code.toString());
+
+        // Unread lazy values are written back from their raw bytes
+        assertArrayEquals(data, CobolFieldProcessor.writeToBinary(customer));
+        assertFalse(((CobolString) customer.note).isDecoded());
+    }
+
+    // Test class with a low-cardinality code field
+    public static class Payment {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3, internLimit = 64)
+        private String currency;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 5)
+        private int amount;
+    }
+
+    @Test
+    public void testInternedAlphanumerics() throws Exception {
+        byte[] data = "USD00100EUR00200USD00300".getBytes();
+
+        List<Payment> payments = CobolFieldProcessor.parseRecordsFromBinary(data, Payment.class);
+
+        assertEquals(3, payments.size());
+        assertEquals("USD", payments.get(0).currency);
+        assertEquals("EUR", payments.get(1).currency);
+        assertSame(payments.get(0).currency, payments.get(2).currency);
+        assertEquals(300, payments.get(2).amount);
+    }
+
+    public static class Currency {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3, internLimit = 64)
+        private String code;
+    }
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class AsciiPrice {
+        @CobolNestedObject
+        private Currency currency;
+    }
+
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public static class EbcdicPrice {
+        @CobolNestedObject
+        private Currency currency;
+    }
+
+    @Test
+    public void testInternCachePerCodePage() throws Exception {
+        EbcdicPrice price = new EbcdicPrice();
+        price.currency = new Currency();
+        price.currency.code = "USD";
+        byte[] ebcdic = CobolFieldProcessor.writeToBinary(price);
+
+        String ascii = CobolFieldProcessor.parseFromBinary("USD".getBytes(), 0, AsciiPrice.class).currency.code;
+        String first = CobolFieldProcessor.parseFromBinary(ebcdic, 0, EbcdicPrice.class).currency.code;
+        String second = CobolFieldProcessor.parseFromBinary(ebcdic, 0, EbcdicPrice.class).currency.code;
+        assertEquals("USD", first);
+        assertSame(first, second);
+        assertSame(ascii, CobolFieldProcessor.parseFromBinary("USD".getBytes(), 0, AsciiPrice.class).currency.code);
+
+        CobolFieldProcessor.clearInternCaches();
+        assertNotSame(first, CobolFieldProcessor.parseFromBinary(ebcdic, 0, EbcdicPrice.class).currency.code);
+    }
+
+    // Test class with x86 binary and mainframe floating point fields
+    public static class Measurement {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 4, comp = true)
+        private int count;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 9, comp5 = true, signed = true, littleEndian = true)
+        private int delta;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 0, comp1 = true)
+        private float ratio;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 0, comp2 = true)
+        private double reading;
+    }
+
+    @Test
+    public void testBinaryAndFloatingPointFormats() throws IllegalAccessException, CobolParseException {
+        byte[] data = new byte[] {
+            (byte) 0xFF, (byte) 0xFE,                                   // unsigned 65534
+            (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,         // -2 little-endian
+            0x41, 0x10, 0x00, 0x00,                                     // COMP-1 1.0
+            (byte) 0xC2, 0x76, (byte) 0xA0, 0, 0, 0, 0, 0               // COMP-2 -118.625
+        };
+
+        Measurement measurement = new Measurement();
+        assertEquals(18, CobolFieldProcessor.parseFromBinary(measurement, data, 0));
+
+        assertEquals(65534, measurement.count);
+        assertEquals(-2, measurement.delta);
+        assertEquals(1.0f, measurement.ratio);
+        assertEquals(-118.625, measurement.reading);
+
+        assertArrayEquals(data, CobolFieldProcessor.writeToBinary(measurement));
+    }
+
+    @Test
+    public void testDecodeColumn() throws Exception {
+        Employee first = new Employee();
+        CobolFieldProcessor.initialize(first);
+        first.salary = new BigDecimal("1234.56");
+        first.age = 41;
+        Employee second = new Employee();
+        CobolFieldProcessor.initialize(second);
+        second.salary = new BigDecimal("-99.01");
+        second.age = 29;
+
+        byte[] firstData = CobolFieldProcessor.writeToBinary(first);
+        byte[] secondData = CobolFieldProcessor.writeToBinary(second);
+        byte[] data = new byte[firstData.length * 2];
+        System.arraycopy(firstData, 0, data, 0, firstData.length);
+        System.arraycopy(secondData, 0, data, firstData.length, secondData.length);
+
+        assertArrayEquals(new long[] {123456, -9901}, CobolFieldProcessor.decodeColumn(data, Employee.class, "salary"));
+        assertArrayEquals(new long[] {41, 29}, CobolFieldProcessor.decodeColumn(data, Employee.class, "age"));
+        assertThrows(CobolParseException.class, () -> CobolFieldProcessor.decodeColumn(data, Employee.class, "name"));
+        assertThrows(CobolParseException.class,
+                () -> CobolFieldProcessor.decodeColumn(data, Employee.class, "address.zipCode"));
+    }
+
+    @Test
+    public void testParallelParseAndWriteKeepOrder() throws Exception {
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Payment payment = new Payment();
+            payment.currency = i % 2 == 0 ? "USD" : "EUR";
+            payment.amount = i;
+            payments.add(payment);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            byte[] data = CobolFieldProcessor.writeRecordsToBinary(payments, pool);
+            assertArrayEquals(CobolFieldProcessor.writeRecordsToBinary(payments), data);
+
+            List<Payment> parsed = CobolFieldProcessor.parseRecordsFromBinary(data, Payment.class, pool);
+            assertEquals(1000, parsed.size());
+            for (int i = 0; i < parsed.size(); i++) {
+                assertEquals(i, parsed.get(i).amount);
+            }
+
+            assertThrows(CobolParseException.class,
+                    () -> CobolFieldProcessor.parseRecordsFromBinary(Arrays.copyOf(data, 15), Payment.class, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testWriteRecordsWithNullNestedObject() throws Exception {
+        Employee employee = new Employee();
+        CobolFieldProcessor.initialize(employee);
+        employee.setName("John Doe");
+        employee.setAddress(null);
+
+        byte[] data = CobolFieldProcessor.writeRecordsToBinary(Arrays.asList(employee, employee));
+
+        // The missing address is written as spaces so both records keep their length
+        Employee complete = new Employee();
+        CobolFieldProcessor.initialize(complete);
+        assertEquals(2 * CobolFieldProcessor.calculateObjectBinaryLength(complete), data.length);
+        List<Employee> parsed = CobolFieldProcessor.parseRecordsFromBinary(data, Employee.class);
+        assertEquals("John Doe", parsed.get(1).getName().trim());
+        assertEquals("", parsed.get(1).getAddress().getCity().trim());
+    }
+
+    public static final class Money {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3)
+        private final String currency;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 2, comp3 = true)
+        private final BigDecimal amount;
+
+        @CobolConstructor
+        public Money(String currency, BigDecimal amount) {
+            this.currency = currency;
+            this.amount = amount;
+        }
+    }
+
+    public static final class Invoice {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 6)
+        private final String number;
+
+        @CobolNestedObject
+        private final Money total;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 3)
+        private final int lines;
+
+        @CobolConstructor
+        Invoice(String number, Money total, int lines) {
+            if (lines < 0) {
+                throw new IllegalArgumentException("Negative line count");
+            }
+            this.number = number;
+            this.total = total;
+            this.lines = lines;
+        }
+    }
+
+    public static class InvoiceBatch {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String batchId;
+
+        @CobolNestedObject
+        private Money total;
+    }
+
+    @Test
+    public void testImmutableRecords() throws Exception {
+        Invoice invoice = new Invoice("INV001", new Money("EUR", new BigDecimal("123.45")), 12);
+        byte[] data = CobolFieldProcessor.writeToBinary(invoice);
+        assertEquals(CobolFieldProcessor.calculateClassBinaryLength(Invoice.class), data.length);
+
+        Invoice parsed = CobolFieldProcessor.parseFromBinary(data, 0, Invoice.class);
+        assertEquals("INV001", parsed.number);
+        assertEquals("EUR", parsed.total.currency);
+        assertEquals(0, new BigDecimal("123.45").compareTo(parsed.total.amount));
+        assertEquals(12, parsed.lines);
+
+        List<Invoice> invoices = CobolFieldProcessor.parseRecordsFromBinary(
+                CobolFieldProcessor.writeRecordsToBinary(Arrays.asList(invoice, parsed)), Invoice.class);
+        assertEquals(2, invoices.size());
+        assertEquals("INV001", invoices.get(1).number);
+
+        // Immutable nested objects of mutable records are created new
+        InvoiceBatch batch = new InvoiceBatch();
+        CobolFieldProcessor.initialize(batch);
+        assertEquals(0, BigDecimal.ZERO.compareTo(batch.total.amount));
+        batch.batchId = "B001";
+        batch.total = invoice.total;
+        InvoiceBatch parsedBatch = new InvoiceBatch();
+        CobolFieldProcessor.parseFromBinary(parsedBatch, CobolFieldProcessor.writeToBinary(batch), 0);
+        assertEquals("EUR", parsedBatch.total.currency);
+
+        assertThrows(CobolParseException.class, () -> CobolFieldProcessor.parseFromBinary(parsed, data, 0));
+        assertThrows(IllegalArgumentException.class, () -> CobolFieldProcessor.initialize(parsed));
+    }
+
     @Test
     public void testInitialize() throws IllegalAccessException {
         // Create a new Employee object
@@ -220,6 +579,187 @@ public class CobolFieldProcessorTest {
         assertTrue(exception.getMessage().contains("Binary data cannot be null"));
     }
     
+    @Test
+    public void testByteBufferEntryPoints() throws Exception {
+        Employee employee = new Employee();
+        employee.setId("EMP002");
+        employee.setName("Jane Roe");
+        employee.setAge(37);
+        employee.setSalary(new BigDecimal("51234.50"));
+        Address address = new Address();
+        address.setCity("Shelbyville");
+        employee.setAddress(address);
+        byte[] record = CobolFieldProcessor.writeToBinary(employee);
+
+        // Heap slice with an array offset is parsed from its backing array
+        byte[] padded = new byte[record.length + 8];
+        System.arraycopy(record, 0, padded, 8, record.length);
+        ByteBuffer slice = ByteBuffer.wrap(padded, 4, padded.length - 4).slice();
+        Employee fromHeap = CobolFieldProcessor.parseFromBuffer(slice, 4, Employee.class);
+        assertEquals("EMP002", fromHeap.getId().trim());
+        assertEquals(0, slice.position());
+
+        // Direct buffer written and read back at an absolute position
+        ByteBuffer direct = ByteBuffer.allocateDirect(record.length * 2);
+        assertEquals(record.length, CobolFieldProcessor.writeToBuffer(employee, direct, record.length));
+        assertEquals(0, direct.position());
+        Employee fromDirect = new Employee();
+        assertEquals(record.length, CobolFieldProcessor.parseFromBuffer(fromDirect, direct, record.length));
+        assertEquals(37, fromDirect.getAge());
+        assertEquals(0, new BigDecimal("51234.50").compareTo(fromDirect.getSalary()));
+        assertEquals("Shelbyville", fromDirect.getAddress().getCity().trim());
+
+        byte[] copy = new byte[record.length];
+        ((ByteBuffer) direct.duplicate().position(record.length)).get(copy);
+        assertArrayEquals(record, copy);
+
+        assertThrows(CobolParseException.class,
+                () -> CobolFieldProcessor.parseFromBuffer(direct, record.length + 1, Employee.class));
+    }
+
+    @Test
+    public void testDirectBufferDecodesInPlace() throws Exception {
+        Ledger ledger = new Ledger();
+        ledger.balance = CobolDecimal.parse("-1234567.89");
+        ledger.credit = new MutableCobolDecimal(250075, 2);
+        ledger.rate = CobolDecimal.parse("-1.250");
+        ledger.fee = CobolDecimal.parse("12.5");
+        Ledger parsedLedger = new Ledger();
+        CobolFieldProcessor.parseFromBuffer(parsedLedger, direct(CobolFieldProcessor.writeToBinary(ledger)), 0);
+        assertEquals(CobolDecimal.parse("-1234567.89"), parsedLedger.balance);
+        assertEquals(new MutableCobolDecimal(250075, 2), parsedLedger.credit);
+        assertEquals(CobolDecimal.parse("-1.250"), parsedLedger.rate);
+        assertEquals(0, CobolDecimal.parse("12.5").compareTo(parsedLedger.fee));
+
+        byte[] account = new byte[] {
+            (byte) 0xC1, (byte) 0xC3, (byte) 0xD4, (byte) 0xC5, 0x40, 0x40,
+            (byte) 0xF0, (byte) 0xF1, (byte) 0xF2, (byte) 0xD3,
+            (byte) 0xF0, (byte) 0xF0, (byte) 0xF1, 0x4B, (byte) 0xF2, (byte) 0xC5,
+            'T', 'A', 'G'
+        };
+        MainframeAccount parsedAccount = CobolFieldProcessor.parseFromBuffer(direct(account), 0, MainframeAccount.class);
+        assertEquals("ACME  ", parsedAccount.name);
+        assertEquals(-123, parsedAccount.balance);
+        assertEquals(0, new BigDecimal("1.25").compareTo(parsedAccount.rate));
+        assertEquals("TAG", parsedAccount.tag);
+
+        byte[] note = new byte[] {
+            (byte) 0xC1, (byte) 0xC3, (byte) 0xD4, (byte) 0xC5, 0x40, 0x40, 0x40, 0x40,
+            (byte) 0xD5, (byte) 0xD6, (byte) 0xE3, (byte) 0xC5, 0x40, 0x40,
+            (byte) 0xE7, (byte) 0xF1, 0x40, 0x40
+        };
+        ByteBuffer noteBuffer = direct(note);
+        CustomerNote customer = CobolFieldProcessor.parseFromBuffer(noteBuffer, 0, CustomerNote.class);
+        // Lazy values own their bytes, so the buffer can be reused
+        noteBuffer.put(8, (byte) 0x40);
+        assertEquals("ACME", customer.name);
+        assertEquals("NOTE  ", customer.note.toString());
+        assertEquals("X1", customer.code.toString());
+
+        byte[] measurement = new byte[] {
+            (byte) 0xFF, (byte) 0xFE,
+            (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            0x41, 0x10, 0x00, 0x00,
+            (byte) 0xC2, 0x76, (byte) 0xA0, 0, 0, 0, 0, 0
+        };
+        // A read-only heap buffer has no accessible array either
+        Measurement parsedMeasurement = CobolFieldProcessor.parseFromBuffer(
+                ByteBuffer.wrap(measurement).asReadOnlyBuffer(), 0, Measurement.class);
+        assertEquals(65534, parsedMeasurement.count);
+        assertEquals(-2, parsedMeasurement.delta);
+        assertEquals(1.0f, parsedMeasurement.ratio);
+        assertEquals(-118.625, parsedMeasurement.reading);
+
+        RecordBytes payments = RecordBytes.of(direct("USD00100EUR00200USD00300".getBytes()));
+        Payment first = CobolFieldProcessor.parseFromBytes(payments, 0, Payment.class);
+        Payment third = CobolFieldProcessor.parseFromBytes(payments, 16, Payment.class);
+        assertSame(first.currency, third.currency);
+        assertEquals(300, third.amount);
+        assertArrayEquals(new long[] {100, 200, 300}, CobolFieldProcessor.decodeColumn(payments, Payment.class, "amount"));
+    }
+
+    private static ByteBuffer direct(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.clear();
+        return buffer;
+    }
+
+    // Test class with a packed field that bad data can corrupt
+    public static class Reading {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 2)
+        private String meter;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 5, comp3 = true)
+        private int units;
+    }
+
+    @Test
+    public void testErrorPolicies() throws Exception {
+        byte[] data = new byte[15];
+        for (int i = 0; i < 3; i++) {
+            Reading reading = new Reading();
+            reading.meter = "M" + i;
+            reading.units = 100 + i;
+            System.arraycopy(CobolFieldProcessor.writeToBinary(reading), 0, data, i * 5, 5);
+        }
+        data[7] = (byte) 0xA1; // Invalid digit nibble in the second record
+
+        CobolParseException failure = assertThrows(CobolParseException.class,
+                () -> CobolFieldProcessor.parseRecordsFromBinary(data, Reading.class, ErrorPolicy.failFast()));
+        assertEquals("Record 1, field units at offset 7: Invalid digit in numeric field", failure.getMessage());
+        assertTrue(failure.getCause() instanceof CobolDataException);
+        assertEquals(0, failure.getCause().getStackTrace().length);
+
+        ErrorPolicy skip = ErrorPolicy.skip();
+        List<Reading> kept = CobolFieldProcessor.parseRecordsFromBinary(data, Reading.class, skip);
+        assertEquals(2, kept.size());
+        assertEquals(102, kept.get(1).units);
+        assertEquals(1, skip.getErrorCount());
+
+        List<RecordError> errors = new ArrayList<>();
+        CobolFieldProcessor.parseRecordsFromBinary(Arrays.copyOf(data, 13), Reading.class,
+                ErrorPolicy.collect(error -> errors.add(error.copy())));
+        assertEquals(2, errors.size());
+        assertEquals(1, errors.get(0).getRecordIndex());
+        assertEquals("units", errors.get(0).getFieldName());
+        assertEquals(7, errors.get(0).getOffset());
+        // The partial last record is a framing error of the whole record
+        assertEquals(2, errors.get(1).getRecordIndex());
+        assertNull(errors.get(1).getFieldName());
+        assertEquals(10, errors.get(1).getOffset());
+
+        List<Reading> defaulted = CobolFieldProcessor.parseRecordsFromBinary(data, Reading.class,
+                ErrorPolicy.replaceWithDefault());
+        assertEquals(3, defaulted.size());
+        assertEquals("M1", defaulted.get(1).meter);
+        assertEquals(0, defaulted.get(1).units);
+
+        ErrorPolicy truncated = ErrorPolicy.replaceWithDefault();
+        assertEquals(2, CobolFieldProcessor.parseRecordsFromBinary(Arrays.copyOf(data, 13), Reading.class,
+                truncated).size());
+        assertEquals(2, truncated.getErrorCount());
+    }
+
+    public static class Charge {
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 5, scale = 2, comp3 = true)
+        private BigDecimal amount;
+    }
+
+    @Test
+    public void testPackedDecimalStringPathRejectsBadNibbles() throws Exception {
+        Charge charge = new Charge();
+        charge.amount = new BigDecimal("123.45");
+        byte[] data = CobolFieldProcessor.writeToBinary(charge);
+        assertEquals(0, charge.amount.compareTo(
+                CobolFieldProcessor.parseFromBinary(data, 0, Charge.class).amount));
+
+        data[1] = (byte) 0x3B;
+        CobolParseException exception = assertThrows(CobolParseException.class,
+                () -> CobolFieldProcessor.parseFromBinary(data, 0, Charge.class));
+        assertSame(CobolDataException.of(ViolationType.INVALID_DIGIT), exception);
+    }
+
     @Test
     public void testCalculateObjectBinaryLength() throws IllegalAccessException {
         // Create an Employee object
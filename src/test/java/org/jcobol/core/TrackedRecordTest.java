@@ -0,0 +1,81 @@
+package org.jcobol.core;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrackedRecordTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Order {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String id;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 5, scale = 2, comp3 = true)
+        private BigDecimal amount;
+
+        @CobolNestedObject
+        private Status status;
+    }
+
+    public static class Status {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 1)
+        private String code;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 2)
+        private int retries;
+    }
+
+    // The amount uses the unsigned 0xF sign nibble, which the writer would re-encode as 0xC
+    private static byte[] order() {
+        byte[] data = "O001...A03".getBytes(StandardCharsets.US_ASCII);
+        data[4] = 0x12;
+        data[5] = 0x34;
+        data[6] = 0x5F;
+        return data;
+    }
+
+    @Test
+    public void testUnchangedRecordKeepsBytes() throws Exception {
+        byte[] data = order();
+        TrackedRecord<Order> tracked = CobolFieldProcessor.parseTracked(data, 0, Order.class);
+        assertEquals(0, new BigDecimal("123.45").compareTo(tracked.getRecord().amount));
+        assertFalse(tracked.isDirty());
+        assertArrayEquals(data, tracked.toBinary());
+    }
+
+    @Test
+    public void testOnlyChangedFieldsAreEncoded() throws Exception {
+        byte[] data = order();
+        TrackedRecord<Order> tracked = CobolFieldProcessor.parseTracked(data, 0, Order.class);
+        Order order = tracked.getRecord();
+        order.status.retries = 4;
+        order.id = new String("O001");
+
+        assertEquals(Collections.singletonList("status.retries"), tracked.getDirtyFields());
+        byte[] out = new byte[20];
+        assertEquals(10, tracked.writeTo(out, 10));
+        assertEquals("O001", new String(out, 10, 4, StandardCharsets.US_ASCII));
+        assertEquals(0x5F, out[16]);
+        assertEquals("A04", new String(out, 17, 3, StandardCharsets.US_ASCII));
+        assertFalse(tracked.isDirty());
+
+        // The encoded amount replaces the original bytes only once it changes
+        order.amount = new BigDecimal("1.00");
+        order.status = null;
+        assertEquals(Arrays.asList("amount", "status.code", "status.retries"), tracked.getDirtyFields());
+        byte[] updated = tracked.toBinary();
+        assertArrayEquals(new byte[]{0x00, 0x10, 0x0C}, Arrays.copyOfRange(updated, 4, 7));
+        assertEquals(" 00", new String(updated, 7, 3, StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,61 @@
+package org.jcobol.core.bulk;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.core.handlers.Comp3FieldHandler;
+import org.jcobol.enums.CobolFieldType;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Compares the per-value {@link Comp3FieldHandler#extractValue} path with the
+ * word-at-a-time column decoder. Not a unit test; run it from the IDE or with
+ * {@code java -cp target/classes:target/test-classes org.jcobol.core.bulk.PackedDecimalBenchmark}.
+ * Add {@code --add-modules jdk.incubator.vector -Djcobol.vector=true} and put the packaged
+ * jar first on the class path to measure the Vector API kernels.
+ */
+public class PackedDecimalBenchmark {
+
+    public static class Row {
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 15, scale = 2, comp3 = true, signed = true)
+        private BigDecimal amount;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        CobolField amountField = Row.class.getDeclaredField("amount").getAnnotation(CobolField.class);
+        Comp3FieldHandler handler = new Comp3FieldHandler();
+
+        byte[] data = new byte[rows * 8];
+        Random random = new Random(7);
+        byte[] record = new byte[8];
+        for (int i = 0; i < rows; i++) {
+            handler.writeValue(BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, 2), record, 0, amountField);
+            System.arraycopy(record, 0, data, i * 8, 8);
+        }
+
+        System.out.println("Vector API kernels: " + PackedDecimalDecoder.isVectorized());
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            BigDecimal total = BigDecimal.ZERO;
+            byte[] field = new byte[8];
+            for (int i = 0; i < rows; i++) {
+                System.arraycopy(data, i * 8, field, 0, 8);
+                total = total.add((BigDecimal) handler.extractValue(field, BigDecimal.class, amountField));
+            }
+            long perValue = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long[] column = CobolFieldProcessor.decodeColumn(data, Row.class, "amount");
+            long sum = 0;
+            for (long value : column) {
+                sum += value;
+            }
+            long columnar = System.nanoTime() - start;
+
+            System.out.printf("round %d: extractValue %6.1f ns/value, decodeColumn %5.1f ns/value (%s = %s)%n",
+                    round, perValue / (double) rows, columnar / (double) rows, total, BigDecimal.valueOf(sum, 2));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.jcobol.core.bulk;
+
+import org.jcobol.core.charset.CodePage;
+import org.jcobol.core.utils.RecordBytes;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.ViolationType;
+import org.jcobol.exception.CobolDataException;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedDecimalDecoderTest {
+
+    /**
+     * Pack digits left to right with a sign nibble, the way Comp3FieldHandler writes them.
+     */
+    private static byte[] pack(String digits, boolean negative, int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(i) - '0';
+            data[i / 2] |= (byte) ((i & 1) == 0 ? digit << 4 : digit);
+        }
+        data[length - 1] |= negative ? 0x0D : 0x0C;
+        return data;
+    }
+
+    @Test
+    public void testDecodeMatchesScalarForAllWidths() throws CobolParseException {
+        Random random = new Random(42);
+        for (int digits = 1; digits <= 18; digits++) {
+            int length = digits / 2 + 1;
+            for (int n = 0; n < 200; n++) {
+                StringBuilder text = new StringBuilder();
+                for (int i = 0; i < digits; i++) {
+                    text.append((char) ('0' + random.nextInt(10)));
+                }
+                boolean negative = random.nextBoolean();
+                long expected = Long.parseLong(text.toString()) * (negative ? -1 : 1);
+
+                byte[] data = pack(text.toString(), negative, length);
+                assertEquals(expected, PackedDecimalDecoder.decode(data, 0, length, digits > (length - 1) * 2));
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidNibbleIsRejected() {
+        byte[] data = new byte[] {0x12, 0x34, 0x56, 0x7A, 0x12, 0x34, 0x56, 0x78, 0x12, 0x3C};
+
+        CobolParseException exception = assertThrows(CobolParseException.class,
+                () -> PackedDecimalDecoder.decode(data, 0, data.length, true));
+        assertSame(CobolDataException.of(ViolationType.INVALID_DIGIT), exception);
+    }
+
+    @Test
+    public void testAlternateSignNibbles() throws CobolParseException {
+        byte[] data = pack("12345", false, 3);
+
+        data[2] = 0x5B;
+        assertEquals(-12345L, PackedDecimalDecoder.decode(data, 0, 3, true));
+        assertNull(PackedDecimalDecoder.validate(data, 0, 3, true, true));
+        assertEquals(ViolationType.OUT_OF_RANGE, PackedDecimalDecoder.validate(data, 0, 3, true, false));
+        for (int sign : new int[] {0xA, 0xC, 0xE, 0xF}) {
+            data[2] = (byte) (0x50 | sign);
+            assertEquals(12345L, PackedDecimalDecoder.decode(data, 0, 3, true));
+            assertNull(PackedDecimalDecoder.validate(data, 0, 3, true, false));
+        }
+    }
+
+    @Test
+    public void testInvalidSignIsRejected() {
+        byte[] data = pack("12345", false, 3);
+        data[2] = 0x55;
+
+        CobolParseException exception = assertThrows(CobolParseException.class,
+                () -> PackedDecimalDecoder.decode(data, 0, data.length, true));
+        assertSame(CobolDataException.of(ViolationType.INVALID_SIGN), exception);
+        assertEquals(ViolationType.INVALID_SIGN, PackedDecimalDecoder.validate(data, 0, 3, true, true));
+        assertSame(exception, assertThrows(CobolParseException.class,
+                () -> PackedDecimalDecoder.decode(RecordBytes.of(data), 0, data.length, true)));
+    }
+
+    @Test
+    public void testOverflowIsDetected() {
+        byte[] data = pack("9999999999999999999", false, 10);
+
+        assertThrows(CobolParseException.class, () -> PackedDecimalDecoder.decode(data, 0, data.length, true));
+    }
+
+    @Test
+    public void testZonedFastPath() {
+        CodePage ascii = CodePage.of(CobolEncoding.ASCII);
+        CodePage ebcdic = CodePage.of(CobolEncoding.CP037);
+
+        assertEquals(1234567890123L, ZonedDecimalDecoder.tryDecode("1234567890123".getBytes(), 0, 13, false, ascii));
+        assertEquals(-1234L, ZonedDecimalDecoder.tryDecode("123t".getBytes(), 0, 4, true, ascii));
+        assertEquals(-1234L, ZonedDecimalDecoder.tryDecode(
+                new byte[] {(byte) 0xF1, (byte) 0xF2, (byte) 0xF3, (byte) 0xD4}, 0, 4, true, ebcdic));
+
+        // Anything but a plain digit run is left to the general parser
+        assertEquals(ZonedDecimalDecoder.NOT_SIMPLE, ZonedDecimalDecoder.tryDecode(" 123".getBytes(), 0, 4, false, ascii));
+        assertEquals(ZonedDecimalDecoder.NOT_SIMPLE, ZonedDecimalDecoder.tryDecode("123t".getBytes(), 0, 4, false, ascii));
+        assertEquals(ZonedDecimalDecoder.NOT_SIMPLE, ZonedDecimalDecoder.tryDecode("12:4".getBytes(), 0, 4, false, ascii));
+    }
+}
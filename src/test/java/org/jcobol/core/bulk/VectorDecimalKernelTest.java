@@ -0,0 +1,41 @@
+package org.jcobol.core.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the Java 17 classes with {@code jdk.incubator.vector} enabled.
+ */
+public class VectorDecimalKernelTest {
+
+    @Test
+    public void testKernelsAreSelected() {
+        assertTrue(PackedDecimalDecoder.isVectorized());
+    }
+
+    @Test
+    public void testKernelsMatchSwar() {
+        Random random = new Random(17);
+        byte[] packed = new byte[16];
+        byte[] zoned = new byte[16];
+        for (int n = 0; n < 20_000; n++) {
+            // Mostly valid digits, with an occasional bad nibble or zone
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = (byte) (random.nextInt(10) << 4 | random.nextInt(10));
+                zoned[i] = (byte) (0xF0 | random.nextInt(10));
+            }
+            if (random.nextInt(4) == 0) {
+                packed[random.nextInt(16)] = (byte) random.nextInt(256);
+                zoned[random.nextInt(16)] = (byte) random.nextInt(256);
+            }
+            int offset = random.nextInt(9);
+            int count = 1 + random.nextInt(8);
+
+            assertEquals(Swar.packed(packed, offset, count), VectorDecimalKernel.packed(packed, offset, count));
+            assertEquals(Swar.zoned(zoned, offset, count, 0xF), VectorDecimalKernel.zoned(zoned, offset, count, 0xF));
+        }
+    }
+}
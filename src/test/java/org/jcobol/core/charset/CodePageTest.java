@@ -0,0 +1,46 @@
+package org.jcobol.core.charset;
+
+import org.jcobol.enums.CobolEncoding;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodePageTest {
+
+    @Test
+    public void testDecodeEbcdic() {
+        byte[] data = new byte[] {(byte) 0xC8, (byte) 0xC5, (byte) 0xD3, (byte) 0xD3, (byte) 0xD6, 0x40};
+        assertEquals("HELLO ", CodePage.of(CobolEncoding.CP037).decode(data, 0, data.length));
+    }
+
+    @Test
+    public void testCodePageDifferences() {
+        // '[' and ']' sit on different code points in 037, 1047 and 500
+        assertEquals((byte) 0xBA, CodePage.of(CobolEncoding.CP037).toByte('['));
+        assertEquals((byte) 0xAD, CodePage.of(CobolEncoding.CP1047).toByte('['));
+        assertEquals((byte) 0x4A, CodePage.of(CobolEncoding.CP500).toByte('['));
+        assertEquals('Ä', CodePage.of(CobolEncoding.CP273).toChar((byte) 0x4A));
+    }
+
+    @Test
+    public void testTablesRoundTripAllBytes() {
+        for (CobolEncoding encoding : new CobolEncoding[] {CobolEncoding.LATIN1, CobolEncoding.CP037,
+                CobolEncoding.CP1047, CobolEncoding.CP500, CobolEncoding.CP273}) {
+            CodePage codePage = CodePage.of(encoding);
+            for (int b = 0; b < 256; b++) {
+                assertEquals((byte) b, codePage.toByte(codePage.toChar((byte) b)), encoding + " byte " + b);
+            }
+        }
+    }
+
+    @Test
+    public void testEncodePadsWithCodePageSpace() {
+        byte[] data = new byte[4];
+        CodePage.of(CobolEncoding.CP037).encode("AB", data, 0, 4);
+        assertArrayEquals(new byte[] {(byte) 0xC1, (byte) 0xC2, 0x40, 0x40}, data);
+
+        assertEquals(3, CodePage.of(CobolEncoding.CP037).digitValue((byte) 0xF3));
+        assertEquals(-1, CodePage.of(CobolEncoding.CP037).digitValue((byte) '3'));
+        assertEquals('?', CodePage.of(CobolEncoding.ASCII).toByte('é'));
+    }
+}
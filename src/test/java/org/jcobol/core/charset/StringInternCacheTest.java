@@ -0,0 +1,41 @@
+package org.jcobol.core.charset;
+
+import org.jcobol.enums.CobolEncoding;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringInternCacheTest {
+
+    @Test
+    public void testRepeatedValuesShareInstance() {
+        StringInternCache cache = new StringInternCache(CodePage.of(CobolEncoding.CP037), 16);
+        byte[] data = new byte[] {
+            (byte) 0xE4, (byte) 0xE2, (byte) 0xC4,  // "USD"
+            (byte) 0xC5, (byte) 0xE4, (byte) 0xD9,  // "EUR"
+            (byte) 0xE4, (byte) 0xE2, (byte) 0xC4   // "USD"
+        };
+
+        String first = cache.intern(data, 0, 3);
+        String second = cache.intern(data, 6, 3);
+
+        assertEquals("USD", first);
+        assertSame(first, second);
+        assertEquals("EUR", cache.intern(data, 3, 3));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCardinalityLimitEvicts() {
+        StringInternCache cache = new StringInternCache(CodePage.of(CobolEncoding.ASCII), 4);
+        for (int i = 0; i < 1000; i++) {
+            byte[] value = String.format("%04d", i).getBytes();
+            assertEquals(String.format("%04d", i), cache.intern(value, 0, value.length));
+        }
+
+        assertEquals(4, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -1,6 +1,7 @@
 package org.jcobol.core.handlers;
 
 import org.jcobol.annotation.CobolField;
+import org.jcobol.enums.CobolEncoding;
 import org.jcobol.enums.CobolFieldType;
 import org.jcobol.exception.CobolParseException;
 import org.junit.jupiter.api.BeforeEach;
@@ -59,6 +60,46 @@ public class CompFieldHandlerTest {
                 return true;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -115,6 +156,46 @@ public class CompFieldHandlerTest {
                 return true;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -171,6 +252,46 @@ public class CompFieldHandlerTest {
                 return true;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -0,0 +1,56 @@
+package org.jcobol.core.layout;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the Java 17 classes, which find records through their canonical constructor.
+ */
+public class RecordClassesTest {
+
+    public record Money(
+            @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3) String currency,
+            @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 2, comp3 = true)
+            BigDecimal amount) {
+    }
+
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public record Invoice(
+            @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 6) String number,
+            @CobolNestedObject Money total,
+            @CobolField(type = CobolFieldType.NUMERIC, length = 3) int lines) {
+    }
+
+    @Test
+    public void testRecordsAreDecodedThroughTheirCanonicalConstructor() throws Exception {
+        RecordLayout<Invoice> layout = RecordLayout.of(Invoice.class);
+        assertTrue(layout.isImmutable());
+        assertEquals(6 + 3 + 4 + 3, layout.getLength());
+
+        Invoice invoice = new Invoice("INV001", new Money("EUR", new BigDecimal("123.45")), 12);
+        byte[] data = CobolFieldProcessor.writeToBinary(invoice);
+        assertEquals(layout.getLength(), data.length);
+
+        Invoice parsed = CobolFieldProcessor.parseFromBinary(data, 0, Invoice.class);
+        assertEquals("INV001", parsed.number());
+        assertEquals("EUR", parsed.total().currency());
+        assertEquals(0, new BigDecimal("123.45").compareTo(parsed.total().amount()));
+        assertEquals(12, parsed.lines());
+
+        List<Invoice> invoices = CobolFieldProcessor.parseRecordsFromBinary(
+                CobolFieldProcessor.writeRecordsToBinary(Arrays.asList(invoice, parsed)), Invoice.class);
+        assertEquals(2, invoices.size());
+        assertEquals("INV001", invoices.get(1).number());
+    }
+}
@@ -0,0 +1,150 @@
+package org.jcobol.core.layout;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.core.CobolFieldProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordLayoutTest {
+
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public static class Order {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 6)
+        private String orderId;
+
+        private String notMapped;
+
+        @CobolNestedObject
+        private Line line;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 4, comp = true)
+        private int count;
+    }
+
+    static class Line {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 5)
+        private long quantity;
+
+        private Line() {
+        }
+    }
+
+    public static class NoDefaultConstructor {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 2)
+        private int value;
+
+        public NoDefaultConstructor(int value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void testOffsetsAndLengths() {
+        RecordLayout<Order> layout = RecordLayout.of(Order.class);
+        assertSame(layout, RecordLayout.of(Order.class));
+        assertEquals(CobolEncoding.CP037, layout.resolveEncoding(CobolEncoding.ASCII));
+        assertEquals(CobolEncoding.ASCII, RecordLayout.of(Line.class).resolveEncoding(CobolEncoding.ASCII));
+
+        assertEquals(3, layout.getFields().size());
+        FieldLayout line = layout.getField("line");
+        assertTrue(line.isNested());
+        assertSame(RecordLayout.of(Line.class), line.getNestedLayout());
+        assertEquals(6, line.getOffset());
+        assertEquals(5, line.getLength());
+        assertEquals(11, layout.getField("count").getOffset());
+        assertEquals(2, layout.getField("count").getLength());
+        assertNull(layout.getField("notMapped"));
+        assertEquals(13, layout.getLength());
+    }
+
+    @Test
+    public void testFactoryAndAccessors() throws Exception {
+        RecordLayout<Order> layout = RecordLayout.of(Order.class);
+        Order order = layout.newInstance();
+        Line line = RecordLayout.of(Line.class).newInstance();
+        assertNotSame(order, layout.newInstance());
+
+        layout.getField("orderId").set(order, "A00001");
+        layout.getField("line").set(order, line);
+        layout.getField("count").set(order, 42);
+        RecordLayout.of(Line.class).getField("quantity").set(line, 7L);
+
+        assertEquals("A00001", order.orderId);
+        assertSame(line, order.line);
+        assertEquals(42, order.count);
+        assertEquals(7L, line.quantity);
+        assertEquals(42, layout.getField("count").get(order));
+        assertEquals(7L, RecordLayout.of(Line.class).getField("quantity").get(line));
+    }
+
+    public static class Defaults {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String name;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 3)
+        private Integer count;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 5, scale = 2, comp3 = true)
+        private BigDecimal amount;
+
+        @CobolField(type = CobolFieldType.DECIMAL_EXPLICIT, length = 6, scale = 2)
+        private BigDecimal rate;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 4, comp = true)
+        private Long total;
+
+        @CobolNestedObject
+        private Line line;
+    }
+
+    @Test
+    public void testDefaultImage() throws Exception {
+        RecordLayout<Defaults> layout = RecordLayout.of(Defaults.class);
+        Defaults initialized = layout.newInstance();
+        CobolFieldProcessor.initialize(initialized);
+        assertSame(layout.getField("name").getDefaultValue(), initialized.name);
+
+        for (CobolEncoding encoding : new CobolEncoding[] {CobolEncoding.ASCII, CobolEncoding.CP037}) {
+            byte[] image = layout.getDefaultImage(encoding);
+            assertNotSame(image, layout.getDefaultImage(encoding));
+            assertEquals(layout.getLength(), image.length);
+
+            // Null fields are written by copying their range of the image
+            byte[] written = new byte[layout.getLength()];
+            for (FieldLayout field : layout.getFields()) {
+                layout.copyDefaultImage(encoding, field.getOffset(), field.getLength(), written, field.getOffset());
+            }
+            assertArrayEquals(image, written);
+        }
+
+        // Records with null fields are written as the image, which parses back to the defaults
+        byte[] data = CobolFieldProcessor.writeRecordsToBinary(Arrays.asList(layout.newInstance()));
+        assertArrayEquals(layout.getDefaultImage(CobolEncoding.INHERIT), data);
+        assertArrayEquals(CobolFieldProcessor.writeToBinary(initialized), data);
+        assertEquals("    ", new String(data, 0, 4, StandardCharsets.US_ASCII));
+
+        Defaults parsed = layout.newInstance();
+        CobolFieldProcessor.parseFromBinary(parsed, data, 0);
+        assertEquals(0, parsed.count);
+        assertEquals(0, BigDecimal.ZERO.compareTo(parsed.amount));
+        assertEquals(0L, parsed.line.quantity);
+    }
+
+    @Test
+    public void testMissingConstructor() {
+        RecordLayout<NoDefaultConstructor> layout = RecordLayout.of(NoDefaultConstructor.class);
+        Supplier<NoDefaultConstructor> factory = layout.getFactory();
+        assertNull(factory);
+        assertThrows(NoSuchMethodException.class, layout::newInstance);
+    }
+}
@@ -0,0 +1,191 @@
+package org.jcobol.core.mapping;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordMappingTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Account {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 5)
+        private String id;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 10)
+        private String name;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 2)
+        private BigDecimal balance;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 4, comp = true)
+        private int branch;
+
+        @CobolNestedObject
+        private Contact contact;
+    }
+
+    public static class Contact {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 8)
+        private String phone;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3)
+        private String country;
+    }
+
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public static class Extract {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 12)
+        private String name;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 5)
+        private String id;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 9, scale = 3, comp3 = true)
+        private BigDecimal balance;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 5)
+        private int branch;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String note;
+    }
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Ledger {
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 2, signed = true, comp3 = true)
+        private BigDecimal amount;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 8)
+        private String phone;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3)
+        private String country;
+    }
+
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public static class Posting {
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 5, scale = 1, signed = true)
+        private BigDecimal amount;
+    }
+
+    private static Account account(String id, String name, String balance, int branch) {
+        Account account = new Account();
+        account.id = id;
+        account.name = name;
+        account.balance = new BigDecimal(balance);
+        account.branch = branch;
+        account.contact = new Contact();
+        account.contact.phone = "55501234";
+        account.contact.country = "US";
+        return account;
+    }
+
+    @Test
+    public void testReformatAcrossFormatsAndEncodings() throws Exception {
+        RecordMapping mapping = RecordMapping.between(Account.class, Extract.class).mapByName().build();
+        byte[] src = CobolFieldProcessor.writeRecordsToBinary(Arrays.asList(
+                account("A0001", "Smith", "12345.67", 42),
+                account("A0002", "Johnson-Lee", "0.05", 7)));
+
+        byte[] dest = mapping.apply(src);
+        assertEquals(2 * mapping.getTargetLength(), dest.length);
+
+        // The digit moves produce the same bytes as encoding the values
+        Extract expected = new Extract();
+        expected.name = "Smith";
+        expected.id = "A0001";
+        expected.balance = new BigDecimal("12345.670");
+        expected.branch = 42;
+        expected.note = "";
+        assertArrayEquals(CobolFieldProcessor.writeToBinary(expected),
+                Arrays.copyOf(dest, mapping.getTargetLength()));
+
+        Extract second = CobolFieldProcessor.parseFromBinary(dest, mapping.getTargetLength(), Extract.class);
+        assertEquals("Johnson-Le", second.name.trim());
+        assertEquals(0, new BigDecimal("0.05").compareTo(second.balance));
+        assertEquals(7, second.branch);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, mapping.apply(new ByteArrayInputStream(src), out));
+        assertArrayEquals(dest, out.toByteArray());
+
+        assertThrows(CobolParseException.class,
+                () -> mapping.apply(new ByteArrayInputStream(Arrays.copyOf(src, src.length - 1)),
+                        new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testExplicitPathsAndMergedCopies() throws Exception {
+        RecordMapping mapping = RecordMapping.between(Account.class, Ledger.class)
+                .map("balance", "amount")
+                .map("contact.phone", "phone")
+                .map("contact.country", "country")
+                .build();
+        // The two contact fields are adjacent on both sides and copied in one step
+        assertEquals(2, mapping.getStepCount());
+
+        byte[] ledger = mapping.apply(CobolFieldProcessor.writeToBinary(account("A0001", "Smith", "99.99", 1)));
+        Ledger parsed = CobolFieldProcessor.parseFromBinary(ledger, 0, Ledger.class);
+        assertEquals(0, new BigDecimal("99.99").compareTo(parsed.amount));
+        assertEquals("55501234", parsed.phone);
+
+        // Negative packed to signed zoned, dropping a fraction digit
+        Ledger debit = new Ledger();
+        debit.amount = new BigDecimal("-123.45");
+        debit.phone = "";
+        debit.country = "";
+        RecordMapping toPosting = RecordMapping.between(Ledger.class, Posting.class).mapByName().build();
+        Posting posting = CobolFieldProcessor.parseFromBinary(
+                toPosting.apply(CobolFieldProcessor.writeToBinary(debit)), 0, Posting.class);
+        assertEquals(0, new BigDecimal("-123.4").compareTo(posting.amount));
+
+        // 0xB is an alternate negative sign and 0x5 is not a sign at all
+        byte[] alternate = CobolFieldProcessor.writeToBinary(debit);
+        alternate[3] = (byte) (alternate[3] & 0xF0 | 0x0B);
+        posting = CobolFieldProcessor.parseFromBinary(toPosting.apply(alternate), 0, Posting.class);
+        assertEquals(0, new BigDecimal("-123.4").compareTo(posting.amount));
+        alternate[3] = (byte) (alternate[3] & 0xF0 | 0x05);
+        assertThrows(CobolParseException.class, () -> toPosting.apply(alternate));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> RecordMapping.between(Account.class, Ledger.class).map("missing", "amount").build());
+        assertThrows(IllegalArgumentException.class,
+                () -> RecordMapping.between(Account.class, Ledger.class).map("contact", "phone").build());
+    }
+
+    @Test
+    public void testStreamErrorsNameTheRecordInTheStream() throws Exception {
+        List<Ledger> ledgers = new ArrayList<>();
+        for (int i = 0; i < 6000; i++) {
+            Ledger ledger = new Ledger();
+            ledger.amount = new BigDecimal(i);
+            ledger.phone = "";
+            ledger.country = "";
+            ledgers.add(ledger);
+        }
+        byte[] src = CobolFieldProcessor.writeRecordsToBinary(ledgers);
+        // Past the first block of the stream
+        src[5000 * 15 + 3] = 0x05;
+        RecordMapping mapping = RecordMapping.between(Ledger.class, Posting.class).mapByName().build();
+
+        CobolParseException error = assertThrows(CobolParseException.class,
+                () -> mapping.apply(new ByteArrayInputStream(src), new ByteArrayOutputStream()));
+        assertTrue(error.getMessage().startsWith("Record 5000:"), error.getMessage());
+        error = assertThrows(CobolParseException.class, () -> mapping.apply(src));
+        assertTrue(error.getMessage().startsWith("Record 5000:"), error.getMessage());
+    }
+}
@@ -0,0 +1,120 @@
+package org.jcobol.core.profile;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.enums.CobolFieldType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordProfilerTest {
+
+    public static class Sale {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 6)
+        private String region;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 2, comp3 = true)
+        private BigDecimal amount;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 6)
+        private int customer;
+    }
+
+    private static final int RECORDS = 10000;
+
+    private static byte[] sales() throws Exception {
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < RECORDS; i++) {
+            Sale sale = new Sale();
+            sale.region = i % 10 < 5 ? "EAST" : i % 10 < 8 ? "WEST" : i % 10 == 8 ? "N" + i : "      ";
+            sale.amount = new BigDecimal(i % 1000).movePointLeft(2);
+            sale.customer = i % 5000;
+            sales.add(sale);
+        }
+        return CobolFieldProcessor.writeRecordsToBinary(sales);
+    }
+
+    private static void assertProfile(RecordProfile profile) {
+        assertEquals(RECORDS, profile.getRecordCount());
+
+        FieldProfile region = profile.getField("region");
+        assertFalse(region.isNumeric());
+        assertEquals(RECORDS / 10, region.getNullCount());
+        assertEquals(RECORDS - RECORDS / 10, region.getCount());
+        assertEquals(5, region.getMaxLength());
+        assertEquals(2, region.getMinLength());
+        List<FieldProfile.Frequency> top = region.getTopValues();
+        assertEquals("EAST", top.get(0).getValue());
+        assertTrue(top.get(0).getCount() >= RECORDS / 2);
+        assertEquals("WEST", top.get(1).getValue());
+
+        FieldProfile amount = profile.getField("amount");
+        assertTrue(amount.isNumeric());
+        assertEquals(RECORDS, amount.getCount());
+        assertEquals(new BigDecimal("0.00"), amount.getMin());
+        assertEquals(new BigDecimal("9.99"), amount.getMax());
+        assertEquals(new BigDecimal("49950.00"), amount.getSum());
+        long distinct = amount.getDistinctEstimate();
+        assertTrue(distinct > 950 && distinct < 1050, "distinct " + distinct);
+
+        long customers = profile.getField("customer").getDistinctEstimate();
+        assertTrue(customers > 4750 && customers < 5250, "distinct " + customers);
+    }
+
+    @Test
+    public void testSequentialProfile() throws Exception {
+        RecordProfiler profiler = new RecordProfiler(Sale.class, 3);
+        assertEquals(3, profiler.newProfile().getFields().size());
+
+        assertProfile(profiler.profile(sales()));
+        assertProfile(profiler.profile(new ByteArrayInputStream(sales())));
+    }
+
+    @Test
+    public void testParallelProfileMatchesSequential() throws Exception {
+        RecordProfiler profiler = new RecordProfiler(Sale.class, 3);
+        RecordProfile profile = profiler.profile(sales(), new ForkJoinPool(4));
+
+        assertProfile(profile);
+        assertEquals(profiler.profile(sales()).getField("amount").getDistinctEstimate(),
+                profile.getField("amount").getDistinctEstimate());
+    }
+
+    @Test
+    public void testInvalidValuesAreCounted() throws Exception {
+        byte[] data = sales();
+        data[6] = (byte) 0xAB;
+        RecordProfile profile = new RecordProfiler(Sale.class).profile(data);
+
+        assertEquals(1, profile.getField("amount").getInvalidCount());
+        assertEquals(RECORDS - 1, profile.getField("amount").getCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> profile.merge(new RecordProfiler(Sale.class).newProfile()));
+    }
+
+    @Test
+    public void testFrequentValuesAmongManyDistinct() throws Exception {
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            Sale sale = new Sale();
+            sale.region = "EAST";
+            sale.amount = BigDecimal.ZERO;
+            sale.customer = i % 4 == 0 ? 42 : i % 10 == 1 ? 7 : 100_000 + i;
+            sales.add(sale);
+        }
+        RecordProfile profile = new RecordProfiler(Sale.class, 2).profile(
+                CobolFieldProcessor.writeRecordsToBinary(sales));
+
+        List<FieldProfile.Frequency> top = profile.getField("customer").getTopValues();
+        assertEquals(2, top.size());
+        assertEquals("42", top.get(0).getValue());
+        assertEquals("7", top.get(1).getValue());
+        assertTrue(top.get(1).getCount() >= 10_000);
+    }
+}
@@ -1,6 +1,7 @@
 package org.jcobol.core.utils;
 
 import org.jcobol.annotation.CobolField;
+import org.jcobol.enums.CobolEncoding;
 import org.jcobol.enums.CobolFieldType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,6 +56,46 @@ public class CobolFieldCalculatorTest {
                 return false;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -106,6 +147,46 @@ public class CobolFieldCalculatorTest {
                 return true;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -149,6 +230,46 @@ public class CobolFieldCalculatorTest {
                 return true;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -192,6 +313,46 @@ public class CobolFieldCalculatorTest {
                 return true;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -245,6 +406,46 @@ public class CobolFieldCalculatorTest {
                 return false;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -288,6 +489,46 @@ public class CobolFieldCalculatorTest {
                 return false;
             }
             
+            @Override
+            public CobolEncoding encoding() {
+                return CobolEncoding.INHERIT;
+            }
+            
+            @Override
+            public boolean trimTrailing() {
+                return false;
+            }
+
+            @Override
+            public boolean lazy() {
+                return false;
+            }
+
+            @Override
+            public int internLimit() {
+                return 0;
+            }
+
+            @Override
+            public boolean comp5() {
+                return false;
+            }
+
+            @Override
+            public boolean comp1() {
+                return false;
+            }
+
+            @Override
+            public boolean comp2() {
+                return false;
+            }
+
+            @Override
+            public boolean littleEndian() {
+                return false;
+            }
+            
             @Override
             public String description() {
                 return "";
@@ -0,0 +1,42 @@
+package org.jcobol.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HexFloatConverterTest {
+
+    @Test
+    public void testKnownLongFormValues() {
+        assertEquals(0x4110000000000000L, HexFloatConverter.doubleToHfp64(1.0));
+        assertEquals(0xC276A00000000000L, HexFloatConverter.doubleToHfp64(-118.625));
+        assertEquals(0x0L, HexFloatConverter.doubleToHfp64(0.0));
+
+        assertEquals(1.0, HexFloatConverter.hfp64ToDouble(0x4110000000000000L));
+        assertEquals(-118.625, HexFloatConverter.hfp64ToDouble(0xC276A00000000000L));
+        assertEquals(0.0, HexFloatConverter.hfp64ToDouble(0x4200000000000000L));
+    }
+
+    @Test
+    public void testShortFormRounding() {
+        assertEquals(0xC276A000, HexFloatConverter.floatToHfp32(-118.625f));
+        assertEquals(0x4019999A, HexFloatConverter.floatToHfp32(0.1f));
+        // The short form keeps as few as 21 significant bits, so 0.1 is not exact
+        assertEquals(0.1f, HexFloatConverter.hfp32ToFloat(0x4019999A), 1e-7f);
+    }
+
+    @Test
+    public void testDoubleRoundTrip() {
+        double[] values = {Math.PI, -1e-70, 7.2e75, 123456.789, Double.MIN_NORMAL * 1e250, -0.5};
+        for (double value : values) {
+            assertEquals(value, HexFloatConverter.hfp64ToDouble(HexFloatConverter.doubleToHfp64(value)));
+        }
+    }
+
+    @Test
+    public void testOutOfRange() {
+        assertThrows(ArithmeticException.class, () -> HexFloatConverter.doubleToHfp64(1e77));
+        assertThrows(ArithmeticException.class, () -> HexFloatConverter.doubleToHfp64(Double.NaN));
+        assertEquals(0.0, HexFloatConverter.hfp64ToDouble(HexFloatConverter.doubleToHfp64(1e-300)));
+    }
+}
@@ -0,0 +1,109 @@
+package org.jcobol.core.validation;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.enums.ViolationType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordValidatorTest {
+
+    public static class Posting {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 3)
+        private String account;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 2, signed = true, comp3 = true)
+        private BigDecimal amount;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 11)
+        private long reference;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 4, comp = true)
+        private int count;
+    }
+
+    // 3 + 4 + 11 + 2 bytes
+    private static final int LENGTH = 20;
+
+    private static byte[] postings(int count) throws Exception {
+        List<Posting> postings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Posting posting = new Posting();
+            posting.account = "A" + (i % 10);
+            posting.amount = new BigDecimal(i).movePointLeft(2);
+            posting.reference = 10000000000L + i;
+            posting.count = i % 100;
+            postings.add(posting);
+        }
+        return CobolFieldProcessor.writeRecordsToBinary(postings);
+    }
+
+    @Test
+    public void testCleanData() throws Exception {
+        ValidationReport report = new RecordValidator(Posting.class).validate(postings(50));
+
+        assertTrue(report.isClean(), report.toString());
+        assertEquals(50, report.getRecordCount());
+    }
+
+    @Test
+    public void testViolationsAreCountedPerField() throws Exception {
+        byte[] data = postings(1000);
+        data[5 * LENGTH + 4] = (byte) 0x1A;                 // packed digit nibble
+        data[9 * LENGTH + 6] = (byte) 0x05;                 // packed sign nibble
+        data[700 * LENGTH + 6] = (byte) 0x09;               // packed sign nibble
+        data[300 * LENGTH + 12] = ' ';                      // zoned digit in the word-at-a-time part
+        data[301 * LENGTH + 17] = 'J';                      // zoned last byte of an unsigned field
+        data[400 * LENGTH + 18] = (byte) 0x27;              // COMP 10000 for a 4-digit picture
+        data[400 * LENGTH + 19] = (byte) 0x10;
+
+        ValidationReport report = new RecordValidator(Posting.class, 2).validate(data, new ForkJoinPool(4));
+
+        assertFalse(report.isClean());
+        assertEquals(1000, report.getRecordCount());
+        assertEquals(6, report.getViolationCount());
+        List<FieldViolations> fields = report.getFieldViolations();
+        assertEquals(3, fields.size());
+
+        FieldViolations amount = fields.get(0);
+        assertEquals("amount", amount.getPath());
+        assertEquals(1, amount.getCount(ViolationType.INVALID_DIGIT));
+        assertEquals(2, amount.getCount(ViolationType.INVALID_SIGN));
+        assertArrayEquals(new long[] {5 * LENGTH + 3, 9 * LENGTH + 3}, amount.getSampleOffsets());
+
+        FieldViolations reference = fields.get(1);
+        assertEquals("reference", reference.getPath());
+        assertEquals(2, reference.getCount(ViolationType.INVALID_DIGIT));
+        assertArrayEquals(new long[] {300 * LENGTH + 7, 301 * LENGTH + 7}, reference.getSampleOffsets());
+
+        FieldViolations count = fields.get(2);
+        assertEquals("count", count.getPath());
+        assertEquals(1, count.getCount(ViolationType.OUT_OF_RANGE));
+    }
+
+    @Test
+    public void testFileScan(@TempDir Path dir) throws Exception {
+        byte[] data = postings(100);
+        data[42 * LENGTH + 10] = 'x';
+        Path file = dir.resolve("postings.dat");
+        Files.write(file, Arrays.copyOf(data, data.length + 3));
+
+        ValidationReport report = new RecordValidator(Posting.class).validate(file, ForkJoinPool.commonPool());
+
+        assertEquals(100, report.getRecordCount());
+        assertEquals(3, report.getTrailingBytes());
+        assertEquals(1, report.getViolationCount());
+        assertArrayEquals(new long[] {42 * LENGTH + 7}, report.getFieldViolations().get(0).getSampleOffsets());
+    }
+}
@@ -0,0 +1,71 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolAsyncFileReaderTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Entry {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 5)
+        private int number;
+    }
+
+    private static Path entries(Path dir, int count, String tail) throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            data.append(String.format("%05d", i));
+        }
+        Path file = dir.resolve("entries.dat");
+        Files.write(file, (data + tail).getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    @Test
+    public void testReadsAllBlocksInOrder(@TempDir Path dir) throws Exception {
+        Path file = entries(dir, 1000, "");
+        // 7 records per block, with the extra bytes of the block size dropped
+        try (CobolAsyncFileReader<Entry> reader = new CobolAsyncFileReader<>(file, Entry.class, 38, 3, false)) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, reader.read().number);
+            }
+            assertNull(reader.read());
+            assertNull(reader.read());
+            assertEquals(1000, reader.getRecordsRead());
+            assertEquals(143, reader.getBlocksRead());
+            assertTrue(reader.getIoWaitNanos() > 0);
+            assertTrue(reader.getDecodeNanos() > 0);
+        }
+    }
+
+    @Test
+    public void testReuseAndTruncation(@TempDir Path dir) throws Exception {
+        Path file = entries(dir, 10, "00");
+        try (CobolAsyncFileReader<Entry> reader = new CobolAsyncFileReader<>(file, Entry.class, 20, 2, true)) {
+            Entry first = reader.read();
+            for (int i = 1; i < 10; i++) {
+                assertSame(first, reader.read());
+            }
+            assertEquals(9, first.number);
+            assertThrows(CobolParseException.class, reader::read);
+        }
+
+        try (CobolAsyncFileReader<Entry> reader = new CobolAsyncFileReader<>(dir.resolve("entries.dat"),
+                Entry.class)) {
+            assertEquals(0, reader.read().number);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new CobolAsyncFileReader<>(file, Entry.class, 20, 1, false));
+    }
+}
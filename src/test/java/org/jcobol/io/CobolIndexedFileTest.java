@@ -0,0 +1,221 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolKey;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.core.CobolFieldProcessor;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolIndexedFileTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Product {
+        @CobolNestedObject
+        private Sku sku;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 5, comp3 = true)
+        private int stock;
+
+        static Product of(int id) {
+            Product product = new Product();
+            product.sku = new Sku();
+            product.sku.code = String.format("SKU%06d", id);
+            product.stock = id % 1000;
+            return product;
+        }
+    }
+
+    public static class Sku {
+        // A long key keeps the tree pages small enough to split internal nodes
+        @CobolKey
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 100)
+        private String code;
+    }
+
+    public static class Unkeyed {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String code;
+    }
+
+    private static String code(Product product) {
+        return product.sku.code.trim();
+    }
+
+    @Test
+    public void testInsertLookupRangeAndDelete(@TempDir Path dir) throws Exception {
+        Path data = dir.resolve("products.dat");
+        Path index = dir.resolve("products.idx");
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ids.add(i);
+        }
+        Collections.shuffle(ids, new Random(42));
+
+        try (CobolIndexedFile<Product> file = CobolIndexedFile.open(data, index, Product.class)) {
+            for (int id : ids) {
+                assertTrue(file.insert(Product.of(id)));
+            }
+            assertFalse(file.insert(Product.of(7)));
+            assertEquals(3000, file.size());
+
+            assertEquals(123, file.get("SKU000123").stock);
+            assertNull(file.get("SKU999999"));
+
+            List<Product> range = file.range("SKU001000", "SKU001049");
+            assertEquals(50, range.size());
+            for (int i = 0; i < range.size(); i++) {
+                assertEquals(String.format("SKU%06d", 1000 + i), code(range.get(i)));
+            }
+
+            for (int id = 0; id < 3000; id += 2) {
+                assertTrue(file.delete(String.format("SKU%06d", id)));
+            }
+            assertFalse(file.delete("SKU000000"));
+            assertEquals(1500, file.size());
+
+            Product changed = Product.of(11);
+            changed.stock = 99;
+            file.put(changed);
+            assertEquals(1500, file.size());
+        }
+
+        // Reopen from the persisted index
+        try (CobolIndexedFile<Product> file = CobolIndexedFile.open(data, index, Product.class)) {
+            assertEquals(1500, file.size());
+            assertNull(file.get("SKU000010"));
+            assertEquals(99, file.get("SKU000011").stock);
+            List<Product> all = file.range(null, null);
+            assertEquals(1500, all.size());
+            assertEquals("SKU000001", code(all.get(0)));
+            assertEquals("SKU002999", code(all.get(all.size() - 1)));
+            assertEquals(0, file.range("SKU003000", null).size());
+        }
+    }
+
+    @Test
+    public void testBuildIndexFromFlatFile(@TempDir Path dir) throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int id = 500; id > 0; id--) {
+            products.add(Product.of(id));
+        }
+        Path data = dir.resolve("flat.dat");
+        Files.write(data, CobolFieldProcessor.writeRecordsToBinary(products));
+
+        try (CobolIndexedFile<Product> file = CobolIndexedFile.open(data, dir.resolve("flat.idx"), Product.class)) {
+            assertEquals(500, file.size());
+            assertEquals(250, file.get("SKU000250").stock);
+            assertEquals("SKU000001", code(file.range(null, "SKU000001").get(0)));
+        }
+
+        products.add(Product.of(250));
+        Files.write(data, CobolFieldProcessor.writeRecordsToBinary(products));
+        assertThrows(IOException.class, () -> CobolIndexedFile.open(data, dir.resolve("dup.idx"), Product.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> CobolIndexedFile.open(dir.resolve("u.dat"), dir.resolve("u.idx"), Unkeyed.class));
+    }
+
+    @Test
+    public void testCachedLookups(@TempDir Path dir) throws Exception {
+        RecordCache<Product> cache = RecordCache.maximumSize(100);
+        try (CobolIndexedFile<Product> file = CobolIndexedFile.open(dir.resolve("c.dat"), dir.resolve("c.idx"),
+                Product.class, cache)) {
+            file.insert(Product.of(1));
+            Product first = file.get("SKU000001");
+            assertSame(first, file.get("SKU000001"));
+            assertEquals(1, cache.getHitCount());
+
+            Product changed = Product.of(1);
+            changed.stock = 5;
+            file.put(changed);
+            assertEquals(5, file.get("SKU000001").stock);
+
+            file.delete("SKU000001");
+            assertNull(file.get("SKU000001"));
+        }
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheSeesChangesByAnotherOpener(@TempDir Path dir) throws Exception {
+        Path data = dir.resolve("s.dat");
+        Path index = dir.resolve("s.idx");
+        try (CobolIndexedFile<Product> reader = CobolIndexedFile.open(data, index, Product.class,
+                RecordCache.maximumSize(100));
+             CobolIndexedFile<Product> writer = CobolIndexedFile.open(data, index, Product.class)) {
+            writer.insert(Product.of(7));
+            assertEquals(7, reader.get("SKU000007").stock);
+
+            Product changed = Product.of(7);
+            changed.stock = 70;
+            writer.put(changed);
+            assertEquals(70, reader.get("SKU000007").stock);
+        }
+    }
+
+    @Test
+    public void testOnlyTheWriterTrimsTheFiles(@TempDir Path dir) throws Exception {
+        Path data = dir.resolve("t.dat");
+        Path index = dir.resolve("t.idx");
+        try (CobolIndexedFile<Product> writer = CobolIndexedFile.open(data, index, Product.class)) {
+            writer.insert(Product.of(1));
+            long mapped = Files.size(data);
+            assertTrue(mapped > 103);
+
+            CobolIndexedFile.open(data, index, Product.class).close();
+            assertEquals(mapped, Files.size(data));
+
+            writer.insert(Product.of(2));
+        }
+        assertEquals(2L * 103, Files.size(data));
+        try (CobolIndexedFile<Product> file = CobolIndexedFile.open(data, index, Product.class)) {
+            assertEquals(2, file.size());
+            assertEquals(2, file.get("SKU000002").stock);
+        }
+    }
+
+    @Test
+    public void testRecoverAfterUncleanShutdown(@TempDir Path dir) throws Exception {
+        Path data = dir.resolve("r.dat");
+        Path index = dir.resolve("r.idx");
+        Path crashedData = dir.resolve("crashed.dat");
+        Path crashedIndex = dir.resolve("crashed.idx");
+        try (CobolIndexedFile<Product> file = CobolIndexedFile.open(data, index, Product.class)) {
+            for (int id = 0; id < 50; id++) {
+                file.insert(Product.of(id));
+            }
+            file.force();
+            file.delete("SKU000010");
+            Product changed = Product.of(20);
+            changed.stock = 7;
+            file.put(changed);
+
+            // Copy the files as a crash would leave them: dirty index, data padded to the mapped length
+            Files.copy(data, crashedData);
+            Files.copy(index, crashedIndex);
+        }
+        assertTrue(Files.size(crashedData) > 50L * 103);
+
+        try (CobolIndexedFile<Product> file = CobolIndexedFile.open(crashedData, crashedIndex, Product.class)) {
+            assertEquals(49, file.size());
+            assertNull(file.get("SKU000010"));
+            assertEquals(7, file.get("SKU000020").stock);
+            assertEquals(49, file.range(null, null).size());
+            file.insert(Product.of(50));
+        }
+        assertEquals(51L * 103, Files.size(crashedData));
+    }
+}
@@ -0,0 +1,103 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolPipelineTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Line {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 6)
+        private int number;
+    }
+
+    private static InputStream lines(int count) {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            data.append(String.format("%06d", i));
+        }
+        return new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testOrderedDelivery() throws Exception {
+        List<Integer> numbers = new ArrayList<>();
+        long count = CobolPipeline.reading(lines(10_000), Line.class)
+                .workers(4)
+                .batchSize(37)
+                .queueCapacity(2)
+                .build()
+                .run(line -> numbers.add(line.number));
+
+        assertEquals(10_000, count);
+        for (int i = 0; i < numbers.size(); i++) {
+            assertEquals(i, numbers.get(i));
+        }
+    }
+
+    @Test
+    public void testOrderedDeliveryWithSmallWindow() throws Exception {
+        List<Integer> numbers = new ArrayList<>();
+        long count = CobolPipeline.reading(lines(2_000), Line.class)
+                .workers(8)
+                .batchSize(1)
+                .queueCapacity(1)
+                .build()
+                .run(line -> numbers.add(line.number));
+
+        assertEquals(2_000, count);
+        for (int i = 0; i < numbers.size(); i++) {
+            assertEquals(i, numbers.get(i));
+        }
+    }
+
+    @Test
+    public void testUnorderedDelivery() throws Exception {
+        BitSet seen = new BitSet();
+        long count = CobolPipeline.reading(lines(5_000), Line.class)
+                .workers(3)
+                .batchSize(100)
+                .ordered(false)
+                .build()
+                .run(line -> seen.set(line.number));
+
+        assertEquals(5_000, count);
+        assertEquals(5_000, seen.cardinality());
+    }
+
+    @Test
+    public void testRunsOnce() throws Exception {
+        CobolPipeline<Line> pipeline = CobolPipeline.reading(lines(100), Line.class).workers(2).build();
+
+        assertEquals(100, pipeline.run(line -> { }));
+        assertThrows(IllegalStateException.class, () -> pipeline.run(line -> { }));
+    }
+
+    @Test
+    public void testFailuresStopThePipeline() {
+        InputStream truncated = new ByteArrayInputStream("000001000002000".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(CobolParseException.class,
+                () -> CobolPipeline.reading(truncated, Line.class).workers(2).build().run(line -> { }));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> CobolPipeline.reading(lines(10_000), Line.class).batchSize(10).build().run(line -> {
+                    if (line.number == 500) {
+                        throw new IllegalStateException("stop");
+                    }
+                }));
+        assertEquals("stop", error.getMessage());
+    }
+}
@@ -0,0 +1,115 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.enums.RecordFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolRandomAccessFileTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Note {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 4)
+        private int number;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 10, trimTrailing = true)
+        private String text;
+    }
+
+    private static byte[] rdw(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        byte[] record = new byte[bytes.length + 4];
+        record[0] = (byte) (record.length >>> 8);
+        record[1] = (byte) record.length;
+        System.arraycopy(bytes, 0, record, 4, bytes.length);
+        return record;
+    }
+
+    private static byte[] variableFile(int count) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            // Every third record stops before the text field
+            out.write(rdw(i % 3 == 0 ? String.format("%04d", i) : String.format("%04dnote %-5d", i, i)));
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testFixedLength(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("fixed.dat");
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            data.append(String.format("%04dtext%-6d", i, i));
+        }
+        Files.write(file, data.toString().getBytes(StandardCharsets.US_ASCII));
+
+        try (CobolRandomAccessFile<Note> notes = CobolRandomAccessFile.open(file, Note.class)) {
+            assertEquals(1000, notes.getRecordCount());
+            assertEquals(777, notes.get(777).number);
+            assertEquals("text999", notes.get(999).text);
+            assertThrows(IndexOutOfBoundsException.class, () -> notes.get(1000));
+        }
+    }
+
+    @Test
+    public void testVariableLengthWithSavedIndex(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("notes.dat");
+        Path index = dir.resolve("notes.offsets");
+        Files.write(file, variableFile(500));
+
+        try (CobolRandomAccessFile<Note> notes =
+                     CobolRandomAccessFile.open(file, Note.class, RecordFormat.RDW, index, null)) {
+            assertEquals(500, notes.getRecordCount());
+            assertEquals("note 130", notes.get(130).text);
+            assertEquals(129, notes.get(129).number);
+            assertEquals("", notes.get(129).text);
+            assertEquals(499, notes.get(499).number);
+        }
+        assertTrue(Files.exists(index));
+
+        // Break the first descriptor without changing the size or time: the saved index is still used
+        FileTime modified = Files.getLastModifiedTime(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[0] = 0;
+        bytes[1] = 0;
+        Files.write(file, bytes);
+        Files.setLastModifiedTime(file, modified);
+        try (CobolRandomAccessFile<Note> notes =
+                     CobolRandomAccessFile.open(file, Note.class, RecordFormat.RDW, index, null)) {
+            assertEquals(250, notes.get(250).number);
+        }
+    }
+
+    @Test
+    public void testRefreshInvalidatesCache(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("grow.dat");
+        Files.write(file, variableFile(10));
+        RecordCache<Note> cache = RecordCache.maximumSize(100);
+
+        try (CobolRandomAccessFile<Note> notes =
+                     CobolRandomAccessFile.open(file, Note.class, RecordFormat.RDW, null, cache)) {
+            Note first = notes.get(1);
+            assertSame(first, notes.get(1));
+            assertFalse(notes.refresh());
+
+            Files.write(file, rdw("0010note 10"), StandardOpenOption.APPEND);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+            assertTrue(notes.refresh());
+            assertEquals(11, notes.getRecordCount());
+            assertEquals(0, cache.size());
+            assertEquals("note 10", notes.get(10).text);
+        }
+    }
+}
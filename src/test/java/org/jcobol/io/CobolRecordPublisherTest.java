@@ -0,0 +1,118 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the Java 9 classes, the only ones with the publisher.
+ */
+public class CobolRecordPublisherTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Line {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 6)
+        private int number;
+    }
+
+    private static byte[] lines(int count) {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            data.append(String.format("%06d", i));
+        }
+        return data.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Collects the signals it receives, requesting records only when told to.
+     */
+    private static final class Collector implements Flow.Subscriber<Line> {
+        final List<Integer> numbers = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean complete;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Line line) {
+            numbers.add(line.number);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+    }
+
+    @Test
+    public void testRecordsFollowDemand(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("lines.dat");
+        Files.write(file, lines(1000));
+        CobolRecordPublisher<Line> publisher = CobolRecordPublisher.of(file, Line.class);
+
+        Collector collector = new Collector();
+        publisher.subscribe(collector);
+        assertTrue(collector.numbers.isEmpty());
+        collector.subscription.request(10);
+        assertEquals(10, collector.numbers.size());
+        assertFalse(collector.complete);
+        collector.subscription.request(Long.MAX_VALUE);
+        assertEquals(1000, collector.numbers.size());
+        assertEquals(999, collector.numbers.get(999));
+        assertTrue(collector.complete);
+        assertNull(collector.error);
+
+        // A file publisher serves every subscriber from the start
+        Collector second = new Collector();
+        publisher.subscribe(second);
+        second.subscription.request(3);
+        second.subscription.cancel();
+        second.subscription.request(3);
+        assertEquals(List.of(0, 1, 2), second.numbers);
+        assertFalse(second.complete);
+    }
+
+    @Test
+    public void testChannelPublisher() {
+        byte[] data = lines(5);
+        ReadableByteChannel channel = Channels.newChannel(
+                new ByteArrayInputStream(data, 0, data.length - 2));
+        CobolRecordPublisher<Line> publisher = CobolRecordPublisher.of(channel, Line.class, 2);
+
+        Collector collector = new Collector();
+        publisher.subscribe(collector);
+        collector.subscription.request(Long.MAX_VALUE);
+        assertEquals(4, collector.numbers.size());
+        assertInstanceOf(CobolParseException.class, collector.error);
+        assertFalse(channel.isOpen());
+
+        Collector late = new Collector();
+        publisher.subscribe(late);
+        assertInstanceOf(IllegalStateException.class, late.error);
+    }
+}
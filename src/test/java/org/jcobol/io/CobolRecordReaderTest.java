@@ -0,0 +1,90 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolRecordReaderTest {
+
+    public static class Item {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String code;
+
+        @CobolNestedObject
+        private Quantity quantity;
+    }
+
+    public static class Quantity {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 3)
+        private int value;
+    }
+
+    private static InputStream items() {
+        return new ByteArrayInputStream("AAAA001BBBB002CCCC003".getBytes());
+    }
+
+    @Test
+    public void testNewInstancePerRecord() throws Exception {
+        List<Item> items = new ArrayList<>();
+        try (CobolRecordReader<Item> reader = new CobolRecordReader<>(items(), Item.class)) {
+            Item item;
+            while ((item = reader.read()) != null) {
+                items.add(item);
+            }
+            assertEquals(3, reader.getRecordsRead());
+        }
+
+        assertEquals(3, items.size());
+        assertEquals("BBBB", items.get(1).code);
+        assertEquals(3, items.get(2).quantity.value);
+        assertNotSame(items.get(0), items.get(1));
+    }
+
+    @Test
+    public void testReuseInstance() throws Exception {
+        try (CobolRecordReader<Item> reader = new CobolRecordReader<>(items(), Item.class, true)) {
+            Item first = reader.read();
+            Quantity nested = first.quantity;
+            assertEquals(1, first.quantity.value);
+
+            Item second = reader.read();
+            assertSame(first, second);
+            assertSame(nested, second.quantity);
+            assertEquals("BBBB", second.code);
+            assertEquals(2, second.quantity.value);
+        }
+    }
+
+    @Test
+    public void testPooledInstances() throws Exception {
+        CobolRecordPool<Item> pool = new CobolRecordPool<>(Item.class, 2);
+        try (CobolRecordReader<Item> reader = new CobolRecordReader<>(items(), pool)) {
+            Item first = reader.read();
+            pool.release(first);
+            assertEquals(1, pool.size());
+
+            Item second = reader.read();
+            assertSame(first, second);
+            assertEquals(0, pool.size());
+            assertEquals("BBBB", second.code);
+        }
+    }
+
+    @Test
+    public void testTruncatedRecord() throws Exception {
+        InputStream in = new ByteArrayInputStream("AAAA001BB".getBytes());
+        try (CobolRecordReader<Item> reader = new CobolRecordReader<>(in, Item.class)) {
+            assertNotNull(reader.read());
+            assertThrows(CobolParseException.class, reader::read);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolNestedObject;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolRecordUpdaterTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Stock {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String code;
+
+        @CobolNestedObject
+        private Level level;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 5, scale = 2, comp3 = true)
+        private BigDecimal price;
+    }
+
+    public static class Level {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 3)
+        private int onHand;
+    }
+
+    // 4 + 3 + 3 bytes per record
+    private static byte[] stock(String... codes) {
+        byte[] data = new byte[codes.length * 10];
+        for (int i = 0; i < codes.length; i++) {
+            byte[] code = (codes[i] + "000").getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(code, 0, data, i * 10, code.length);
+            data[i * 10 + 9] = 0x0C;
+        }
+        return data;
+    }
+
+    @Test
+    public void testUpdateByteArray() throws Exception {
+        byte[] data = stock("AAAA", "BBBB", "CCCC");
+        CobolRecordUpdater<Stock> updater = new CobolRecordUpdater<>(Stock.class, data);
+        assertEquals(10, updater.getRecordLength());
+        assertEquals(3, updater.getRecordCount());
+
+        updater.update(1, "level.onHand", 42);
+        updater.update(2, "price", new BigDecimal("123.45"));
+
+        assertEquals("BBBB042", new String(data, 10, 7, StandardCharsets.US_ASCII));
+        assertArrayEquals(new byte[]{0x12, 0x34, 0x5C}, new byte[]{data[27], data[28], data[29]});
+        assertEquals("AAAA000", new String(data, 0, 7, StandardCharsets.US_ASCII));
+
+        updater.update(1, "code", null);
+        assertEquals("    042", new String(data, 10, 7, StandardCharsets.US_ASCII));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> updater.update(3, "code", "DDDD"));
+        assertThrows(IllegalArgumentException.class, () -> updater.update(0, "level", 1));
+        assertThrows(IllegalArgumentException.class, () -> updater.update(0, "missing", 1));
+
+        // A value that cannot be encoded leaves the record as it was
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("no value");
+            }
+        };
+        assertThrows(CobolParseException.class, () -> updater.update(0, "price", broken));
+        assertArrayEquals(stock("AAAA"), Arrays.copyOf(data, 10));
+    }
+
+    @Test
+    public void testBatchedBufferUpdates() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(stock("AAAA", "BBBB"));
+        CobolRecordUpdater<Stock> updater = new CobolRecordUpdater<>(Stock.class, buffer);
+
+        updater.add(1, "code", "ZZZZ");
+        updater.add(0, "level.onHand", 7);
+        updater.add(1, "code", "YYYY");
+        assertEquals(3, updater.getPendingCount());
+        assertEquals('B', buffer.get(10));
+
+        updater.flush();
+        assertEquals(0, updater.getPendingCount());
+        assertEquals(0, buffer.position());
+        assertEquals("AAAA007", new String(buffer.array(), 0, 7, StandardCharsets.US_ASCII));
+        assertEquals("YYYY000", new String(buffer.array(), 10, 7, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testMappedFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("stock.dat");
+        Files.write(file, stock("AAAA", "BBBB", "CCCC"));
+
+        try (CobolRecordUpdater<Stock> updater = CobolRecordUpdater.open(file, Stock.class)) {
+            assertEquals(3, updater.getRecordCount());
+            updater.add(2, "level.onHand", 999);
+            updater.add(0, "price", new BigDecimal("1.50"));
+            updater.force();
+        }
+
+        try (CobolRecordReader<Stock> reader = new CobolRecordReader<>(Files.newInputStream(file), Stock.class)) {
+            Stock first = reader.read();
+            assertEquals(0, new BigDecimal("1.50").compareTo(first.price));
+            assertEquals("BBBB", reader.read().code);
+            assertEquals(999, reader.read().level.onHand);
+        }
+    }
+
+    @Test
+    public void testFieldsAcrossMappedWindows(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("windows.dat");
+        Files.write(file, stock("AAAA", "BBBB", "CCCC"));
+
+        // 8 byte windows split the second record's code and price between windows
+        try (CobolRecordUpdater<Stock> updater = CobolRecordUpdater.open(file, Stock.class, 8)) {
+            updater.update(1, "code", "WXYZ");
+            updater.update(2, "level.onHand", 42);
+            updater.add(1, "price", new BigDecimal("9.99"));
+        }
+
+        byte[] data = Files.readAllBytes(file);
+        assertEquals(30, data.length);
+        assertEquals("WXYZ000", new String(data, 10, 7, StandardCharsets.US_ASCII));
+        assertEquals("042", new String(data, 24, 3, StandardCharsets.US_ASCII));
+        assertArrayEquals(new byte[] {0x00, (byte) 0x99, (byte) 0x9C}, Arrays.copyOfRange(data, 17, 20));
+    }
+}
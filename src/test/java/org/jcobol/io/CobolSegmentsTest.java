@@ -0,0 +1,97 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the Java 22 classes, the only ones with segment support.
+ */
+public class CobolSegmentsTest {
+
+    @CobolRecord(encoding = CobolEncoding.CP037)
+    public static class Reading {
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 4)
+        private String meter;
+
+        @CobolField(type = CobolFieldType.DECIMAL_ASSUMED, length = 7, scale = 2, signed = true, comp3 = true)
+        private BigDecimal value;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 9, comp5 = true, littleEndian = true)
+        private int count;
+
+        @CobolField(type = CobolFieldType.NUMERIC, length = 18, comp = true, signed = true)
+        private long total;
+
+        static Reading of(int i) {
+            Reading reading = new Reading();
+            reading.meter = "M" + i;
+            reading.value = new BigDecimal(-i).movePointLeft(2);
+            reading.count = i * 1000;
+            reading.total = i * 1_000_000_007L;
+            return reading;
+        }
+    }
+
+    // 4 + 4 + 4 + 8 bytes
+    private static final int LENGTH = 20;
+
+    @Test
+    public void testWriteAndParseInPlace() throws Exception {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(10L * LENGTH);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(LENGTH, CobolSegments.write(Reading.of(i), segment, (long) i * LENGTH));
+            }
+
+            List<Reading> readings = new ArrayList<>();
+            assertEquals(10, CobolSegments.forEach(segment, Reading.class, readings::add));
+            Reading seventh = readings.get(7);
+            assertEquals("M7", seventh.meter.trim());
+            assertEquals(0, new BigDecimal("-0.07").compareTo(seventh.value));
+            assertEquals(7000, seventh.count);
+            assertEquals(7_000_000_049L, seventh.total);
+
+            Reading third = CobolSegments.parse(segment, 3L * LENGTH, Reading.class);
+            assertEquals(3000, third.count);
+            assertThrows(CobolParseException.class, () -> CobolSegments.parse(segment, 9L * LENGTH + 1, Reading.class));
+            assertThrows(CobolParseException.class,
+                    () -> CobolSegments.forEach(segment.asSlice(0, 3L * LENGTH - 1), Reading.class, r -> { }));
+        }
+    }
+
+    @Test
+    public void testMappedFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("readings.dat");
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment records = arena.allocate(3L * LENGTH);
+            for (int i = 0; i < 3; i++) {
+                CobolSegments.write(Reading.of(i + 1), records, (long) i * LENGTH);
+            }
+            Files.write(file, records.toArray(ValueLayout.JAVA_BYTE));
+        }
+
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment mapped = CobolSegments.map(file, arena);
+            assertEquals(3L * LENGTH, mapped.byteSize());
+            Reading last = CobolSegments.parse(mapped, 2L * LENGTH, Reading.class);
+            assertEquals("M3", last.meter.trim());
+            assertEquals(3_000_000_021L, last.total);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.enums.RecordFormat;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolStreamDecoderTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Message {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 5)
+        private int id;
+
+        @CobolField(type = CobolFieldType.ALPHANUMERIC, length = 8, trimTrailing = true)
+        private String body;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static List<Message> decodeInChunks(byte[] stream, RecordFormat format, boolean direct, long seed)
+            throws Exception {
+        return decodeInChunks(stream, format, direct, ByteOrder.BIG_ENDIAN, seed);
+    }
+
+    /**
+     * Feed the stream in chunks of random sizes, including empty ones.
+     */
+    private static List<Message> decodeInChunks(byte[] stream, RecordFormat format, boolean direct,
+            ByteOrder order, long seed) throws Exception {
+        List<Message> messages = new ArrayList<>();
+        CobolStreamDecoder<Message> decoder = new CobolStreamDecoder<>(Message.class, format, messages::add);
+        Random random = new Random(seed);
+        int position = 0;
+        while (position < stream.length) {
+            int size = Math.min(stream.length - position, random.nextInt(30));
+            ByteBuffer chunk = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size + 7);
+            if (!direct) {
+                // Use a slice so the chunk has a non-zero array offset
+                chunk.position(7);
+                chunk = chunk.slice();
+            }
+            chunk.order(order).put(stream, position, size).flip();
+            decoder.decode(chunk);
+            assertFalse(chunk.hasRemaining());
+            position += size;
+        }
+        decoder.finish();
+        assertEquals(messages.size(), decoder.getRecordsDecoded());
+        return messages;
+    }
+
+    @Test
+    public void testFixedFraming() throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            data.append(String.format("%05dmsg%-5d", i, i));
+        }
+        for (long seed = 0; seed < 5; seed++) {
+            List<Message> messages = decodeInChunks(ascii(data.toString()), RecordFormat.FIXED, seed % 2 == 0, seed);
+            assertEquals(100, messages.size());
+            assertEquals(57, messages.get(57).id);
+            assertEquals("msg99", messages.get(99).body);
+        }
+    }
+
+    @Test
+    public void testRdwAndLengthPrefixedFraming() throws Exception {
+        ByteArrayOutputStream rdw = new ByteArrayOutputStream();
+        ByteArrayOutputStream prefixed = new ByteArrayOutputStream();
+        for (int i = 0; i < 200; i++) {
+            // Odd records omit the body field
+            byte[] body = ascii(i % 2 == 1 ? String.format("%05d", i) : String.format("%05dm%-7d", i, i));
+            rdw.write(new byte[]{0, (byte) (body.length + 4), 0, 0});
+            rdw.write(body);
+            prefixed.write(ByteBuffer.allocate(4).putInt(body.length).array());
+            prefixed.write(body);
+        }
+
+        for (RecordFormat format : new RecordFormat[]{RecordFormat.RDW, RecordFormat.LENGTH_PREFIXED}) {
+            byte[] stream = (format == RecordFormat.RDW ? rdw : prefixed).toByteArray();
+            for (long seed = 0; seed < 4; seed++) {
+                // The headers are big-endian in little-endian chunks too
+                ByteOrder order = seed < 2 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+                List<Message> messages = decodeInChunks(stream, format, seed % 2 == 1, order, seed);
+                assertEquals(200, messages.size());
+                assertEquals("m42", messages.get(42).body);
+                assertEquals(43, messages.get(43).id);
+                assertEquals("", messages.get(43).body);
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleRecordsPerChunkAndErrors() throws Exception {
+        List<Message> messages = new ArrayList<>();
+        CobolStreamDecoder<Message> decoder = new CobolStreamDecoder<>(Message.class, RecordFormat.FIXED,
+                messages::add);
+        assertEquals(2, decoder.decode(ByteBuffer.wrap(ascii("00001one     00002two     00003t"))));
+        assertEquals(6, decoder.getPendingBytes());
+        assertThrows(CobolParseException.class, decoder::finish);
+        assertEquals(1, decoder.decode(ByteBuffer.wrap(ascii("hree   "))));
+        assertEquals("three", messages.get(2).body);
+        decoder.finish();
+
+        CobolStreamDecoder<Message> limited = new CobolStreamDecoder<>(Message.class,
+                RecordFormat.LENGTH_PREFIXED, messages::add, 100);
+        assertThrows(CobolParseException.class,
+                () -> limited.decode(ByteBuffer.wrap(new byte[]{0, 0, 1, 0, 0})));
+        CobolStreamDecoder<Message> rdw = new CobolStreamDecoder<>(Message.class, RecordFormat.RDW, messages::add);
+        assertThrows(CobolParseException.class, () -> rdw.decode(ByteBuffer.wrap(new byte[]{0, 2, 0, 0})));
+    }
+}
@@ -0,0 +1,164 @@
+package org.jcobol.io;
+
+import org.jcobol.annotation.CobolField;
+import org.jcobol.annotation.CobolRecord;
+import org.jcobol.core.layout.RecordLayout;
+import org.jcobol.enums.CobolEncoding;
+import org.jcobol.enums.CobolFieldType;
+import org.jcobol.exception.CobolParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DemandReaderTest {
+
+    @CobolRecord(encoding = CobolEncoding.ASCII)
+    public static class Code {
+        @CobolField(type = CobolFieldType.NUMERIC, length = 3)
+        private int value;
+    }
+
+    private static class Recorder implements DemandReader.Sink<Code> {
+        final List<Integer> values = new ArrayList<>();
+        Throwable error;
+        boolean complete;
+        DemandReader<Code> reader;
+        long requestOnNext;
+
+        @Override
+        public void onNext(Code record) {
+            values.add(record.value);
+            if (requestOnNext > 0) {
+                reader.request(requestOnNext);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+    }
+
+    private static ReadableByteChannel codes(String data) {
+        return Channels.newChannel(new ByteArrayInputStream(data.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static DemandReader<Code> reader(ReadableByteChannel channel, Recorder recorder) {
+        DemandReader<Code> reader = new DemandReader<>(RecordLayout.of(Code.class), () -> channel, recorder, 2);
+        recorder.reader = reader;
+        return reader;
+    }
+
+    @Test
+    public void testDeliversOnlyRequestedRecords() {
+        Recorder recorder = new Recorder();
+        DemandReader<Code> reader = reader(codes("001002003004005"), recorder);
+
+        reader.request(2);
+        assertEquals(2, recorder.values.size());
+        reader.request(1);
+        assertEquals(3, recorder.values.size());
+        assertFalse(recorder.complete);
+
+        reader.request(Long.MAX_VALUE);
+        assertEquals(5, recorder.values.size());
+        assertEquals(5, recorder.values.get(4));
+        assertTrue(recorder.complete);
+        assertNull(recorder.error);
+    }
+
+    @Test
+    public void testRequestFromOnNextDoesNotRecurse() {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 999; i++) {
+            data.append(String.format("%03d", i));
+        }
+        Recorder recorder = new Recorder();
+        recorder.requestOnNext = 1;
+        reader(codes(data.toString()), recorder).request(1);
+
+        assertEquals(999, recorder.values.size());
+        assertTrue(recorder.complete);
+    }
+
+    @Test
+    public void testCancelClosesChannel() {
+        Recorder recorder = new Recorder();
+        ReadableByteChannel channel = codes("001002003");
+        DemandReader<Code> reader = reader(channel, recorder);
+
+        reader.request(1);
+        reader.cancel();
+        reader.request(5);
+        assertEquals(1, recorder.values.size());
+        assertFalse(channel.isOpen());
+        assertFalse(recorder.complete);
+    }
+
+    @Test
+    public void testCancelBeforeRequestDiscardsChannel() {
+        ReadableByteChannel channel = codes("001");
+        Recorder recorder = new Recorder();
+        DemandReader<Code> reader = new DemandReader<>(RecordLayout.of(Code.class), new DemandReader.ChannelOpener() {
+            @Override
+            public ReadableByteChannel open() {
+                return channel;
+            }
+
+            @Override
+            public void discard() throws IOException {
+                channel.close();
+            }
+        }, recorder, 2);
+
+        reader.cancel();
+        assertFalse(channel.isOpen());
+        assertTrue(recorder.values.isEmpty());
+    }
+
+    @Test
+    public void testSubscriberExceptionCancels() {
+        ReadableByteChannel channel = codes("001002003");
+        Recorder recorder = new Recorder() {
+            @Override
+            public void onNext(Code record) {
+                super.onNext(record);
+                throw new IllegalStateException("subscriber bug");
+            }
+        };
+        DemandReader<Code> reader = reader(channel, recorder);
+
+        reader.request(3);
+        assertEquals(1, recorder.values.size());
+        assertNull(recorder.error);
+        assertFalse(recorder.complete);
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testErrors() {
+        Recorder truncated = new Recorder();
+        reader(codes("00100"), truncated).request(5);
+        assertEquals(1, truncated.values.size());
+        assertInstanceOf(CobolParseException.class, truncated.error);
+
+        Recorder invalid = new Recorder();
+        ReadableByteChannel channel = codes("001");
+        reader(channel, invalid).request(0);
+        assertInstanceOf(IllegalArgumentException.class, invalid.error);
+        assertFalse(invalid.complete);
+    }
+}
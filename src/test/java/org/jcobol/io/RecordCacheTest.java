@@ -0,0 +1,75 @@
+package org.jcobol.io;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordCacheTest {
+
+    @Test
+    public void testLruEviction() {
+        RecordCache<String> cache = new RecordCache<>(3, value -> 1, RecordCache.Eviction.LRU, 1);
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+        cache.put(3L, "c");
+        assertEquals("a", cache.get(1L));
+
+        cache.put(4L, "d");
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2L));
+        assertEquals("a", cache.get(1L));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        cache.invalidate(1L);
+        assertNull(cache.get(1L));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testStaleVersionIsMiss() {
+        RecordCache<String> cache = RecordCache.maximumSize(10);
+        // A put that raced a file change is stored under the old version
+        cache.put(1L, "old", 1);
+        assertNull(cache.get(1L, 2));
+        assertEquals(0, cache.size());
+        cache.put(1L, "new", 2);
+        assertEquals("new", cache.get(1L, 2));
+    }
+
+    @Test
+    public void testWeightBound() {
+        RecordCache<String> cache = RecordCache.maximumBytes(10, String::length);
+        assertEquals(10, cache.getMaximumWeight());
+        for (long i = 0; i < 100; i++) {
+            cache.put(i, "xyz");
+        }
+        assertTrue(cache.weight() <= 10);
+        cache.put(-1L, "much too long for any stripe");
+        assertNull(cache.get(-1L));
+    }
+
+    @Test
+    public void testTinyLfuKeepsHotRecords() {
+        RecordCache<String> cache = new RecordCache<>(4, value -> 1, RecordCache.Eviction.TINY_LFU, 1);
+        for (long hot = 0; hot < 4; hot++) {
+            cache.put(hot, "hot");
+            for (int i = 0; i < 5; i++) {
+                cache.get(hot);
+            }
+        }
+
+        // A scan over cold records is not admitted over the hot ones
+        for (long cold = 100; cold < 200; cold++) {
+            if (cache.get(cold) == null) {
+                cache.put(cold, "cold");
+            }
+        }
+        for (long hot = 0; hot < 4; hot++) {
+            assertEquals("hot", cache.get(hot));
+        }
+        assertEquals(0, cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,82 @@
+package org.jcobol.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CobolDecimalTest {
+
+    @Test
+    public void testParseAndToString() {
+        assertEquals("123.45", CobolDecimal.parse("123.45").toString());
+        assertEquals("-0.05", CobolDecimal.parse("-0.05").toString());
+        assertEquals("42", CobolDecimal.parse(" +42 ").toString());
+        assertEquals(2, CobolDecimal.parse("-00123.45").scale());
+        assertEquals(-12345L, CobolDecimal.parse("-00123.45").unscaledValue());
+
+        assertThrows(NumberFormatException.class, () -> CobolDecimal.parse("12a"));
+        assertThrows(ArithmeticException.class, () -> CobolDecimal.parse("99999999999999999999"));
+    }
+
+    @Test
+    public void testArithmetic() {
+        CobolDecimal a = CobolDecimal.valueOf(12345, 2);   // 123.45
+        CobolDecimal b = CobolDecimal.valueOf(5, 1);       // 0.5
+
+        assertEquals("123.95", a.add(b).toString());
+        assertEquals("122.95", a.subtract(b).toString());
+        assertEquals("61.725", a.multiply(b).toString());
+        assertEquals("-123.45", a.negate().toString());
+        assertEquals("123.4", a.setScale(1).toString());
+        assertEquals("123.4500", a.setScale(4).toString());
+    }
+
+    @Test
+    public void testOverflowDetection() {
+        CobolDecimal max = CobolDecimal.valueOf(Long.MAX_VALUE, 0);
+
+        assertThrows(ArithmeticException.class, () -> max.add(CobolDecimal.valueOf(1)));
+        assertThrows(ArithmeticException.class, () -> max.multiply(CobolDecimal.valueOf(2)));
+        assertThrows(ArithmeticException.class, () -> max.setScale(1));
+        assertThrows(ArithmeticException.class, () -> CobolDecimal.valueOf(1, 19));
+    }
+
+    @Test
+    public void testCompareAcrossScales() {
+        assertEquals(0, CobolDecimal.valueOf(10, 1).compareTo(CobolDecimal.valueOf(100, 2)));
+        assertTrue(CobolDecimal.valueOf(-1, 0).compareTo(CobolDecimal.valueOf(1, 18)) < 0);
+        assertTrue(CobolDecimal.valueOf(Long.MAX_VALUE, 0).compareTo(CobolDecimal.valueOf(1, 18)) > 0);
+        assertNotEquals(CobolDecimal.valueOf(10, 1), CobolDecimal.valueOf(100, 2));
+    }
+
+    @Test
+    public void testBigDecimalConversion() {
+        BigDecimal value = new BigDecimal("-65000.25");
+        CobolDecimal decimal = CobolDecimal.valueOf(value);
+
+        assertEquals(-6500025L, decimal.unscaledValue());
+        assertEquals(0, value.compareTo(decimal.toBigDecimal()));
+        assertEquals(-65000L, decimal.longValue());
+    }
+
+    @Test
+    public void testMutableAccumulation() {
+        MutableCobolDecimal total = new MutableCobolDecimal();
+        for (int i = 0; i < 100; i++) {
+            total.add(199, 2);
+        }
+
+        assertEquals("199.00", total.toString());
+        assertEquals(0, total.compareTo(CobolDecimal.valueOf(199)));
+
+        total.subtract(CobolDecimal.valueOf(5, 1)).multiply(2, 0);
+        assertEquals("397.00", total.toString());
+
+        CobolDecimal snapshot = total.toCobolDecimal();
+        total.clear();
+        assertEquals("397.00", snapshot.toString());
+        assertEquals(0, total.signum());
+    }
+}